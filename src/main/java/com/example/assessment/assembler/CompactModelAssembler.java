@@ -0,0 +1,19 @@
+package com.example.assessment.assembler;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+
+import java.util.Map;
+
+/**
+ * Assembler whose item links can also be described once per collection, for the compact view that
+ * leaves {@code _links} off the items.
+ */
+public interface CompactModelAssembler<T> extends RepresentationModelAssembler<T, EntityModel<T>> {
+
+    /**
+     * The links {@link #toModel} adds, by relation, as URI templates whose variables are property
+     * names of {@code T}.
+     */
+    Map<String, String> linkTemplates();
+}
@@ -0,0 +1,41 @@
+package com.example.assessment.assembler;
+
+import com.example.assessment.controller.DepartmentController;
+import com.example.assessment.dto.DepartmentDTO;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Component
+public class DepartmentModelAssembler implements CompactModelAssembler<DepartmentDTO> {
+
+    private final LinkTemplate departmentById = LinkTemplate.of(methodOn(DepartmentController.class).getDepartmentById(null));
+    private final LinkTemplate allDepartments = LinkTemplate.of(methodOn(DepartmentController.class).getAllDepartments());
+
+    @Override
+    public EntityModel<DepartmentDTO> toModel(DepartmentDTO department) {
+        String href = departmentById.expand(department.getDeptNo());
+        return EntityModel.of(department,
+                Link.of(href, IanaLinkRelations.SELF),
+                allDepartments.link("departments"),
+                Link.of(href, "update"),
+                Link.of(href, "delete"));
+    }
+
+    @Override
+    public Map<String, String> linkTemplates() {
+        String self = departmentById.template("deptNo");
+        Map<String, String> templates = new LinkedHashMap<>();
+        templates.put(IanaLinkRelations.SELF.value(), self);
+        templates.put("departments", allDepartments.template());
+        templates.put("update", self);
+        templates.put("delete", self);
+        return templates;
+    }
+}
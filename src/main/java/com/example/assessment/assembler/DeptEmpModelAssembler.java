@@ -0,0 +1,41 @@
+package com.example.assessment.assembler;
+
+import com.example.assessment.controller.DepartmentController;
+import com.example.assessment.controller.DeptEmpController;
+import com.example.assessment.controller.EmployeeController;
+import com.example.assessment.dto.DeptEmpDTO;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Component
+public class DeptEmpModelAssembler implements CompactModelAssembler<DeptEmpDTO> {
+
+    private final LinkTemplate employeeDepartments = LinkTemplate.of(methodOn(DeptEmpController.class).getDepartmentsByEmployee(null));
+    private final LinkTemplate departmentEmployees = LinkTemplate.of(methodOn(DeptEmpController.class).getEmployeesByDepartment(null));
+    private final LinkTemplate employeeById = LinkTemplate.of(methodOn(EmployeeController.class).getEmployeeById(null));
+    private final LinkTemplate departmentById = LinkTemplate.of(methodOn(DepartmentController.class).getDepartmentById(null));
+
+    @Override
+    public EntityModel<DeptEmpDTO> toModel(DeptEmpDTO deptEmp) {
+        return EntityModel.of(deptEmp,
+                employeeDepartments.link("employee-departments", deptEmp.getEmpNo()),
+                departmentEmployees.link("department-employees", deptEmp.getDeptNo()),
+                employeeById.link("employee", deptEmp.getEmpNo()),
+                departmentById.link("department", deptEmp.getDeptNo()));
+    }
+
+    @Override
+    public Map<String, String> linkTemplates() {
+        Map<String, String> templates = new LinkedHashMap<>();
+        templates.put("employee-departments", employeeDepartments.template("empNo"));
+        templates.put("department-employees", departmentEmployees.template("deptNo"));
+        templates.put("employee", employeeById.template("empNo"));
+        templates.put("department", departmentById.template("deptNo"));
+        return templates;
+    }
+}
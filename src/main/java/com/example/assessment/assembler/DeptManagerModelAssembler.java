@@ -0,0 +1,41 @@
+package com.example.assessment.assembler;
+
+import com.example.assessment.controller.DepartmentController;
+import com.example.assessment.controller.DeptManagerController;
+import com.example.assessment.controller.EmployeeController;
+import com.example.assessment.dto.DeptManagerDTO;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Component
+public class DeptManagerModelAssembler implements CompactModelAssembler<DeptManagerDTO> {
+
+    private final LinkTemplate managedDepartments = LinkTemplate.of(methodOn(DeptManagerController.class).getDepartmentsManagedByEmployee(null));
+    private final LinkTemplate departmentManagers = LinkTemplate.of(methodOn(DeptManagerController.class).getManagersOfDepartment(null));
+    private final LinkTemplate employeeById = LinkTemplate.of(methodOn(EmployeeController.class).getEmployeeById(null));
+    private final LinkTemplate departmentById = LinkTemplate.of(methodOn(DepartmentController.class).getDepartmentById(null));
+
+    @Override
+    public EntityModel<DeptManagerDTO> toModel(DeptManagerDTO deptManager) {
+        return EntityModel.of(deptManager,
+                managedDepartments.link("managed-departments", deptManager.getEmpNo()),
+                departmentManagers.link("department-managers", deptManager.getDeptNo()),
+                employeeById.link("employee", deptManager.getEmpNo()),
+                departmentById.link("department", deptManager.getDeptNo()));
+    }
+
+    @Override
+    public Map<String, String> linkTemplates() {
+        Map<String, String> templates = new LinkedHashMap<>();
+        templates.put("managed-departments", managedDepartments.template("empNo"));
+        templates.put("department-managers", departmentManagers.template("deptNo"));
+        templates.put("employee", employeeById.template("empNo"));
+        templates.put("department", departmentById.template("deptNo"));
+        return templates;
+    }
+}
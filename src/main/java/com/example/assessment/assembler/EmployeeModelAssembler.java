@@ -0,0 +1,46 @@
+package com.example.assessment.assembler;
+
+import com.example.assessment.controller.EmployeeController;
+import com.example.assessment.dto.EmployeeDTO;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Links for employee representations, built from {@link LinkTemplate}s resolved once at startup.
+ */
+@Component
+public class EmployeeModelAssembler implements CompactModelAssembler<EmployeeDTO> {
+
+    private final LinkTemplate employeeById = LinkTemplate.of(methodOn(EmployeeController.class).getEmployeeById(null));
+    private final LinkTemplate allEmployees = LinkTemplate.of(methodOn(EmployeeController.class).getAllEmployees(null, null, null));
+
+    @Override
+    public EntityModel<EmployeeDTO> toModel(EmployeeDTO employee) {
+        // Self, update and delete share the href, so it is expanded once
+        String href = employeeById.expand(employee.getEmpNo());
+        return EntityModel.of(employee,
+                Link.of(href, IanaLinkRelations.SELF),
+                allEmployees.link("employees"),
+                Link.of(href, "update"),
+                Link.of(href, "delete"));
+    }
+
+    @Override
+    public Map<String, String> linkTemplates() {
+        // Same relations, in the same order, as toModel
+        String self = employeeById.template("empNo");
+        Map<String, String> templates = new LinkedHashMap<>();
+        templates.put(IanaLinkRelations.SELF.value(), self);
+        templates.put("employees", allEmployees.template());
+        templates.put("update", self);
+        templates.put("delete", self);
+        return templates;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.assessment.assembler;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.server.core.DummyInvocationUtils;
+import org.springframework.hateoas.server.core.MethodInvocation;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Path of a controller method, resolved once and expanded per item by plain string concatenation.
+ * <p>
+ * {@code linkTo(methodOn(...))} records every call on a fresh CGLIB proxy and rebuilds the URI
+ * reflectively, which dominates rendering of large collections. Here {@code methodOn} runs once, when
+ * the template is created, to pick the method; the path comes from its {@code @RequestMapping}s and
+ * the base URI (scheme, host, context path) is computed once per request. Only path variables are
+ * filled, in the order they appear in the path; request parameters are rendered as a
+ * {@code {?name,...}} template, as {@code linkTo} does when they are passed as {@code null}.
+ */
+public final class LinkTemplate {
+
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplate.class.getName() + ".baseUri";
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    // Text around the variables: literals[i] precedes variable i, the last entry follows the last variable
+    private final String[] literals;
+
+    // Last link built from a template without path variables; Link.of parses hrefs holding a {?...}
+    // template, so these are reused for as long as the base URI and relation stay the same
+    private volatile Link constantLink;
+
+    private LinkTemplate(String path) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = path.indexOf('{', start)) >= 0 && path.charAt(open + 1) != '?') {
+            int close = path.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unbalanced path template: " + path);
+            }
+            parts.add(path.substring(start, open));
+            start = close + 1;
+        }
+        parts.add(path.substring(start));
+        this.literals = parts.toArray(String[]::new);
+    }
+
+    /**
+     * Template for the controller method invoked on a {@code methodOn} proxy, for example
+     * {@code LinkTemplate.of(methodOn(EmployeeController.class).getEmployeeById(null))}. Arguments
+     * passed to the proxy are ignored.
+     */
+    public static LinkTemplate of(Object invocationValue) {
+        MethodInvocation invocation = DummyInvocationUtils.getLastInvocationAware(invocationValue).getLastInvocation();
+        Method method = invocation.getMethod();
+        return new LinkTemplate(mapping(invocation.getTargetType()) + mapping(method) + queryTemplate(method));
+    }
+
+    public Link link(LinkRelation relation, Object... variables) {
+        if (literals.length > 1) {
+            return Link.of(expand(variables), relation);
+        }
+        String href = expand();
+        Link link = constantLink;
+        if (link == null || !link.getHref().equals(href) || !link.hasRel(relation)) {
+            link = Link.of(href, relation);
+            constantLink = link;
+        }
+        return link;
+    }
+
+    public Link link(String relation, Object... variables) {
+        return link(LinkRelation.of(relation), variables);
+    }
+
+    /**
+     * Absolute href with {@code variables} encoded as path segments.
+     */
+    public String expand(Object... variables) {
+        if (variables.length != literals.length - 1) {
+            throw new IllegalArgumentException("Template expects " + (literals.length - 1)
+                    + " variables, got " + variables.length);
+        }
+
+        StringBuilder href = new StringBuilder(64).append(baseUri()).append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i] instanceof Integer number) {
+                href.append(number.intValue());
+            } else {
+                href.append(UriUtils.encodePathSegment(String.valueOf(variables[i]), StandardCharsets.UTF_8));
+            }
+            href.append(literals[i + 1]);
+        }
+        return href.toString();
+    }
+
+    /**
+     * Absolute URI template with the path variables renamed to {@code names}, so a client can fill
+     * them from the item's own properties; the {@code {?name,...}} part is kept as is.
+     */
+    public String template(String... names) {
+        if (names.length != literals.length - 1) {
+            throw new IllegalArgumentException("Template expects " + (literals.length - 1)
+                    + " variables, got " + names.length);
+        }
+
+        StringBuilder template = new StringBuilder(64).append(baseUri()).append(literals[0]);
+        for (int i = 0; i < names.length; i++) {
+            template.append('{').append(names[i]).append('}').append(literals[i + 1]);
+        }
+        return template.toString();
+    }
+
+    // Same base WebMvcLinkBuilder would use; relative links when there is no current request
+    private static String baseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "";
+        }
+        String baseUri = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+
+    private static String queryTemplate(Method method) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            MethodParameter parameter = new MethodParameter(method, i);
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            if (requestParam != null && !Map.class.isAssignableFrom(parameter.getParameterType())) {
+                parameter.initParameterNameDiscovery(PARAMETER_NAMES);
+                names.add(requestParam.name().isEmpty() ? parameter.getParameterName() : requestParam.name());
+            }
+        }
+        return names.isEmpty() ? "" : "{?" + String.join(",", names) + "}";
+    }
+
+    private static String mapping(AnnotatedElement element) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        if (mapping == null || mapping.path().length == 0) {
+            return "";
+        }
+        return mapping.path()[0];
+    }
+}
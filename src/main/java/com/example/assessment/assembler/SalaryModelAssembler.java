@@ -0,0 +1,46 @@
+package com.example.assessment.assembler;
+
+import com.example.assessment.controller.EmployeeController;
+import com.example.assessment.controller.SalaryController;
+import com.example.assessment.dto.SalaryDTO;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Component
+public class SalaryModelAssembler implements CompactModelAssembler<SalaryDTO> {
+
+    private final LinkTemplate salaryHistory = LinkTemplate.of(methodOn(SalaryController.class).getSalariesByEmployee(null));
+    private final LinkTemplate allSalaries = LinkTemplate.of(methodOn(SalaryController.class).getAllSalaries(null, null, null));
+    private final LinkTemplate employeeById = LinkTemplate.of(methodOn(EmployeeController.class).getEmployeeById(null));
+    private final LinkTemplate salaryRecord = LinkTemplate.of(methodOn(SalaryController.class).deleteSalary(null, null));
+
+    @Override
+    public EntityModel<SalaryDTO> toModel(SalaryDTO salary) {
+        // Update and delete address the same /{empNo}/{fromDate} resource
+        String href = salaryRecord.expand(salary.getEmpNo(), salary.getFromDate());
+        return EntityModel.of(salary,
+                salaryHistory.link("salary-history", salary.getEmpNo()),
+                allSalaries.link("all-salaries"),
+                employeeById.link("employee", salary.getEmpNo()),
+                Link.of(href, "update"),
+                Link.of(href, "delete"));
+    }
+
+    @Override
+    public Map<String, String> linkTemplates() {
+        String record = salaryRecord.template("empNo", "fromDate");
+        Map<String, String> templates = new LinkedHashMap<>();
+        templates.put("salary-history", salaryHistory.template("empNo"));
+        templates.put("all-salaries", allSalaries.template());
+        templates.put("employee", employeeById.template("empNo"));
+        templates.put("update", record);
+        templates.put("delete", record);
+        return templates;
+    }
+}
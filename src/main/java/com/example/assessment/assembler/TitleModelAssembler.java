@@ -0,0 +1,38 @@
+package com.example.assessment.assembler;
+
+import com.example.assessment.controller.EmployeeController;
+import com.example.assessment.controller.TitleController;
+import com.example.assessment.dto.TitleDTO;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Component
+public class TitleModelAssembler implements CompactModelAssembler<TitleDTO> {
+
+    private final LinkTemplate titleHistory = LinkTemplate.of(methodOn(TitleController.class).getTitlesByEmployee(null));
+    private final LinkTemplate allTitles = LinkTemplate.of(methodOn(TitleController.class).getAllTitles(null, null, null));
+    private final LinkTemplate employeeById = LinkTemplate.of(methodOn(EmployeeController.class).getEmployeeById(null));
+
+    @Override
+    public EntityModel<TitleDTO> toModel(TitleDTO title) {
+        return EntityModel.of(title,
+                titleHistory.link(IanaLinkRelations.SELF, title.getEmpNo()),
+                allTitles.link("all-titles"),
+                employeeById.link("employee", title.getEmpNo()));
+    }
+
+    @Override
+    public Map<String, String> linkTemplates() {
+        Map<String, String> templates = new LinkedHashMap<>();
+        templates.put(IanaLinkRelations.SELF.value(), titleHistory.template("empNo"));
+        templates.put("all-titles", allTitles.template());
+        templates.put("employee", employeeById.template("empNo"));
+        return templates;
+    }
+}
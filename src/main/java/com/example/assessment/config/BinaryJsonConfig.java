@@ -0,0 +1,60 @@
+package com.example.assessment.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.config.HypermediaMappingInformation;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Smile ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}) request and response
+ * bodies on every endpoint, for integrations moving large collections. Both are binary encodings of the
+ * same JSON documents: the mappers get the application's Jackson settings and, when HATEOAS is active,
+ * the HAL serializers, so a collection decodes to exactly the tree the JSON endpoint returns.
+ * <p>
+ * The converters come after the JSON ones, so they are only chosen when a client asks for them in
+ * {@code Accept} or {@code Content-Type}; {@code Accept: *}{@code /*} keeps getting JSON.
+ */
+@Configuration
+public class BinaryJsonConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+    private final ObjectProvider<HypermediaMappingInformation> hypermediaMappings;
+
+    public BinaryJsonConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder,
+                            ObjectProvider<HypermediaMappingInformation> hypermediaMappings) {
+        this.objectMapperBuilder = objectMapperBuilder;
+        this.hypermediaMappings = hypermediaMappings;
+    }
+
+    // Spring MVC already registers both once the formats are on the classpath, but with a plain mapper
+    // that renders RepresentationModel without HAL; those are replaced
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapper(new SmileFactory())));
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper(new CBORFactory())));
+    }
+
+    private ObjectMapper objectMapper(JsonFactory factory) {
+        Jackson2ObjectMapperBuilder builder = objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::new);
+        ObjectMapper mapper = builder.factory(factory).build();
+        // HATEOAS registers one mapping per enabled media type; HAL is the one the JSON endpoints speak
+        return hypermediaMappings.stream()
+                .filter(mapping -> mapping.getMediaTypes().contains(MediaTypes.HAL_JSON))
+                .findFirst()
+                .map(hal -> hal.configureObjectMapper(mapper))
+                .orElse(mapper);
+    }
+}
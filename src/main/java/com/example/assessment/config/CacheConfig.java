@@ -0,0 +1,40 @@
+package com.example.assessment.config;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String EMPLOYEES = "employees";
+    public static final String CURRENT_MANAGERS = "current-managers";
+    public static final String DEPARTMENT_SUMMARY = "department-summary";
+    public static final String ORG_SNAPSHOT = "org-snapshot";
+    public static final String WORKFORCE_TIMESERIES = "workforce-timeseries";
+
+    /**
+     * Caffeine caches configured from {@code spring.cache.*}, wrapped so that puts and evictions
+     * issued inside a transaction are applied after commit. Evicting earlier would let a concurrent
+     * reader cache the pre-commit row again.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (spec != null) {
+            caffeineCacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+        }
+        caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.assessment.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.DriverManager;
+import java.util.List;
+
+/**
+ * Cross-node cache invalidation, on when {@code app.cache-invalidation.enabled} is true. The listening
+ * connection goes straight to {@code spring.datasource.url}: it is held for the life of the application,
+ * and must be on the primary, where the writes and their notifications happen.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.cache-invalidation.enabled", havingValue = "true")
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+public class CacheInvalidationConfig {
+
+    @Bean
+    LocalCacheInvalidator localCacheInvalidator(CacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+        return new LocalCacheInvalidator(cacheManager, entityManagerFactory.unwrap(SessionFactory.class));
+    }
+
+    @Bean
+    WriteOrigin writeOrigin(DataSource dataSource) {
+        return new WriteOrigin(dataSource);
+    }
+
+    @Bean
+    CacheInvalidationListener cacheInvalidationListener(DataSourceProperties dataSource,
+                                                        CacheInvalidationProperties properties,
+                                                        List<CacheInvalidator> invalidators, WriteOrigin writeOrigin,
+                                                        MeterRegistry registry) {
+        return new CacheInvalidationListener(
+                () -> DriverManager.getConnection(dataSource.determineUrl(), dataSource.determineUsername(),
+                        dataSource.determinePassword()),
+                CacheInvalidator.allOf(invalidators), writeOrigin.id(), properties.batchWindow(), properties.idleCheck(),
+                properties.reconnectDelay(), registry);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.assessment.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this node's caches coherent with writes made on any node, using PostgreSQL LISTEN/NOTIFY: the
+ * triggers in {@code V4__cache_invalidation_notify.sql} (payload extended by V7) send
+ * {@code table:key:writtenAt:origin} on {@link #CHANNEL} after each committed change, and a single thread
+ * here LISTENs on a connection of its own, outside the pool.
+ * <p>
+ * Notifications arriving within {@code batchWindow} of the first are applied together, one
+ * {@link CacheInvalidator#invalidate} call per table. The node's own writes come back the same way,
+ * which also covers writes that bypassed its services; those its services marked with this node's
+ * {@link WriteOrigin} go to {@link CacheInvalidator#invalidateApplied} instead. Notifications sent while
+ * the connection is down are lost, so after every (re)connect, once LISTEN is active, all covered caches
+ * are dropped.
+ * <p>
+ * Metrics: {@code cache.invalidation.lag} is the time from the start of the writing transaction to the
+ * eviction here, the window in which this node could serve the old value (it includes any clock skew
+ * between database and node); {@code cache.invalidation.notifications} counts keys per table;
+ * {@code cache.invalidation.resyncs} counts full drops; {@code cache.invalidation.connected} is 1 while
+ * listening.
+ */
+@Slf4j
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    public static final String CHANNEL = "cache_invalidation";
+
+    private final ConnectionFactory connections;
+    private final CacheInvalidator invalidator;
+    private final String origin;
+    private final Duration batchWindow;
+    private final Duration idleCheck;
+    private final Duration reconnectDelay;
+    private final MeterRegistry registry;
+    private final Timer lag;
+    private final Counter resyncs;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection connection;
+    private Thread thread;
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * @param origin         this node's {@link WriteOrigin#id()}
+     * @param idleCheck      how long to wait for a notification before checking the connection is alive
+     * @param reconnectDelay pause before reconnecting after the connection fails
+     */
+    public CacheInvalidationListener(ConnectionFactory connections, CacheInvalidator invalidator, String origin,
+                                     Duration batchWindow, Duration idleCheck, Duration reconnectDelay,
+                                     MeterRegistry registry) {
+        this.connections = connections;
+        this.invalidator = invalidator;
+        this.origin = origin;
+        this.batchWindow = batchWindow;
+        this.idleCheck = idleCheck;
+        this.reconnectDelay = reconnectDelay;
+        this.registry = registry;
+        this.lag = Timer.builder("cache.invalidation.lag")
+                .description("Time from the writing transaction's start to the eviction on this node")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.resyncs = Counter.builder("cache.invalidation.resyncs")
+                .description("Caches dropped in full after (re)connecting to the notification channel")
+                .register(registry);
+        Gauge.builder("cache.invalidation.connected", this, listener -> listener.connected ? 1 : 0)
+                .description("1 while listening for cache invalidations")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("cache-invalidation").daemon().start(this::run);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        closeQuietly(connection);
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection listening = connections.open()) {
+                connection = listening;
+                listen(listening);
+            } catch (SQLException | RuntimeException ex) {
+                if (running) {
+                    log.warn("Cache invalidation channel lost, reconnecting in {}: {}", reconnectDelay, ex.getMessage());
+                }
+            } finally {
+                connected = false;
+                connection = null;
+            }
+            pause(reconnectDelay);
+        }
+    }
+
+    private void listen(Connection listening) throws SQLException {
+        PGConnection channel = listening.unwrap(PGConnection.class);
+        try (Statement statement = listening.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+        connected = true;
+        // Anything written before LISTEN took effect was not heard; everything after it will be
+        invalidator.invalidateAll();
+        resyncs.increment();
+        log.info("Listening for cache invalidations on {}", CHANNEL);
+
+        while (running) {
+            PGNotification[] first = channel.getNotifications((int) idleCheck.toMillis());
+            if (first == null || first.length == 0) {
+                if (!listening.isValid((int) Math.max(1, idleCheck.toSeconds()))) {
+                    throw new SQLException("Notification connection is no longer valid");
+                }
+                continue;
+            }
+
+            List<PGNotification> batch = new ArrayList<>(List.of(first));
+            long deadline = System.nanoTime() + batchWindow.toNanos();
+            long remainingMillis;
+            while ((remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) > 0) {
+                PGNotification[] more = channel.getNotifications((int) remainingMillis);
+                if (more != null) {
+                    batch.addAll(List.of(more));
+                }
+            }
+            apply(batch);
+        }
+    }
+
+    void apply(List<PGNotification> batch) {
+        Map<String, Set<String>> keysByTable = new LinkedHashMap<>();
+        Map<String, Set<String>> appliedKeysByTable = new LinkedHashMap<>();
+        List<Long> writtenAt = new ArrayList<>(batch.size());
+        for (PGNotification notification : batch) {
+            String payload = notification.getParameter();
+            int keyStart = payload.indexOf(':');
+            int originStart = payload.lastIndexOf(':');
+            int keyEnd = originStart < 0 ? -1 : payload.lastIndexOf(':', originStart - 1);
+            if (keyStart < 0 || keyEnd <= keyStart) {
+                log.warn("Ignoring malformed cache invalidation '{}'", payload);
+                continue;
+            }
+            boolean appliedHere = payload.substring(originStart + 1).equals(origin);
+            (appliedHere ? appliedKeysByTable : keysByTable)
+                    .computeIfAbsent(payload.substring(0, keyStart), table -> new HashSet<>())
+                    .add(payload.substring(keyStart + 1, keyEnd));
+            writtenAt.add(Long.parseLong(payload.substring(keyEnd + 1, originStart)));
+        }
+
+        keysByTable.forEach((table, keys) -> {
+            invalidator.invalidate(table, keys);
+            countNotifications(table, keys);
+        });
+        appliedKeysByTable.forEach((table, keys) -> {
+            invalidator.invalidateApplied(table, keys);
+            countNotifications(table, keys);
+        });
+
+        long now = System.currentTimeMillis();
+        writtenAt.forEach(millis -> lag.record(Math.max(0, now - millis), TimeUnit.MILLISECONDS));
+        log.debug("Applied {} cache invalidations for {}, {} already applied here", batch.size(),
+                keysByTable.keySet(), appliedKeysByTable.keySet());
+    }
+
+    private void countNotifications(String table, Set<String> keys) {
+        Counter.builder("cache.invalidation.notifications")
+                .description("Invalidated keys received, per table")
+                .tag("table", table)
+                .register(registry)
+                .increment(keys.size());
+    }
+
+    private void pause(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            log.debug("Closing the notification connection failed", ex);
+        }
+    }
+}
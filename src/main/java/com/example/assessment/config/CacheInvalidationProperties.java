@@ -0,0 +1,22 @@
+package com.example.assessment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Cross-node cache invalidation, under {@code app.cache-invalidation}; see {@link CacheInvalidationListener}.
+ *
+ * @param enabled        needs PostgreSQL with the triggers from {@code V4__cache_invalidation_notify.sql}
+ * @param batchWindow    how long to collect notifications after the first before applying them together
+ * @param idleCheck      how long the channel may stay quiet before the connection is checked
+ * @param reconnectDelay pause before reconnecting after the connection fails
+ */
+@ConfigurationProperties("app.cache-invalidation")
+public record CacheInvalidationProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100ms") Duration batchWindow,
+        @DefaultValue("10s") Duration idleCheck,
+        @DefaultValue("5s") Duration reconnectDelay) {
+}
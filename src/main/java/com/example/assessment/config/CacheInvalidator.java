@@ -0,0 +1,53 @@
+package com.example.assessment.config;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies invalidations received by {@link CacheInvalidationListener} to this node's caches.
+ */
+public interface CacheInvalidator {
+
+    String ALL_KEYS = "*";
+
+    /**
+     * @param table table the rows were written to
+     * @param keys  keys of the changed rows, or {@link #ALL_KEYS} for everything cached from the table
+     */
+    void invalidate(String table, Set<String> keys);
+
+    /**
+     * Rows changed by a transaction this node marked through {@link WriteOrigin}, whose writer has already
+     * applied the change to the state it keeps in memory. Everything else is invalidated as usual.
+     */
+    default void invalidateApplied(String table, Set<String> keys) {
+        invalidate(table, keys);
+    }
+
+    /**
+     * Drops everything the notifications cover, for when some may have been missed.
+     */
+    void invalidateAll();
+
+    /**
+     * One invalidator passing every call on to each of {@code invalidators}.
+     */
+    static CacheInvalidator allOf(List<? extends CacheInvalidator> invalidators) {
+        return new CacheInvalidator() {
+            @Override
+            public void invalidate(String table, Set<String> keys) {
+                invalidators.forEach(invalidator -> invalidator.invalidate(table, keys));
+            }
+
+            @Override
+            public void invalidateApplied(String table, Set<String> keys) {
+                invalidators.forEach(invalidator -> invalidator.invalidateApplied(table, keys));
+            }
+
+            @Override
+            public void invalidateAll() {
+                invalidators.forEach(CacheInvalidator::invalidateAll);
+            }
+        };
+    }
+}
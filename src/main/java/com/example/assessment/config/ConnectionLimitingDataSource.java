@@ -0,0 +1,128 @@
+package com.example.assessment.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most {@code permits} threads to the target pool at a time; the rest queue, in arrival order,
+ * on a semaphore in front of it.
+ * <p>
+ * With virtual threads every request gets its own thread, so nothing upstream bounds how many callers
+ * reach the pool at once: thousands of them would otherwise all park inside Hikari's handoff queue and
+ * retry on each release. Sized to the pool, the semaphore lets exactly as many threads through as there
+ * are connections and parks the rest cheaply. A permit is held from {@code getConnection} until the
+ * returned connection is closed. Waiting longer than {@code timeoutMillis} fails the same way an
+ * exhausted Hikari pool does, with {@link SQLTransientConnectionException}.
+ * <p>
+ * {@link #bindTo} registers {@code jdbc.connections.permit.wait}, timing each acquisition, and
+ * {@code jdbc.connections.permit.waiting}, the queue length.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    // Set once metrics are bound; connections taken during startup are not timed
+    private volatile Timer waitTimer;
+
+    public ConnectionLimitingDataSource(DataSource targetDataSource, int permits, long timeoutMillis) {
+        super(targetDataSource);
+        this.permits = new Semaphore(permits, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        waitTimer = Timer.builder("jdbc.connections.permit.wait")
+                .description("Time spent waiting for a JDBC connection permit")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("jdbc.connections.permit.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a JDBC connection permit")
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection permit", ex);
+        } finally {
+            Timer timer = waitTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException("No connection permit within " + timeoutMillis + " ms, "
+                    + permits.getQueueLength() + " threads waiting");
+        }
+    }
+
+    // Everything but close goes straight to the pooled connection; close releases the permit once
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Permit-holding " + connection;
+                        case "close":
+                            try {
+                                connection.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException ex) {
+                                throw ex.getTargetException();
+                            }
+                    }
+                });
+    }
+}
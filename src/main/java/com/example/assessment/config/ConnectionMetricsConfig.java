@@ -0,0 +1,32 @@
+package com.example.assessment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Installs {@link EndpointMetricsTrackerFactory} on the Hikari pool before it starts; Boot's own Hikari
+ * metrics binding then leaves the pool alone. Replica pools copy the factory with the rest of the
+ * primary's settings.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ConnectionMetricsConfig {
+
+    // Static so the post-processor does not pull this configuration in early
+    @Bean
+    static BeanPostProcessor endpointConnectionMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari && hikari.getMetricRegistry() == null
+                        && hikari.getMetricsTrackerFactory() == null) {
+                    hikari.setMetricsTrackerFactory(new EndpointMetricsTrackerFactory(registry::getObject));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.assessment.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Hikari's usual Micrometer metrics plus {@code jdbc.connections.hold}: how long each connection was
+ * held, from checkout to close, tagged with the pool and with the method and URI pattern of the request
+ * that held it. Hikari's own {@code hikaricp.connections.usage} is per pool only; per endpoint it shows
+ * which handlers keep connections the longest.
+ * <p>
+ * Hikari records usage on the thread that closes the connection, so the endpoint is read from the current
+ * request. Work outside a request, such as startup, health checks and the streaming exports, is tagged
+ * {@code none}.
+ */
+public class EndpointMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    // Resolved when a pool starts, so the DataSource does not pull the registry in while it is being created
+    private final Supplier<MeterRegistry> registry;
+
+    public EndpointMetricsTrackerFactory(Supplier<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        MeterRegistry meterRegistry = registry.get();
+        IMetricsTracker pool = new MicrometerMetricsTrackerFactory(meterRegistry).create(poolName, poolStats);
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                pool.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                pool.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                pool.recordConnectionUsageMillis(elapsedBorrowedMillis);
+                holdTimer(meterRegistry, poolName).record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                pool.recordConnectionTimeout();
+            }
+
+            @Override
+            public void close() {
+                pool.close();
+            }
+        };
+    }
+
+    private static Timer holdTimer(MeterRegistry registry, String poolName) {
+        String method = "none";
+        String uri = "none";
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            method = request.getMethod();
+            uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        }
+        return Timer.builder("jdbc.connections.hold")
+                .description("Time a JDBC connection was held, per endpoint")
+                .tag("pool", poolName)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.assessment.config;
+
+import com.example.assessment.dto.ImportResultDTO;
+import com.example.assessment.service.HistoryImportService;
+import com.example.assessment.service.ImportTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Command-line entry to {@link HistoryImportService}, for seeding and migrations:
+ * <pre>
+ * java -jar assessment.jar --spring.main.web-application-type=none \
+ *     --import=salaries=/data/salaries.csv.gz --import=titles=/data/titles.csv
+ * </pre>
+ * Each {@code --import=table=file} runs in the order given; files ending in {@code .gz} are decompressed
+ * on the fly. Without a web server the application exits once the imports are done. Does nothing when
+ * no {@code --import} option is passed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HistoryImportRunner implements ApplicationRunner {
+
+    private final HistoryImportService historyImportService;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("import")) {
+            return;
+        }
+
+        for (String option : args.getOptionValues("import")) {
+            int separator = option.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected --import=table=file, got --import=" + option);
+            }
+            ImportTable table = ImportTable.from(option.substring(0, separator));
+            Path file = Path.of(option.substring(separator + 1));
+
+            try (InputStream in = open(file)) {
+                ImportResultDTO result = historyImportService.importCsv(table, in);
+                log.info("{}: {} rows read, {} imported, {} rejected in {} ms ({} rows/s)", file, result.getRowsRead(),
+                        result.getRowsImported(), result.getRowsRejected(), result.getElapsedMillis(), result.getRowsPerSecond());
+                result.getRejections().forEach(rejection ->
+                        log.warn("{} line {}: {}", file, rejection.getLine(), rejection.getReason()));
+            }
+        }
+    }
+
+    private InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        return file.toString().endsWith(".gz") ? new GZIPInputStream(in, 1 << 16) : in;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.assessment.config;
+
+import com.example.assessment.model.Department;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The caches this application keeps per node: the {@code employees}, {@code current-managers},
+ * {@code department-summary} and {@code org-snapshot} Spring caches, and the Hibernate second-level cache
+ * for departments and the title list. The department summary and the org snapshot are rebuilt as a whole,
+ * so any change to the tables they are built from drops them. The {@code workforce-timeseries} cache is keyed
+ * by the snapshot version it was computed from, so it needs no eviction of its own. The org snapshot is kept
+ * where this node's own services already applied a write to it, as {@link #invalidateApplied} reports; the
+ * other caches are evicted either way.
+ * <p>
+ * Hibernate's own invalidation only sees writes made through this node's session factory, so for
+ * departments and titles the query results are evicted as well as the entities.
+ */
+@Slf4j
+public class LocalCacheInvalidator implements CacheInvalidator {
+
+    private static final Set<String> SUMMARIZED_TABLES = Set.of("departments", "dept_emp", "dept_manager", "salaries", "titles");
+
+    private final CacheManager cacheManager;
+    private final SessionFactory sessionFactory;
+
+    public LocalCacheInvalidator(CacheManager cacheManager, SessionFactory sessionFactory) {
+        this.cacheManager = cacheManager;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void invalidate(String table, Set<String> keys) {
+        if (SUMMARIZED_TABLES.contains(table)) {
+            clear(CacheConfig.ORG_SNAPSHOT);
+        }
+        evictTable(table, keys);
+    }
+
+    @Override
+    public void invalidateApplied(String table, Set<String> keys) {
+        evictTable(table, keys);
+    }
+
+    private void evictTable(String table, Set<String> keys) {
+        if (SUMMARIZED_TABLES.contains(table)) {
+            clear(CacheConfig.DEPARTMENT_SUMMARY);
+        }
+        switch (table) {
+            case "employees" -> evict(CacheConfig.EMPLOYEES, keys, Integer::valueOf);
+            case "dept_manager" -> evict(CacheConfig.CURRENT_MANAGERS, keys, key -> key);
+            case "departments" -> {
+                if (keys.contains(ALL_KEYS)) {
+                    sessionFactory.getCache().evictEntityData(Department.class);
+                } else {
+                    keys.forEach(key -> sessionFactory.getCache().evictEntityData(Department.class, key));
+                }
+                sessionFactory.getCache().evictQueryRegion("department-queries");
+            }
+            case "titles" -> sessionFactory.getCache().evictQueryRegion("title-queries");
+            default -> log.debug("No cache for table {}", table);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        clear(CacheConfig.EMPLOYEES);
+        clear(CacheConfig.CURRENT_MANAGERS);
+        clear(CacheConfig.DEPARTMENT_SUMMARY);
+        clear(CacheConfig.ORG_SNAPSHOT);
+        sessionFactory.getCache().evictEntityData(Department.class);
+        sessionFactory.getCache().evictQueryRegion("department-queries");
+        sessionFactory.getCache().evictQueryRegion("title-queries");
+    }
+
+    private void evict(String cacheName, Set<String> keys, Function<String, Object> toCacheKey) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (keys.contains(ALL_KEYS)) {
+            cache.clear();
+            return;
+        }
+        for (String key : keys) {
+            cache.evict(toCacheKey.apply(key));
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
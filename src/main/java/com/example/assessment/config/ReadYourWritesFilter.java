@@ -0,0 +1,60 @@
+package com.example.assessment.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes for {@link ReplicaRoutingDataSource}: after a write, a client reads from the primary
+ * for {@code duration}, so it sees its own change while the replicas are still replaying it.
+ * <p>
+ * A request with an unsafe method is pinned to the primary itself and sets the {@value #COOKIE} cookie,
+ * which expires after {@code duration}; requests presenting the cookie are pinned too. The client holds the
+ * pin, so it works across application instances and needs no server-side session. A zero duration turns
+ * the filter off.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "primary-pin";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration duration;
+
+    public ReadYourWritesFilter(Duration duration) {
+        this.duration = duration;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return duration.isZero();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            // Set before the chain runs, the response may be committed by the time it returns
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, "1")
+                    .maxAge(duration)
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            request.setAttribute(ReplicaRoutingDataSource.PRIMARY_PINNED, Boolean.TRUE);
+        } else if (WebUtils.getCookie(request, COOKIE) != null) {
+            request.setAttribute(ReplicaRoutingDataSource.PRIMARY_PINNED, Boolean.TRUE);
+        }
+        chain.doFilter(request, response);
+    }
+}
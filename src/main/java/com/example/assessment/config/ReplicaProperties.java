@@ -0,0 +1,33 @@
+package com.example.assessment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas, under {@code app.datasource.replicas}. Routing is on only when {@code urls} is set.
+ *
+ * @param urls           JDBC URLs of the replicas; pools copy the primary's Hikari settings
+ * @param username       defaults to {@code spring.datasource.username}
+ * @param password       defaults to {@code spring.datasource.password}
+ * @param maxLag         replicas further behind than this stop receiving reads until they catch up
+ * @param checkInterval  how often health and lag are checked
+ * @param lagQuery       returns the replica's lag in seconds as a single number
+ * @param readYourWrites how long a client stays on the primary after a write; zero turns it off
+ */
+@ConfigurationProperties("app.datasource.replicas")
+public record ReplicaProperties(
+        List<String> urls,
+        String username,
+        String password,
+        @DefaultValue("10s") Duration maxLag,
+        @DefaultValue("5s") Duration checkInterval,
+        // Replay age only counts while WAL is still outstanding, otherwise an idle primary reads as lag
+        @DefaultValue("SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+                + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END")
+        String lagQuery,
+        @DefaultValue("5s") Duration readYourWrites) {
+}
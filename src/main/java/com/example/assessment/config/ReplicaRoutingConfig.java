@@ -0,0 +1,79 @@
+package com.example.assessment.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read replicas, on when {@code app.datasource.replicas.urls} is set: work in
+ * {@code @Transactional(readOnly = true)} reads from the replicas and writes stay on the primary, see
+ * {@link ReplicaRoutingDataSource}. Without the property Boot's single pool is used unchanged.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("app.datasource.replicas.urls")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    // The pool Boot would have created; declaring the routing DataSource turns its auto-configuration off
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Injected as DataSource: with virtual threads the primary pool is wrapped in a ConnectionLimitingDataSource
+    @Bean
+    @Primary
+    ReplicaRoutingDataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaProperties replicas,
+                                        DataSourceProperties properties, Environment environment) throws SQLException {
+        HikariDataSource primaryPool = primary.unwrap(HikariDataSource.class);
+
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (String url : replicas.urls()) {
+            HikariConfig config = new HikariConfig();
+            primaryPool.copyStateTo(config);
+            config.setJdbcUrl(url);
+            config.setPoolName("replica-" + (pools.size() + 1));
+            config.setUsername(replicas.username() != null ? replicas.username() : properties.determineUsername());
+            config.setPassword(replicas.password() != null ? replicas.password() : properties.determinePassword());
+            config.setReadOnly(true);
+            // Start even when the replica is down, the health check keeps it out of rotation
+            config.setInitializationFailTimeout(-1);
+
+            HikariDataSource pool = new HikariDataSource(config);
+            pools.put(url, Threading.VIRTUAL.isActive(environment)
+                    ? new ConnectionLimitingDataSource(pool, config.getMaximumPoolSize(), config.getConnectionTimeout())
+                    : pool);
+        }
+
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, pools, replicas.maxLag(),
+                replicas.lagQuery());
+        dataSource.start(replicas.checkInterval());
+        return dataSource;
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(ReplicaProperties replicas) {
+        return new ReadYourWritesFilter(replicas.readYourWrites());
+    }
+
+    @Bean
+    MeterBinder replicaMetrics(ReplicaRoutingDataSource dataSource) {
+        return dataSource::bindTo;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.assessment.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to read replicas and everything else to the primary.
+ * <p>
+ * Connections are handed out lazily: the physical one is only fetched at the first statement, by which
+ * time the transaction manager has marked it read-only for {@code @Transactional(readOnly = true)}, and
+ * read-only connections come from the replicas in turn. {@link #checkReplicas} runs the lag query on
+ * each replica; one that fails it, reports more than {@code maxLag}, or refuses a connection is left out
+ * until a later check passes. With no replica left, and for requests carrying {@link #PRIMARY_PINNED}
+ * (see {@link ReadYourWritesFilter}), reads go to the primary.
+ * <p>
+ * {@link #bindTo} registers {@code jdbc.replicas.available}, the number of replicas in rotation.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    public static final String PRIMARY_PINNED = ReplicaRoutingDataSource.class.getName() + ".primaryPinned";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecks = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("replica-health-check").daemon().factory());
+
+    /**
+     * @param replicas replica pools by display name, usually the JDBC URL
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                    String lagQuery) {
+        super(primary);
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(replica -> new Replica(replica.getKey(), replica.getValue()))
+                .toList();
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.lagQuery = lagQuery;
+        setReadOnlyDataSource(new ReplicaSelector());
+    }
+
+    /**
+     * Checks the replicas now and then every {@code interval}; until the first check passes, reads use
+     * the primary.
+     */
+    public void start(Duration interval) {
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(lagQuery)) {
+                if (!lag.next()) {
+                    replica.update(false, "lag query returned no row");
+                } else if (lag.getDouble(1) > maxLagSeconds) {
+                    replica.update(false, "lag " + lag.getDouble(1) + " s exceeds " + maxLagSeconds + " s");
+                } else {
+                    replica.update(true, null);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                replica.update(false, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Whether a read-only transaction would now get a replica connection: one is in rotation and the
+     * request is not pinned to the primary.
+     */
+    public boolean routesReadsToReplicas() {
+        return !pinnedToPrimary() && replicas.stream().anyMatch(replica -> replica.available);
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jdbc.replicas.available", replicas, list -> list.stream().filter(replica -> replica.available).count())
+                .description("Read replicas currently receiving read-only transactions")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws Exception {
+        healthChecks.shutdownNow();
+        for (Replica replica : replicas) {
+            closePool(replica.dataSource);
+        }
+    }
+
+    private static void closePool(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable pool) {
+            pool.close();
+        } else if (dataSource instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            closePool(delegating.getTargetDataSource());
+        }
+    }
+
+    private static boolean pinnedToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null && attributes.getAttribute(PRIMARY_PINNED, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    // Target for read-only connections: the next replica in rotation, or the primary
+    private class ReplicaSelector extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return select(DataSource::getConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return select(dataSource -> dataSource.getConnection(username, password));
+        }
+
+        private Connection select(ConnectionSource source) throws SQLException {
+            if (!pinnedToPrimary()) {
+                int start = next.getAndIncrement();
+                for (int i = 0; i < replicas.size(); i++) {
+                    Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+                    if (!replica.available) {
+                        continue;
+                    }
+                    try {
+                        return source.connect(replica.dataSource);
+                    } catch (SQLException ex) {
+                        replica.update(false, ex.getMessage());
+                    }
+                }
+            }
+            return source.connect(primary);
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private synchronized void update(boolean available, String reason) {
+            if (available && !this.available) {
+                log.info("Replica {} is in rotation", name);
+            } else if (!available && this.available) {
+                log.warn("Replica {} taken out of rotation: {}", name, reason);
+            }
+            this.available = available;
+        }
+    }
+}
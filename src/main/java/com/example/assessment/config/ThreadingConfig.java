@@ -0,0 +1,55 @@
+package com.example.assessment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Threading mode, switched with {@code spring.threads.virtual.enabled}. With it on, Spring Boot runs Tomcat
+ * requests and async MVC work (the streaming exports) on virtual threads; this class adds what Boot does
+ * not: a {@link ConnectionLimitingDataSource} in front of the Hikari pool.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ThreadingConfig {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static class VirtualThreadConfig {
+
+        // Static so the post-processor does not pull this configuration in early
+        @Bean
+        static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof HikariDataSource hikari) {
+                        return new ConnectionLimitingDataSource(hikari, hikari.getMaximumPoolSize(),
+                                hikari.getConnectionTimeout());
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        // Unwrapped, the limiter may sit behind the replica routing DataSource
+        @Bean
+        MeterBinder connectionPermitMetrics(DataSource dataSource) {
+            return registry -> {
+                try {
+                    if (dataSource.isWrapperFor(ConnectionLimitingDataSource.class)) {
+                        dataSource.unwrap(ConnectionLimitingDataSource.class).bindTo(registry);
+                    }
+                } catch (SQLException ex) {
+                    throw new IllegalStateException("Cannot bind connection permit metrics", ex);
+                }
+            };
+        }
+    }
+}
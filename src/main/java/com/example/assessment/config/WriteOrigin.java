@@ -0,0 +1,49 @@
+package com.example.assessment.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+/**
+ * This node's id in cache invalidations. A service that applies a write to this node's in-memory state
+ * itself marks the writing transaction, and the NOTIFY triggers ({@code V7__cache_invalidation_origin.sql})
+ * pass the mark on, so that {@link CacheInvalidationListener} hands the echo of that write to
+ * {@link CacheInvalidator#invalidateApplied} instead of {@link CacheInvalidator#invalidate}.
+ */
+public class WriteOrigin {
+
+    static final String SETTING = "app.write_origin";
+
+    // Registered with each marked transaction
+    private static final TransactionSynchronization MARKED = new TransactionSynchronization() {
+    };
+
+    private final String id = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+
+    public WriteOrigin(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Marks the current transaction as written by this node, once however many services ask; outside a
+     * transaction there is nothing to mark.
+     */
+    public void markCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.getSynchronizations().contains(MARKED)) {
+            return;
+        }
+        // Local to the transaction, so a pooled connection does not carry the mark into the next one
+        jdbcTemplate.queryForObject("SELECT set_config(?, ?, true)", String.class, SETTING, id);
+        // Synchronizations are suspended with their transaction, so one started inside it gets its own mark
+        TransactionSynchronizationManager.registerSynchronization(MARKED);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.assessment.controller;
+
+import com.example.assessment.dto.ImportResultDTO;
+import com.example.assessment.service.HistoryImportService;
+import com.example.assessment.service.ImportTable;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+@RequestMapping("/api/admin/import")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin Import", description = "Bulk CSV load of history tables")
+public class AdminImportController {
+
+    private final HistoryImportService historyImportService;
+
+    // The request body is handed to COPY as it arrives, so the file is never held in memory or on disk
+    @PostMapping(value = "/{table}", consumes = "text/csv")
+    @Operation(summary = "Import a history table",
+            description = "Loads salaries, titles, dept_emp or dept_manager from CSV in the /api/export layout "
+                    + "(header row first). Send Content-Encoding: gzip for a compressed body. Rows failing "
+                    + "validation are skipped and reported")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, see rowsRejected"),
+            @ApiResponse(responseCode = "400", description = "CSV could not be parsed, nothing imported"),
+            @ApiResponse(responseCode = "404", description = "Unknown table")
+    })
+    public ResponseEntity<ImportResultDTO> importTable(
+            @PathVariable String table,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        log.info("POST /api/admin/import/{} - Importing CSV", table);
+
+        ImportTable importTable = ImportTable.from(table);
+        InputStream csv = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+
+        ImportResultDTO result = historyImportService.importCsv(importTable, csv);
+
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.assessment.controller;
+
+import com.example.assessment.dto.WorkforceTimeSeriesDTO;
+import com.example.assessment.service.WorkforceAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Workforce Analytics", description = "APIs for workforce trends over the whole history")
+public class AnalyticsController {
+
+    private final WorkforceAnalyticsService workforceAnalyticsService;
+
+    @GetMapping("/timeseries")
+    @Operation(summary = "Get workforce time series",
+            description = "Headcount or payroll of every department on the first day of each month, quarter or "
+                    + "year, from the earliest assignment until today, computed from the in-memory history")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully computed time series"),
+            @ApiResponse(responseCode = "400", description = "Unsupported metric or granularity")
+    })
+    public ResponseEntity<EntityModel<WorkforceTimeSeriesDTO>> getTimeSeries(
+            @Parameter(description = "headcount or payroll") @RequestParam String metric,
+            @Parameter(description = "month (default), quarter or year") @RequestParam(required = false) String granularity) {
+        log.info("GET /api/analytics/timeseries?metric={}&granularity={} - Computing time series", metric, granularity);
+
+        WorkforceTimeSeriesDTO timeSeries = workforceAnalyticsService.getTimeSeries(metric, granularity);
+        EntityModel<WorkforceTimeSeriesDTO> model = EntityModel.of(timeSeries,
+                linkTo(methodOn(AnalyticsController.class).getTimeSeries(metric, granularity)).withSelfRel());
+
+        return ResponseEntity.ok(model);
+    }
+}
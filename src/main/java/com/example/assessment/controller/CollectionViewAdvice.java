@@ -0,0 +1,235 @@
+package com.example.assessment.controller;
+
+import com.example.assessment.assembler.CompactModelAssembler;
+import com.example.assessment.dto.CompactCollectionDTO;
+import com.example.assessment.exception.BadRequestException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.UriTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Alternative shapes for the {@code CollectionModel<EntityModel<T>>} responses of the resource controllers.
+ * <ul>
+ *   <li>{@code Accept: application/vnd.employees.compact+json} or {@code ?view=compact}: the bare items as
+ *   a plain array, collection links as a {@code rel -> href} map and the item links once, as URI templates
+ *   over item properties ({@link CompactCollectionDTO}), instead of four {@code _links} per item.</li>
+ *   <li>{@code ?fields=empNo,firstName}: only those item properties, in either view. Unknown names are
+ *   rejected with 400. The compact view also keeps the properties its item link templates are expanded
+ *   with, so every template can still be filled in from each item.</li>
+ * </ul>
+ * Collection links carry {@code view} and {@code fields} along, so following {@code next} keeps the shape.
+ * Without either option the HAL response is passed through untouched.
+ */
+@RestControllerAdvice(assignableTypes = {
+        EmployeeController.class, DepartmentController.class, DeptEmpController.class,
+        DeptManagerController.class, SalaryController.class, TitleController.class})
+public class CollectionViewAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String COMPACT_JSON_VALUE = "application/vnd.employees.compact+json";
+    public static final MediaType COMPACT_JSON = MediaType.parseMediaType(COMPACT_JSON_VALUE);
+
+    private static final String VIEW_PARAM = "view";
+    private static final String FIELDS_PARAM = "fields";
+
+    private final ObjectProvider<CompactModelAssembler<?>> assemblers;
+
+    // Item type of each collection handler method, Object.class for other return types
+    private final Map<Method, Class<?>> itemTypes = new ConcurrentHashMap<>();
+    // Readable properties of each item type, in declaration order
+    private final Map<Class<?>, Map<String, Method>> properties = new ConcurrentHashMap<>();
+    private volatile Map<Class<?>, CompactModelAssembler<?>> assemblersByType;
+
+    public CollectionViewAdvice(ObjectProvider<CompactModelAssembler<?>> assemblers) {
+        this.assemblers = assemblers;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return itemType(returnType) != Object.class;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof CollectionModel<?> collection)) {
+            return body;
+        }
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        String view = servletRequest.getParameter(VIEW_PARAM);
+        if (view != null && !view.equals("compact") && !view.equals("full")) {
+            throw new BadRequestException("Unsupported view: " + view + ", allowed: [compact, full]");
+        }
+        boolean compact = "compact".equals(view)
+                || (view == null && COMPACT_JSON.equalsTypeAndSubtype(selectedContentType));
+
+        Class<?> itemType = itemType(returnType);
+        Set<String> fields = fields(servletRequest, itemType);
+        if (!compact && fields == null) {
+            return body;
+        }
+
+        CompactModelAssembler<?> assembler = compact ? assemblers().get(itemType) : null;
+        Map<String, String> itemLinks = assembler != null ? assembler.linkTemplates() : Map.of();
+        Set<String> selected = fields == null ? null : withTemplateVariables(fields, itemLinks, itemType);
+        Function<Object, Object> item = selected == null ? Function.identity() : content -> select(content, itemType, selected);
+        Map<String, String> links = new LinkedHashMap<>();
+        for (Link link : collection.getLinks()) {
+            links.putIfAbsent(link.getRel().value(), carryOptions(link, view, fields));
+        }
+
+        if (!compact) {
+            List<EntityModel<Object>> items = collection.getContent().stream()
+                    .map(model -> (EntityModel<?>) model)
+                    .map(model -> EntityModel.of(item.apply(model.getContent()), model.getLinks()))
+                    .toList();
+            return CollectionModel.of(items, links.entrySet().stream()
+                    .map(link -> Link.of(link.getValue(), link.getKey()))
+                    .toList());
+        }
+
+        response.getHeaders().setContentType(COMPACT_JSON);
+        return CompactCollectionDTO.builder()
+                .items(collection.getContent().stream()
+                        .map(model -> item.apply(((EntityModel<?>) model).getContent()))
+                        .toList())
+                .links(links)
+                .itemLinks(itemLinks)
+                .build();
+    }
+
+    // T of ResponseEntity<CollectionModel<EntityModel<T>>> or CollectionModel<EntityModel<T>>
+    private Class<?> itemType(MethodParameter returnType) {
+        return itemTypes.computeIfAbsent(returnType.getMethod(), method -> {
+            ResolvableType type = ResolvableType.forMethodReturnType(method);
+            if (ResponseEntity.class.equals(type.resolve())) {
+                type = type.getGeneric(0);
+            }
+            if (!CollectionModel.class.equals(type.resolve())) {
+                return Object.class;
+            }
+            ResolvableType model = type.getGeneric(0);
+            if (!EntityModel.class.equals(model.resolve())) {
+                return Object.class;
+            }
+            return model.getGeneric(0).resolve(Object.class);
+        });
+    }
+
+    private Set<String> fields(HttpServletRequest request, Class<?> itemType) {
+        String[] values = request.getParameterValues(FIELDS_PARAM);
+        if (values == null) {
+            return null;
+        }
+
+        Map<String, Method> readable = properties(itemType);
+        Set<String> fields = new LinkedHashSet<>();
+        for (String value : values) {
+            for (String field : StringUtils.commaDelimitedListToSet(value)) {
+                field = field.trim();
+                if (field.isEmpty()) {
+                    continue;
+                }
+                if (!readable.containsKey(field)) {
+                    throw new BadRequestException("Unknown field: " + field + ", allowed: " + readable.keySet());
+                }
+                fields.add(field);
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new BadRequestException("fields must name at least one of " + readable.keySet());
+        }
+        return fields;
+    }
+
+    // fields plus the item properties the templates take; their request parameters ({?after,limit}) are not ones
+    private Set<String> withTemplateVariables(Set<String> fields, Map<String, String> templates, Class<?> itemType) {
+        Set<String> selected = new LinkedHashSet<>(fields);
+        Map<String, Method> readable = properties(itemType);
+        for (String template : templates.values()) {
+            for (String variable : UriTemplate.of(template).getVariableNames()) {
+                if (readable.containsKey(variable)) {
+                    selected.add(variable);
+                }
+            }
+        }
+        return selected;
+    }
+
+    // Selected properties in declaration order, so the output does not depend on how fields was written
+    private Map<String, Object> select(Object content, Class<?> itemType, Set<String> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        properties(itemType).forEach((name, getter) -> {
+            if (fields.contains(name)) {
+                selected.put(name, ReflectionUtils.invokeMethod(getter, content));
+            }
+        });
+        return selected;
+    }
+
+    private Map<String, Method> properties(Class<?> itemType) {
+        return properties.computeIfAbsent(itemType, type -> {
+            Map<String, Method> getters = new LinkedHashMap<>();
+            for (Field field : type.getDeclaredFields()) {
+                PropertyDescriptor property = BeanUtils.getPropertyDescriptor(type, field.getName());
+                if (property != null && property.getReadMethod() != null) {
+                    getters.put(field.getName(), property.getReadMethod());
+                }
+            }
+            return getters;
+        });
+    }
+
+    private Map<Class<?>, CompactModelAssembler<?>> assemblers() {
+        Map<Class<?>, CompactModelAssembler<?>> byType = assemblersByType;
+        if (byType == null) {
+            Map<Class<?>, CompactModelAssembler<?>> resolved = new ConcurrentHashMap<>();
+            assemblers.forEach(assembler -> resolved.put(ResolvableType.forClass(assembler.getClass())
+                    .as(CompactModelAssembler.class).getGeneric(0).resolve(Object.class), assembler));
+            assemblersByType = byType = resolved;
+        }
+        return byType;
+    }
+
+    private static String carryOptions(Link link, String view, Set<String> fields) {
+        UriComponentsBuilder href = UriComponentsBuilder.fromUriString(link.expand().getHref());
+        if (view != null) {
+            href.replaceQueryParam(VIEW_PARAM, view);
+        }
+        if (fields != null) {
+            href.replaceQueryParam(FIELDS_PARAM, String.join(",", fields));
+        }
+        return href.build().toUriString();
+    }
+}
@@ -1,8 +1,15 @@
 package com.example.assessment.controller;
 
+import com.example.assessment.assembler.DepartmentModelAssembler;
 import com.example.assessment.dto.DepartmentDTO;
+import com.example.assessment.dto.DepartmentOverviewDTO;
+import com.example.assessment.dto.DepartmentSummaryDTO;
+import com.example.assessment.service.CompositeReadService;
 import com.example.assessment.service.DepartmentService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +34,8 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class DepartmentController {
 
     private final DepartmentService departmentService;
+    private final DepartmentModelAssembler departmentModelAssembler;
+    private final CompositeReadService compositeReadService;
 
     @GetMapping
     @Operation(summary = "Get all departments")
@@ -34,7 +43,7 @@ public class DepartmentController {
         log.info("GET /api/departments - Fetching all departments");
 
         List<EntityModel<DepartmentDTO>> departments = departmentService.getAllDepartments().stream()
-                .map(this::toModel)
+                .map(departmentModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<DepartmentDTO>> collectionModel = CollectionModel.of(departments,
@@ -43,13 +52,71 @@ public class DepartmentController {
         return ResponseEntity.ok(collectionModel);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search departments", description = "Search departments by name")
+    public ResponseEntity<CollectionModel<EntityModel<DepartmentDTO>>> searchDepartments(
+            @RequestParam String name,
+            @Parameter(description = "contains (default), prefix or similar") @RequestParam(required = false) String mode,
+            @Parameter(description = "Maximum results, 1-500 (default 50)") @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/departments/search?name={}&mode={}&limit={}", name, mode, limit);
+
+        List<EntityModel<DepartmentDTO>> departments = departmentService.searchDepartmentsByName(name, mode, limit).stream()
+                .map(departmentModelAssembler::toModel)
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<DepartmentDTO>> collectionModel = CollectionModel.of(departments,
+                linkTo(methodOn(DepartmentController.class).searchDepartments(name, mode, limit)).withSelfRel());
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    @GetMapping("/summary")
+    @Operation(summary = "Get department summaries",
+            description = "Headcount, current manager, payroll total and average, and title mix of every department, "
+                    + "from a few grouped queries; served from cache until one of the underlying tables changes")
+    public ResponseEntity<CollectionModel<EntityModel<DepartmentSummaryDTO>>> getDepartmentSummaries() {
+        log.info("GET /api/departments/summary - Fetching department summaries");
+
+        List<EntityModel<DepartmentSummaryDTO>> summaries = departmentService.getDepartmentSummaries().stream()
+                .map(summary -> EntityModel.of(summary,
+                        linkTo(methodOn(DepartmentController.class).getDepartmentById(summary.getDeptNo())).withRel("department"),
+                        linkTo(methodOn(DepartmentController.class).getDepartmentOverview(summary.getDeptNo())).withRel("overview")))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<DepartmentSummaryDTO>> collectionModel = CollectionModel.of(summaries,
+                linkTo(methodOn(DepartmentController.class).getDepartmentSummaries()).withSelfRel());
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get department by ID")
     public ResponseEntity<EntityModel<DepartmentDTO>> getDepartmentById(@PathVariable String id) {
         log.info("GET /api/departments/{} - Fetching department", id);
 
         DepartmentDTO department = departmentService.getDepartmentById(id);
-        EntityModel<DepartmentDTO> model = toModel(department);
+        EntityModel<DepartmentDTO> model = departmentModelAssembler.toModel(department);
+
+        return ResponseEntity.ok(model);
+    }
+
+    @GetMapping("/{id}/overview")
+    @Operation(summary = "Get department overview",
+            description = "Department, manager history, current headcount, salary figures and title mix, "
+                    + "read with one parallel query each")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved overview"),
+            @ApiResponse(responseCode = "404", description = "Department not found"),
+            @ApiResponse(responseCode = "503", description = "Lookups did not finish within the deadline")
+    })
+    public ResponseEntity<EntityModel<DepartmentOverviewDTO>> getDepartmentOverview(@PathVariable String id) {
+        log.info("GET /api/departments/{}/overview - Fetching department overview", id);
+
+        DepartmentOverviewDTO overview = compositeReadService.getDepartmentOverview(id);
+        EntityModel<DepartmentOverviewDTO> model = EntityModel.of(overview,
+                linkTo(methodOn(DepartmentController.class).getDepartmentOverview(id)).withSelfRel(),
+                linkTo(methodOn(DepartmentController.class).getDepartmentById(id)).withRel("department"),
+                linkTo(methodOn(DeptEmpController.class).getCurrentEmployeesInDepartment(id)).withRel("current-employees"));
 
         return ResponseEntity.ok(model);
     }
@@ -60,7 +127,7 @@ public class DepartmentController {
         log.info("POST /api/departments - Creating new department");
 
         DepartmentDTO created = departmentService.createDepartment(departmentDTO);
-        EntityModel<DepartmentDTO> model = toModel(created);
+        EntityModel<DepartmentDTO> model = departmentModelAssembler.toModel(created);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(model);
     }
@@ -73,7 +140,7 @@ public class DepartmentController {
         log.info("PUT /api/departments/{} - Updating department", id);
 
         DepartmentDTO updated = departmentService.updateDepartment(id, departmentDTO);
-        EntityModel<DepartmentDTO> model = toModel(updated);
+        EntityModel<DepartmentDTO> model = departmentModelAssembler.toModel(updated);
 
         return ResponseEntity.ok(model);
     }
@@ -87,13 +154,4 @@ public class DepartmentController {
 
         return ResponseEntity.noContent().build();
     }
-
-    private EntityModel<DepartmentDTO> toModel(DepartmentDTO department) {
-        return EntityModel.of(department,
-                linkTo(methodOn(DepartmentController.class).getDepartmentById(department.getDeptNo())).withSelfRel(),
-                linkTo(methodOn(DepartmentController.class).getAllDepartments()).withRel("departments"),
-                linkTo(methodOn(DepartmentController.class).updateDepartment(department.getDeptNo(), department)).withRel("update"),
-                linkTo(methodOn(DepartmentController.class).deleteDepartment(department.getDeptNo())).withRel("delete"));
-
-    }
 }
@@ -1,8 +1,13 @@
 package com.example.assessment.controller;
 
+import com.example.assessment.assembler.DeptEmpModelAssembler;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
 import com.example.assessment.dto.DeptEmpDTO;
 import com.example.assessment.service.DeptEmpService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,11 +16,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -29,22 +36,44 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class DeptEmpController {
 
     private final DeptEmpService deptEmpService;
+    private final DeptEmpModelAssembler deptEmpModelAssembler;
 
     @GetMapping
     @Operation(summary = "Get all department assignments", description = "Retrieve all employee-department relationships")
-    public ResponseEntity<CollectionModel<EntityModel<DeptEmpDTO>>> getAllDeptEmps() {
+    public ResponseEntity<CollectionModel<EntityModel<DeptEmpDTO>>> getAllDeptEmps(
+            @Parameter(description = "Opaque cursor from the previous page's next link") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size, 1-500 (default 50)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Sort as property[,asc|desc]") @RequestParam(required = false) String sort) {
         log.info("GET /api/dept-emp - Fetching all department assignments");
 
-        List<EntityModel<DeptEmpDTO>> deptEmps = deptEmpService.getAllDeptEmps().stream()
-                .map(this::toModel)
+        CursorPageDTO<DeptEmpDTO> page = deptEmpService.getDeptEmpsPage(after, limit, sort);
+
+        List<EntityModel<DeptEmpDTO>> deptEmps = page.getItems().stream()
+                .map(deptEmpModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<DeptEmpDTO>> collectionModel = CollectionModel.of(deptEmps,
-                linkTo(methodOn(DeptEmpController.class).getAllDeptEmps()).withSelfRel());
+                linkTo(methodOn(DeptEmpController.class).getAllDeptEmps(after, limit, sort)).withSelfRel());
+
+        if (page.hasNext()) {
+            collectionModel.add(linkTo(methodOn(DeptEmpController.class).getAllDeptEmps(page.getNextCursor(), limit, sort))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
 
         return ResponseEntity.ok(collectionModel);
     }
 
+    @GetMapping("/datatable")
+    @Operation(summary = "Get department assignments for DataTables",
+            description = "Server-side processing endpoint speaking the DataTables draw/start/length/search/order protocol")
+    public ResponseEntity<DataTablesResponseDTO<DeptEmpDTO>> getDeptEmpsForDataTable(@RequestParam Map<String, String> params) {
+        log.info("GET /api/dept-emp/datatable - Fetching department assignments page for DataTables");
+
+        DataTablesResponseDTO<DeptEmpDTO> response = deptEmpService.getDeptEmpsForDataTable(DataTablesRequestDTO.from(params));
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/employee/{empNo}")
     @Operation(summary = "Get departments by employee", description = "Get all department assignments for an employee")
     public ResponseEntity<CollectionModel<EntityModel<DeptEmpDTO>>> getDepartmentsByEmployee(
@@ -52,7 +81,7 @@ public class DeptEmpController {
         log.info("GET /api/dept-emp/employee/{} - Fetching departments", empNo);
 
         List<EntityModel<DeptEmpDTO>> deptEmps = deptEmpService.getDepartmentsByEmployee(empNo).stream()
-                .map(this::toModel)
+                .map(deptEmpModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<DeptEmpDTO>> collectionModel = CollectionModel.of(deptEmps,
@@ -69,7 +98,7 @@ public class DeptEmpController {
         log.info("GET /api/dept-emp/employee/{}/current - Fetching current departments", empNo);
 
         List<EntityModel<DeptEmpDTO>> deptEmps = deptEmpService.getCurrentDepartmentsByEmployee(empNo).stream()
-                .map(this::toModel)
+                .map(deptEmpModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<DeptEmpDTO>> collectionModel = CollectionModel.of(deptEmps,
@@ -85,7 +114,7 @@ public class DeptEmpController {
         log.info("GET /api/dept-emp/department/{} - Fetching employees", deptNo);
 
         List<EntityModel<DeptEmpDTO>> deptEmps = deptEmpService.getEmployeesByDepartment(deptNo).stream()
-                .map(this::toModel)
+                .map(deptEmpModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<DeptEmpDTO>> collectionModel = CollectionModel.of(deptEmps,
@@ -102,7 +131,7 @@ public class DeptEmpController {
         log.info("GET /api/dept-emp/department/{}/current - Fetching current employees", deptNo);
 
         List<EntityModel<DeptEmpDTO>> deptEmps = deptEmpService.getCurrentEmployeesInDepartment(deptNo).stream()
-                .map(this::toModel)
+                .map(deptEmpModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<DeptEmpDTO>> collectionModel = CollectionModel.of(deptEmps,
@@ -123,7 +152,7 @@ public class DeptEmpController {
         log.info("POST /api/dept-emp - Assigning employee to department");
 
         DeptEmpDTO created = deptEmpService.addEmployeeToDepartment(deptEmpDTO);
-        EntityModel<DeptEmpDTO> model = toModel(created);
+        EntityModel<DeptEmpDTO> model = deptEmpModelAssembler.toModel(created);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(model);
     }
@@ -137,7 +166,7 @@ public class DeptEmpController {
         log.info("PUT /api/dept-emp/{}/{} - Updating assignment", empNo, deptNo);
 
         DeptEmpDTO updated = deptEmpService.updateDeptEmp(empNo, deptNo, deptEmpDTO);
-        EntityModel<DeptEmpDTO> model = toModel(updated);
+        EntityModel<DeptEmpDTO> model = deptEmpModelAssembler.toModel(updated);
 
         return ResponseEntity.ok(model);
     }
@@ -153,16 +182,4 @@ public class DeptEmpController {
 
         return ResponseEntity.noContent().build();
     }
-
-    private EntityModel<DeptEmpDTO> toModel(DeptEmpDTO deptEmp) {
-        return EntityModel.of(deptEmp,
-                linkTo(methodOn(DeptEmpController.class)
-                        .getDepartmentsByEmployee(deptEmp.getEmpNo())).withRel("employee-departments"),
-                linkTo(methodOn(DeptEmpController.class)
-                        .getEmployeesByDepartment(deptEmp.getDeptNo())).withRel("department-employees"),
-                linkTo(methodOn(EmployeeController.class)
-                        .getEmployeeById(deptEmp.getEmpNo())).withRel("employee"),
-                linkTo(methodOn(DepartmentController.class)
-                        .getDepartmentById(deptEmp.getDeptNo())).withRel("department"));
-    }
 }
@@ -1,9 +1,14 @@
 package com.example.assessment.controller;
 
+import com.example.assessment.assembler.DeptManagerModelAssembler;
 import com.example.assessment.dto.ApiResponseDTO;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
 import com.example.assessment.dto.DeptManagerDTO;
 import com.example.assessment.service.DeptManagerService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,11 +17,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -30,22 +37,44 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class DeptManagerController {
 
     private final DeptManagerService deptManagerService;
+    private final DeptManagerModelAssembler deptManagerModelAssembler;
 
     @GetMapping
     @Operation(summary = "Get all managers", description = "Retrieve all department manager assignments")
-    public ResponseEntity<CollectionModel<EntityModel<DeptManagerDTO>>> getAllDeptManagers() {
+    public ResponseEntity<CollectionModel<EntityModel<DeptManagerDTO>>> getAllDeptManagers(
+            @Parameter(description = "Opaque cursor from the previous page's next link") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size, 1-500 (default 50)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Sort as property[,asc|desc]") @RequestParam(required = false) String sort) {
         log.info("GET /api/dept-manager - Fetching all managers");
 
-        List<EntityModel<DeptManagerDTO>> managers = deptManagerService.getAllDeptManagers().stream()
-                .map(this::toModel)
+        CursorPageDTO<DeptManagerDTO> page = deptManagerService.getDeptManagersPage(after, limit, sort);
+
+        List<EntityModel<DeptManagerDTO>> managers = page.getItems().stream()
+                .map(deptManagerModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<DeptManagerDTO>> collectionModel = CollectionModel.of(managers,
-                linkTo(methodOn(DeptManagerController.class).getAllDeptManagers()).withSelfRel());
+                linkTo(methodOn(DeptManagerController.class).getAllDeptManagers(after, limit, sort)).withSelfRel());
+
+        if (page.hasNext()) {
+            collectionModel.add(linkTo(methodOn(DeptManagerController.class).getAllDeptManagers(page.getNextCursor(), limit, sort))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
 
         return ResponseEntity.ok(collectionModel);
     }
 
+    @GetMapping("/datatable")
+    @Operation(summary = "Get manager assignments for DataTables",
+            description = "Server-side processing endpoint speaking the DataTables draw/start/length/search/order protocol")
+    public ResponseEntity<DataTablesResponseDTO<DeptManagerDTO>> getDeptManagersForDataTable(@RequestParam Map<String, String> params) {
+        log.info("GET /api/dept-manager/datatable - Fetching manager assignments page for DataTables");
+
+        DataTablesResponseDTO<DeptManagerDTO> response = deptManagerService.getDeptManagersForDataTable(DataTablesRequestDTO.from(params));
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/employee/{empNo}")
     @Operation(summary = "Get departments managed by employee", description = "Get all departments managed by an employee")
     public ResponseEntity<CollectionModel<EntityModel<DeptManagerDTO>>> getDepartmentsManagedByEmployee(
@@ -53,7 +82,7 @@ public class DeptManagerController {
         log.info("GET /api/dept-manager/employee/{} - Fetching managed departments", empNo);
 
         List<EntityModel<DeptManagerDTO>> managers = deptManagerService.getDepartmentsManagedByEmployee(empNo).stream()
-                .map(this::toModel)
+                .map(deptManagerModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<DeptManagerDTO>> collectionModel = CollectionModel.of(managers,
@@ -70,7 +99,7 @@ public class DeptManagerController {
         log.info("GET /api/dept-manager/employee/{}/current - Fetching current managed departments", empNo);
 
         List<EntityModel<DeptManagerDTO>> managers = deptManagerService.getCurrentDepartmentsManagedByEmployee(empNo).stream()
-                .map(this::toModel)
+                .map(deptManagerModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<DeptManagerDTO>> collectionModel = CollectionModel.of(managers,
@@ -86,7 +115,7 @@ public class DeptManagerController {
         log.info("GET /api/dept-manager/department/{} - Fetching managers", deptNo);
 
         List<EntityModel<DeptManagerDTO>> managers = deptManagerService.getManagersOfDepartment(deptNo).stream()
-                .map(this::toModel)
+                .map(deptManagerModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<DeptManagerDTO>> collectionModel = CollectionModel.of(managers,
@@ -103,7 +132,7 @@ public class DeptManagerController {
         log.info("GET /api/dept-manager/department/{}/current - Fetching current manager", deptNo);
 
         DeptManagerDTO manager = deptManagerService.getCurrentManagerOfDepartment(deptNo);
-        EntityModel<DeptManagerDTO> model = toModel(manager);
+        EntityModel<DeptManagerDTO> model = deptManagerModelAssembler.toModel(manager);
 
         return ResponseEntity.ok(model);
     }
@@ -130,7 +159,7 @@ public class DeptManagerController {
         log.info("POST /api/dept-manager - Assigning manager to department");
 
         DeptManagerDTO created = deptManagerService.addManagerToDepartment(deptManagerDTO);
-        EntityModel<DeptManagerDTO> model = toModel(created);
+        EntityModel<DeptManagerDTO> model = deptManagerModelAssembler.toModel(created);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(model);
     }
@@ -144,7 +173,7 @@ public class DeptManagerController {
         log.info("PUT /api/dept-manager/{}/{} - Updating manager assignment", empNo, deptNo);
 
         DeptManagerDTO updated = deptManagerService.updateDeptManager(empNo, deptNo, deptManagerDTO);
-        EntityModel<DeptManagerDTO> model = toModel(updated);
+        EntityModel<DeptManagerDTO> model = deptManagerModelAssembler.toModel(updated);
 
         return ResponseEntity.ok(model);
     }
@@ -160,16 +189,4 @@ public class DeptManagerController {
 
         return ResponseEntity.noContent().build();
     }
-
-    private EntityModel<DeptManagerDTO> toModel(DeptManagerDTO deptManager) {
-        return EntityModel.of(deptManager,
-                linkTo(methodOn(DeptManagerController.class)
-                        .getDepartmentsManagedByEmployee(deptManager.getEmpNo())).withRel("managed-departments"),
-                linkTo(methodOn(DeptManagerController.class)
-                        .getManagersOfDepartment(deptManager.getDeptNo())).withRel("department-managers"),
-                linkTo(methodOn(EmployeeController.class)
-                        .getEmployeeById(deptManager.getEmpNo())).withRel("employee"),
-                linkTo(methodOn(DepartmentController.class)
-                        .getDepartmentById(deptManager.getDeptNo())).withRel("department"));
-    }
 }
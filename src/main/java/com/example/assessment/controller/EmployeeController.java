@@ -1,9 +1,21 @@
 package com.example.assessment.controller;
 
+import com.example.assessment.assembler.EmployeeModelAssembler;
 import com.example.assessment.dto.ApiResponseDTO;
+import com.example.assessment.dto.BulkResultDTO;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
+import com.example.assessment.dto.EmployeeAsOfDTO;
 import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.dto.EmployeeFullDTO;
+import com.example.assessment.service.CompositeReadService;
+import com.example.assessment.service.EmployeeBulkService;
+import com.example.assessment.service.EmployeeProfileService;
 import com.example.assessment.service.EmployeeService;
+import com.example.assessment.service.OrgSnapshotService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,11 +24,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -30,6 +44,11 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final EmployeeProfileService employeeProfileService;
+    private final EmployeeBulkService employeeBulkService;
+    private final EmployeeModelAssembler employeeModelAssembler;
+    private final CompositeReadService compositeReadService;
+    private final OrgSnapshotService orgSnapshotService;
 
     @GetMapping
     @Operation(summary = "Get all employees", description = "Retrieve a list of all employees")
@@ -37,19 +56,40 @@ public class EmployeeController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<CollectionModel<EntityModel<EmployeeDTO>>> getAllEmployees() {
+    public ResponseEntity<CollectionModel<EntityModel<EmployeeDTO>>> getAllEmployees(
+            @Parameter(description = "Opaque cursor from the previous page's next link") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size, 1-500 (default 50)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Sort as property[,asc|desc]") @RequestParam(required = false) String sort) {
         log.info("GET /api/employees - Fetching all employees");
 
-        List<EntityModel<EmployeeDTO>> employees = employeeService.getAllEmployees().stream()
-                .map(this::toModel)
+        CursorPageDTO<EmployeeDTO> page = employeeService.getEmployeesPage(after, limit, sort);
+
+        List<EntityModel<EmployeeDTO>> employees = page.getItems().stream()
+                .map(employeeModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<EmployeeDTO>> collectionModel = CollectionModel.of(employees,
-                linkTo(methodOn(EmployeeController.class).getAllEmployees()).withSelfRel());
+                linkTo(methodOn(EmployeeController.class).getAllEmployees(after, limit, sort)).withSelfRel());
+
+        if (page.hasNext()) {
+            collectionModel.add(linkTo(methodOn(EmployeeController.class).getAllEmployees(page.getNextCursor(), limit, sort))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
 
         return ResponseEntity.ok(collectionModel);
     }
 
+    @GetMapping("/datatable")
+    @Operation(summary = "Get employees for DataTables",
+            description = "Server-side processing endpoint speaking the DataTables draw/start/length/search/order protocol")
+    public ResponseEntity<DataTablesResponseDTO<EmployeeDTO>> getEmployeesForDataTable(@RequestParam Map<String, String> params) {
+        log.info("GET /api/employees/datatable - Fetching employees page for DataTables");
+
+        DataTablesResponseDTO<EmployeeDTO> response = employeeService.getEmployeesForDataTable(DataTablesRequestDTO.from(params));
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get employee by ID", description = "Retrieve a specific employee by their ID")
     @ApiResponses(value = {
@@ -60,11 +100,90 @@ public class EmployeeController {
         log.info("GET /api/employees/{} - Fetching employee", id);
 
         EmployeeDTO employee = employeeService.getEmployeeById(id);
-        EntityModel<EmployeeDTO> model = toModel(employee);
+        EntityModel<EmployeeDTO> model = employeeModelAssembler.toModel(employee);
 
         return ResponseEntity.ok(model);
     }
 
+    @GetMapping("/{id}/full")
+    @Operation(summary = "Get full employee profile",
+            description = "Retrieve an employee together with salary and title history, department assignments and managed departments")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved profile"),
+            @ApiResponse(responseCode = "404", description = "Employee not found")
+    })
+    public ResponseEntity<EntityModel<EmployeeFullDTO>> getEmployeeFull(@PathVariable Integer id) {
+        log.info("GET /api/employees/{}/full - Fetching full employee profile", id);
+
+        EmployeeFullDTO profile = employeeProfileService.getEmployeeFull(id);
+
+        return ResponseEntity.ok(toFullModel(profile));
+    }
+
+    @GetMapping("/{id}/aggregate")
+    @Operation(summary = "Get employee aggregate",
+            description = "Same content as /{id}/full, read with one parallel query per entity service; "
+                    + "latency follows the slowest of them")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved aggregate"),
+            @ApiResponse(responseCode = "404", description = "Employee not found"),
+            @ApiResponse(responseCode = "503", description = "Lookups did not finish within the deadline")
+    })
+    public ResponseEntity<EntityModel<EmployeeFullDTO>> getEmployeeAggregate(@PathVariable Integer id) {
+        log.info("GET /api/employees/{}/aggregate - Fetching employee aggregate", id);
+
+        EmployeeFullDTO aggregate = compositeReadService.getEmployeeAggregate(id);
+        EntityModel<EmployeeFullDTO> model = EntityModel.of(aggregate,
+                linkTo(methodOn(EmployeeController.class).getEmployeeAggregate(id)).withSelfRel(),
+                linkTo(methodOn(EmployeeController.class).getEmployeeById(id)).withRel("employee"));
+
+        return ResponseEntity.ok(model);
+    }
+
+    @GetMapping("/{id}/as-of/{date}")
+    @Operation(summary = "Get employee as of a date",
+            description = "Department assignments, managed departments, title and salary held on the given date, "
+                    + "looked up in the in-memory history")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved employee state"),
+            @ApiResponse(responseCode = "400", description = "Date is not yyyy-MM-dd"),
+            @ApiResponse(responseCode = "404", description = "Employee not found")
+    })
+    public ResponseEntity<EntityModel<EmployeeAsOfDTO>> getEmployeeAsOf(
+            @PathVariable Integer id,
+            @Parameter(description = "Date as yyyy-MM-dd") @PathVariable String date) {
+        log.info("GET /api/employees/{}/as-of/{} - Fetching employee as of date", id, date);
+
+        EmployeeAsOfDTO employee = orgSnapshotService.getEmployeeAsOf(id, date);
+        EntityModel<EmployeeAsOfDTO> model = EntityModel.of(employee,
+                linkTo(methodOn(EmployeeController.class).getEmployeeAsOf(id, date)).withSelfRel(),
+                linkTo(methodOn(EmployeeController.class).getEmployeeById(id)).withRel("employee"),
+                linkTo(methodOn(OrgController.class).getOrgAsOf(date)).withRel("org"));
+
+        return ResponseEntity.ok(model);
+    }
+
+    @GetMapping("/full")
+    @Operation(summary = "Get full profiles for several employees",
+            description = "Batch variant of /{id}/full; unknown ids are skipped")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved profiles"),
+            @ApiResponse(responseCode = "400", description = "Missing or too many ids")
+    })
+    public ResponseEntity<CollectionModel<EntityModel<EmployeeFullDTO>>> getEmployeesFull(
+            @Parameter(description = "Comma-separated employee numbers, at most 500") @RequestParam List<Integer> ids) {
+        log.info("GET /api/employees/full - Fetching {} full employee profiles", ids.size());
+
+        List<EntityModel<EmployeeFullDTO>> profiles = employeeProfileService.getEmployeesFull(ids).stream()
+                .map(this::toFullModel)
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<EmployeeFullDTO>> collectionModel = CollectionModel.of(profiles,
+                linkTo(methodOn(EmployeeController.class).getEmployeesFull(ids)).withSelfRel());
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
     @PostMapping
     @Operation(summary = "Create new employee", description = "Create a new employee record")
     @ApiResponses(value = {
@@ -75,11 +194,26 @@ public class EmployeeController {
         log.info("POST /api/employees - Creating new employee");
 
         EmployeeDTO created = employeeService.createEmployee(employeeDTO);
-        EntityModel<EmployeeDTO> model = toModel(created);
+        EntityModel<EmployeeDTO> model = employeeModelAssembler.toModel(created);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(model);
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Create employees in bulk",
+            description = "Create up to 10000 employees; invalid, duplicate or existing items are reported per index and do not stop the rest")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Request processed, see created/failed counts"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized request")
+    })
+    public ResponseEntity<BulkResultDTO> createEmployeesBulk(@RequestBody List<EmployeeDTO> employees) {
+        log.info("POST /api/employees/bulk - Creating {} employees", employees.size());
+
+        BulkResultDTO result = employeeBulkService.createEmployees(employees);
+
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update employee", description = "Update an existing employee")
     @ApiResponses(value = {
@@ -93,7 +227,7 @@ public class EmployeeController {
         log.info("PUT /api/employees/{} - Updating employee", id);
 
         EmployeeDTO updated = employeeService.updateEmployee(id, employeeDTO);
-        EntityModel<EmployeeDTO> model = toModel(updated);
+        EntityModel<EmployeeDTO> model = employeeModelAssembler.toModel(updated);
 
         return ResponseEntity.ok(model);
     }
@@ -113,17 +247,19 @@ public class EmployeeController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search employees", description = "Search employees by name")
+    @Operation(summary = "Search employees", description = "Search employees by first or last name")
     public ResponseEntity<CollectionModel<EntityModel<EmployeeDTO>>> searchEmployees(
-            @RequestParam String name) {
-        log.info("GET /api/employees/search?name={}", name);
+            @RequestParam String name,
+            @Parameter(description = "contains (default), prefix or similar") @RequestParam(required = false) String mode,
+            @Parameter(description = "Maximum results, 1-500 (default 50)") @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/employees/search?name={}&mode={}&limit={}", name, mode, limit);
 
-        List<EntityModel<EmployeeDTO>> employees = employeeService.searchEmployeesByName(name).stream()
-                .map(this::toModel)
+        List<EntityModel<EmployeeDTO>> employees = employeeService.searchEmployeesByName(name, mode, limit).stream()
+                .map(employeeModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<EmployeeDTO>> collectionModel = CollectionModel.of(employees,
-                linkTo(methodOn(EmployeeController.class).searchEmployees(name)).withSelfRel());
+                linkTo(methodOn(EmployeeController.class).searchEmployees(name, mode, limit)).withSelfRel());
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -164,11 +300,63 @@ public class EmployeeController {
         return ResponseEntity.noContent().build();
     }
 
-    private EntityModel<EmployeeDTO> toModel(EmployeeDTO employee) {
-        return EntityModel.of(employee,
-                linkTo(methodOn(EmployeeController.class).getEmployeeById(employee.getEmpNo())).withSelfRel(),
-                linkTo(methodOn(EmployeeController.class).getAllEmployees()).withRel("employees"),
-                linkTo(methodOn(EmployeeController.class).updateEmployee(employee.getEmpNo(), employee)).withRel("update"),
-                linkTo(methodOn(EmployeeController.class).deleteEmployee(employee.getEmpNo())).withRel("delete"));
+    @PostMapping("/procedure/bulk")
+    @Operation(summary = "Create employees via set-based stored procedure",
+            description = "Create up to 10000 employees with one sp_insert_employees call; all or nothing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Employees created"),
+            @ApiResponse(responseCode = "400", description = "Invalid, duplicate, empty or oversized input"),
+            @ApiResponse(responseCode = "409", description = "Some employees already exist")
+    })
+    public ResponseEntity<ApiResponseDTO<String>> createEmployeesViaProcedure(
+            @RequestBody List<@Valid EmployeeDTO> employees) {
+        log.info("POST /api/employees/procedure/bulk - Creating {} employees via stored procedure", employees.size());
+
+        employeeService.createEmployeesViaProcedure(employees);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponseDTO.success("Employees created via stored procedure",
+                        "Employees created: " + employees.size()));
+    }
+
+    @PutMapping("/procedure/bulk")
+    @Operation(summary = "Update employees via set-based stored procedure",
+            description = "Update up to 10000 employees with one sp_update_employees call; all or nothing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Employees updated"),
+            @ApiResponse(responseCode = "400", description = "Invalid, duplicate, empty or oversized input"),
+            @ApiResponse(responseCode = "404", description = "Some employees not found")
+    })
+    public ResponseEntity<ApiResponseDTO<String>> updateEmployeesViaProcedure(
+            @RequestBody List<@Valid EmployeeDTO> employees) {
+        log.info("PUT /api/employees/procedure/bulk - Updating {} employees via stored procedure", employees.size());
+
+        employeeService.updateEmployeesViaProcedure(employees);
+
+        return ResponseEntity.ok(ApiResponseDTO.success("Employees updated via stored procedure",
+                "Employees updated: " + employees.size()));
+    }
+
+    @DeleteMapping("/procedure/bulk")
+    @Operation(summary = "Delete employees via set-based stored procedure",
+            description = "Delete up to 10000 employees and their history with one sp_delete_employees call; all or nothing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Employees deleted"),
+            @ApiResponse(responseCode = "404", description = "Some employees not found")
+    })
+    public ResponseEntity<Void> deleteEmployeesViaProcedure(
+            @Parameter(description = "Comma-separated employee numbers") @RequestParam List<Integer> ids) {
+        log.info("DELETE /api/employees/procedure/bulk - Deleting {} employees via stored procedure", ids.size());
+
+        employeeService.deleteEmployeesViaProcedure(ids);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    private EntityModel<EmployeeFullDTO> toFullModel(EmployeeFullDTO profile) {
+        Integer empNo = profile.getEmployee().getEmpNo();
+        return EntityModel.of(profile,
+                linkTo(methodOn(EmployeeController.class).getEmployeeFull(empNo)).withSelfRel(),
+                linkTo(methodOn(EmployeeController.class).getEmployeeById(empNo)).withRel("employee"));
     }
 }
@@ -0,0 +1,114 @@
+package com.example.assessment.controller;
+
+import com.example.assessment.service.ExportDataset;
+import com.example.assessment.service.ExportFormat;
+import com.example.assessment.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Export", description = "Streaming full-table exports")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    // No "produces" on purpose: the format is negotiated here so that errors raised before streaming
+    // starts can still be rendered as the usual JSON ErrorResponse
+    @GetMapping("/{dataset}")
+    @Operation(summary = "Export a table",
+            description = "Streams every row of employees, salaries, titles, dept-emp or dept-manager as text/csv "
+                    + "or application/x-ndjson, gzip-compressed when the client accepts it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format"),
+            @ApiResponse(responseCode = "404", description = "Unknown dataset"),
+            @ApiResponse(responseCode = "406", description = "Accept header allows neither CSV nor NDJSON")
+    })
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @Parameter(description = "csv or ndjson; overrides the Accept header") @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("GET /api/export/{} - Exporting", dataset);
+
+        ExportDataset exportDataset = ExportDataset.from(dataset);
+        ExportFormat exportFormat = ExportFormat.negotiate(format, accept).orElse(null);
+        if (exportFormat == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(exportFormat.getMediaType());
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(exportDataset.getPath() + "." + exportFormat.getExtension())
+                .build());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // syncFlush so the flush after the header row reaches the client instead of sitting in the deflater
+                GZIPOutputStream compressed = new GZIPOutputStream(out, true);
+                exportService.export(exportDataset, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                exportService.export(exportDataset, exportFormat, out);
+            }
+        };
+
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    // gzip is used when its own entry, or failing that "*", has a q-value above zero; "gzip;q=0" refuses it
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.assessment.controller;
+
+import com.example.assessment.dto.OrgSnapshotDTO;
+import com.example.assessment.service.OrgSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping("/api/org")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Organization History", description = "APIs for the organization as it stood on a given date")
+public class OrgController {
+
+    private final OrgSnapshotService orgSnapshotService;
+
+    @GetMapping("/as-of/{date}")
+    @Operation(summary = "Get org snapshot as of a date",
+            description = "Headcount, manager, payroll and title mix of every department on the given date, "
+                    + "reconstructed from the in-memory history instead of the database")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully reconstructed snapshot"),
+            @ApiResponse(responseCode = "400", description = "Date is not yyyy-MM-dd")
+    })
+    public ResponseEntity<EntityModel<OrgSnapshotDTO>> getOrgAsOf(
+            @Parameter(description = "Date as yyyy-MM-dd") @PathVariable String date) {
+        log.info("GET /api/org/as-of/{} - Reconstructing org snapshot", date);
+
+        OrgSnapshotDTO snapshot = orgSnapshotService.getOrgAsOf(date);
+        EntityModel<OrgSnapshotDTO> model = EntityModel.of(snapshot,
+                linkTo(methodOn(OrgController.class).getOrgAsOf(date)).withSelfRel(),
+                linkTo(methodOn(DepartmentController.class).getDepartmentSummaries()).withRel("current-summary"));
+
+        return ResponseEntity.ok(model);
+    }
+}
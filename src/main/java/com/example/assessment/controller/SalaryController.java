@@ -1,8 +1,16 @@
 package com.example.assessment.controller;
 
+import com.example.assessment.assembler.SalaryModelAssembler;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
 import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.SalaryPercentilesDTO;
+import com.example.assessment.dto.TopEarnerDTO;
 import com.example.assessment.service.SalaryService;
+import com.example.assessment.service.SalaryStatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,11 +19,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -29,6 +39,8 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class SalaryController {
 
     private final SalaryService salaryService;
+    private final SalaryStatisticsService salaryStatisticsService;
+    private final SalaryModelAssembler salaryModelAssembler;
 
     @GetMapping
     @Operation(summary = "Get all salaries", description = "Retrieve a list of all salary records")
@@ -36,15 +48,115 @@ public class SalaryController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<CollectionModel<EntityModel<SalaryDTO>>> getAllSalaries() {
+    public ResponseEntity<CollectionModel<EntityModel<SalaryDTO>>> getAllSalaries(
+            @Parameter(description = "Opaque cursor from the previous page's next link") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size, 1-500 (default 50)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Sort as property[,asc|desc]") @RequestParam(required = false) String sort) {
         log.info("GET /api/salaries - Fetching all salaries");
 
-        List<EntityModel<SalaryDTO>> salaries = salaryService.getAllSalaries().stream()
-                .map(this::toModel)
+        CursorPageDTO<SalaryDTO> page = salaryService.getSalariesPage(after, limit, sort);
+
+        List<EntityModel<SalaryDTO>> salaries = page.getItems().stream()
+                .map(salaryModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<SalaryDTO>> collectionModel = CollectionModel.of(salaries,
-                linkTo(methodOn(SalaryController.class).getAllSalaries()).withSelfRel());
+                linkTo(methodOn(SalaryController.class).getAllSalaries(after, limit, sort)).withSelfRel());
+
+        if (page.hasNext()) {
+            collectionModel.add(linkTo(methodOn(SalaryController.class).getAllSalaries(page.getNextCursor(), limit, sort))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    @GetMapping("/datatable")
+    @Operation(summary = "Get salaries for DataTables",
+            description = "Server-side processing endpoint speaking the DataTables draw/start/length/search/order protocol")
+    public ResponseEntity<DataTablesResponseDTO<SalaryDTO>> getSalariesForDataTable(@RequestParam Map<String, String> params) {
+        log.info("GET /api/salaries/datatable - Fetching salaries page for DataTables");
+
+        DataTablesResponseDTO<SalaryDTO> response = salaryService.getSalariesForDataTable(DataTablesRequestDTO.from(params));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get salary percentiles",
+            description = "Median, p90 and p99 of current salaries per department and per title, from sketches kept "
+                    + "in memory; each percentile is within 1% of an actual salary in its group")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved percentiles"),
+            @ApiResponse(responseCode = "400", description = "Both deptNo and title given")
+    })
+    public ResponseEntity<CollectionModel<EntityModel<SalaryPercentilesDTO>>> getSalaryPercentiles(
+            @Parameter(description = "Only this department") @RequestParam(required = false) String deptNo,
+            @Parameter(description = "Only this title") @RequestParam(required = false) String title) {
+        log.info("GET /api/salaries/stats?deptNo={}&title={} - Fetching salary percentiles", deptNo, title);
+
+        List<EntityModel<SalaryPercentilesDTO>> percentiles = salaryStatisticsService.getPercentiles(deptNo, title).stream()
+                .map(group -> group.getDeptNo() == null ? EntityModel.of(group) : EntityModel.of(group,
+                        linkTo(methodOn(DepartmentController.class).getDepartmentById(group.getDeptNo())).withRel("department")))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<SalaryPercentilesDTO>> collectionModel = CollectionModel.of(percentiles,
+                linkTo(methodOn(SalaryController.class).getSalaryPercentiles(deptNo, title)).withSelfRel());
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    @GetMapping("/top")
+    @Operation(summary = "Get top earners",
+            description = "The best paid current salaries ranked within each department, or within one department")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved top earners"),
+            @ApiResponse(responseCode = "400", description = "Limit out of range")
+    })
+    public ResponseEntity<CollectionModel<EntityModel<TopEarnerDTO>>> getTopEarners(
+            @Parameter(description = "Only this department") @RequestParam(required = false) String deptNo,
+            @Parameter(description = "Earners per department, 1-500 (default 50)") @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/salaries/top?deptNo={}&limit={} - Fetching top earners", deptNo, limit);
+
+        List<EntityModel<TopEarnerDTO>> earners = salaryService.getTopEarners(deptNo, limit).stream()
+                .map(earner -> EntityModel.of(earner,
+                        linkTo(methodOn(EmployeeController.class).getEmployeeById(earner.getEmpNo())).withRel("employee"),
+                        linkTo(methodOn(DepartmentController.class).getDepartmentById(earner.getDeptNo())).withRel("department")))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<TopEarnerDTO>> collectionModel = CollectionModel.of(earners,
+                linkTo(methodOn(SalaryController.class).getTopEarners(deptNo, limit)).withSelfRel());
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    @GetMapping("/range")
+    @Operation(summary = "Get current salaries in a range",
+            description = "Current salaries between min and max inclusive, lowest first, paged by cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved salaries"),
+            @ApiResponse(responseCode = "400", description = "Invalid range, cursor or limit")
+    })
+    public ResponseEntity<CollectionModel<EntityModel<SalaryDTO>>> getCurrentSalariesInRange(
+            @Parameter(description = "Lowest salary") @RequestParam Integer min,
+            @Parameter(description = "Highest salary") @RequestParam Integer max,
+            @Parameter(description = "Opaque cursor from the previous page's next link") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size, 1-500 (default 50)") @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/salaries/range?min={}&max={} - Fetching current salaries in range", min, max);
+
+        CursorPageDTO<SalaryDTO> page = salaryService.getCurrentSalariesInRange(min, max, after, limit);
+
+        List<EntityModel<SalaryDTO>> salaries = page.getItems().stream()
+                .map(salaryModelAssembler::toModel)
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<SalaryDTO>> collectionModel = CollectionModel.of(salaries,
+                linkTo(methodOn(SalaryController.class).getCurrentSalariesInRange(min, max, after, limit)).withSelfRel());
+
+        if (page.hasNext()) {
+            collectionModel.add(linkTo(methodOn(SalaryController.class)
+                    .getCurrentSalariesInRange(min, max, page.getNextCursor(), limit)).withRel(IanaLinkRelations.NEXT));
+        }
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -60,12 +172,12 @@ public class SalaryController {
         log.info("GET /api/salaries/employee/{} - Fetching salaries", empNo);
 
         List<EntityModel<SalaryDTO>> salaries = salaryService.getSalariesByEmployee(empNo).stream()
-                .map(this::toModel)
+                .map(salaryModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<SalaryDTO>> collectionModel = CollectionModel.of(salaries,
                 linkTo(methodOn(SalaryController.class).getSalariesByEmployee(empNo)).withSelfRel(),
-                linkTo(methodOn(SalaryController.class).getAllSalaries()).withRel("all-salaries"),
+                linkTo(methodOn(SalaryController.class).getAllSalaries(null, null, null)).withRel("all-salaries"),
                 linkTo(methodOn(EmployeeController.class).getEmployeeById(empNo)).withRel("employee"));
 
         return ResponseEntity.ok(collectionModel);
@@ -82,7 +194,7 @@ public class SalaryController {
         log.info("POST /api/salaries - Creating new salary");
 
         SalaryDTO created = salaryService.createSalary(salaryDTO);
-        EntityModel<SalaryDTO> model = toModel(created);
+        EntityModel<SalaryDTO> model = salaryModelAssembler.toModel(created);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(model);
     }
@@ -101,7 +213,7 @@ public class SalaryController {
         log.info("PUT /api/salaries/{}/{} - Updating salary", empNo, fromDate);
 
         SalaryDTO updated = salaryService.updateSalary(empNo, fromDate, salaryDTO);
-        EntityModel<SalaryDTO> model = toModel(updated);
+        EntityModel<SalaryDTO> model = salaryModelAssembler.toModel(updated);
 
         return ResponseEntity.ok(model);
     }
@@ -121,21 +233,4 @@ public class SalaryController {
 
         return ResponseEntity.noContent().build();
     }
-
-    private EntityModel<SalaryDTO> toModel(SalaryDTO salary) {
-        return EntityModel.of(salary,
-                linkTo(methodOn(SalaryController.class)
-                        .getSalariesByEmployee(salary.getEmpNo())).withRel("salary-history"),
-                linkTo(methodOn(SalaryController.class)
-                        .getAllSalaries()).withRel("all-salaries"),
-                linkTo(methodOn(EmployeeController.class)
-                        .getEmployeeById(salary.getEmpNo())).withRel("employee"),
-                linkTo(methodOn(SalaryController.class)
-                        .updateSalary(salary.getEmpNo(), salary.getFromDate().toString(), salary))
-                        .withRel("update"),
-                linkTo(methodOn(SalaryController.class)
-                        .deleteSalary(salary.getEmpNo(), salary.getFromDate().toString()))
-                        .withRel("delete")
-        );
-    }
 }
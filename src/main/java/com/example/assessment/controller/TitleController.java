@@ -1,8 +1,13 @@
 package com.example.assessment.controller;
 
+import com.example.assessment.assembler.TitleModelAssembler;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
 import com.example.assessment.dto.TitleDTO;
 import com.example.assessment.service.TitleService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,11 +16,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -29,6 +36,7 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class TitleController {
 
     private final TitleService titleService;
+    private final TitleModelAssembler titleModelAssembler;
 
     @GetMapping
     @Operation(summary = "Get all titles", description = "Retrieve a list of all employee titles")
@@ -36,19 +44,65 @@ public class TitleController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<CollectionModel<EntityModel<TitleDTO>>> getAllTitles() {
+    public ResponseEntity<CollectionModel<EntityModel<TitleDTO>>> getAllTitles(
+            @Parameter(description = "Opaque cursor from the previous page's next link") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size, 1-500 (default 50)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Sort as property[,asc|desc]") @RequestParam(required = false) String sort) {
         log.info("GET /api/titles - Fetching all titles");
 
-        List<EntityModel<TitleDTO>> titles = titleService.getAllTitles().stream()
-                .map(this::toModel)
+        CursorPageDTO<TitleDTO> page = titleService.getTitlesPage(after, limit, sort);
+
+        List<EntityModel<TitleDTO>> titles = page.getItems().stream()
+                .map(titleModelAssembler::toModel)
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<TitleDTO>> collectionModel = CollectionModel.of(titles,
+                linkTo(methodOn(TitleController.class).getAllTitles(after, limit, sort)).withSelfRel());
+
+        if (page.hasNext()) {
+            collectionModel.add(linkTo(methodOn(TitleController.class).getAllTitles(page.getNextCursor(), limit, sort))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    @GetMapping("/datatable")
+    @Operation(summary = "Get titles for DataTables",
+            description = "Server-side processing endpoint speaking the DataTables draw/start/length/search/order protocol")
+    public ResponseEntity<DataTablesResponseDTO<TitleDTO>> getTitlesForDataTable(@RequestParam Map<String, String> params) {
+        log.info("GET /api/titles/datatable - Fetching titles page for DataTables");
+
+        DataTablesResponseDTO<TitleDTO> response = titleService.getTitlesForDataTable(DataTablesRequestDTO.from(params));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search titles", description = "Search employee titles by title name")
+    public ResponseEntity<CollectionModel<EntityModel<TitleDTO>>> searchTitles(
+            @RequestParam String title,
+            @Parameter(description = "contains (default), prefix or similar") @RequestParam(required = false) String mode,
+            @Parameter(description = "Maximum results, 1-500 (default 50)") @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/titles/search?title={}&mode={}&limit={}", title, mode, limit);
+
+        List<EntityModel<TitleDTO>> titles = titleService.searchTitles(title, mode, limit).stream()
+                .map(titleModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<TitleDTO>> collectionModel = CollectionModel.of(titles,
-                linkTo(methodOn(TitleController.class).getAllTitles()).withSelfRel());
+                linkTo(methodOn(TitleController.class).searchTitles(title, mode, limit)).withSelfRel());
 
         return ResponseEntity.ok(collectionModel);
     }
 
+    @GetMapping("/names")
+    @Operation(summary = "Get title names", description = "Retrieve the distinct title names, in alphabetical order")
+    public ResponseEntity<List<String>> getTitleNames() {
+        log.info("GET /api/titles/names - Fetching title names");
+        return ResponseEntity.ok(titleService.getTitleNames());
+    }
+
     @GetMapping("/employee/{empNo}")
     @Operation(summary = "Get titles by employee", description = "Retrieve title history for a specific employee")
     @ApiResponses(value = {
@@ -60,12 +114,12 @@ public class TitleController {
         log.info("GET /api/titles/employee/{} - Fetching titles", empNo);
 
         List<EntityModel<TitleDTO>> titles = titleService.getTitlesByEmployee(empNo).stream()
-                .map(this::toModel)
+                .map(titleModelAssembler::toModel)
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<TitleDTO>> collectionModel = CollectionModel.of(titles,
                 linkTo(methodOn(TitleController.class).getTitlesByEmployee(empNo)).withSelfRel(),
-                linkTo(methodOn(TitleController.class).getAllTitles()).withRel("all-titles"));
+                linkTo(methodOn(TitleController.class).getAllTitles(null, null, null)).withRel("all-titles"));
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -76,7 +130,7 @@ public class TitleController {
         log.info("GET /api/titles/employee/{}/current - Fetching current title", empNo);
 
         TitleDTO title = titleService.getCurrentTitle(empNo);
-        EntityModel<TitleDTO> model = toModel(title);
+        EntityModel<TitleDTO> model = titleModelAssembler.toModel(title);
 
         return ResponseEntity.ok(model);
     }
@@ -93,7 +147,7 @@ public class TitleController {
         log.info("POST /api/titles - Creating new title");
 
         TitleDTO created = titleService.createTitle(titleDTO);
-        EntityModel<TitleDTO> model = toModel(created);
+        EntityModel<TitleDTO> model = titleModelAssembler.toModel(created);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(model);
     }
@@ -107,7 +161,7 @@ public class TitleController {
         log.info("PUT /api/titles/{}/{} - Updating title", empNo, fromDate);
 
         TitleDTO updated = titleService.updateTitle(empNo, fromDate, titleDTO);
-        EntityModel<TitleDTO> model = toModel(updated);
+        EntityModel<TitleDTO> model = titleModelAssembler.toModel(updated);
 
         return ResponseEntity.ok(model);
     }
@@ -123,14 +177,4 @@ public class TitleController {
 
         return ResponseEntity.noContent().build();
     }
-
-    private EntityModel<TitleDTO> toModel(TitleDTO title) {
-        return EntityModel.of(title,
-                linkTo(methodOn(TitleController.class)
-                        .getTitlesByEmployee(title.getEmpNo())).withSelfRel(),
-                linkTo(methodOn(TitleController.class)
-                        .getAllTitles()).withRel("all-titles"),
-                linkTo(methodOn(EmployeeController.class)
-                        .getEmployeeById(title.getEmpNo())).withRel("employee"));
-    }
 }
@@ -0,0 +1,30 @@
+package com.example.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkResultDTO {
+
+    private int total;
+    private int created;
+    private int failed;
+    private List<ItemError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+        // Position of the item in the request array
+        private int index;
+        private Integer empNo;
+        private String message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompactCollectionDTO {
+
+    // Bare DTOs, or maps of the selected fields
+    private List<?> items;
+
+    // Collection links by relation: self, next, ...
+    private Map<String, String> links;
+
+    // Links of every item as URI templates over the item's properties, e.g. /api/employees/{empNo}
+    private Map<String, String> itemLinks;
+}
@@ -0,0 +1,69 @@
+package com.example.assessment.dto;
+
+import com.example.assessment.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-side processing request sent by DataTables (draw, start, length, search[value],
+ * order[i][column], order[i][dir], columns[i][data]).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DataTablesRequestDTO {
+
+    private int draw;
+    private int start;
+    private int length;
+    private String search;
+    private List<Order> orders;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Order {
+        private String property;
+        private boolean ascending;
+    }
+
+    public static DataTablesRequestDTO from(Map<String, String> params) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; params.containsKey("order[" + i + "][column]"); i++) {
+            String column = params.get("order[" + i + "][column]");
+            String property = params.get("columns[" + column + "][data]");
+            if (property == null || property.isBlank()) {
+                throw new BadRequestException("Column " + column + " is not sortable");
+            }
+            orders.add(new Order(property, !"desc".equalsIgnoreCase(params.get("order[" + i + "][dir]"))));
+        }
+
+        String search = params.get("search[value]");
+        return DataTablesRequestDTO.builder()
+                .draw(parseInt(params, "draw", 0))
+                .start(parseInt(params, "start", 0))
+                .length(parseInt(params, "length", 10))
+                .search(search == null || search.isBlank() ? null : search.trim())
+                .orders(orders)
+                .build();
+    }
+
+    private static int parseInt(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Parameter " + name + " must be a number");
+        }
+    }
+}
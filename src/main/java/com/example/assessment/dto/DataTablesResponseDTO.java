@@ -0,0 +1,20 @@
+package com.example.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DataTablesResponseDTO<T> {
+
+    private int draw;
+    private long recordsTotal;
+    private long recordsFiltered;
+    private List<T> data;
+}
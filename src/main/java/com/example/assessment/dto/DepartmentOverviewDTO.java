@@ -0,0 +1,23 @@
+package com.example.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DepartmentOverviewDTO {
+
+    private DepartmentDTO department;
+    private List<DeptManagerDTO> managers;
+
+    // Headcount and figures below cover current assignments only
+    private Long currentEmployees;
+    private SalaryStatsDTO currentSalaries;
+    private List<TitleCountDTO> currentTitles;
+}
@@ -0,0 +1,32 @@
+package com.example.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DepartmentSummaryDTO {
+
+    private String deptNo;
+    private String deptName;
+
+    // Assignments and salaries held on the day summarized: today, or the as-of date of an org snapshot
+    private Long headcount;
+    // Null when the department has no manager that day
+    private DeptManagerDTO currentManager;
+    // Null when no member has a salary that day
+    private Long payrollTotal;
+    private Double payrollAverage;
+    private List<TitleCountDTO> titles;
+
+    // Per-department aggregates, selected in one GROUP BY; manager and titles are filled in afterwards
+    public DepartmentSummaryDTO(String deptNo, String deptName, Long headcount, Long payrollTotal, Double payrollAverage) {
+        this(deptNo, deptName, headcount, null, payrollTotal, payrollAverage, List.of());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DepartmentTitleCountDTO {
+
+    private String deptNo;
+    private String title;
+    private Long count;
+}
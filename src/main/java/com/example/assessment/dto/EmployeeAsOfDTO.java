@@ -0,0 +1,28 @@
+package com.example.assessment.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeAsOfDTO {
+
+    private Integer empNo;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate asOf;
+    private Instant loadedAt;
+    // Periods containing asOf, latest start first; title and salary are null when none does
+    private List<DeptEmpDTO> deptEmps;
+    private List<DeptManagerDTO> deptManagers;
+    private TitleDTO title;
+    private SalaryDTO salary;
+}
@@ -0,0 +1,21 @@
+package com.example.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeFullDTO {
+
+    private EmployeeDTO employee;
+    private List<SalaryDTO> salaries;
+    private List<TitleDTO> titles;
+    private List<DeptEmpDTO> deptEmps;
+    private List<DeptManagerDTO> deptManagers;
+}
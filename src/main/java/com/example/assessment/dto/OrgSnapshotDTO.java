@@ -0,0 +1,25 @@
+package com.example.assessment.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrgSnapshotDTO {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate asOf;
+    // When the in-memory history answering this was read from the database
+    private Instant loadedAt;
+    // Headcount, manager, payroll and titles as they stood on asOf
+    private List<DepartmentSummaryDTO> departments;
+}
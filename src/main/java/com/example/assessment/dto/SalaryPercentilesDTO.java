@@ -0,0 +1,24 @@
+package com.example.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalaryPercentilesDTO {
+
+    // One of the two is set: the department or the title the current salaries are grouped by
+    private String deptNo;
+    private String title;
+
+    private Long count;
+
+    // Within 1% of an actual salary in the group; null when count is 0
+    private Integer p50;
+    private Integer p90;
+    private Integer p99;
+}
@@ -0,0 +1,20 @@
+package com.example.assessment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalaryStatsDTO {
+
+    private Long count;
+
+    // Null when count is 0
+    private Integer min;
+    private Double average;
+    private Integer max;
+}
@@ -0,0 +1,29 @@
+package com.example.assessment.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TopEarnerDTO {
+
+    private String deptNo;
+    // 1 for the highest current salary in deptNo; ties are broken by employee number
+    private Long rank;
+
+    private Integer empNo;
+    private Integer salary;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate fromDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate toDate;
+}
@@ -0,0 +1,40 @@
+package com.example.assessment.dto;
+
+import com.example.assessment.service.TimeSeriesGranularity;
+import com.example.assessment.service.WorkforceMetric;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkforceTimeSeriesDTO {
+
+    private WorkforceMetric metric;
+    private TimeSeriesGranularity granularity;
+    // When the in-memory history answering this was read from the database; the series is cached per load
+    private Instant loadedAt;
+    // First day of each period, oldest first; every department has one value per period, taken on that day
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private List<LocalDate> periods;
+    private List<DepartmentSeriesDTO> departments;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DepartmentSeriesDTO {
+
+        private String deptNo;
+        private String deptName;
+        private List<Long> values;
+    }
+}
@@ -14,7 +14,10 @@ import java.time.LocalDate;
 @Builder
 @IdClass(DeptEmpId.class)
 @Entity
-@Table(name = "dept_emp")
+@Table(name = "dept_emp", indexes = {
+        @Index(name = "idx_dept_emp_dept_no", columnList = "dept_no, emp_no"),
+        @Index(name = "idx_dept_emp_from_date", columnList = "from_date, emp_no, dept_no")
+})
 public class DeptEmp {
 
     @Id
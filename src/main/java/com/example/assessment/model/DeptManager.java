@@ -14,7 +14,10 @@ import java.time.LocalDate;
 @Builder
 @IdClass(DeptManagerId.class)
 @Entity
-@Table(name = "dept_manager")
+@Table(name = "dept_manager", indexes = {
+        @Index(name = "idx_dept_manager_dept_no", columnList = "dept_no, emp_no"),
+        @Index(name = "idx_dept_manager_from_date", columnList = "from_date, emp_no, dept_no")
+})
 public class DeptManager {
 
     @Id
@@ -14,7 +14,12 @@ import java.util.List;
 @Data
 @Builder
 @Entity
-@Table(name = "employees")
+@Table(name = "employees", indexes = {
+        @Index(name = "idx_employees_first_name", columnList = "first_name, emp_no"),
+        @Index(name = "idx_employees_last_name", columnList = "last_name, emp_no"),
+        @Index(name = "idx_employees_birth_date", columnList = "birth_date, emp_no"),
+        @Index(name = "idx_employees_hire_date", columnList = "hire_date, emp_no")
+})
 public class Employee {
 
     @Id
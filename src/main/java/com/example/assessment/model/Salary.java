@@ -14,7 +14,10 @@ import java.time.LocalDate;
 @Builder
 @IdClass(SalaryId.class)
 @Entity
-@Table(name = "salaries")
+@Table(name = "salaries", indexes = {
+        @Index(name = "idx_salaries_from_date", columnList = "from_date, emp_no"),
+        @Index(name = "idx_salaries_salary", columnList = "salary, emp_no, from_date")
+})
 public class Salary {
 
     @Id
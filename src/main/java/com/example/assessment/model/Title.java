@@ -14,7 +14,10 @@ import java.time.LocalDate;
 @Builder
 @IdClass(TitleId.class)
 @Entity
-@Table(name = "titles")
+@Table(name = "titles", indexes = {
+        @Index(name = "idx_titles_from_date", columnList = "from_date, emp_no"),
+        @Index(name = "idx_titles_title", columnList = "title, emp_no, from_date")
+})
 public class Title {
 
     @Id
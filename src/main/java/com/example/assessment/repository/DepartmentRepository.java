@@ -1,8 +1,14 @@
 package com.example.assessment.repository;
 
+import com.example.assessment.dto.DepartmentDTO;
+import com.example.assessment.dto.DepartmentSummaryDTO;
 import com.example.assessment.model.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,10 +18,50 @@ import java.util.Optional;
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, String> {
 
+    // Query cache: results are dropped whenever the departments table is written through Hibernate
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "department-queries")
+    })
     Optional<Department> findByDeptName(String deptName);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "department-queries")
+    })
     boolean existsByDeptName(String deptName);
 
-    @Query("SELECT d FROM Department d WHERE LOWER(d.deptName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Department> searchByName(@Param("name") String name);
+    // Checked on every dept_emp and dept_manager write; the inherited version is a count query that would
+    // otherwise go to the database each time
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "department-queries")
+    })
+    boolean existsById(String deptNo);
+
+    List<DepartmentDTO> findAllBy();
+
+    // Every department, including those without current employees; COUNT(DISTINCT) because the salary
+    // join repeats an employee once per current salary row
+    @Query("SELECT new com.example.assessment.dto.DepartmentSummaryDTO(d.deptNo, d.deptName, " +
+            "COUNT(DISTINCT de.empNo), SUM(s.salary), AVG(s.salary)) " +
+            "FROM Department d " +
+            "LEFT JOIN DeptEmp de ON de.deptNo = d.deptNo AND (de.toDate IS NULL OR de.toDate >= CURRENT_DATE) " +
+            "LEFT JOIN Salary s ON s.empNo = de.empNo AND (s.toDate IS NULL OR s.toDate >= CURRENT_DATE) " +
+            "GROUP BY d.deptNo, d.deptName ORDER BY d.deptNo")
+    List<DepartmentSummaryDTO> summarizeAll();
+
+    @Query("SELECT new com.example.assessment.dto.DepartmentDTO(d.deptNo, d.deptName) " +
+            "FROM Department d WHERE LOWER(d.deptName) LIKE :pattern ESCAPE '\\' ORDER BY d.deptNo")
+    List<DepartmentDTO> searchByName(@Param("pattern") String pattern, Limit limit);
+
+    @Query("SELECT new com.example.assessment.dto.DepartmentDTO(d.deptNo, d.deptName) " +
+            "FROM Department d WHERE LOWER(d.deptName) LIKE :pattern ESCAPE '\\' ORDER BY LOWER(d.deptName)")
+    List<DepartmentDTO> searchByNamePrefix(@Param("pattern") String pattern, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT * FROM departments WHERE lower(dept_name) % :name " +
+            "ORDER BY similarity(lower(dept_name), :name) DESC, dept_no LIMIT :limit", nativeQuery = true)
+    List<Department> searchByNameSimilarity(@Param("name") String name, @Param("limit") int limit);
 }
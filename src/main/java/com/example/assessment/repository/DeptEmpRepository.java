@@ -1,25 +1,44 @@
 package com.example.assessment.repository;
 
+import com.example.assessment.dto.DeptEmpDTO;
 import com.example.assessment.model.DeptEmp;
 import com.example.assessment.model.DeptEmpId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface DeptEmpRepository extends JpaRepository<DeptEmp, DeptEmpId> {
+public interface DeptEmpRepository extends JpaRepository<DeptEmp, DeptEmpId>, JpaSpecificationExecutor<DeptEmp> {
 
-    List<DeptEmp> findByEmpNo(Integer empNo);
+    Window<DeptEmpDTO> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
-    List<DeptEmp> findByDeptNo(String deptNo);
+    List<DeptEmpDTO> findByEmpNo(Integer empNo);
 
-    @Query("SELECT de FROM DeptEmp de WHERE de.empNo = :empNo AND de.toDate >= CURRENT_DATE")
-    List<DeptEmp> findCurrentDepartments(@Param("empNo") Integer empNo);
+    List<DeptEmpDTO> findByDeptNo(String deptNo);
 
-    @Query("SELECT de FROM DeptEmp de WHERE de.deptNo = :deptNo AND de.toDate >= CURRENT_DATE")
-    List<DeptEmp> findCurrentEmployeesInDepartment(@Param("deptNo") String deptNo);
+    @Query("SELECT new com.example.assessment.dto.DeptEmpDTO(de.empNo, de.deptNo, de.fromDate, de.toDate) " +
+            "FROM DeptEmp de WHERE de.empNo = :empNo AND de.toDate >= CURRENT_DATE")
+    List<DeptEmpDTO> findCurrentDepartments(@Param("empNo") Integer empNo);
 
-    @Query("SELECT COUNT(de) FROM DeptEmp de WHERE de.deptNo = :deptNo AND de.toDate >= CURRENT_DATE")
+    @Query("SELECT new com.example.assessment.dto.DeptEmpDTO(de.empNo, de.deptNo, de.fromDate, de.toDate) " +
+            "FROM DeptEmp de WHERE de.deptNo = :deptNo AND de.toDate >= CURRENT_DATE")
+    List<DeptEmpDTO> findCurrentEmployeesInDepartment(@Param("deptNo") String deptNo);
+
+    @Query("SELECT COUNT(de) FROM DeptEmp de WHERE de.deptNo = :deptNo AND (de.toDate IS NULL OR de.toDate >= CURRENT_DATE)")
     Long countEmployeesInDepartment(@Param("deptNo") String deptNo);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.assessment.dto.DeptEmpDTO(de.empNo, de.deptNo, de.fromDate, de.toDate) " +
+            "FROM DeptEmp de ORDER BY de.empNo, de.deptNo")
+    Stream<DeptEmpDTO> streamAllForExport();
 }
@@ -1,22 +1,39 @@
 package com.example.assessment.repository;
 
+import com.example.assessment.dto.DeptManagerDTO;
 import com.example.assessment.model.DeptManager;
 import com.example.assessment.model.DeptManagerId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface DeptManagerRepository extends JpaRepository<DeptManager, DeptManagerId> {
+public interface DeptManagerRepository extends JpaRepository<DeptManager, DeptManagerId>, JpaSpecificationExecutor<DeptManager> {
 
-    List<DeptManager> findByEmpNo(Integer empNo);
+    Window<DeptManagerDTO> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
-    List<DeptManager> findByDeptNo(String deptNo);
+    List<DeptManagerDTO> findByEmpNo(Integer empNo);
 
-    @Query("SELECT dm FROM DeptManager dm WHERE dm.empNo = :empNo AND dm.toDate >= CURRENT_DATE")
-    List<DeptManager> findCurrentManagedDepartments(@Param("empNo") Integer empNo);
+    List<DeptManagerDTO> findByDeptNo(String deptNo);
+
+    @Query("SELECT new com.example.assessment.dto.DeptManagerDTO(dm.empNo, dm.deptNo, dm.fromDate, dm.toDate) " +
+            "FROM DeptManager dm WHERE dm.empNo = :empNo AND dm.toDate >= CURRENT_DATE")
+    List<DeptManagerDTO> findCurrentManagedDepartments(@Param("empNo") Integer empNo);
+
+    @Query("SELECT new com.example.assessment.dto.DeptManagerDTO(dm.empNo, dm.deptNo, dm.fromDate, dm.toDate) " +
+            "FROM DeptManager dm WHERE dm.toDate >= CURRENT_DATE ORDER BY dm.deptNo, dm.fromDate")
+    List<DeptManagerDTO> findAllCurrentManagers();
 
     @Query("SELECT dm FROM DeptManager dm WHERE dm.deptNo = :deptNo AND dm.toDate >= CURRENT_DATE")
     Optional<DeptManager> findCurrentManagerOfDepartment(@Param("deptNo") String deptNo);
@@ -24,4 +41,9 @@ public interface DeptManagerRepository extends JpaRepository<DeptManager, DeptMa
     @Query("SELECT CASE WHEN COUNT(dm) > 0 THEN true ELSE false END " +
             "FROM DeptManager dm WHERE dm.empNo = :empNo AND dm.toDate >= CURRENT_DATE")
     boolean isCurrentManager(@Param("empNo") Integer empNo);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.assessment.dto.DeptManagerDTO(dm.empNo, dm.deptNo, dm.fromDate, dm.toDate) " +
+            "FROM DeptManager dm ORDER BY dm.empNo, dm.deptNo")
+    Stream<DeptManagerDTO> streamAllForExport();
 }
@@ -1,9 +1,19 @@
 package com.example.assessment.repository;
 
 
+import com.example.assessment.dto.EmployeeDTO;
 import com.example.assessment.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.query.Procedure;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,15 +21,57 @@ import org.springframework.stereotype.Repository;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
+public interface EmployeeRepository extends JpaRepository<Employee, Integer>, JpaSpecificationExecutor<Employee> {
 
+    // Read endpoints select straight into the DTO (constructor expression), so no managed entity
+    // or dirty-checking snapshot is created per row
+    Window<EmployeeDTO> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
-    @Query("SELECT e FROM Employee e WHERE LOWER(e.firstName) LIKE LOWER(CONCAT('%', :name, '%')) " +
-            "OR LOWER(e.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Employee> searchByName(@Param("name") String name);
+    @Query("SELECT new com.example.assessment.dto.EmployeeDTO(e.empNo, e.birthDate, e.firstName, e.lastName, e.gender, e.hireDate) " +
+            "FROM Employee e WHERE LOWER(e.firstName) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(e.lastName) LIKE :pattern ESCAPE '\\' ORDER BY e.empNo")
+    List<EmployeeDTO> searchByName(@Param("pattern") String pattern, Limit limit);
+
+    // pg_trgm's % operator has no JPQL form; the rows are loaded read-only so no snapshot is kept
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT * FROM employees WHERE lower(first_name) % :name OR lower(last_name) % :name " +
+            "ORDER BY GREATEST(similarity(lower(first_name), :name), similarity(lower(last_name), :name)) DESC, emp_no " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Employee> searchByNameSimilarity(@Param("name") String name, @Param("limit") int limit);
+
+    // A single array parameter keeps this one statement with one cached plan however many ids are sent
+    @Query(value = "SELECT emp_no FROM employees WHERE emp_no = ANY(:empNos)", nativeQuery = true)
+    List<Integer> findExistingEmpNos(@Param("empNos") Integer[] empNos);
+
+    // Forward-only cursor for the export endpoint: rows arrive in fetch-size batches straight into DTOs,
+    // so nothing accumulates in the persistence context however large the table is
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.assessment.dto.EmployeeDTO(e.empNo, e.birthDate, e.firstName, e.lastName, e.gender, e.hireDate) " +
+            "FROM Employee e ORDER BY e.empNo")
+    Stream<EmployeeDTO> streamAllForExport();
+
+    // Each query initializes one collection of the same managed employees, so loading the full
+    // profile costs one statement per association instead of a cartesian join or N+1 selects
+    @EntityGraph(attributePaths = "salaries")
+    @Query("SELECT e FROM Employee e WHERE e.empNo IN :empNos")
+    List<Employee> findWithSalariesByEmpNoIn(@Param("empNos") Collection<Integer> empNos);
+
+    @EntityGraph(attributePaths = "titles")
+    @Query("SELECT e FROM Employee e WHERE e.empNo IN :empNos")
+    List<Employee> findWithTitlesByEmpNoIn(@Param("empNos") Collection<Integer> empNos);
+
+    @EntityGraph(attributePaths = "deptEmps")
+    @Query("SELECT e FROM Employee e WHERE e.empNo IN :empNos")
+    List<Employee> findWithDeptEmpsByEmpNoIn(@Param("empNos") Collection<Integer> empNos);
+
+    @EntityGraph(attributePaths = "deptManagers")
+    @Query("SELECT e FROM Employee e WHERE e.empNo IN :empNos")
+    List<Employee> findWithDeptManagersByEmpNoIn(@Param("empNos") Collection<Integer> empNos);
 
     // Stored Procedure calls
     @Procedure(procedureName = "sp_insert_employee")
@@ -44,4 +96,28 @@ public interface EmployeeRepository extends JpaRepository<Employee, Integer> {
 
     @Procedure(procedureName = "sp_delete_employee")
     void deleteEmployeeProcedure(@Param("p_emp_no") Integer empNo);
+
+    // Set-based procedures from V3__bulk_employee_procedures.sql; element i of each array is one employee
+    @Procedure(procedureName = "sp_insert_employees")
+    void insertEmployeesProcedure(
+            @Param("p_emp_nos") Integer[] empNos,
+            @Param("p_birth_dates") LocalDate[] birthDates,
+            @Param("p_first_names") String[] firstNames,
+            @Param("p_last_names") String[] lastNames,
+            @Param("p_genders") String[] genders,
+            @Param("p_hire_dates") LocalDate[] hireDates
+    );
+
+    @Procedure(procedureName = "sp_update_employees")
+    void updateEmployeesProcedure(
+            @Param("p_emp_nos") Integer[] empNos,
+            @Param("p_birth_dates") LocalDate[] birthDates,
+            @Param("p_first_names") String[] firstNames,
+            @Param("p_last_names") String[] lastNames,
+            @Param("p_genders") String[] genders,
+            @Param("p_hire_dates") LocalDate[] hireDates
+    );
+
+    @Procedure(procedureName = "sp_delete_employees")
+    void deleteEmployeesProcedure(@Param("p_emp_nos") Integer[] empNos);
 }
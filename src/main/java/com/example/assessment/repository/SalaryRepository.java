@@ -1,19 +1,75 @@
 package com.example.assessment.repository;
 
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.SalaryStatsDTO;
+import com.example.assessment.dto.TopEarnerDTO;
 import com.example.assessment.model.Salary;
 import com.example.assessment.model.SalaryId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface SalaryRepository extends JpaRepository<Salary, SalaryId> {
+public interface SalaryRepository extends JpaRepository<Salary, SalaryId>, JpaSpecificationExecutor<Salary> {
+
+    Window<SalaryDTO> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
     List<Salary> findByEmpNo(Integer empNo);
 
-    List<Salary> findByEmpNoOrderByFromDateDesc(Integer empNo);
+    List<SalaryDTO> findByEmpNoOrderByFromDateDesc(Integer empNo);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.assessment.dto.SalaryDTO(s.empNo, s.salary, s.fromDate, s.toDate) " +
+            "FROM Salary s ORDER BY s.empNo, s.fromDate")
+    Stream<SalaryDTO> streamAllForExport();
+
+    @Query("SELECT new com.example.assessment.dto.SalaryStatsDTO(COUNT(s), MIN(s.salary), AVG(s.salary), MAX(s.salary)) " +
+            "FROM Salary s, DeptEmp de WHERE de.empNo = s.empNo AND de.deptNo = :deptNo " +
+            "AND (de.toDate IS NULL OR de.toDate >= CURRENT_DATE) AND (s.toDate IS NULL OR s.toDate >= CURRENT_DATE)")
+    SalaryStatsDTO findCurrentStatsByDeptNo(@Param("deptNo") String deptNo);
+
+    // The best paid current salaries of one department, read straight off its current members and cut off at
+    // limit rows, so no more than limit of them are kept sorted. The rank is the position, set by the caller
+    @Query("SELECT new com.example.assessment.dto.TopEarnerDTO(de.deptNo, 0L, s.empNo, s.salary, s.fromDate, s.toDate) " +
+            "FROM Salary s, DeptEmp de WHERE de.empNo = s.empNo AND de.deptNo = :deptNo " +
+            "AND (de.toDate IS NULL OR de.toDate >= CURRENT_DATE) AND (s.toDate IS NULL OR s.toDate >= CURRENT_DATE) " +
+            "ORDER BY s.salary DESC, s.empNo, s.fromDate")
+    List<TopEarnerDTO> findTopEarnersInDepartment(@Param("deptNo") String deptNo, Limit limit);
 
+    // The same per department, as a lateral subquery run once for each: every department is cut off at limit
+    // rows on its own instead of ranking all current salaries together. Rows arrive department by department,
+    // best paid first
+    @Query("SELECT new com.example.assessment.dto.TopEarnerDTO(d.deptNo, 0L, t.empNo, t.salary, t.fromDate, t.toDate) " +
+            "FROM Department d JOIN LATERAL (" +
+            "SELECT s.empNo AS empNo, s.salary AS salary, s.fromDate AS fromDate, s.toDate AS toDate " +
+            "FROM Salary s WHERE (s.toDate IS NULL OR s.toDate >= CURRENT_DATE) AND s.empNo IN (" +
+            "SELECT de.empNo FROM DeptEmp de WHERE de.deptNo = d.deptNo AND (de.toDate IS NULL OR de.toDate >= CURRENT_DATE)) " +
+            "ORDER BY s.salary DESC, s.empNo, s.fromDate LIMIT :limit) t " +
+            "ORDER BY d.deptNo, t.salary DESC, t.empNo, t.fromDate")
+    List<TopEarnerDTO> findTopEarnersPerDepartment(@Param("limit") int limit);
 
+    // Keyset seek past (salary, empNo, fromDate). The two branches split "current" so each matches an index in
+    // V6__current_salary_indexes.sql; the first is read in salary order and stops after limit rows
+    @Query("SELECT new com.example.assessment.dto.SalaryDTO(c.empNo, c.salary, c.fromDate, c.toDate) " +
+            "FROM (SELECT s.empNo AS empNo, s.salary AS salary, s.fromDate AS fromDate, s.toDate AS toDate FROM Salary s " +
+            "WHERE s.toDate IS NULL AND s.salary <= :max AND (s.salary, s.empNo, s.fromDate) > (:salary, :empNo, :fromDate) " +
+            "UNION ALL " +
+            "SELECT s.empNo, s.salary, s.fromDate, s.toDate FROM Salary s " +
+            "WHERE s.toDate >= CURRENT_DATE AND s.salary <= :max AND (s.salary, s.empNo, s.fromDate) > (:salary, :empNo, :fromDate)) c " +
+            "ORDER BY c.salary, c.empNo, c.fromDate")
+    List<SalaryDTO> findCurrentInRange(@Param("max") int max, @Param("salary") int afterSalary,
+                                       @Param("empNo") int afterEmpNo, @Param("fromDate") LocalDate afterFromDate,
+                                       Limit limit);
 }
@@ -1,24 +1,72 @@
 package com.example.assessment.repository;
 
+import com.example.assessment.dto.DepartmentTitleCountDTO;
+import com.example.assessment.dto.TitleCountDTO;
+import com.example.assessment.dto.TitleDTO;
 import com.example.assessment.model.Title;
 import com.example.assessment.model.TitleId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface TitleRepository extends JpaRepository<Title, TitleId>, JpaSpecificationExecutor<Title> {
+    Window<TitleDTO> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
-public interface TitleRepository extends JpaRepository<Title, TitleId> {
     List<Title> findByEmpNo(Integer empNo);
 
-    List<Title> findByEmpNoOrderByFromDateDesc(Integer empNo);
+    List<TitleDTO> findByEmpNoOrderByFromDateDesc(Integer empNo);
 
     @Query("SELECT t FROM Title t WHERE t.empNo = :empNo AND (t.toDate IS NULL OR t.toDate >= CURRENT_DATE)")
     Optional<Title> findCurrentTitle(@Param("empNo") Integer empNo);
 
-    List<Title> findByTitle(String title);
+    List<TitleDTO> findByTitle(String title);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "title-queries")
+    })
+    @Query("SELECT DISTINCT t.title FROM Title t ORDER BY t.title")
+    List<String> findDistinctTitles();
+
+    @Query("SELECT new com.example.assessment.dto.TitleDTO(t.empNo, t.title, t.fromDate, t.toDate) " +
+            "FROM Title t WHERE LOWER(t.title) LIKE :pattern ESCAPE '\\' ORDER BY t.empNo, t.fromDate")
+    List<TitleDTO> searchByTitle(@Param("pattern") String pattern, Limit limit);
+
+    @Query("SELECT new com.example.assessment.dto.TitleDTO(t.empNo, t.title, t.fromDate, t.toDate) " +
+            "FROM Title t WHERE LOWER(t.title) LIKE :pattern ESCAPE '\\' ORDER BY LOWER(t.title), t.empNo, t.fromDate")
+    List<TitleDTO> searchByTitlePrefix(@Param("pattern") String pattern, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT * FROM titles WHERE lower(title) % :title " +
+            "ORDER BY similarity(lower(title), :title) DESC, emp_no, from_date LIMIT :limit", nativeQuery = true)
+    List<Title> searchByTitleSimilarity(@Param("title") String title, @Param("limit") int limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.assessment.dto.TitleDTO(t.empNo, t.title, t.fromDate, t.toDate) " +
+            "FROM Title t ORDER BY t.empNo, t.title, t.fromDate")
+    Stream<TitleDTO> streamAllForExport();
+
+    @Query("SELECT new com.example.assessment.dto.TitleCountDTO(t.title, COUNT(t)) " +
+            "FROM Title t, DeptEmp de WHERE de.empNo = t.empNo AND de.deptNo = :deptNo " +
+            "AND (de.toDate IS NULL OR de.toDate >= CURRENT_DATE) AND (t.toDate IS NULL OR t.toDate >= CURRENT_DATE) " +
+            "GROUP BY t.title ORDER BY COUNT(t) DESC, t.title")
+    List<TitleCountDTO> countCurrentTitlesByDeptNo(@Param("deptNo") String deptNo);
 
-    @Query("SELECT t FROM Title t WHERE LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))")
-    List<Title> searchByTitle(@Param("title") String title);
+    @Query("SELECT new com.example.assessment.dto.DepartmentTitleCountDTO(de.deptNo, t.title, COUNT(t)) " +
+            "FROM Title t, DeptEmp de WHERE de.empNo = t.empNo " +
+            "AND (de.toDate IS NULL OR de.toDate >= CURRENT_DATE) AND (t.toDate IS NULL OR t.toDate >= CURRENT_DATE) " +
+            "GROUP BY de.deptNo, t.title ORDER BY de.deptNo, COUNT(t) DESC, t.title")
+    List<DepartmentTitleCountDTO> countCurrentTitlesPerDepartment();
 }
@@ -0,0 +1,79 @@
+package com.example.assessment.service;
+
+import com.example.assessment.dto.DepartmentDTO;
+import com.example.assessment.dto.DepartmentOverviewDTO;
+import com.example.assessment.dto.DeptEmpDTO;
+import com.example.assessment.dto.DeptManagerDTO;
+import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.dto.EmployeeFullDTO;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.SalaryStatsDTO;
+import com.example.assessment.dto.TitleCountDTO;
+import com.example.assessment.dto.TitleDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Views assembled from several entity services, with each lookup forked on {@link ParallelReads}.
+ * Not transactional itself: every fork opens its own read-only transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CompositeReadService {
+
+    private final ParallelReads parallelReads;
+    private final EmployeeService employeeService;
+    private final SalaryService salaryService;
+    private final TitleService titleService;
+    private final DeptEmpService deptEmpService;
+    private final DeptManagerService deptManagerService;
+    private final DepartmentService departmentService;
+
+    // Same shape as EmployeeProfileService's /full, composed from the per-entity services
+    public EmployeeFullDTO getEmployeeAggregate(Integer empNo) {
+        log.info("Fetching aggregate for employee: {}", empNo);
+
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<EmployeeDTO> employee = scope.fork(() -> employeeService.getEmployeeById(empNo));
+            Supplier<List<SalaryDTO>> salaries = scope.fork(() -> salaryService.getSalariesByEmployee(empNo));
+            Supplier<List<TitleDTO>> titles = scope.fork(() -> titleService.getTitlesByEmployee(empNo));
+            Supplier<List<DeptEmpDTO>> deptEmps = scope.fork(() -> deptEmpService.getDepartmentsByEmployee(empNo));
+            Supplier<List<DeptManagerDTO>> deptManagers = scope.fork(() -> deptManagerService.getDepartmentsManagedByEmployee(empNo));
+            scope.join();
+
+            return EmployeeFullDTO.builder()
+                    .employee(employee.get())
+                    .salaries(salaries.get())
+                    .titles(titles.get())
+                    .deptEmps(deptEmps.get())
+                    .deptManagers(deptManagers.get())
+                    .build();
+        }
+    }
+
+    public DepartmentOverviewDTO getDepartmentOverview(String deptNo) {
+        log.info("Fetching overview for department: {}", deptNo);
+
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<DepartmentDTO> department = scope.fork(() -> departmentService.getDepartmentById(deptNo));
+            Supplier<List<DeptManagerDTO>> managers = scope.fork(() -> deptManagerService.getManagersOfDepartment(deptNo));
+            Supplier<Long> currentEmployees = scope.fork(() -> deptEmpService.countCurrentEmployeesInDepartment(deptNo));
+            Supplier<SalaryStatsDTO> currentSalaries = scope.fork(() -> salaryService.getCurrentSalaryStatsForDepartment(deptNo));
+            Supplier<List<TitleCountDTO>> currentTitles = scope.fork(() -> titleService.getCurrentTitleCountsForDepartment(deptNo));
+            scope.join();
+
+            return DepartmentOverviewDTO.builder()
+                    .department(department.get())
+                    .managers(managers.get())
+                    .currentEmployees(currentEmployees.get())
+                    .currentSalaries(currentSalaries.get())
+                    .currentTitles(currentTitles.get())
+                    .build();
+        }
+    }
+}
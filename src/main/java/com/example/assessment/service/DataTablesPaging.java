@@ -0,0 +1,145 @@
+package com.example.assessment.service;
+
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
+import com.example.assessment.exception.BadRequestException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps DataTables server-side requests onto paged repository queries.
+ * <p>
+ * DataTables pages by row offset, which the database can only reach by reading and dropping every row
+ * before it, and it wants the number of matching rows, which takes a scan of all of them. Both are held to
+ * the first {@link #MAX_ROWS} rows of an ordering: a later {@code start} is rejected, and counts stop at
+ * {@code MAX_ROWS}, so the pager never offers a page past it. Rows further on are reached by searching or
+ * by sorting the other way; the keyset endpoints ({@code ?after=}) page through everything.
+ */
+public final class DataTablesPaging {
+
+    static final int MAX_ROWS = 10_000;
+
+    private DataTablesPaging() {
+    }
+
+    /**
+     * Builds the page request; requested columns are checked against {@code sortable} and the id
+     * attributes are appended so rows with equal sort keys keep a stable order across pages. DataTables
+     * sends a row offset, which need not be a multiple of the page length, so the request skips exactly
+     * {@code start} rows, up to {@link #MAX_ROWS}.
+     */
+    public static Pageable pageable(DataTablesRequestDTO request, Set<String> sortable, String... idProperties) {
+        if (request.getLength() < 1 || request.getLength() > KeysetPaging.MAX_LIMIT) {
+            throw new BadRequestException("length must be between 1 and " + KeysetPaging.MAX_LIMIT);
+        }
+        if (request.getStart() < 0 || request.getStart() >= MAX_ROWS) {
+            throw new BadRequestException("start must be between 0 and " + (MAX_ROWS - 1)
+                    + "; search or sort the other way to reach later rows");
+        }
+
+        List<Sort.Order> orders = new ArrayList<>();
+        for (DataTablesRequestDTO.Order order : request.getOrders()) {
+            if (!sortable.contains(order.getProperty())) {
+                throw new BadRequestException("Unsupported sort property: " + order.getProperty() + ", allowed: " + sortable);
+            }
+            orders.add(order.isAscending() ? Sort.Order.asc(order.getProperty()) : Sort.Order.desc(order.getProperty()));
+        }
+
+        Sort sort = Sort.by(orders).and(Sort.by(idProperties));
+        return new OffsetPageable(request.getStart(), request.getLength(), sort);
+    }
+
+    /**
+     * Wraps a page of {@code search} in the DataTables envelope, with both counts capped at
+     * {@link #MAX_ROWS}. A last page gives the filtered count without a query, and without a search term
+     * the filtered count is the total.
+     */
+    public static <E, T> DataTablesResponseDTO<T> response(DataTablesRequestDTO request, Slice<T> page,
+                                                           JpaSpecificationExecutor<E> repository,
+                                                           Specification<E> search, Class<T> projection) {
+        long filtered = !page.hasNext() && (page.hasContent() || page.getPageable().getOffset() == 0)
+                ? Math.min(page.getPageable().getOffset() + page.getNumberOfElements(), MAX_ROWS)
+                : countUpTo(repository, search, projection);
+        return DataTablesResponseDTO.<T>builder()
+                .draw(request.getDraw())
+                .recordsTotal(request.getSearch() == null ? filtered
+                        : countUpTo(repository, (root, query, builder) -> null, projection))
+                .recordsFiltered(filtered)
+                .data(page.getContent())
+                .build();
+    }
+
+    public static Integer asInteger(String term) {
+        try {
+            return Integer.valueOf(term);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    // The rows matching spec, or MAX_ROWS if there are more: a probe for a row past MAX_ROWS in whatever order
+    // the database finds them reads no further, and only a count it fails runs, over at most MAX_ROWS rows
+    private static <E> long countUpTo(JpaSpecificationExecutor<E> repository, Specification<E> spec,
+                                      Class<?> projection) {
+        boolean more = repository.findBy(spec, query -> query.as(projection)
+                .slice(new OffsetPageable(MAX_ROWS, 1, Sort.unsorted()))
+                .hasContent());
+        return more ? MAX_ROWS : repository.count(spec);
+    }
+
+    // PageRequest only has offsets that are multiples of the page size
+    private record OffsetPageable(long offset, int size, Sort sort) implements Pageable {
+
+        @Override
+        public int getPageNumber() {
+            return (int) (offset / size);
+        }
+
+        @Override
+        public int getPageSize() {
+            return size;
+        }
+
+        @Override
+        public long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public Sort getSort() {
+            return sort;
+        }
+
+        @Override
+        public Pageable next() {
+            return new OffsetPageable(offset + size, size, sort);
+        }
+
+        @Override
+        public Pageable previousOrFirst() {
+            return new OffsetPageable(Math.max(offset - size, 0), size, sort);
+        }
+
+        @Override
+        public Pageable first() {
+            return new OffsetPageable(0, size, sort);
+        }
+
+        @Override
+        public Pageable withPage(int pageNumber) {
+            return new OffsetPageable((long) pageNumber * size, size, sort);
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return offset > 0;
+        }
+    }
+}
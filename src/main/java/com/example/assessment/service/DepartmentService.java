@@ -1,31 +1,76 @@
 package com.example.assessment.service;
 
+import com.example.assessment.config.CacheConfig;
 import com.example.assessment.dto.DepartmentDTO;
+import com.example.assessment.dto.DepartmentSummaryDTO;
+import com.example.assessment.dto.DepartmentTitleCountDTO;
+import com.example.assessment.dto.DeptManagerDTO;
+import com.example.assessment.dto.TitleCountDTO;
 import com.example.assessment.exception.ResourceAlreadyExistException;
 import com.example.assessment.exception.ResourceNotFoundException;
 import com.example.assessment.model.Department;
 import com.example.assessment.repository.DepartmentRepository;
-import jakarta.transaction.Transactional;
+import com.example.assessment.repository.DeptManagerRepository;
+import com.example.assessment.repository.TitleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class DepartmentService {
 
     private final DepartmentRepository departmentRepository;
+    private final DeptManagerRepository deptManagerRepository;
+    private final TitleRepository titleRepository;
+    private final PrimaryReads primaryReads;
 
     public List<DepartmentDTO> getAllDepartments() {
         log.info("Fetching all departments");
-        return departmentRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return departmentRepository.findAllBy();
+    }
+
+    /**
+     * Headcount, current manager, payroll and title mix of every department, from three queries whatever
+     * the number of departments. Cached as a whole until a write to departments, assignments, salaries or
+     * titles evicts it: locally through the services, from other nodes through CacheInvalidationListener.
+     * Filled from the primary through PrimaryReads, like EmployeeService#getEmployeeById; {@code sync} lets
+     * one caller rebuild it while the others wait.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Cacheable(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, key = "'all'", sync = true)
+    public List<DepartmentSummaryDTO> getDepartmentSummaries() {
+        log.info("Summarizing all departments");
+        return primaryReads.read(this::summarizeAll);
+    }
+
+    private List<DepartmentSummaryDTO> summarizeAll() {
+        List<DepartmentSummaryDTO> summaries = departmentRepository.summarizeAll();
+        // Ordered by from_date, so the latest of overlapping current assignments wins
+        Map<String, DeptManagerDTO> managers = deptManagerRepository.findAllCurrentManagers().stream()
+                .collect(Collectors.toMap(DeptManagerDTO::getDeptNo, Function.identity(), (earlier, later) -> later));
+        Map<String, List<TitleCountDTO>> titles = titleRepository.countCurrentTitlesPerDepartment().stream()
+                .collect(Collectors.groupingBy(DepartmentTitleCountDTO::getDeptNo,
+                        Collectors.mapping(count -> new TitleCountDTO(count.getTitle(), count.getCount()),
+                                Collectors.toList())));
+
+        summaries.forEach(summary -> {
+            summary.setCurrentManager(managers.get(summary.getDeptNo()));
+            summary.setTitles(titles.getOrDefault(summary.getDeptNo(), List.of()));
+        });
+        return summaries;
     }
 
     public DepartmentDTO getDepartmentById(String id) {
@@ -35,6 +80,8 @@ public class DepartmentService {
         return convertToDTO(department);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.DEPARTMENT_SUMMARY, CacheConfig.ORG_SNAPSHOT}, allEntries = true)
     public DepartmentDTO createDepartment(DepartmentDTO departmentDTO) {
         log.info("Creating new department: {}", departmentDTO);
 
@@ -53,6 +100,8 @@ public class DepartmentService {
         return convertToDTO(savedDepartment);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.DEPARTMENT_SUMMARY, CacheConfig.ORG_SNAPSHOT}, allEntries = true)
     public DepartmentDTO updateDepartment(String id, DepartmentDTO departmentDTO) {
         log.info("Updating department with id: {}", id);
 
@@ -67,6 +116,8 @@ public class DepartmentService {
         return convertToDTO(updatedDepartment);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.DEPARTMENT_SUMMARY, CacheConfig.ORG_SNAPSHOT}, allEntries = true)
     public void deleteDepartment(String id) {
         log.info("Deleting department with id: {}", id);
 
@@ -78,11 +129,17 @@ public class DepartmentService {
         log.info("Department deleted successfully with id: {}", id);
     }
 
-    public List<DepartmentDTO> searchDepartmentsByName(String name) {
-        log.info("Searching departments by name: {}", name);
-        return departmentRepository.searchByName(name).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<DepartmentDTO> searchDepartmentsByName(String name, String mode, Integer limit) {
+        log.info("Searching departments by name: {}, mode: {}, limit: {}", name, mode, limit);
+
+        Limit max = KeysetPaging.limit(limit);
+        return switch (SearchMode.from(mode)) {
+            case CONTAINS -> departmentRepository.searchByName(SearchMode.containsPattern(name), max);
+            case PREFIX -> departmentRepository.searchByNamePrefix(SearchMode.prefixPattern(name), max);
+            case SIMILAR -> departmentRepository.searchByNameSimilarity(name.toLowerCase(), max.max()).stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        };
     }
 
     private DepartmentDTO convertToDTO(Department department) {
@@ -1,5 +1,9 @@
 package com.example.assessment.service;
 
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
 import com.example.assessment.dto.DeptEmpDTO;
 import com.example.assessment.exception.ResourceAlreadyExistException;
 import com.example.assessment.exception.ResourceNotFoundException;
@@ -7,55 +11,77 @@ import com.example.assessment.model.DeptEmp;
 import com.example.assessment.model.DeptEmpId;
 import com.example.assessment.repository.DepartmentRepository;
 import com.example.assessment.repository.DeptEmpRepository;
-import com.example.assessment.repository.EmployeeRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class DeptEmpService {
 
+    private static final Set<String> SORTABLE = Set.of("empNo", "deptNo", "fromDate");
+    private static final Set<String> DATATABLE_SORTABLE = Set.of("empNo", "deptNo", "fromDate", "toDate");
+
     private final DeptEmpRepository deptEmpRepository;
-    private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
     private final DepartmentRepository departmentRepository;
+    private final SalaryStatisticsService salaryStatisticsService;
+    private final OrgSnapshotLoader orgSnapshotLoader;
+
+    public CursorPageDTO<DeptEmpDTO> getDeptEmpsPage(String after, Integer limit, String sort) {
+        log.info("Fetching department-employee relationships page after: {}, limit: {}, sort: {}", after, limit, sort);
+
+        Sort order = KeysetPaging.sort(sort, SORTABLE, "empNo");
+        Window<DeptEmpDTO> window = deptEmpRepository.findAllBy(
+                KeysetPaging.position(after, order, SORTABLE), order, KeysetPaging.limit(limit));
+
+        return CursorPageDTO.<DeptEmpDTO>builder()
+                .items(window.getContent())
+                .nextCursor(KeysetPaging.nextCursor(window, order))
+                .build();
+    }
 
-    public List<DeptEmpDTO> getAllDeptEmps() {
-        log.info("Fetching all department-employee relationships");
-        return deptEmpRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public DataTablesResponseDTO<DeptEmpDTO> getDeptEmpsForDataTable(DataTablesRequestDTO request) {
+        log.info("Fetching department-employee relationships for DataTables, start: {}, length: {}, search: {}",
+                request.getStart(), request.getLength(), request.getSearch());
+
+        Pageable pageable = DataTablesPaging.pageable(request, DATATABLE_SORTABLE, "empNo", "deptNo");
+        Specification<DeptEmp> search = searchSpecification(request.getSearch());
+        Slice<DeptEmpDTO> page = deptEmpRepository.findBy(search, query -> query.as(DeptEmpDTO.class).slice(pageable));
+        return DataTablesPaging.response(request, page, deptEmpRepository, search, DeptEmpDTO.class);
     }
 
     public List<DeptEmpDTO> getDepartmentsByEmployee(Integer empNo) {
         log.info("Fetching departments for employee: {}", empNo);
 
-        if (!employeeRepository.existsById(empNo)) {
+        if (!employeeService.existsById(empNo)) {
             throw new ResourceNotFoundException("Employee not found with id: " + empNo);
         }
 
-        return deptEmpRepository.findByEmpNo(empNo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return deptEmpRepository.findByEmpNo(empNo);
     }
 
 
     public List<DeptEmpDTO> getCurrentDepartmentsByEmployee(Integer empNo) {
         log.info("Fetching current departments for employee: {}", empNo);
 
-        if (!employeeRepository.existsById(empNo)) {
+        if (!employeeService.existsById(empNo)) {
             throw new ResourceNotFoundException("Employee not found with id: " + empNo);
         }
 
-        return deptEmpRepository.findCurrentDepartments(empNo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return deptEmpRepository.findCurrentDepartments(empNo);
     }
 
 
@@ -66,9 +92,7 @@ public class DeptEmpService {
             throw new ResourceNotFoundException("Department not found with id: " + deptNo);
         }
 
-        return deptEmpRepository.findByDeptNo(deptNo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return deptEmpRepository.findByDeptNo(deptNo);
     }
 
 
@@ -79,18 +103,23 @@ public class DeptEmpService {
             throw new ResourceNotFoundException("Department not found with id: " + deptNo);
         }
 
-        return deptEmpRepository.findCurrentEmployeesInDepartment(deptNo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return deptEmpRepository.findCurrentEmployeesInDepartment(deptNo);
+    }
+
+    public long countCurrentEmployeesInDepartment(String deptNo) {
+        log.info("Counting current employees in department: {}", deptNo);
+        return deptEmpRepository.countEmployeesInDepartment(deptNo);
     }
 
 
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
     public DeptEmpDTO addEmployeeToDepartment(DeptEmpDTO deptEmpDTO) {
         log.info("Assigning employee to department: {}", deptEmpDTO);
 
 
-        if (!employeeRepository.existsById(deptEmpDTO.getEmpNo())) {
+        if (!employeeService.existsById(deptEmpDTO.getEmpNo())) {
             throw new ResourceNotFoundException("Employee not found with id: " + deptEmpDTO.getEmpNo());
         }
 
@@ -104,13 +133,17 @@ public class DeptEmpService {
         }
 
         DeptEmp deptEmp = convertToEntity(deptEmpDTO);
-        DeptEmp saved = deptEmpRepository.save(deptEmp);
+        salaryStatisticsService.rebuildAfterCommit();
+        DeptEmpDTO saved = convertToDTO(deptEmpRepository.save(deptEmp));
+        orgSnapshotLoader.recordAssignment(saved.getEmpNo(), saved.getDeptNo(), saved);
         log.info("Employee assigned to department successfully");
 
-        return convertToDTO(saved);
+        return saved;
     }
 
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
     public DeptEmpDTO updateDeptEmp(Integer empNo, String deptNo, DeptEmpDTO deptEmpDTO) {
         log.info("Updating dept-emp for employee: {} dept: {}", empNo, deptNo);
 
@@ -121,12 +154,16 @@ public class DeptEmpService {
         existing.setFromDate(deptEmpDTO.getFromDate());
         existing.setToDate(deptEmpDTO.getToDate());
 
-        DeptEmp updated = deptEmpRepository.save(existing);
+        salaryStatisticsService.rebuildAfterCommit();
+        DeptEmpDTO updated = convertToDTO(deptEmpRepository.save(existing));
+        orgSnapshotLoader.recordAssignment(empNo, deptNo, updated);
         log.info("Department assignment updated successfully");
 
-        return convertToDTO(updated);
+        return updated;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
     public void deleteEmployeeFromDepartment(Integer empNo, String deptNo) {
         log.info("Removing employee: {} from department: {}", empNo, deptNo);
 
@@ -136,10 +173,25 @@ public class DeptEmpService {
             throw new ResourceNotFoundException("Department assignment not found");
         }
 
+        salaryStatisticsService.rebuildAfterCommit();
         deptEmpRepository.deleteById(id);
+        orgSnapshotLoader.recordAssignment(empNo, deptNo, null);
         log.info("Employee removed from department successfully");
     }
 
+    private Specification<DeptEmp> searchSpecification(String term) {
+        if (term == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        return (root, query, cb) -> {
+            Integer empNo = DataTablesPaging.asInteger(term);
+            if (empNo != null) {
+                return cb.equal(root.get("empNo"), empNo);
+            }
+            return cb.equal(cb.upper(root.get("deptNo")), term.toUpperCase());
+        };
+    }
+
     private DeptEmpDTO convertToDTO(DeptEmp deptEmp) {
         return DeptEmpDTO.builder()
                 .empNo(deptEmp.getEmpNo())
@@ -1,5 +1,9 @@
 package com.example.assessment.service;
 
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
 import com.example.assessment.dto.DeptManagerDTO;
 import com.example.assessment.exception.ResourceAlreadyExistException;
 import com.example.assessment.exception.ResourceNotFoundException;
@@ -7,54 +11,79 @@ import com.example.assessment.model.DeptManager;
 import com.example.assessment.model.DeptManagerId;
 import com.example.assessment.repository.DepartmentRepository;
 import com.example.assessment.repository.DeptManagerRepository;
-import com.example.assessment.repository.EmployeeRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class DeptManagerService {
 
+    private static final Set<String> SORTABLE = Set.of("empNo", "deptNo", "fromDate");
+    private static final Set<String> DATATABLE_SORTABLE = Set.of("empNo", "deptNo", "fromDate", "toDate");
+
     private final DeptManagerRepository deptManagerRepository;
-    private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
     private final DepartmentRepository departmentRepository;
+    private final PrimaryReads primaryReads;
+    private final OrgSnapshotLoader orgSnapshotLoader;
+
+    public CursorPageDTO<DeptManagerDTO> getDeptManagersPage(String after, Integer limit, String sort) {
+        log.info("Fetching department managers page after: {}, limit: {}, sort: {}", after, limit, sort);
+
+        Sort order = KeysetPaging.sort(sort, SORTABLE, "empNo");
+        Window<DeptManagerDTO> window = deptManagerRepository.findAllBy(
+                KeysetPaging.position(after, order, SORTABLE), order, KeysetPaging.limit(limit));
+
+        return CursorPageDTO.<DeptManagerDTO>builder()
+                .items(window.getContent())
+                .nextCursor(KeysetPaging.nextCursor(window, order))
+                .build();
+    }
+
+    public DataTablesResponseDTO<DeptManagerDTO> getDeptManagersForDataTable(DataTablesRequestDTO request) {
+        log.info("Fetching department managers for DataTables, start: {}, length: {}, search: {}",
+                request.getStart(), request.getLength(), request.getSearch());
 
-    public List<DeptManagerDTO> getAllDeptManagers() {
-        log.info("Fetching all department managers");
-        return deptManagerRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        Pageable pageable = DataTablesPaging.pageable(request, DATATABLE_SORTABLE, "empNo", "deptNo");
+        Specification<DeptManager> search = searchSpecification(request.getSearch());
+        Slice<DeptManagerDTO> page = deptManagerRepository.findBy(search, query -> query.as(DeptManagerDTO.class).slice(pageable));
+        return DataTablesPaging.response(request, page, deptManagerRepository, search, DeptManagerDTO.class);
     }
 
     public List<DeptManagerDTO> getDepartmentsManagedByEmployee(Integer empNo) {
         log.info("Fetching departments managed by employee: {}", empNo);
 
-        if (!employeeRepository.existsById(empNo)) {
+        if (!employeeService.existsById(empNo)) {
             throw new ResourceNotFoundException("Employee not found with id: " + empNo);
         }
 
-        return deptManagerRepository.findByEmpNo(empNo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return deptManagerRepository.findByEmpNo(empNo);
     }
 
     public List<DeptManagerDTO> getCurrentDepartmentsManagedByEmployee(Integer empNo) {
         log.info("Fetching current departments managed by employee: {}", empNo);
 
-        if (!employeeRepository.existsById(empNo)) {
+        if (!employeeService.existsById(empNo)) {
             throw new ResourceNotFoundException("Employee not found with id: " + empNo);
         }
 
-        return deptManagerRepository.findCurrentManagedDepartments(empNo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return deptManagerRepository.findCurrentManagedDepartments(empNo);
     }
 
     public List<DeptManagerDTO> getManagersOfDepartment(String deptNo) {
@@ -64,31 +93,35 @@ public class DeptManagerService {
             throw new ResourceNotFoundException("Department not found with id: " + deptNo);
         }
 
-        return deptManagerRepository.findByDeptNo(deptNo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return deptManagerRepository.findByDeptNo(deptNo);
     }
 
 
+    // Read on the primary like EmployeeService#getEmployeeById, so a lagging replica cannot refill the cache
+    // with the manager a write just replaced
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Cacheable(cacheNames = CacheConfig.CURRENT_MANAGERS, key = "#deptNo")
     public DeptManagerDTO getCurrentManagerOfDepartment(String deptNo) {
         log.info("Fetching current manager of department: {}", deptNo);
 
-        if (!departmentRepository.existsById(deptNo)) {
-            throw new ResourceNotFoundException("Department not found with id: " + deptNo);
-        }
+        return primaryReads.read(() -> {
+            if (!departmentRepository.existsById(deptNo)) {
+                throw new ResourceNotFoundException("Department not found with id: " + deptNo);
+            }
 
-        DeptManager manager = deptManagerRepository.findCurrentManagerOfDepartment(deptNo)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "No current manager found for department: " + deptNo));
+            DeptManager manager = deptManagerRepository.findCurrentManagerOfDepartment(deptNo)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "No current manager found for department: " + deptNo));
 
-        return convertToDTO(manager);
+            return convertToDTO(manager);
+        });
     }
 
 
     public boolean isCurrentManager(Integer empNo) {
         log.info("Checking if employee {} is current manager", empNo);
 
-        if (!employeeRepository.existsById(empNo)) {
+        if (!employeeService.existsById(empNo)) {
             throw new ResourceNotFoundException("Employee not found with id: " + empNo);
         }
 
@@ -96,10 +129,15 @@ public class DeptManagerService {
     }
 
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CURRENT_MANAGERS, key = "#deptManagerDTO.deptNo"),
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
+    })
     public DeptManagerDTO addManagerToDepartment(DeptManagerDTO deptManagerDTO) {
         log.info("Assigning manager to department: {}", deptManagerDTO);
 
-        if (!employeeRepository.existsById(deptManagerDTO.getEmpNo())) {
+        if (!employeeService.existsById(deptManagerDTO.getEmpNo())) {
             throw new ResourceNotFoundException("Employee not found with id: " + deptManagerDTO.getEmpNo());
         }
 
@@ -113,12 +151,18 @@ public class DeptManagerService {
         }
 
         DeptManager deptManager = convertToEntity(deptManagerDTO);
-        DeptManager saved = deptManagerRepository.save(deptManager);
+        DeptManagerDTO saved = convertToDTO(deptManagerRepository.save(deptManager));
+        orgSnapshotLoader.recordManagement(saved.getEmpNo(), saved.getDeptNo(), saved);
         log.info("Manager assigned to department successfully");
 
-        return convertToDTO(saved);
+        return saved;
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CURRENT_MANAGERS, key = "#deptNo"),
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
+    })
     public DeptManagerDTO updateDeptManager(Integer empNo, String deptNo, DeptManagerDTO deptManagerDTO) {
         log.info("Updating dept-manager for employee: {} dept: {}", empNo, deptNo);
 
@@ -129,12 +173,18 @@ public class DeptManagerService {
         existing.setFromDate(deptManagerDTO.getFromDate());
         existing.setToDate(deptManagerDTO.getToDate());
 
-        DeptManager updated = deptManagerRepository.save(existing);
+        DeptManagerDTO updated = convertToDTO(deptManagerRepository.save(existing));
+        orgSnapshotLoader.recordManagement(empNo, deptNo, updated);
         log.info("Manager assignment updated successfully");
 
-        return convertToDTO(updated);
+        return updated;
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CURRENT_MANAGERS, key = "#deptNo"),
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
+    })
     public void deleteManagerFromDepartment(Integer empNo, String deptNo) {
         log.info("Removing manager: {} from department: {}", empNo, deptNo);
 
@@ -145,9 +195,23 @@ public class DeptManagerService {
         }
 
         deptManagerRepository.deleteById(id);
+        orgSnapshotLoader.recordManagement(empNo, deptNo, null);
         log.info("Manager removed from department successfully");
     }
 
+    private Specification<DeptManager> searchSpecification(String term) {
+        if (term == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        return (root, query, cb) -> {
+            Integer empNo = DataTablesPaging.asInteger(term);
+            if (empNo != null) {
+                return cb.equal(root.get("empNo"), empNo);
+            }
+            return cb.equal(cb.upper(root.get("deptNo")), term.toUpperCase());
+        };
+    }
+
     private DeptManagerDTO convertToDTO(DeptManager deptManager) {
         return DeptManagerDTO.builder()
                 .empNo(deptManager.getEmpNo())
@@ -0,0 +1,165 @@
+package com.example.assessment.service;
+
+import com.example.assessment.dto.BulkResultDTO;
+import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.exception.BadRequestException;
+import com.example.assessment.model.Employee;
+import com.example.assessment.repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk employee import for the nightly HR sync.
+ * <p>
+ * The request is validated item by item, existing ids are found with one query, and the remaining
+ * rows are inserted with {@code persist} in chunks of {@code app.employees.bulk.chunk-size}, each in
+ * its own transaction. {@code persist} skips the SELECT that {@code save} issues for client-assigned
+ * ids, and the flush per chunk goes out as JDBC batches. A failing chunk is rolled back and reported
+ * for each of its items; the other chunks are unaffected.
+ */
+@Service
+@Slf4j
+public class EmployeeBulkService {
+
+    public static final int MAX_ITEMS = 10_000;
+
+    private final EmployeeRepository employeeRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public EmployeeBulkService(EmployeeRepository employeeRepository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               Validator validator,
+                               @Value("${app.employees.bulk.chunk-size:1000}") int chunkSize) {
+        this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkResultDTO createEmployees(List<EmployeeDTO> employees) {
+        log.info("Bulk creating {} employees", employees.size());
+
+        if (employees.isEmpty() || employees.size() > MAX_ITEMS) {
+            throw new BadRequestException("Bulk request must contain between 1 and " + MAX_ITEMS + " employees");
+        }
+
+        List<BulkResultDTO.ItemError> errors = new ArrayList<>();
+        Map<Integer, Integer> candidates = new HashMap<>();
+        for (int index = 0; index < employees.size(); index++) {
+            EmployeeDTO dto = employees.get(index);
+            String violation = validate(dto);
+            if (violation != null) {
+                errors.add(new BulkResultDTO.ItemError(index, dto == null ? null : dto.getEmpNo(), violation));
+            } else if (candidates.putIfAbsent(dto.getEmpNo(), index) != null) {
+                errors.add(new BulkResultDTO.ItemError(index, dto.getEmpNo(), "Duplicate employee number in request"));
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Set<Integer> existing = new HashSet<>(
+                    employeeRepository.findExistingEmpNos(candidates.keySet().toArray(Integer[]::new)));
+            existing.forEach(empNo -> errors.add(new BulkResultDTO.ItemError(
+                    candidates.remove(empNo), empNo, "Employee with id " + empNo + " already exists")));
+        }
+
+        List<Integer> pending = candidates.values().stream().sorted().collect(Collectors.toList());
+        int created = 0;
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            try {
+                insertChunk(chunk, employees);
+                created += chunk.size();
+            } catch (DataAccessException | PersistenceException | TransactionException ex) {
+                log.warn("Bulk chunk of {} employees rolled back", chunk.size(), ex);
+                String reason = "Chunk rolled back: " + describe(ex);
+                chunk.forEach(index -> errors.add(new BulkResultDTO.ItemError(
+                        index, employees.get(index).getEmpNo(), reason)));
+            }
+        }
+
+        errors.sort((left, right) -> Integer.compare(left.getIndex(), right.getIndex()));
+        log.info("Bulk create finished: {} created, {} failed", created, errors.size());
+
+        return BulkResultDTO.builder()
+                .total(employees.size())
+                .created(created)
+                .failed(errors.size())
+                .errors(errors)
+                .build();
+    }
+
+    private void insertChunk(List<Integer> chunk, List<EmployeeDTO> employees) {
+        transactionTemplate.executeWithoutResult(status -> {
+            chunk.forEach(index -> entityManager.persist(convertToEntity(employees.get(index))));
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private String validate(EmployeeDTO dto) {
+        if (dto == null) {
+            return "Employee must not be null";
+        }
+        Set<ConstraintViolation<EmployeeDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    // The driver's message names tables, constraints and values, so clients get a stable reason picked by
+    // SQLSTATE instead; the full cause is in the server log
+    private static String describe(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return switch (sqlException.getSQLState()) {
+                    case "23505" -> "duplicate employee number";
+                    case "23502" -> "missing required value";
+                    case "23513", "23514" -> "value out of allowed range";
+                    case "23503" -> "referenced row does not exist";
+                    default -> sqlException.getSQLState().startsWith("23")
+                            ? "constraint violation"
+                            : "database error";
+                };
+            }
+        }
+        return "database error";
+    }
+
+    private Employee convertToEntity(EmployeeDTO dto) {
+        return Employee.builder()
+                .empNo(dto.getEmpNo())
+                .birthDate(dto.getBirthDate())
+                .firstName(dto.getFirstName())
+                .lastName(dto.getLastName())
+                .gender(dto.getGender())
+                .hireDate(dto.getHireDate())
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.assessment.service;
+
+import com.example.assessment.dto.*;
+import com.example.assessment.exception.BadRequestException;
+import com.example.assessment.exception.ResourceNotFoundException;
+import com.example.assessment.model.*;
+import com.example.assessment.repository.EmployeeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregated employee view: profile, salary and title history, department and manager assignments.
+ * <p>
+ * Always four statements for any number of employees: the first query loads the employees with
+ * their salaries, the next three initialize titles, deptEmps and deptManagers on the same managed
+ * instances. Fetching one collection per query avoids both the cartesian product of a multi-bag
+ * join and the N+1 of lazy loading.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class EmployeeProfileService {
+
+    private final EmployeeRepository employeeRepository;
+
+    public EmployeeFullDTO getEmployeeFull(Integer empNo) {
+        log.info("Fetching full profile for employee: {}", empNo);
+
+        List<EmployeeFullDTO> profiles = loadProfiles(Set.of(empNo));
+        if (profiles.isEmpty()) {
+            throw new ResourceNotFoundException("Employee not found with id: " + empNo);
+        }
+        return profiles.get(0);
+    }
+
+    public List<EmployeeFullDTO> getEmployeesFull(List<Integer> empNos) {
+        log.info("Fetching full profiles for {} employees", empNos.size());
+
+        Set<Integer> ids = new LinkedHashSet<>(empNos);
+        if (ids.isEmpty() || ids.size() > KeysetPaging.MAX_LIMIT) {
+            throw new BadRequestException("ids must contain between 1 and " + KeysetPaging.MAX_LIMIT + " employee numbers");
+        }
+        return loadProfiles(ids);
+    }
+
+    private List<EmployeeFullDTO> loadProfiles(Set<Integer> ids) {
+        List<Employee> employees = employeeRepository.findWithSalariesByEmpNoIn(ids);
+        if (employees.isEmpty()) {
+            return List.of();
+        }
+
+        employeeRepository.findWithTitlesByEmpNoIn(ids);
+        employeeRepository.findWithDeptEmpsByEmpNoIn(ids);
+        employeeRepository.findWithDeptManagersByEmpNoIn(ids);
+
+        return employees.stream()
+                .sorted(Comparator.comparing(Employee::getEmpNo))
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    private EmployeeFullDTO convertToDTO(Employee employee) {
+        return EmployeeFullDTO.builder()
+                .employee(EmployeeDTO.builder()
+                        .empNo(employee.getEmpNo())
+                        .birthDate(employee.getBirthDate())
+                        .firstName(employee.getFirstName())
+                        .lastName(employee.getLastName())
+                        .gender(employee.getGender())
+                        .hireDate(employee.getHireDate())
+                        .build())
+                .salaries(employee.getSalaries().stream()
+                        .sorted(Comparator.comparing(Salary::getFromDate).reversed())
+                        .map(salary -> SalaryDTO.builder()
+                                .empNo(salary.getEmpNo())
+                                .salary(salary.getSalary())
+                                .fromDate(salary.getFromDate())
+                                .toDate(salary.getToDate())
+                                .build())
+                        .collect(Collectors.toList()))
+                .titles(employee.getTitles().stream()
+                        .sorted(Comparator.comparing(Title::getFromDate).reversed())
+                        .map(title -> TitleDTO.builder()
+                                .empNo(title.getEmpNo())
+                                .title(title.getTitle())
+                                .fromDate(title.getFromDate())
+                                .toDate(title.getToDate())
+                                .build())
+                        .collect(Collectors.toList()))
+                .deptEmps(employee.getDeptEmps().stream()
+                        .sorted(Comparator.comparing(DeptEmp::getFromDate).reversed())
+                        .map(deptEmp -> DeptEmpDTO.builder()
+                                .empNo(deptEmp.getEmpNo())
+                                .deptNo(deptEmp.getDeptNo())
+                                .fromDate(deptEmp.getFromDate())
+                                .toDate(deptEmp.getToDate())
+                                .build())
+                        .collect(Collectors.toList()))
+                .deptManagers(employee.getDeptManagers().stream()
+                        .sorted(Comparator.comparing(DeptManager::getFromDate).reversed())
+                        .map(deptManager -> DeptManagerDTO.builder()
+                                .empNo(deptManager.getEmpNo())
+                                .deptNo(deptManager.getDeptNo())
+                                .fromDate(deptManager.getFromDate())
+                                .toDate(deptManager.getToDate())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -1,40 +1,107 @@
 package com.example.assessment.service;
 
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
 import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.exception.BadRequestException;
 import com.example.assessment.exception.ResourceAlreadyExistException;
 import com.example.assessment.exception.ResourceNotFoundException;
 import com.example.assessment.model.*;
 import com.example.assessment.repository.EmployeeRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class EmployeeService {
 
+    // Id attributes must stay sortable, they are the keyset tie-breakers
+    private static final Set<String> SORTABLE = Set.of("empNo", "firstName", "lastName", "birthDate", "hireDate");
+    private static final Set<String> DATATABLE_SORTABLE = Set.of("empNo", "firstName", "lastName", "gender", "birthDate", "hireDate");
+
     private final EmployeeRepository employeeRepository;
+    private final CacheManager cacheManager;
+    private final PrimaryReads primaryReads;
+    private final SalaryStatisticsService salaryStatisticsService;
+
+    public CursorPageDTO<EmployeeDTO> getEmployeesPage(String after, Integer limit, String sort) {
+        log.info("Fetching employees page after: {}, limit: {}, sort: {}", after, limit, sort);
+
+        Sort order = KeysetPaging.sort(sort, SORTABLE, "empNo");
+        Window<EmployeeDTO> window = employeeRepository.findAllBy(
+                KeysetPaging.position(after, order, SORTABLE), order, KeysetPaging.limit(limit));
+
+        return CursorPageDTO.<EmployeeDTO>builder()
+                .items(window.getContent())
+                .nextCursor(KeysetPaging.nextCursor(window, order))
+                .build();
+    }
+
+    public DataTablesResponseDTO<EmployeeDTO> getEmployeesForDataTable(DataTablesRequestDTO request) {
+        log.info("Fetching employees for DataTables, start: {}, length: {}, search: {}",
+                request.getStart(), request.getLength(), request.getSearch());
 
-    public List<EmployeeDTO> getAllEmployees() {
-        log.info("Fetching all employees");
-        return employeeRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        Pageable pageable = DataTablesPaging.pageable(request, DATATABLE_SORTABLE, "empNo");
+        Specification<Employee> search = searchSpecification(request.getSearch());
+        Slice<EmployeeDTO> page = employeeRepository.findBy(search, query -> query.as(EmployeeDTO.class).slice(pageable));
+        return DataTablesPaging.response(request, page, employeeRepository, search, EmployeeDTO.class);
     }
 
+    // Cache fills read the primary through PrimaryReads, whatever transaction the caller is in
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES, key = "#id")
     public EmployeeDTO getEmployeeById(Integer id) {
         log.info("Fetching employee with id: {}", id);
-        Employee employee = employeeRepository.findById(id)
+        return primaryReads.read(() -> employeeRepository.findById(id).map(this::convertToDTO))
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
-        return convertToDTO(employee);
     }
 
+    /**
+     * Existence check shared by the salary, title and department assignment services. Served from
+     * the employee cache when possible; a database hit warms the cache for the next caller, so it
+     * reads the primary as {@link #getEmployeeById} does.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean existsById(Integer id) {
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES);
+        if (cache.get(id) != null) {
+            return true;
+        }
+
+        Optional<EmployeeDTO> employee = primaryReads.read(() -> employeeRepository.findById(id).map(this::convertToDTO));
+        employee.ifPresent(value -> cache.put(id, value));
+        return employee.isPresent();
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#employeeDTO.empNo")
     public EmployeeDTO createEmployee(EmployeeDTO employeeDTO) {
         log.info("Creating new employee: {}", employeeDTO);
 
@@ -49,6 +116,8 @@ public class EmployeeService {
         return convertToDTO(savedEmployee);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id")
     public EmployeeDTO updateEmployee(Integer id, EmployeeDTO employeeDTO) {
         log.info("Updating employee with id: {}", id);
 
@@ -67,6 +136,14 @@ public class EmployeeService {
         return convertToDTO(updatedEmployee);
     }
 
+    // The delete cascades to the employee's assignments, salaries and titles, so every derived cache goes too,
+    // and the salary sketches are rebuilt without the employee's current salary
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.DEPARTMENT_SUMMARY, CacheConfig.ORG_SNAPSHOT,
+                    CacheConfig.CURRENT_MANAGERS}, allEntries = true)
+    })
     public void deleteEmployee(Integer id) {
         log.info("Deleting employee with id: {}", id);
 
@@ -74,18 +151,27 @@ public class EmployeeService {
             throw new ResourceNotFoundException("Employee not found with id: " + id);
         }
 
+        salaryStatisticsService.rebuildAfterCommit();
         employeeRepository.deleteById(id);
         log.info("Employee deleted successfully with id: {}", id);
     }
 
-    public List<EmployeeDTO> searchEmployeesByName(String name) {
-        log.info("Searching employees by name: {}", name);
-        return employeeRepository.searchByName(name).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<EmployeeDTO> searchEmployeesByName(String name, String mode, Integer limit) {
+        log.info("Searching employees by name: {}, mode: {}, limit: {}", name, mode, limit);
+
+        Limit max = KeysetPaging.limit(limit);
+        return switch (SearchMode.from(mode)) {
+            case CONTAINS -> employeeRepository.searchByName(SearchMode.containsPattern(name), max);
+            case PREFIX -> employeeRepository.searchByName(SearchMode.prefixPattern(name), max);
+            case SIMILAR -> employeeRepository.searchByNameSimilarity(name.toLowerCase(), max.max()).stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        };
     }
 
     // Using Stored Procedure
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#employeeDTO.empNo")
     public void createEmployeeViaProcedure(EmployeeDTO employeeDTO) {
         log.info("Creating employee via stored procedure: {}", employeeDTO);
         employeeRepository.insertEmployeeProcedure(
@@ -99,6 +185,8 @@ public class EmployeeService {
         log.info("Employee created via stored procedure with id: {}", employeeDTO.getEmpNo());
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id")
     public void updateEmployeeViaProcedure(Integer id, EmployeeDTO employeeDTO) {
         log.info("Updating employee via stored procedure with id: {}", id);
         employeeRepository.updateEmployeeProcedure(
@@ -112,12 +200,118 @@ public class EmployeeService {
         log.info("Employee updated via stored procedure with id: {}", id);
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.EMPLOYEES, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.DEPARTMENT_SUMMARY, CacheConfig.ORG_SNAPSHOT,
+                    CacheConfig.CURRENT_MANAGERS}, allEntries = true)
+    })
     public void deleteEmployeeViaProcedure(Integer id) {
         log.info("Deleting employee via stored procedure with id: {}", id);
+        salaryStatisticsService.rebuildAfterCommit();
         employeeRepository.deleteEmployeeProcedure(id);
         log.info("Employee deleted via stored procedure with id: {}", id);
     }
 
+    // Set-based stored procedures: the whole list is one call, applied all-or-nothing
+    @Transactional
+    public void createEmployeesViaProcedure(List<EmployeeDTO> employees) {
+        log.info("Creating {} employees via set-based stored procedure", employees.size());
+
+        Integer[] empNos = bulkEmpNos(employees.stream().map(EmployeeDTO::getEmpNo).toList());
+        List<Integer> existing = employeeRepository.findExistingEmpNos(empNos);
+        if (!existing.isEmpty()) {
+            throw new ResourceAlreadyExistException("Employees with ids " + existing + " already exist");
+        }
+
+        employeeRepository.insertEmployeesProcedure(
+                empNos,
+                employees.stream().map(EmployeeDTO::getBirthDate).toArray(LocalDate[]::new),
+                employees.stream().map(EmployeeDTO::getFirstName).toArray(String[]::new),
+                employees.stream().map(EmployeeDTO::getLastName).toArray(String[]::new),
+                employees.stream().map(employee -> employee.getGender().name()).toArray(String[]::new),
+                employees.stream().map(EmployeeDTO::getHireDate).toArray(LocalDate[]::new)
+        );
+        evictAll(empNos);
+        log.info("{} employees created via set-based stored procedure", empNos.length);
+    }
+
+    @Transactional
+    public void updateEmployeesViaProcedure(List<EmployeeDTO> employees) {
+        log.info("Updating {} employees via set-based stored procedure", employees.size());
+
+        Integer[] empNos = bulkEmpNos(employees.stream().map(EmployeeDTO::getEmpNo).toList());
+        requireExisting(empNos);
+
+        employeeRepository.updateEmployeesProcedure(
+                empNos,
+                employees.stream().map(EmployeeDTO::getBirthDate).toArray(LocalDate[]::new),
+                employees.stream().map(EmployeeDTO::getFirstName).toArray(String[]::new),
+                employees.stream().map(EmployeeDTO::getLastName).toArray(String[]::new),
+                employees.stream().map(employee -> employee.getGender().name()).toArray(String[]::new),
+                employees.stream().map(EmployeeDTO::getHireDate).toArray(LocalDate[]::new)
+        );
+        evictAll(empNos);
+        log.info("{} employees updated via set-based stored procedure", empNos.length);
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.DEPARTMENT_SUMMARY, CacheConfig.ORG_SNAPSHOT, CacheConfig.CURRENT_MANAGERS},
+            allEntries = true)
+    public void deleteEmployeesViaProcedure(List<Integer> ids) {
+        log.info("Deleting {} employees via set-based stored procedure", ids.size());
+
+        Integer[] empNos = bulkEmpNos(ids);
+        requireExisting(empNos);
+
+        salaryStatisticsService.rebuildAfterCommit();
+        employeeRepository.deleteEmployeesProcedure(empNos);
+        evictAll(empNos);
+        log.info("{} employees deleted via set-based stored procedure", empNos.length);
+    }
+
+    private Integer[] bulkEmpNos(List<Integer> ids) {
+        if (ids.isEmpty() || ids.size() > EmployeeBulkService.MAX_ITEMS) {
+            throw new BadRequestException("Bulk request must contain between 1 and " + EmployeeBulkService.MAX_ITEMS + " employees");
+        }
+        if (new HashSet<>(ids).size() != ids.size()) {
+            throw new BadRequestException("Bulk request contains duplicate employee numbers");
+        }
+        return ids.toArray(Integer[]::new);
+    }
+
+    private void requireExisting(Integer[] empNos) {
+        Set<Integer> missing = new LinkedHashSet<>(Arrays.asList(empNos));
+        employeeRepository.findExistingEmpNos(empNos).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Employees not found with ids: " + missing);
+        }
+    }
+
+    // Same after-commit eviction as the single-row @CacheEvict methods, one key per employee
+    private void evictAll(Integer[] empNos) {
+        Cache cache = cacheManager.getCache(CacheConfig.EMPLOYEES);
+        for (Integer empNo : empNos) {
+            cache.evict(empNo);
+        }
+    }
+
+    private Specification<Employee> searchSpecification(String term) {
+        if (term == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        return (root, query, cb) -> {
+            Integer empNo = DataTablesPaging.asInteger(term);
+            if (empNo != null) {
+                return cb.equal(root.get("empNo"), empNo);
+            }
+            String pattern = SearchMode.containsPattern(term);
+            return cb.or(
+                    cb.like(cb.lower(root.get("firstName")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("lastName")), pattern, '\\'));
+        };
+    }
+
     private EmployeeDTO convertToDTO(Employee employee) {
         return EmployeeDTO.builder()
                 .empNo(employee.getEmpNo())
@@ -0,0 +1,41 @@
+package com.example.assessment.service;
+
+import com.example.assessment.exception.ResourceNotFoundException;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tables available under {@code /api/export/{dataset}}, with the CSV header written for each.
+ */
+public enum ExportDataset {
+    EMPLOYEES("employees", "emp_no", "birth_date", "first_name", "last_name", "gender", "hire_date"),
+    SALARIES("salaries", "emp_no", "salary", "from_date", "to_date"),
+    TITLES("titles", "emp_no", "title", "from_date", "to_date"),
+    DEPT_EMP("dept-emp", "emp_no", "dept_no", "from_date", "to_date"),
+    DEPT_MANAGER("dept-manager", "emp_no", "dept_no", "from_date", "to_date");
+
+    private final String path;
+    private final List<String> columns;
+
+    ExportDataset(String path, String... columns) {
+        this.path = path;
+        this.columns = List.of(columns);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public static ExportDataset from(String path) {
+        return Arrays.stream(values())
+                .filter(value -> value.path.equalsIgnoreCase(path))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Unknown export dataset: " + path
+                        + ", available: " + Arrays.stream(values()).map(ExportDataset::getPath).toList()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.assessment.service;
+
+import com.example.assessment.exception.BadRequestException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Output formats of the export endpoint.
+ */
+public enum ExportFormat {
+    /** RFC 4180 CSV with a header row. */
+    CSV(new MediaType("text", "csv"), "csv"),
+    /** One JSON object per line, shaped like the DTOs the other endpoints return. */
+    NDJSON(new MediaType("application", "x-ndjson"), "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Explicit {@code format} parameter first, then the most specific acceptable type in the
+     * {@code Accept} header; CSV when neither picks one. Empty when the header accepts neither format.
+     */
+    public static Optional<ExportFormat> negotiate(String format, String accept) {
+        if (format != null && !format.isBlank()) {
+            return Optional.of(Arrays.stream(values())
+                    .filter(value -> value.name().equalsIgnoreCase(format.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("Unsupported export format: " + format
+                            + ", allowed: " + Arrays.toString(values()))));
+        }
+        if (accept == null || accept.isBlank()) {
+            return Optional.of(CSV);
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            throw new BadRequestException("Invalid Accept header: " + accept);
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            for (ExportFormat value : values()) {
+                if (type.includes(value.mediaType)) {
+                    return Optional.of(value);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
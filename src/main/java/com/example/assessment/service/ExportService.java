@@ -0,0 +1,133 @@
+package com.example.assessment.service;
+
+import com.example.assessment.repository.DeptEmpRepository;
+import com.example.assessment.repository.DeptManagerRepository;
+import com.example.assessment.repository.EmployeeRepository;
+import com.example.assessment.repository.SalaryRepository;
+import com.example.assessment.repository.TitleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Full-table exports for {@code /api/export}.
+ * <p>
+ * Rows are read through a forward-only cursor ({@code streamAllForExport}, fetched in batches of the
+ * repository's fetch size) straight into DTOs and written to the output as they arrive, so memory use
+ * does not grow with the table and the first rows go out before the query has finished.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    private final EmployeeRepository employeeRepository;
+    private final SalaryRepository salaryRepository;
+    private final TitleRepository titleRepository;
+    private final DeptEmpRepository deptEmpRepository;
+    private final DeptManagerRepository deptManagerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter jsonWriter;
+
+    public ExportService(EmployeeRepository employeeRepository,
+                         SalaryRepository salaryRepository,
+                         TitleRepository titleRepository,
+                         DeptEmpRepository deptEmpRepository,
+                         DeptManagerRepository deptManagerRepository,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper) {
+        this.employeeRepository = employeeRepository;
+        this.salaryRepository = salaryRepository;
+        this.titleRepository = titleRepository;
+        this.deptEmpRepository = deptEmpRepository;
+        this.deptManagerRepository = deptManagerRepository;
+        // The stream is only open inside a transaction, and PostgreSQL only uses a cursor for the fetch size
+        // when autocommit is off
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.jsonWriter = objectMapper.writer();
+    }
+
+    /**
+     * Writes every row of the dataset to {@code out}. The stream is flushed but not closed.
+     */
+    public void export(ExportDataset dataset, ExportFormat format, OutputStream out) {
+        log.info("Exporting {} as {}", dataset, format);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long rows = transactionTemplate.execute(status -> switch (dataset) {
+            case EMPLOYEES -> write(employeeRepository.streamAllForExport(), dataset, format, writer, employee -> new Object[]{
+                    employee.getEmpNo(), employee.getBirthDate(), employee.getFirstName(),
+                    employee.getLastName(), employee.getGender(), employee.getHireDate()});
+            case SALARIES -> write(salaryRepository.streamAllForExport(), dataset, format, writer, salary -> new Object[]{
+                    salary.getEmpNo(), salary.getSalary(), salary.getFromDate(), salary.getToDate()});
+            case TITLES -> write(titleRepository.streamAllForExport(), dataset, format, writer, title -> new Object[]{
+                    title.getEmpNo(), title.getTitle(), title.getFromDate(), title.getToDate()});
+            case DEPT_EMP -> write(deptEmpRepository.streamAllForExport(), dataset, format, writer, deptEmp -> new Object[]{
+                    deptEmp.getEmpNo(), deptEmp.getDeptNo(), deptEmp.getFromDate(), deptEmp.getToDate()});
+            case DEPT_MANAGER -> write(deptManagerRepository.streamAllForExport(), dataset, format, writer, deptManager -> new Object[]{
+                    deptManager.getEmpNo(), deptManager.getDeptNo(), deptManager.getFromDate(), deptManager.getToDate()});
+        });
+
+        log.info("Exported {} {} rows", rows, dataset);
+    }
+
+    private <T> long write(Stream<T> rows, ExportDataset dataset, ExportFormat format, Writer writer,
+                           Function<T, Object[]> values) {
+        try (rows) {
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, dataset.getColumns().toArray());
+            }
+            // Push the header (or nothing) out now so the client sees the response start immediately
+            writer.flush();
+
+            long count = 0;
+            for (T row : (Iterable<T>) rows::iterator) {
+                if (format == ExportFormat.CSV) {
+                    writeCsvLine(writer, values.apply(row));
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                count++;
+            }
+            writer.flush();
+            return count;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Export of " + dataset.getPath() + " failed", ex);
+        }
+    }
+
+    private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
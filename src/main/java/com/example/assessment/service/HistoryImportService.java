@@ -0,0 +1,206 @@
+package com.example.assessment.service;
+
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.ImportResultDTO;
+import com.example.assessment.exception.BadRequestException;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk load of salary, title and department history from CSV.
+ * <p>
+ * The file is streamed with PostgreSQL {@code COPY} into a temporary staging table, validated there with
+ * one set-based UPDATE per rule (required values, lengths, period order, employee and department
+ * references, duplicate keys, overlapping periods within the file and against the target), and the rows
+ * that pass are moved into the target with a single INSERT ... SELECT. Everything runs in one
+ * transaction; rejected rows are reported, not loaded.
+ * <p>
+ * COPY goes around Hibernate and the services, so nothing else evicts what the new rows change: after a
+ * title import the cached title list, after a manager import the current managers, and after any import
+ * the department summaries and the org snapshot are evicted here once the transaction has committed. Any
+ * import also changes current salaries or who they count towards, so the salary percentile sketches are
+ * rebuilt.
+ */
+@Service
+@Slf4j
+public class HistoryImportService {
+
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private static final String STAGING = "import_staging";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SalaryStatisticsService salaryStatisticsService;
+    private final CacheManager cacheManager;
+
+    public HistoryImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                EntityManagerFactory entityManagerFactory,
+                                SalaryStatisticsService salaryStatisticsService, CacheManager cacheManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.salaryStatisticsService = salaryStatisticsService;
+        this.cacheManager = cacheManager;
+    }
+
+    public ImportResultDTO importCsv(ImportTable table, InputStream csv) {
+        log.info("Importing {} from CSV", table.getTableName());
+
+        long start = System.nanoTime();
+        ImportResultDTO result = transactionTemplate.execute(status -> {
+            createStaging(table);
+            long rowsRead = copyIn(table, csv);
+            jdbcTemplate.execute("ANALYZE " + STAGING);
+
+            // Writers to the target wait until we commit, so the overlap checks below stay true at insert time
+            jdbcTemplate.execute("LOCK TABLE " + table.getTableName() + " IN SHARE ROW EXCLUSIVE MODE");
+            validate(table);
+
+            String columns = String.join(", ", table.getColumns());
+            long rowsImported = jdbcTemplate.update("INSERT INTO " + table.getTableName() + " (" + columns + ") " +
+                    "SELECT " + columns + " FROM " + STAGING + " WHERE reject_reason IS NULL " +
+                    "ORDER BY " + String.join(", ", table.getKeyColumns()));
+
+            List<ImportResultDTO.Rejection> rejections = jdbcTemplate.query(
+                    "SELECT row_no, reject_reason FROM " + STAGING + " WHERE reject_reason IS NOT NULL " +
+                            "ORDER BY row_no LIMIT " + MAX_REPORTED_REJECTIONS,
+                    (rs, rowNum) -> new ImportResultDTO.Rejection(rs.getLong("row_no") + 1, rs.getString("reject_reason")));
+
+            return ImportResultDTO.builder()
+                    .table(table.getTableName())
+                    .rowsRead(rowsRead)
+                    .rowsImported(rowsImported)
+                    .rowsRejected(rowsRead - rowsImported)
+                    .rejections(rejections)
+                    .build();
+        });
+
+        if (result.getRowsImported() > 0) {
+            if (table == ImportTable.TITLES) {
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion("title-queries");
+            }
+            if (table == ImportTable.DEPT_MANAGER) {
+                cacheManager.getCache(CacheConfig.CURRENT_MANAGERS).clear();
+            }
+            cacheManager.getCache(CacheConfig.DEPARTMENT_SUMMARY).clear();
+            cacheManager.getCache(CacheConfig.ORG_SNAPSHOT).clear();
+            salaryStatisticsService.rebuildAfterCommit();
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        result.setElapsedMillis(elapsedMillis);
+        result.setRowsPerSecond(result.getRowsRead() * 1000 / Math.max(elapsedMillis, 1));
+
+        log.info("Imported {} of {} {} rows in {} ms ({} rows/s), {} rejected", result.getRowsImported(),
+                result.getRowsRead(), table.getTableName(), elapsedMillis, result.getRowsPerSecond(),
+                result.getRowsRejected());
+        return result;
+    }
+
+    private void createStaging(ImportTable table) {
+        String columns = table.getColumns().stream()
+                .map(column -> column + " " + stagingType(column))
+                .collect(Collectors.joining(", "));
+        // row_no numbers the data rows in file order, since COPY fills the columns it is given and
+        // leaves the sequence to the default
+        jdbcTemplate.execute("CREATE TEMPORARY TABLE " + STAGING +
+                " (row_no BIGSERIAL, " + columns + ", reject_reason TEXT) ON COMMIT DROP");
+    }
+
+    private long copyIn(ImportTable table, InputStream csv) {
+        String sql = "COPY " + STAGING + " (" + String.join(", ", table.getColumns()) + ") " +
+                "FROM STDIN WITH (FORMAT csv, HEADER true)";
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, csv);
+            } catch (SQLException ex) {
+                // Class 22 (data exception): a value COPY could not parse; the message names the line and column
+                if (ex.getSQLState() != null && ex.getSQLState().startsWith("22")) {
+                    throw new BadRequestException("Malformed CSV for " + table.getTableName() + ": " + ex.getMessage());
+                }
+                throw ex;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Reading the CSV for " + table.getTableName() + " failed", ex);
+            }
+        });
+    }
+
+    private void validate(ImportTable table) {
+        String target = table.getTableName();
+        String owner = table.getPeriodOwner();
+        List<String> columns = table.getColumns();
+
+        List<String> required = columns.stream().filter(column -> !column.equals("to_date")).toList();
+        reject("Missing required value", required.stream()
+                .map(column -> "s." + column + " IS NULL")
+                .collect(Collectors.joining(" OR ")));
+        if (columns.contains("title")) {
+            reject("title longer than 50 characters", "length(s.title) > 50");
+        }
+        if (columns.contains("dept_no")) {
+            reject("dept_no longer than 4 characters", "length(s.dept_no) > 4");
+        }
+        reject("to_date before from_date", "s.to_date < s.from_date");
+
+        reject("Unknown employee", "NOT EXISTS (SELECT 1 FROM employees e WHERE e.emp_no = s.emp_no)");
+        if (columns.contains("dept_no")) {
+            reject("Unknown department", "NOT EXISTS (SELECT 1 FROM departments d WHERE d.dept_no = s.dept_no)");
+        }
+
+        List<String> keyColumns = table.getKeyColumns();
+        String key = String.join(", ", keyColumns);
+        reject("Duplicate key in file", "s.row_no IN (SELECT row_no FROM (" +
+                "SELECT row_no, row_number() OVER (PARTITION BY " + key + " ORDER BY row_no) AS n " +
+                "FROM " + STAGING + " WHERE reject_reason IS NULL) d WHERE d.n > 1)");
+        reject("Key already exists in " + target, "EXISTS (SELECT 1 FROM " + target + " t WHERE " +
+                keyColumns.stream().map(column -> "t." + column + " = s." + column).collect(Collectors.joining(" AND ")) + ")");
+
+        // to_date is inclusive, as everywhere else: periods overlap when each starts on or before the other's
+        // last day. A row overlaps an earlier one (by from_date) when it starts on or before the latest end so far
+        reject("Period overlaps an earlier row in the file", "s.row_no IN (SELECT row_no FROM (" +
+                "SELECT row_no, from_date, max(COALESCE(to_date, 'infinity')) OVER (PARTITION BY " + owner +
+                " ORDER BY from_date, row_no ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) AS previous_end " +
+                "FROM " + STAGING + " WHERE reject_reason IS NULL) w WHERE w.previous_end >= w.from_date)");
+        reject("Period overlaps an existing " + target + " row", "EXISTS (SELECT 1 FROM " + target + " t " +
+                "WHERE t." + owner + " = s." + owner + " AND t.from_date <= COALESCE(s.to_date, 'infinity') " +
+                "AND COALESCE(t.to_date, 'infinity') >= s.from_date)");
+    }
+
+    // Rules run in order and each only looks at rows no earlier rule rejected, so a row reports its first failure
+    private void reject(String reason, String condition) {
+        int rejected = jdbcTemplate.update("UPDATE " + STAGING + " s SET reject_reason = ? " +
+                "WHERE s.reject_reason IS NULL AND (" + condition + ")", reason);
+        if (rejected > 0) {
+            log.info("Rejected {} rows: {}", rejected, reason);
+        }
+    }
+
+    private static String stagingType(String column) {
+        if (column.endsWith("_date")) {
+            return "DATE";
+        }
+        if (column.equals("emp_no") || column.equals("salary")) {
+            return "INT";
+        }
+        // Text columns are unbounded here so over-long values become rejections instead of failing the COPY
+        return "TEXT";
+    }
+}
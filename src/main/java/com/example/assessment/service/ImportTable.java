@@ -0,0 +1,62 @@
+package com.example.assessment.service;
+
+import com.example.assessment.exception.ResourceNotFoundException;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * History tables accepted by the COPY import. The CSV layout is the one {@code /api/export} writes:
+ * a header row, then the columns below in this order, with an empty {@code to_date} for open periods.
+ */
+public enum ImportTable {
+    SALARIES("salaries", List.of("emp_no", "salary", "from_date", "to_date"),
+            List.of("emp_no", "from_date"), "emp_no"),
+    TITLES("titles", List.of("emp_no", "title", "from_date", "to_date"),
+            List.of("emp_no", "from_date"), "emp_no"),
+    DEPT_EMP("dept_emp", List.of("emp_no", "dept_no", "from_date", "to_date"),
+            List.of("emp_no", "dept_no"), "emp_no"),
+    DEPT_MANAGER("dept_manager", List.of("emp_no", "dept_no", "from_date", "to_date"),
+            List.of("emp_no", "dept_no"), "dept_no");
+
+    private final String tableName;
+    private final List<String> columns;
+    private final List<String> keyColumns;
+    // Rows sharing this column may not have overlapping [from_date, to_date] periods: one salary, title
+    // or department per employee at a time, and one manager per department at a time
+    private final String periodOwner;
+
+    ImportTable(String tableName, List<String> columns, List<String> keyColumns, String periodOwner) {
+        this.tableName = tableName;
+        this.columns = columns;
+        this.keyColumns = keyColumns;
+        this.periodOwner = periodOwner;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    public String getPeriodOwner() {
+        return periodOwner;
+    }
+
+    /**
+     * Accepts the table name or its dashed form ({@code dept-emp}), as used by the export endpoint.
+     */
+    public static ImportTable from(String name) {
+        return Arrays.stream(values())
+                .filter(value -> value.tableName.equalsIgnoreCase(name.replace('-', '_')))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Unknown import table: " + name
+                        + ", available: " + Arrays.stream(values()).map(ImportTable::getTableName).toList()));
+    }
+}
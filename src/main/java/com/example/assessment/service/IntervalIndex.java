@@ -0,0 +1,363 @@
+package com.example.assessment.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The periods of one history table grouped by owner (an employee number or a department code) and sorted by
+ * start within each owner, in parallel primitive arrays. Days are epoch days; an open end is {@link #OPEN}.
+ * Every period carries one int value: the other side's id, a salary or a title code.
+ * <p>
+ * An owner's periods double as an implicit balanced search tree: the middle period of a range is the root
+ * of that range, and {@code maxEnds[i]} is the latest end in the subtree rooted at {@code i}. A search for
+ * the periods containing a day leaves out every subtree that starts after the day or ends before it, so k
+ * matches among an owner's n periods cost O((k + 1) log n), however long the periods before them run.
+ * <p>
+ * Writes made after the load go into a patch with {@link #with} and {@link #without}: the changed owner's
+ * periods are copied once, and the copy replaces that owner's loaded periods from then on. The loaded arrays
+ * are never copied. Period numbers of patched owners follow the loaded ones, so an owner's periods are still
+ * numbered consecutively in start order.
+ */
+final class IntervalIndex {
+
+    static final int OPEN = Integer.MAX_VALUE;
+
+    // The periods as loaded: those of owners[o] are at offsets[o] until offsets[o + 1]
+    private final int[] owners;
+    private final int[] offsets;
+    private final Run loaded;
+    // Owners changed since the load, in owner order, each with all its periods as they are now; the periods
+    // of patches[p] are numbered from patchOffsets[p]
+    private final int[] patchedOwners;
+    private final Run[] patches;
+    private final int[] patchOffsets;
+    private final int size;
+
+    /**
+     * Tells which of an owner's periods a write replaces: those with the written key, a start or a value.
+     */
+    @FunctionalInterface
+    interface PeriodMatcher {
+        boolean matches(int start, int value);
+    }
+
+    // Periods in start order, with the subtree maxima of their implicit search tree
+    private record Run(int[] starts, int[] ends, int[] maxEnds, int[] values) {
+
+        int length() {
+            return starts.length;
+        }
+    }
+
+    private IntervalIndex(int[] owners, int[] offsets, Run loaded, int[] patchedOwners, Run[] patches,
+                          int[] patchOffsets, int size) {
+        this.owners = owners;
+        this.offsets = offsets;
+        this.loaded = loaded;
+        this.patchedOwners = patchedOwners;
+        this.patches = patches;
+        this.patchOffsets = patchOffsets;
+        this.size = size;
+    }
+
+    static int day(LocalDate date) {
+        return date == null ? OPEN : Math.toIntExact(date.toEpochDay());
+    }
+
+    static LocalDate date(int day) {
+        return day == OPEN ? null : LocalDate.ofEpochDay(day);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int patchedOwnerCount() {
+        return patchedOwners.length;
+    }
+
+    int start(int period) {
+        if (period < loaded.length()) {
+            return loaded.starts()[period];
+        }
+        int p = patchOf(period);
+        return patches[p].starts()[period - patchOffsets[p]];
+    }
+
+    int end(int period) {
+        if (period < loaded.length()) {
+            return loaded.ends()[period];
+        }
+        int p = patchOf(period);
+        return patches[p].ends()[period - patchOffsets[p]];
+    }
+
+    int value(int period) {
+        if (period < loaded.length()) {
+            return loaded.values()[period];
+        }
+        int p = patchOf(period);
+        return patches[p].values()[period - patchOffsets[p]];
+    }
+
+    boolean hasOwner(int owner) {
+        return firstPeriod(owner) < endPeriod(owner);
+    }
+
+    /**
+     * The periods of {@code owner} are {@code firstPeriod(owner)} until {@code endPeriod(owner)}, in start
+     * order; both are 0 when it has none.
+     */
+    int firstPeriod(int owner) {
+        int p = Arrays.binarySearch(patchedOwners, owner);
+        if (p >= 0) {
+            return patchOffsets[p];
+        }
+        int o = Arrays.binarySearch(owners, owner);
+        return o < 0 ? 0 : offsets[o];
+    }
+
+    int endPeriod(int owner) {
+        int p = Arrays.binarySearch(patchedOwners, owner);
+        if (p >= 0) {
+            return patchOffsets[p] + patches[p].length();
+        }
+        int o = Arrays.binarySearch(owners, owner);
+        return o < 0 ? 0 : offsets[o + 1];
+    }
+
+    /**
+     * The period of {@code owner} containing {@code day} that started last, or -1.
+     */
+    int latest(int owner, int day) {
+        int p = Arrays.binarySearch(patchedOwners, owner);
+        if (p >= 0) {
+            int found = latest(patches[p], 0, patches[p].length() - 1, day);
+            return found < 0 ? -1 : patchOffsets[p] + found;
+        }
+        int o = Arrays.binarySearch(owners, owner);
+        return o < 0 ? -1 : latest(loaded, offsets[o], offsets[o + 1] - 1, day);
+    }
+
+    /**
+     * Every period of {@code owner} containing {@code day}, latest start first.
+     */
+    void containing(int owner, int day, IntConsumer periods) {
+        int p = Arrays.binarySearch(patchedOwners, owner);
+        if (p >= 0) {
+            collect(patches[p], 0, patches[p].length() - 1, day, patchOffsets[p], periods);
+            return;
+        }
+        int o = Arrays.binarySearch(owners, owner);
+        if (o >= 0) {
+            collect(loaded, offsets[o], offsets[o + 1] - 1, day, 0, periods);
+        }
+    }
+
+    /**
+     * A copy in which {@code owner}'s periods matched by {@code replaced} give way to one period from
+     * {@code start} to {@code end} with {@code value}.
+     */
+    IntervalIndex with(int owner, PeriodMatcher replaced, int start, int end, int value) {
+        return patch(owner, replaced, new int[]{start, end, value});
+    }
+
+    /**
+     * A copy without {@code owner}'s periods matched by {@code removed}.
+     */
+    IntervalIndex without(int owner, PeriodMatcher removed) {
+        return patch(owner, removed, null);
+    }
+
+    private IntervalIndex patch(int owner, PeriodMatcher replaced, int[] added) {
+        int first = firstPeriod(owner);
+        int end = endPeriod(owner);
+        int length = 0;
+        int[] starts = new int[end - first + 1];
+        int[] ends = new int[starts.length];
+        int[] values = new int[starts.length];
+        for (int period = first; period < end; period++) {
+            if (!replaced.matches(start(period), value(period))) {
+                starts[length] = start(period);
+                ends[length] = end(period);
+                values[length] = value(period);
+                length++;
+            }
+        }
+        if (added != null) {
+            // Insertion in start order, after any period starting the same day
+            int at = length;
+            while (at > 0 && starts[at - 1] > added[0]) {
+                starts[at] = starts[at - 1];
+                ends[at] = ends[at - 1];
+                values[at] = values[at - 1];
+                at--;
+            }
+            starts[at] = added[0];
+            ends[at] = added[1];
+            values[at] = added[2];
+            length++;
+        }
+        Run run = run(Arrays.copyOf(starts, length), Arrays.copyOf(ends, length), Arrays.copyOf(values, length));
+
+        int p = Arrays.binarySearch(patchedOwners, owner);
+        int[] nextOwners;
+        Run[] nextPatches;
+        if (p >= 0) {
+            nextOwners = patchedOwners;
+            nextPatches = patches.clone();
+            nextPatches[p] = run;
+        } else {
+            p = -p - 1;
+            nextOwners = new int[patchedOwners.length + 1];
+            nextPatches = new Run[patches.length + 1];
+            System.arraycopy(patchedOwners, 0, nextOwners, 0, p);
+            System.arraycopy(patchedOwners, p, nextOwners, p + 1, patchedOwners.length - p);
+            System.arraycopy(patches, 0, nextPatches, 0, p);
+            System.arraycopy(patches, p, nextPatches, p + 1, patches.length - p);
+            nextOwners[p] = owner;
+            nextPatches[p] = run;
+        }
+        int[] nextOffsets = new int[nextPatches.length];
+        int offset = loaded.length();
+        for (int i = 0; i < nextPatches.length; i++) {
+            nextOffsets[i] = offset;
+            offset += nextPatches[i].length();
+        }
+        return new IntervalIndex(owners, offsets, loaded, nextOwners, nextPatches, nextOffsets,
+                size - (end - first) + length);
+    }
+
+    // The patch holding period; empty patches share their offset with the next one, so take the last match
+    private int patchOf(int period) {
+        int low = 0;
+        int high = patchOffsets.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (patchOffsets[mid] <= period) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    // The last period in start order containing day, among run[low..high]
+    private static int latest(Run run, int low, int high, int day) {
+        if (low > high) {
+            return -1;
+        }
+        int mid = (low + high) >>> 1;
+        if (run.maxEnds()[mid] < day) {
+            return -1;
+        }
+        if (run.starts()[mid] <= day) {
+            int later = latest(run, mid + 1, high, day);
+            if (later >= 0) {
+                return later;
+            }
+            if (run.ends()[mid] >= day) {
+                return mid;
+            }
+        }
+        return latest(run, low, mid - 1, day);
+    }
+
+    // Every period containing day among run[low..high], latest start first, numbered from first
+    private static void collect(Run run, int low, int high, int day, int first, IntConsumer periods) {
+        if (low > high) {
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        if (run.maxEnds()[mid] < day) {
+            return;
+        }
+        if (run.starts()[mid] <= day) {
+            collect(run, mid + 1, high, day, first, periods);
+            if (run.ends()[mid] >= day) {
+                periods.accept(first + mid);
+            }
+        }
+        collect(run, low, mid - 1, day, first, periods);
+    }
+
+    private static Run run(int[] starts, int[] ends, int[] values) {
+        int[] maxEnds = new int[starts.length];
+        maxEnds(ends, maxEnds, 0, starts.length - 1);
+        return new Run(starts, ends, maxEnds, values);
+    }
+
+    // Fills maxEnds for the subtree over ends[low..high] and returns its maximum
+    private static int maxEnds(int[] ends, int[] maxEnds, int low, int high) {
+        if (low > high) {
+            return Integer.MIN_VALUE;
+        }
+        int mid = (low + high) >>> 1;
+        int max = Math.max(ends[mid], Math.max(maxEnds(ends, maxEnds, low, mid - 1), maxEnds(ends, maxEnds, mid + 1, high)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    /**
+     * Collects periods in (owner, start) order, as the loading queries return them.
+     */
+    static final class Builder {
+
+        private int[] owners = new int[1024];
+        private int[] starts = new int[1024];
+        private int[] ends = new int[1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(int owner, int start, int end, int value) {
+            if (size > 0 && (owner < owners[size - 1] || owner == owners[size - 1] && start < starts[size - 1])) {
+                throw new IllegalStateException("Periods must arrive ordered by owner and start, got owner "
+                        + owner + " from " + date(start) + " after owner " + owners[size - 1] + " from "
+                        + date(starts[size - 1]));
+            }
+            if (size == starts.length) {
+                int capacity = size * 2;
+                owners = Arrays.copyOf(owners, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            owners[size] = owner;
+            starts[size] = start;
+            ends[size] = end;
+            values[size] = value;
+            size++;
+        }
+
+        IntervalIndex build() {
+            int ownerCount = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || owners[i] != owners[i - 1]) {
+                    ownerCount++;
+                }
+            }
+            int[] distinctOwners = new int[ownerCount];
+            int[] offsets = new int[ownerCount + 1];
+            int o = -1;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || owners[i] != owners[i - 1]) {
+                    distinctOwners[++o] = owners[i];
+                    offsets[o] = i;
+                }
+            }
+            offsets[ownerCount] = size;
+
+            int[] loadedEnds = Arrays.copyOf(ends, size);
+            int[] maxEnds = new int[size];
+            // One tree per owner, so a search never leaves the owner's range
+            for (o = 0; o < ownerCount; o++) {
+                maxEnds(loadedEnds, maxEnds, offsets[o], offsets[o + 1] - 1);
+            }
+            return new IntervalIndex(distinctOwners, offsets,
+                    new Run(Arrays.copyOf(starts, size), loadedEnds, maxEnds, Arrays.copyOf(values, size)),
+                    new int[0], new Run[0], new int[0], size);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.assessment.service;
+
+import com.example.assessment.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Helpers for keyset (seek) pagination over the collection endpoints.
+ * <p>
+ * The cursor handed to clients is an opaque base64url token holding the requested sort and the
+ * key values of the last row returned, so the next page is a {@code WHERE (sortKey, id) > (...)}
+ * seek instead of an OFFSET scan.
+ */
+public final class KeysetPaging {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private KeysetPaging() {
+    }
+
+    public static Limit limit(Integer limit) {
+        if (limit == null) {
+            return Limit.of(DEFAULT_LIMIT);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return Limit.of(limit);
+    }
+
+    /**
+     * Parses {@code property} or {@code property,asc|desc} against a whitelist of sortable columns.
+     */
+    public static Sort sort(String sort, Set<String> sortable, String defaultProperty) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by(Sort.Direction.ASC, defaultProperty);
+        }
+
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!sortable.contains(property)) {
+            throw new BadRequestException("Unsupported sort property: " + property + ", allowed: " + sortable);
+        }
+
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length > 1) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new BadRequestException("Unsupported sort direction: " + parts[1]));
+        }
+        return Sort.by(direction, property);
+    }
+
+    /**
+     * Resolves the scroll position for the requested page. Keys inside the cursor are checked against
+     * {@code allowedKeys} so a forged token cannot reference arbitrary entity attributes; the set must
+     * contain the id attributes too, since Spring Data appends them to the sort as tie-breakers.
+     */
+    public static ScrollPosition position(String after, Sort sort, Set<String> allowedKeys) {
+        if (after == null || after.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Malformed cursor");
+        }
+
+        String[] entries = decoded.split(";");
+        if (entries.length < 2 || !entries[0].equals(signature(sort))) {
+            throw new BadRequestException("Cursor does not match the requested sort");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (int i = 1; i < entries.length; i++) {
+            String[] pair = entries[i].split("=", 2);
+            if (pair.length != 2 || !allowedKeys.contains(pair[0])) {
+                throw new BadRequestException("Malformed cursor");
+            }
+            keys.put(pair[0], decodeValue(pair[1]));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Returns the cursor pointing after the last element of {@code window}, or {@code null} when
+     * there are no more rows.
+     */
+    public static String nextCursor(Window<?> window, Sort sort) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+
+        KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        StringJoiner joiner = new StringJoiner(";");
+        joiner.add(signature(sort));
+        last.getKeys().forEach((key, value) -> joiner.add(key + "=" + encodeValue(value)));
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String signature(Sort sort) {
+        StringJoiner joiner = new StringJoiner("|");
+        sort.forEach(order -> joiner.add(order.getProperty() + "," + order.getDirection().name().toLowerCase()));
+        return joiner.toString();
+    }
+
+    private static String encodeValue(Object value) {
+        String typed;
+        if (value instanceof Integer) {
+            typed = "i:" + value;
+        } else if (value instanceof LocalDate) {
+            typed = "d:" + value;
+        } else if (value instanceof String) {
+            typed = "s:" + value;
+        } else {
+            throw new IllegalStateException("Unsupported keyset value type: " + value.getClass());
+        }
+        return URLEncoder.encode(typed, StandardCharsets.UTF_8);
+    }
+
+    private static Object decodeValue(String encoded) {
+        String typed = URLDecoder.decode(encoded, StandardCharsets.UTF_8);
+        if (typed.length() < 2 || typed.charAt(1) != ':') {
+            throw new BadRequestException("Malformed cursor");
+        }
+
+        String raw = typed.substring(2);
+        try {
+            return switch (typed.charAt(0)) {
+                case 'i' -> Integer.valueOf(raw);
+                case 'd' -> LocalDate.parse(raw);
+                case 's' -> raw;
+                default -> throw new BadRequestException("Malformed cursor");
+            };
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            throw new BadRequestException("Malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.assessment.service;
+
+import java.time.Instant;
+
+/**
+ * The department, assignment, manager, title and salary history held in memory by {@link OrgSnapshotLoader}.
+ * Departments are numbered in {@code dept_no} order, titles in first-seen order; the by-department indexes
+ * are keyed by those numbers, the by-employee ones by {@code emp_no}. Writes through this node's services
+ * make a new snapshot with a higher {@code version}, sharing the loaded arrays; {@code loadedAt} is when
+ * those were read.
+ */
+public record OrgSnapshot(
+        String[] deptNos,
+        String[] deptNames,
+        String[] titles,
+        // dept_emp and dept_manager by department, valued by emp_no
+        IntervalIndex membersByDepartment,
+        IntervalIndex managersByDepartment,
+        // dept_emp and dept_manager by employee, valued by department number
+        IntervalIndex departmentsByEmployee,
+        IntervalIndex managedByEmployee,
+        // Valued by title number and by salary
+        IntervalIndex titlesByEmployee,
+        IntervalIndex salariesByEmployee,
+        Instant loadedAt,
+        long version) {
+}
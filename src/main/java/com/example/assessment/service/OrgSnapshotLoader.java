@@ -0,0 +1,286 @@
+package com.example.assessment.service;
+
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.config.WriteOrigin;
+import com.example.assessment.dto.DeptEmpDTO;
+import com.example.assessment.dto.DeptManagerDTO;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.TitleDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Loads the whole org history into an {@link OrgSnapshot}: one ordered scan per index, streamed into
+ * primitive arrays, so nothing per row outlives the load.
+ * <p>
+ * The snapshot is cached and read from the primary, so a reload right after an eviction sees the write, and
+ * under REPEATABLE READ, so all scans see one state. Salary, title, assignment and manager writes through
+ * this node's services are applied to the cached snapshot after commit as patches of the owners they
+ * change (see {@link IntervalIndex}); their transactions are marked with {@link WriteOrigin}, so their own
+ * notifications leave the snapshot alone. Everything else evicts it and the next request reloads it:
+ * department changes, employee deletes and imports here, and every write reported by
+ * CacheInvalidationListener from other nodes or from outside the services.
+ */
+@Service
+@Slf4j
+public class OrgSnapshotLoader {
+
+    // Rows the driver holds per round trip; PostgreSQL otherwise reads a whole result set into memory
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String KEY = "all";
+
+    // Past this many changed owners in one index a reload is cheaper to read from than the patches
+    static final int MAX_PATCHED_OWNERS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final ObjectProvider<WriteOrigin> writeOrigin;
+    private final AtomicLong versions = new AtomicLong();
+    private final ExecutorService patcher =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("org-snapshot").daemon().factory());
+
+    public OrgSnapshotLoader(DataSource dataSource, CacheManager cacheManager, ObjectProvider<WriteOrigin> writeOrigin) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.cacheManager = cacheManager;
+        this.writeOrigin = writeOrigin;
+    }
+
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    @Cacheable(cacheNames = CacheConfig.ORG_SNAPSHOT, key = "'" + KEY + "'", sync = true)
+    public OrgSnapshot getSnapshot() {
+        log.info("Loading org history snapshot");
+        long start = System.nanoTime();
+
+        List<String> deptNos = new ArrayList<>();
+        List<String> deptNames = new ArrayList<>();
+        jdbcTemplate.query("SELECT dept_no, dept_name FROM departments ORDER BY dept_no", (RowCallbackHandler) rs -> {
+            deptNos.add(rs.getString("dept_no"));
+            deptNames.add(rs.getString("dept_name"));
+        });
+        // Numbered in the database's own dept_no order, so the by-department scans below arrive in number order
+        Map<String, Integer> deptCodes = new HashMap<>();
+        for (int code = 0; code < deptNos.size(); code++) {
+            deptCodes.put(deptNos.get(code), code);
+        }
+        List<String> titles = new ArrayList<>();
+        Map<String, Integer> titleCodes = new HashMap<>();
+
+        IntervalIndex membersByDepartment = load(
+                "SELECT dept_no, emp_no, from_date, to_date FROM dept_emp ORDER BY dept_no, from_date",
+                rs -> deptCodes.get(rs.getString("dept_no")), rs -> rs.getInt("emp_no"));
+        IntervalIndex managersByDepartment = load(
+                "SELECT dept_no, emp_no, from_date, to_date FROM dept_manager ORDER BY dept_no, from_date",
+                rs -> deptCodes.get(rs.getString("dept_no")), rs -> rs.getInt("emp_no"));
+        IntervalIndex departmentsByEmployee = load(
+                "SELECT emp_no, dept_no, from_date, to_date FROM dept_emp ORDER BY emp_no, from_date",
+                rs -> rs.getInt("emp_no"), rs -> deptCodes.get(rs.getString("dept_no")));
+        IntervalIndex managedByEmployee = load(
+                "SELECT emp_no, dept_no, from_date, to_date FROM dept_manager ORDER BY emp_no, from_date",
+                rs -> rs.getInt("emp_no"), rs -> deptCodes.get(rs.getString("dept_no")));
+        IntervalIndex titlesByEmployee = load(
+                "SELECT emp_no, title, from_date, to_date FROM titles ORDER BY emp_no, from_date",
+                rs -> rs.getInt("emp_no"), rs -> titleCodes.computeIfAbsent(rs.getString("title"), title -> {
+                    titles.add(title);
+                    return titles.size() - 1;
+                }));
+        IntervalIndex salariesByEmployee = load(
+                "SELECT emp_no, salary, from_date, to_date FROM salaries ORDER BY emp_no, from_date",
+                rs -> rs.getInt("emp_no"), rs -> rs.getInt("salary"));
+
+        OrgSnapshot snapshot = new OrgSnapshot(deptNos.toArray(String[]::new), deptNames.toArray(String[]::new),
+                titles.toArray(String[]::new), membersByDepartment, managersByDepartment, departmentsByEmployee,
+                managedByEmployee, titlesByEmployee, salariesByEmployee, Instant.now(), versions.incrementAndGet());
+
+        log.info("Loaded org history snapshot: {} departments, {} assignments, {} titles, {} salaries in {} ms",
+                deptNos.size(), snapshot.departmentsByEmployee().size(), snapshot.titlesByEmployee().size(),
+                snapshot.salariesByEmployee().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return snapshot;
+    }
+
+    /**
+     * Puts {@code salary} in place of {@code empNo}'s salary from {@code fromDate} once the surrounding
+     * transaction commits, or takes that salary out when {@code salary} is null. Like the other record
+     * methods it marks the transaction, so call it before the write's statements run, which for JPA
+     * writes is at commit.
+     */
+    void recordSalary(int empNo, LocalDate fromDate, SalaryDTO salary) {
+        int from = IntervalIndex.day(fromDate);
+        IntervalIndex.PeriodMatcher same = (start, value) -> start == from;
+        patchAfterCommit(snapshot -> {
+            IntervalIndex salaries = salary == null
+                    ? snapshot.salariesByEmployee().without(empNo, same)
+                    : snapshot.salariesByEmployee().with(empNo, same, IntervalIndex.day(salary.getFromDate()),
+                    IntervalIndex.day(salary.getToDate()), salary.getSalary());
+            return copy(snapshot, snapshot.titles(), snapshot.membersByDepartment(), snapshot.managersByDepartment(),
+                    snapshot.departmentsByEmployee(), snapshot.managedByEmployee(), snapshot.titlesByEmployee(),
+                    salaries);
+        });
+    }
+
+    /**
+     * As {@link #recordSalary}, for {@code empNo}'s title from {@code fromDate}.
+     */
+    void recordTitle(int empNo, LocalDate fromDate, TitleDTO title) {
+        int from = IntervalIndex.day(fromDate);
+        IntervalIndex.PeriodMatcher same = (start, value) -> start == from;
+        patchAfterCommit(snapshot -> {
+            String[] titles = snapshot.titles();
+            if (title == null) {
+                return copy(snapshot, titles, snapshot.membersByDepartment(), snapshot.managersByDepartment(),
+                        snapshot.departmentsByEmployee(), snapshot.managedByEmployee(),
+                        snapshot.titlesByEmployee().without(empNo, same), snapshot.salariesByEmployee());
+            }
+            int code = Arrays.asList(titles).indexOf(title.getTitle());
+            if (code < 0) {
+                titles = Arrays.copyOf(titles, titles.length + 1);
+                code = titles.length - 1;
+                titles[code] = title.getTitle();
+            }
+            return copy(snapshot, titles, snapshot.membersByDepartment(), snapshot.managersByDepartment(),
+                    snapshot.departmentsByEmployee(), snapshot.managedByEmployee(),
+                    snapshot.titlesByEmployee().with(empNo, same, IntervalIndex.day(title.getFromDate()),
+                            IntervalIndex.day(title.getToDate()), code),
+                    snapshot.salariesByEmployee());
+        });
+    }
+
+    /**
+     * As {@link #recordSalary}, for {@code empNo}'s assignment to {@code deptNo}.
+     */
+    void recordAssignment(int empNo, String deptNo, DeptEmpDTO deptEmp) {
+        patchAfterCommit(snapshot -> {
+            int dept = Arrays.asList(snapshot.deptNos()).indexOf(deptNo);
+            // A department created after the load: reload
+            if (dept < 0) {
+                return null;
+            }
+            int[] period = deptEmp == null ? null
+                    : new int[]{IntervalIndex.day(deptEmp.getFromDate()), IntervalIndex.day(deptEmp.getToDate())};
+            return copy(snapshot, snapshot.titles(), patch(snapshot.membersByDepartment(), dept, empNo, period),
+                    snapshot.managersByDepartment(), patch(snapshot.departmentsByEmployee(), empNo, dept, period),
+                    snapshot.managedByEmployee(), snapshot.titlesByEmployee(), snapshot.salariesByEmployee());
+        });
+    }
+
+    /**
+     * As {@link #recordSalary}, for {@code empNo}'s management of {@code deptNo}.
+     */
+    void recordManagement(int empNo, String deptNo, DeptManagerDTO deptManager) {
+        patchAfterCommit(snapshot -> {
+            int dept = Arrays.asList(snapshot.deptNos()).indexOf(deptNo);
+            if (dept < 0) {
+                return null;
+            }
+            int[] period = deptManager == null ? null
+                    : new int[]{IntervalIndex.day(deptManager.getFromDate()), IntervalIndex.day(deptManager.getToDate())};
+            return copy(snapshot, snapshot.titles(), snapshot.membersByDepartment(),
+                    patch(snapshot.managersByDepartment(), dept, empNo, period), snapshot.departmentsByEmployee(),
+                    patch(snapshot.managedByEmployee(), empNo, dept, period), snapshot.titlesByEmployee(),
+                    snapshot.salariesByEmployee());
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        patcher.shutdownNow();
+    }
+
+    // dept_emp and dept_manager hold one period per employee and department, so the other side is the key
+    private static IntervalIndex patch(IntervalIndex index, int owner, int value, int[] period) {
+        IntervalIndex.PeriodMatcher same = (start, other) -> other == value;
+        return period == null ? index.without(owner, same) : index.with(owner, same, period[0], period[1], value);
+    }
+
+    private OrgSnapshot copy(OrgSnapshot snapshot, String[] titles, IntervalIndex membersByDepartment,
+                             IntervalIndex managersByDepartment, IntervalIndex departmentsByEmployee,
+                             IntervalIndex managedByEmployee, IntervalIndex titlesByEmployee,
+                             IntervalIndex salariesByEmployee) {
+        for (IntervalIndex index : List.of(membersByDepartment, managersByDepartment, departmentsByEmployee,
+                managedByEmployee, titlesByEmployee, salariesByEmployee)) {
+            if (index.patchedOwnerCount() > MAX_PATCHED_OWNERS) {
+                return null;
+            }
+        }
+        return new OrgSnapshot(snapshot.deptNos(), snapshot.deptNames(), titles, membersByDepartment,
+                managersByDepartment, departmentsByEmployee, managedByEmployee, titlesByEmployee, salariesByEmployee,
+                snapshot.loadedAt(), versions.incrementAndGet());
+    }
+
+    // Each patch replaces the periods with the written key, so applying one to a snapshot that already has the
+    // write changes nothing. A change returning null drops the snapshot instead, for a reload.
+    private void patchAfterCommit(UnaryOperator<OrgSnapshot> change) {
+        writeOrigin.ifAvailable(WriteOrigin::markCurrentTransaction);
+        afterCommit(() -> {
+            // Spring's Cache has no atomic update
+            @SuppressWarnings("unchecked")
+            Cache<Object, Object> cache = (Cache<Object, Object>) cacheManager.getCache(CacheConfig.ORG_SNAPSHOT)
+                    .getNativeCache();
+            if (cache.getIfPresent(KEY) != null) {
+                // Applied before the writer returns, so this node reads its own write
+                cache.asMap().computeIfPresent(KEY, (key, snapshot) -> change.apply((OrgSnapshot) snapshot));
+            } else {
+                // A load may be under way that started before the commit; computeIfPresent waits for it, which
+                // the writing thread, still holding its connection, should not
+                patcher.execute(() -> cache.asMap().computeIfPresent(KEY,
+                        (key, snapshot) -> change.apply((OrgSnapshot) snapshot)));
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private IntervalIndex load(String sql, IntColumn owner, IntColumn value) {
+        IntervalIndex.Builder builder = new IntervalIndex.Builder();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> builder.add(
+                owner.get(rs),
+                IntervalIndex.day(rs.getObject("from_date", LocalDate.class)),
+                IntervalIndex.day(rs.getObject("to_date", LocalDate.class)),
+                value.get(rs)));
+        return builder.build();
+    }
+
+    @FunctionalInterface
+    private interface IntColumn {
+        int get(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.assessment.service;
+
+import com.example.assessment.dto.DepartmentSummaryDTO;
+import com.example.assessment.dto.DeptEmpDTO;
+import com.example.assessment.dto.DeptManagerDTO;
+import com.example.assessment.dto.EmployeeAsOfDTO;
+import com.example.assessment.dto.OrgSnapshotDTO;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.TitleCountDTO;
+import com.example.assessment.dto.TitleDTO;
+import com.example.assessment.exception.BadRequestException;
+import com.example.assessment.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.example.assessment.service.IntervalIndex.date;
+
+/**
+ * Org structure and employee state on any past or future date, answered from the in-memory
+ * {@link OrgSnapshot} instead of joining the history tables. A period contains a day when it starts on or
+ * before it and ends on or after it, the same inclusive {@code to_date} the "current" queries use.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrgSnapshotService {
+
+    private final OrgSnapshotLoader orgSnapshotLoader;
+    private final EmployeeService employeeService;
+
+    /**
+     * Every department as it stood on {@code date}: the same figures as the department summary, for that day.
+     */
+    public OrgSnapshotDTO getOrgAsOf(String date) {
+        log.info("Reconstructing org as of {}", date);
+
+        LocalDate asOf = parseDate(date);
+        int day = IntervalIndex.day(asOf);
+        OrgSnapshot snapshot = orgSnapshotLoader.getSnapshot();
+
+        List<DepartmentSummaryDTO> departments = new ArrayList<>(snapshot.deptNos().length);
+        for (int dept = 0; dept < snapshot.deptNos().length; dept++) {
+            departments.add(summarize(snapshot, dept, day));
+        }
+        return OrgSnapshotDTO.builder()
+                .asOf(asOf)
+                .loadedAt(snapshot.loadedAt())
+                .departments(departments)
+                .build();
+    }
+
+    public EmployeeAsOfDTO getEmployeeAsOf(Integer id, String date) {
+        log.info("Fetching employee {} as of {}", id, date);
+
+        LocalDate asOf = parseDate(date);
+        int day = IntervalIndex.day(asOf);
+        OrgSnapshot snapshot = orgSnapshotLoader.getSnapshot();
+
+        // Employees without any history are not in the snapshot; only then is the database asked
+        if (!snapshot.departmentsByEmployee().hasOwner(id) && !snapshot.titlesByEmployee().hasOwner(id)
+                && !snapshot.salariesByEmployee().hasOwner(id) && !employeeService.existsById(id)) {
+            throw new ResourceNotFoundException("Employee not found with id: " + id);
+        }
+
+        IntervalIndex departments = snapshot.departmentsByEmployee();
+        List<DeptEmpDTO> deptEmps = new ArrayList<>();
+        departments.containing(id, day, period -> deptEmps.add(DeptEmpDTO.builder()
+                .empNo(id)
+                .deptNo(snapshot.deptNos()[departments.value(period)])
+                .fromDate(date(departments.start(period)))
+                .toDate(date(departments.end(period)))
+                .build()));
+
+        IntervalIndex managed = snapshot.managedByEmployee();
+        List<DeptManagerDTO> deptManagers = new ArrayList<>();
+        managed.containing(id, day, period -> deptManagers.add(DeptManagerDTO.builder()
+                .empNo(id)
+                .deptNo(snapshot.deptNos()[managed.value(period)])
+                .fromDate(date(managed.start(period)))
+                .toDate(date(managed.end(period)))
+                .build()));
+
+        IntervalIndex titles = snapshot.titlesByEmployee();
+        int title = titles.latest(id, day);
+        IntervalIndex salaries = snapshot.salariesByEmployee();
+        int salary = salaries.latest(id, day);
+
+        return EmployeeAsOfDTO.builder()
+                .empNo(id)
+                .asOf(asOf)
+                .loadedAt(snapshot.loadedAt())
+                .deptEmps(deptEmps)
+                .deptManagers(deptManagers)
+                .title(title < 0 ? null : TitleDTO.builder()
+                        .empNo(id)
+                        .title(snapshot.titles()[titles.value(title)])
+                        .fromDate(date(titles.start(title)))
+                        .toDate(date(titles.end(title)))
+                        .build())
+                .salary(salary < 0 ? null : SalaryDTO.builder()
+                        .empNo(id)
+                        .salary(salaries.value(salary))
+                        .fromDate(date(salaries.start(salary)))
+                        .toDate(date(salaries.end(salary)))
+                        .build())
+                .build();
+    }
+
+    private DepartmentSummaryDTO summarize(OrgSnapshot snapshot, int dept, int day) {
+        IntervalIndex members = snapshot.membersByDepartment();
+        IntStream.Builder found = IntStream.builder();
+        members.containing(dept, day, period -> found.add(members.value(period)));
+        int[] empNos = found.build().sorted().toArray();
+
+        long headcount = 0;
+        long payrollTotal = 0;
+        long paid = 0;
+        int[] titleCounts = new int[snapshot.titles().length];
+        for (int i = 0; i < empNos.length; i++) {
+            // Overlapping periods in the same department count the employee once
+            if (i > 0 && empNos[i] == empNos[i - 1]) {
+                continue;
+            }
+            headcount++;
+            int salary = snapshot.salariesByEmployee().latest(empNos[i], day);
+            if (salary >= 0) {
+                payrollTotal += snapshot.salariesByEmployee().value(salary);
+                paid++;
+            }
+            int title = snapshot.titlesByEmployee().latest(empNos[i], day);
+            if (title >= 0) {
+                titleCounts[snapshot.titlesByEmployee().value(title)]++;
+            }
+        }
+
+        List<TitleCountDTO> titles = new ArrayList<>();
+        for (int title = 0; title < titleCounts.length; title++) {
+            if (titleCounts[title] > 0) {
+                titles.add(new TitleCountDTO(snapshot.titles()[title], (long) titleCounts[title]));
+            }
+        }
+        titles.sort(Comparator.comparing(TitleCountDTO::getCount).reversed().thenComparing(TitleCountDTO::getTitle));
+
+        IntervalIndex managers = snapshot.managersByDepartment();
+        int manager = managers.latest(dept, day);
+
+        return DepartmentSummaryDTO.builder()
+                .deptNo(snapshot.deptNos()[dept])
+                .deptName(snapshot.deptNames()[dept])
+                .headcount(headcount)
+                .currentManager(manager < 0 ? null : DeptManagerDTO.builder()
+                        .empNo(managers.value(manager))
+                        .deptNo(snapshot.deptNos()[dept])
+                        .fromDate(date(managers.start(manager)))
+                        .toDate(date(managers.end(manager)))
+                        .build())
+                .payrollTotal(paid == 0 ? null : payrollTotal)
+                .payrollAverage(paid == 0 ? null : (double) payrollTotal / paid)
+                .titles(titles)
+                .build();
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Date must be yyyy-MM-dd, got '" + date + "'");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.assessment.service;
+
+import com.example.assessment.exception.DeadlineExceededException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Fan-out for composite reads: independent lookups run at the same time, each on its own virtual thread
+ * and in its own read-only transaction, so on its own connection. Latency becomes that of the slowest
+ * lookup rather than the sum of all of them.
+ * <pre>
+ * try (ParallelReads.Scope scope = parallelReads.open()) {
+ *     Supplier&lt;EmployeeDTO&gt; employee = scope.fork(() -&gt; employeeService.getEmployeeById(empNo));
+ *     Supplier&lt;List&lt;SalaryDTO&gt;&gt; salaries = scope.fork(() -&gt; salaryService.getSalariesByEmployee(empNo));
+ *     scope.join();
+ *     ...
+ * }
+ * </pre>
+ * A {@link Scope} behaves like {@code StructuredTaskScope.ShutdownOnFailure}, which is still a preview API
+ * on Java 21. The first failing fork interrupts the others and {@link Scope#join} rethrows its exception
+ * unchanged, so a {@code ResourceNotFoundException} still maps to 404. Past {@code app.parallel-reads.deadline}
+ * the forks are interrupted and {@link DeadlineExceededException} is thrown. Closing the scope waits for
+ * the forks to finish, so none outlives the request. A JDBC call does not always react to an interrupt,
+ * so each fork's transaction also carries the deadline as its timeout, which becomes the statement timeout.
+ * Forks see the caller's request attributes, so a request pinned to the primary also reads from it there.
+ */
+@Component
+public class ParallelReads {
+
+    private final TransactionTemplate readOnly;
+    private final Duration deadline;
+
+    public ParallelReads(PlatformTransactionManager transactionManager,
+                         @Value("${app.parallel-reads.deadline:5s}") Duration deadline) {
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setTimeout((int) Math.max(1, (deadline.toMillis() + 999) / 1000));
+        this.deadline = deadline;
+    }
+
+    public Scope open() {
+        return new Scope(System.nanoTime() + deadline.toNanos());
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final ExecutorService executor =
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("parallel-read-", 0).factory());
+        // Also read by a failing fork, to cancel its siblings
+        private final List<Future<?>> forks = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final long deadlineNanos;
+
+        private Scope(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Starts {@code read}; the returned supplier gives its result once {@link #join} has returned.
+         */
+        public <T> Supplier<T> fork(Supplier<T> read) {
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            Future<T> fork = executor.submit(() -> {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    return readOnly.execute(status -> read.get());
+                } catch (RuntimeException | Error ex) {
+                    if (failure.compareAndSet(null, ex)) {
+                        cancelForks();
+                    }
+                    throw ex;
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            });
+            forks.add(fork);
+            return fork::resultNow;
+        }
+
+        /**
+         * Waits for every fork, until the deadline at the latest.
+         */
+        public void join() {
+            try {
+                for (Future<?> fork : forks) {
+                    fork.get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+            } catch (ExecutionException | CancellationException ex) {
+                cancelForks();
+                Throwable cause = failure.get() != null ? failure.get() : ex.getCause();
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException("Parallel read failed", cause);
+            } catch (TimeoutException ex) {
+                cancelForks();
+                throw new DeadlineExceededException("Reads did not complete within " + deadline.toMillis() + " ms");
+            } catch (InterruptedException ex) {
+                cancelForks();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for parallel reads", ex);
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelForks();
+            executor.close();
+        }
+
+        private void cancelForks() {
+            for (Future<?> fork : forks) {
+                fork.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.assessment.service;
+
+import com.example.assessment.config.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs cache fills on the primary. A lagging replica could hand back the row an eviction just removed,
+ * and the cache would then serve it for the whole {@code expireAfterWrite}.
+ * <p>
+ * A read-only caller's transaction is on a replica only while {@link ReplicaRoutingDataSource} routes reads
+ * there, and only then does a fill called from one run in a new read-write transaction, whose primary
+ * connection comes from another pool than the caller's replica connection. Otherwise the caller is on the
+ * primary and the fill joins its transaction: a second connection from the same pool per concurrent miss
+ * would let as many callers as the pool (or connection permit semaphore) allows each hold one and wait
+ * for another until the connection timeout. The methods calling this are annotated
+ * {@code @Transactional(propagation = SUPPORTS)}, so that they neither start a read-only transaction of
+ * their own nor suspend the caller's.
+ */
+@Component
+public class PrimaryReads {
+
+    private final TransactionTemplate readWrite;
+    private final TransactionTemplate newReadWrite;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouting;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        ObjectProvider<ReplicaRoutingDataSource> replicaRouting) {
+        this.replicaRouting = replicaRouting;
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.newReadWrite = new TransactionTemplate(transactionManager);
+        this.newReadWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T read(Supplier<T> read) {
+        TransactionTemplate template = TransactionSynchronizationManager.isCurrentTransactionReadOnly() && onReplica()
+                ? newReadWrite
+                : readWrite;
+        return template.execute(status -> read.get());
+    }
+
+    private boolean onReplica() {
+        ReplicaRoutingDataSource routing = replicaRouting.getIfAvailable();
+        return routing != null && routing.routesReadsToReplicas();
+    }
+}
@@ -1,83 +1,217 @@
 package com.example.assessment.service;
 
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
 import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.SalaryStatsDTO;
+import com.example.assessment.dto.TopEarnerDTO;
+import com.example.assessment.exception.BadRequestException;
 import com.example.assessment.exception.ResourceNotFoundException;
 import com.example.assessment.model.Salary;
 import com.example.assessment.model.SalaryId;
-import com.example.assessment.repository.EmployeeRepository;
 import com.example.assessment.repository.SalaryRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class SalaryService {
 
+    private static final Set<String> SORTABLE = Set.of("empNo", "fromDate", "salary");
+    private static final Set<String> DATATABLE_SORTABLE = Set.of("empNo", "fromDate", "salary", "toDate");
+    // Salary ranges are walked in one fixed order, with the primary key as tie-breaker
+    private static final Sort RANGE_ORDER = Sort.by("salary", "empNo", "fromDate");
+    private static final Set<String> RANGE_KEYS = Set.of("salary", "empNo", "fromDate");
+
     private final SalaryRepository salaryRepository;
-    private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
+    private final SalaryStatisticsService salaryStatisticsService;
+    private final OrgSnapshotLoader orgSnapshotLoader;
 
-    public List<SalaryDTO> getAllSalaries() {
-        log.info("Fetching all salaries");
-        return salaryRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<SalaryDTO> getSalariesPage(String after, Integer limit, String sort) {
+        log.info("Fetching salaries page after: {}, limit: {}, sort: {}", after, limit, sort);
+
+        Sort order = KeysetPaging.sort(sort, SORTABLE, "empNo");
+        Window<SalaryDTO> window = salaryRepository.findAllBy(
+                KeysetPaging.position(after, order, SORTABLE), order, KeysetPaging.limit(limit));
+
+        return CursorPageDTO.<SalaryDTO>builder()
+                .items(window.getContent())
+                .nextCursor(KeysetPaging.nextCursor(window, order))
+                .build();
+    }
+
+    public DataTablesResponseDTO<SalaryDTO> getSalariesForDataTable(DataTablesRequestDTO request) {
+        log.info("Fetching salaries for DataTables, start: {}, length: {}, search: {}",
+                request.getStart(), request.getLength(), request.getSearch());
+
+        Pageable pageable = DataTablesPaging.pageable(request, DATATABLE_SORTABLE, "empNo", "fromDate");
+        Specification<Salary> search = searchSpecification(request.getSearch());
+        Slice<SalaryDTO> page = salaryRepository.findBy(search, query -> query.as(SalaryDTO.class).slice(pageable));
+        return DataTablesPaging.response(request, page, salaryRepository, search, SalaryDTO.class);
     }
 
     public List<SalaryDTO> getSalariesByEmployee(Integer empNo) {
         log.info("Fetching salaries for employee: {}", empNo);
-        return salaryRepository.findByEmpNoOrderByFromDateDesc(empNo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return salaryRepository.findByEmpNoOrderByFromDateDesc(empNo);
+    }
+
+    public SalaryStatsDTO getCurrentSalaryStatsForDepartment(String deptNo) {
+        log.info("Fetching current salary statistics for department: {}", deptNo);
+        return salaryRepository.findCurrentStatsByDeptNo(deptNo);
+    }
+
+    /**
+     * The {@code limit} best paid current salaries of {@code deptNo}, or of every department when it is null.
+     */
+    public List<TopEarnerDTO> getTopEarners(String deptNo, Integer limit) {
+        log.info("Fetching top {} earners for department: {}", limit, deptNo);
+        Limit max = KeysetPaging.limit(limit);
+        // Two statements rather than one with an optional department, so each gets a plan of its own
+        List<TopEarnerDTO> topEarners = deptNo == null
+                ? salaryRepository.findTopEarnersPerDepartment(max.max())
+                : salaryRepository.findTopEarnersInDepartment(deptNo, max);
+        // Rows arrive department by department, best paid first, so the rank is the position within the department
+        String dept = null;
+        long rank = 0;
+        for (TopEarnerDTO topEarner : topEarners) {
+            rank = topEarner.getDeptNo().equals(dept) ? rank + 1 : 1;
+            dept = topEarner.getDeptNo();
+            topEarner.setRank(rank);
+        }
+        return topEarners;
     }
 
+    /**
+     * Current salaries from {@code min} to {@code max} inclusive, lowest first, one keyset page at a time.
+     */
+    public CursorPageDTO<SalaryDTO> getCurrentSalariesInRange(Integer min, Integer max, String after, Integer limit) {
+        log.info("Fetching current salaries between {} and {} after: {}, limit: {}", min, max, after, limit);
+
+        if (min < 0 || min > max) {
+            throw new BadRequestException("min must be between 0 and max, got min " + min + " and max " + max);
+        }
+        int pageSize = KeysetPaging.limit(limit).max();
+        Map<String, Object> keys = ((KeysetScrollPosition) KeysetPaging.position(after, RANGE_ORDER, RANGE_KEYS)).getKeys();
+        List<SalaryDTO> rows;
+        if (keys.isEmpty()) {
+            // Seek from a key just before any salary of min
+            rows = salaryRepository.findCurrentInRange(max, min - 1, Integer.MAX_VALUE, LocalDate.of(9999, 12, 31),
+                    Limit.of(pageSize + 1));
+        } else if (keys.get("salary") instanceof Integer salary && keys.get("empNo") instanceof Integer empNo
+                && keys.get("fromDate") instanceof LocalDate fromDate) {
+            rows = salaryRepository.findCurrentInRange(max, Math.max(salary, min - 1), empNo, fromDate,
+                    Limit.of(pageSize + 1));
+        } else {
+            throw new BadRequestException("Malformed cursor");
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<SalaryDTO> items = hasNext ? rows.subList(0, pageSize) : rows;
+        Window<SalaryDTO> window = Window.from(items, index -> {
+            Map<String, Object> position = new LinkedHashMap<>();
+            position.put("salary", items.get(index).getSalary());
+            position.put("empNo", items.get(index).getEmpNo());
+            position.put("fromDate", items.get(index).getFromDate());
+            return ScrollPosition.forward(position);
+        }, hasNext);
+
+        return CursorPageDTO.<SalaryDTO>builder()
+                .items(items)
+                .nextCursor(KeysetPaging.nextCursor(window, RANGE_ORDER))
+                .build();
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
     public SalaryDTO createSalary(SalaryDTO salaryDTO) {
         log.info("Creating new salary: {}", salaryDTO);
 
-        if (!employeeRepository.existsById(salaryDTO.getEmpNo())) {
+        if (!employeeService.existsById(salaryDTO.getEmpNo())) {
             throw new ResourceNotFoundException("Employee not found with id: " + salaryDTO.getEmpNo());
         }
 
         Salary salary = convertToEntity(salaryDTO);
-        Salary savedSalary = salaryRepository.save(salary);
+        SalaryDTO saved = convertToDTO(salaryRepository.save(salary));
+        salaryStatisticsService.recordSalaryChange(null, saved);
+        orgSnapshotLoader.recordSalary(saved.getEmpNo(), saved.getFromDate(), saved);
         log.info("Salary created successfully");
 
-        return convertToDTO(savedSalary);
+        return saved;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
     public SalaryDTO updateSalary(Integer empNo, String fromDate, SalaryDTO salaryDTO) {
         log.info("Update salaryfor employee: {} from date: {}", empNo, fromDate);
         SalaryId id = new SalaryId(empNo, java.time.LocalDate.parse(fromDate));
 
-        if (!salaryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Salary not found");
-        }
+        // Copied before the save, which merges the new values into this managed entity
+        SalaryDTO before = salaryRepository.findById(id)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Salary not found"));
 
         Salary salary = convertToEntity(salaryDTO);
-        Salary savedSalary = salaryRepository.save(salary);
+        SalaryDTO saved = convertToDTO(salaryRepository.save(salary));
+        salaryStatisticsService.recordSalaryChange(before, saved);
+        orgSnapshotLoader.recordSalary(saved.getEmpNo(), saved.getFromDate(), saved);
         log.info("Salary updated successfully");
 
-        return convertToDTO(savedSalary);
+        return saved;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
     public void deleteSalary(Integer empNo, String fromDate) {
         log.info("Deleting salary for employee: {} from date: {}", empNo, fromDate);
         SalaryId id = new SalaryId(empNo, java.time.LocalDate.parse(fromDate));
 
-        if (!salaryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Salary not found");
-        }
+        SalaryDTO before = salaryRepository.findById(id)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Salary not found"));
 
         salaryRepository.deleteById(id);
+        salaryStatisticsService.recordSalaryChange(before, null);
+        orgSnapshotLoader.recordSalary(empNo, id.getFromDate(), null);
         log.info("Salary deleted successfully");
     }
 
+    private Specification<Salary> searchSpecification(String term) {
+        if (term == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        return (root, query, cb) -> {
+            Integer number = DataTablesPaging.asInteger(term);
+            if (number == null) {
+                return cb.disjunction();
+            }
+            return cb.or(
+                    cb.equal(root.get("empNo"), number),
+                    cb.equal(root.get("salary"), number));
+        };
+    }
+
     private SalaryDTO convertToDTO(Salary salary) {
         return SalaryDTO.builder()
                 .empNo(salary.getEmpNo())
@@ -0,0 +1,119 @@
+package com.example.assessment.service;
+
+import java.util.Arrays;
+
+/**
+ * Quantile sketch over positive salaries with a bounded relative error (the DDSketch construction): values
+ * are counted in buckets whose bounds grow by {@code gamma = (1 + a) / (1 - a)}, and a quantile is answered
+ * with the midpoint of its bucket, within {@code a} of the true value.
+ * <p>
+ * The state is only counts, so unlike t-digest or KLL a value can be taken out again exactly, which is what
+ * a salary update or delete needs, and two sketches merge by adding their counts. Memory follows
+ * log(max / min) and not the number of values: at 1% about 230 buckets span 10,000 to 1,000,000.
+ */
+final class SalarySketch {
+
+    private final double gamma;
+    private final double logGamma;
+    // counts[i] is the number of values in bucket offset + i
+    private long[] counts = new long[0];
+    private int offset;
+    private long total;
+
+    SalarySketch(double relativeAccuracy) {
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    synchronized void add(int salary) {
+        int bucket = bucket(salary);
+        ensureBucket(bucket);
+        counts[bucket - offset]++;
+        total++;
+    }
+
+    /**
+     * Takes out one earlier {@link #add} of {@code salary}; false if the sketch holds no such value.
+     */
+    synchronized boolean remove(int salary) {
+        int bucket = bucket(salary);
+        if (bucket < offset || bucket >= offset + counts.length || counts[bucket - offset] == 0) {
+            return false;
+        }
+        counts[bucket - offset]--;
+        total--;
+        return true;
+    }
+
+    synchronized void merge(SalarySketch other) {
+        long[] otherCounts;
+        int otherOffset;
+        synchronized (other) {
+            otherCounts = other.counts.clone();
+            otherOffset = other.offset;
+        }
+        for (int i = 0; i < otherCounts.length; i++) {
+            if (otherCounts[i] > 0) {
+                ensureBucket(otherOffset + i);
+                counts[otherOffset + i - offset] += otherCounts[i];
+                total += otherCounts[i];
+            }
+        }
+    }
+
+    synchronized long count() {
+        return total;
+    }
+
+    /**
+     * The value at {@code quantile} (0 to 1), or null when the sketch is empty.
+     */
+    synchronized Integer quantile(double quantile) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) (quantile * (total - 1));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return (int) Math.round(2 * Math.pow(gamma, offset + i) / (gamma + 1));
+            }
+        }
+        throw new IllegalStateException("Sketch counts do not add up to " + total);
+    }
+
+    private int bucket(int salary) {
+        if (salary <= 0) {
+            throw new IllegalArgumentException("Salary must be positive, got " + salary);
+        }
+        return (int) Math.ceil(Math.log(salary) / logGamma);
+    }
+
+    private void ensureBucket(int bucket) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            offset = bucket - 8;
+            return;
+        }
+        if (bucket >= offset && bucket < offset + counts.length) {
+            return;
+        }
+        // Grow by at least half again, so a run of new extremes does not copy on every value
+        int low = Math.min(offset, bucket);
+        int high = Math.max(offset + counts.length - 1, bucket);
+        int margin = counts.length / 2;
+        int newOffset = bucket < offset ? low - margin : low;
+        int newLength = high - newOffset + 1 + (bucket < offset ? 0 : margin);
+        long[] grown = new long[newLength];
+        System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+        counts = grown;
+        offset = newOffset;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SalarySketch[count=" + total + ", buckets=" + offset + ".." + (offset + counts.length - 1)
+                + ", nonEmpty=" + Arrays.stream(counts).filter(count -> count > 0).count() + "]";
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.assessment.service;
+
+import com.example.assessment.config.CacheInvalidator;
+import com.example.assessment.config.WriteOrigin;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.SalaryPercentilesDTO;
+import com.example.assessment.exception.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Median, p90 and p99 of current salaries per department and per title, from one {@link SalarySketch}
+ * each. A salary is current when its {@code to_date} is today or later, and counts towards the departments
+ * and titles its employee currently holds, as in {@code SalaryRepository#findCurrentStatsByDeptNo}.
+ * <p>
+ * The sketches are built from two scans after startup, or on first use, and then kept up to date:
+ * <ul>
+ *     <li>salary writes through {@link SalaryService} are applied as deltas after commit;</li>
+ *     <li>department and title changes move employees between sketches, and employee deletes take their
+ *     salaries out, so they rebuild them, as do
+ *     writes reported by CacheInvalidationListener, which covers other nodes and bulk imports, and the
+ *     first read of a new day, when salaries ending yesterday stop being current.</li>
+ * </ul>
+ * The writes above mark their transactions with this node's {@link WriteOrigin}, so their own
+ * notifications, which arrive through {@link #invalidateApplied}, do not rebuild the sketches again.
+ * Rebuilds run on a background thread; reads keep being answered from the previous sketches meanwhile.
+ */
+@Service
+@Slf4j
+public class SalaryStatisticsService implements CacheInvalidator {
+
+    // Every percentile is within 1% of a salary actually held in its group
+    static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final Set<String> SOURCE_TABLES = Set.of("salaries", "dept_emp", "titles");
+
+    // Rows the driver holds per round trip; PostgreSQL otherwise reads a whole result set into memory
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<WriteOrigin> writeOrigin;
+    private final ExecutorService rebuilder =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("salary-statistics").daemon().factory());
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private volatile Sketches sketches;
+    private volatile boolean rebuilding;
+
+    private record Sketches(LocalDate day, Map<String, SalarySketch> byDepartment, Map<String, SalarySketch> byTitle) {
+    }
+
+    public SalaryStatisticsService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                   ObjectProvider<WriteOrigin> writeOrigin) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // Read-write, so the scans read the primary like the other cache fills
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Only there with cache invalidation on; without it no notifications come back to tell apart
+        this.writeOrigin = writeOrigin;
+    }
+
+    /**
+     * Percentiles of one department, one title, or every department and then every title when neither is
+     * given. An unknown department or title has no current salaries and gives an empty list.
+     */
+    public List<SalaryPercentilesDTO> getPercentiles(String deptNo, String title) {
+        log.info("Fetching salary percentiles for department: {}, title: {}", deptNo, title);
+
+        if (deptNo != null && title != null) {
+            throw new BadRequestException("Percentiles are kept per department or per title, give one of deptNo and title");
+        }
+        Sketches current = current();
+        List<SalaryPercentilesDTO> percentiles = new ArrayList<>();
+        if (title == null) {
+            current.byDepartment().forEach((dept, sketch) -> {
+                if (deptNo == null || deptNo.equals(dept)) {
+                    percentiles.add(percentiles(dept, null, sketch));
+                }
+            });
+        }
+        if (deptNo == null) {
+            current.byTitle().forEach((name, sketch) -> {
+                if (title == null || title.equals(name)) {
+                    percentiles.add(percentiles(null, name, sketch));
+                }
+            });
+        }
+        return percentiles;
+    }
+
+    /**
+     * Moves {@code before} out of and {@code after} into the sketches of the employee's current departments
+     * and titles once the surrounding transaction commits; either may be null for a create or delete.
+     * Runs inside the writing transaction, so the assignments read are the ones the write sees, and before
+     * its statements reach the database, which for JPA writes is at commit.
+     */
+    void recordSalaryChange(SalaryDTO before, SalaryDTO after) {
+        writeOrigin.ifAvailable(WriteOrigin::markCurrentTransaction);
+        Sketches seen = sketches;
+        LocalDate day = seen == null ? LocalDate.now() : seen.day();
+        Membership removed = isCurrent(before, day) ? membership(before.getEmpNo(), day) : null;
+        Membership added = isCurrent(after, day) ? membership(after.getEmpNo(), day) : null;
+        if (removed == null && added == null) {
+            return;
+        }
+        afterCommit(() -> {
+            Sketches current = sketches;
+            if (current != null && current.day().equals(day)) {
+                if (removed != null) {
+                    removed.forEach(current, sketch -> sketch.remove(before.getSalary()));
+                }
+                if (added != null) {
+                    added.forEach(current, sketch -> sketch.add(after.getSalary()));
+                }
+            }
+            // A build that overlapped this transaction may or may not have seen the write; one started now will
+            if (current != seen || rebuilding) {
+                requestRebuild();
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the sketches once the surrounding transaction commits, for changes that move employees
+     * between departments or titles. Call it before the write's statements run.
+     */
+    void rebuildAfterCommit() {
+        writeOrigin.ifAvailable(WriteOrigin::markCurrentTransaction);
+        afterCommit(this::requestRebuild);
+    }
+
+    @Override
+    public void invalidate(String table, Set<String> keys) {
+        if (SOURCE_TABLES.contains(table)) {
+            requestRebuild();
+        }
+    }
+
+    @Override
+    public void invalidateApplied(String table, Set<String> keys) {
+        log.debug("Salary sketches already account for this node's write to {}", table);
+    }
+
+    @Override
+    public void invalidateAll() {
+        requestRebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void buildOnStartup() {
+        requestRebuild();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private Sketches current() {
+        Sketches current = sketches;
+        if (current == null) {
+            synchronized (this) {
+                if (sketches == null) {
+                    sketches = build();
+                }
+                return sketches;
+            }
+        }
+        if (!current.day().equals(LocalDate.now())) {
+            requestRebuild();
+        }
+        return current;
+    }
+
+    private void requestRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildQueued.set(false);
+                rebuilding = true;
+                try {
+                    sketches = build();
+                } catch (RuntimeException ex) {
+                    log.error("Rebuilding salary sketches failed, keeping the previous ones", ex);
+                } finally {
+                    rebuilding = false;
+                }
+            });
+        }
+    }
+
+    private Sketches build() {
+        log.info("Building salary percentile sketches");
+        long start = System.nanoTime();
+
+        LocalDate day = LocalDate.now();
+        Map<String, SalarySketch> byDepartment = new ConcurrentSkipListMap<>();
+        Map<String, SalarySketch> byTitle = new ConcurrentSkipListMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.query("SELECT de.dept_no, s.salary FROM salaries s JOIN dept_emp de ON de.emp_no = s.emp_no " +
+                            "WHERE (s.to_date IS NULL OR s.to_date >= ?) AND (de.to_date IS NULL OR de.to_date >= ?)",
+                    (RowCallbackHandler) rs -> byDepartment.computeIfAbsent(rs.getString(1), dept -> newSketch())
+                            .add(rs.getInt(2)),
+                    day, day);
+            jdbcTemplate.query("SELECT t.title, s.salary FROM salaries s JOIN titles t ON t.emp_no = s.emp_no " +
+                            "WHERE (s.to_date IS NULL OR s.to_date >= ?) AND (t.to_date IS NULL OR t.to_date >= ?)",
+                    (RowCallbackHandler) rs -> byTitle.computeIfAbsent(rs.getString(1), title -> newSketch())
+                            .add(rs.getInt(2)),
+                    day, day);
+        });
+
+        log.info("Built salary sketches for {} departments and {} titles in {} ms", byDepartment.size(),
+                byTitle.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new Sketches(day, byDepartment, byTitle);
+    }
+
+    private Membership membership(Integer empNo, LocalDate day) {
+        return new Membership(
+                jdbcTemplate.queryForList("SELECT dept_no FROM dept_emp WHERE emp_no = ? " +
+                        "AND (to_date IS NULL OR to_date >= ?)", String.class, empNo, day),
+                jdbcTemplate.queryForList("SELECT title FROM titles WHERE emp_no = ? " +
+                        "AND (to_date IS NULL OR to_date >= ?)", String.class, empNo, day));
+    }
+
+    private record Membership(List<String> deptNos, List<String> titles) {
+
+        void forEach(Sketches sketches, Consumer<SalarySketch> action) {
+            deptNos.forEach(dept -> action.accept(sketches.byDepartment().computeIfAbsent(dept, key -> newSketch())));
+            titles.forEach(title -> action.accept(sketches.byTitle().computeIfAbsent(title, key -> newSketch())));
+        }
+    }
+
+    private static boolean isCurrent(SalaryDTO salary, LocalDate day) {
+        return salary != null && (salary.getToDate() == null || !salary.getToDate().isBefore(day));
+    }
+
+    private static SalarySketch newSketch() {
+        return new SalarySketch(RELATIVE_ACCURACY);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static SalaryPercentilesDTO percentiles(String deptNo, String title, SalarySketch sketch) {
+        // One consistent read against concurrent deltas
+        synchronized (sketch) {
+            return SalaryPercentilesDTO.builder()
+                    .deptNo(deptNo)
+                    .title(title)
+                    .count(sketch.count())
+                    .p50(sketch.quantile(0.50))
+                    .p90(sketch.quantile(0.90))
+                    .p99(sketch.quantile(0.99))
+                    .build();
+        }
+    }
+}
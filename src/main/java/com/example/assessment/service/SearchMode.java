@@ -0,0 +1,49 @@
+package com.example.assessment.service;
+
+import com.example.assessment.exception.BadRequestException;
+
+import java.util.Arrays;
+
+/**
+ * Matching strategy for the name/title search endpoints. Each mode maps onto an index created by
+ * {@code V2__trigram_search_indexes.sql}.
+ */
+public enum SearchMode {
+    /** Substring match, {@code lower(col) LIKE '%x%'} served by the pg_trgm GIN index. */
+    CONTAINS,
+    /** Prefix match, {@code lower(col) LIKE 'x%'} served by the text_pattern_ops btree index. */
+    PREFIX,
+    /** Fuzzy match with the pg_trgm {@code %} operator, best similarity first. */
+    SIMILAR;
+
+    public static SearchMode from(String mode) {
+        if (mode == null || mode.isBlank()) {
+            return CONTAINS;
+        }
+        return Arrays.stream(values())
+                .filter(value -> value.name().equalsIgnoreCase(mode.trim()))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unsupported search mode: " + mode
+                        + ", allowed: " + Arrays.toString(values())));
+    }
+
+    /**
+     * Lower-cased {@code %x%} pattern with LIKE wildcards in the term escaped by {@code \}.
+     */
+    public static String containsPattern(String term) {
+        return "%" + escapeLike(term.toLowerCase()) + "%";
+    }
+
+    /**
+     * Lower-cased {@code x%} pattern with LIKE wildcards in the term escaped by {@code \}.
+     */
+    public static String prefixPattern(String term) {
+        return escapeLike(term.toLowerCase()) + "%";
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.assessment.service;
+
+import com.example.assessment.exception.BadRequestException;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Period length of the workforce time series. Periods are calendar months, quarters or years, and each is
+ * sampled on its first day.
+ */
+public enum TimeSeriesGranularity {
+    MONTH(1),
+    QUARTER(3),
+    YEAR(12);
+
+    private final int months;
+
+    TimeSeriesGranularity(int months) {
+        this.months = months;
+    }
+
+    public int getMonths() {
+        return months;
+    }
+
+    /**
+     * First day of the period containing {@code date}.
+     */
+    public LocalDate periodStart(LocalDate date) {
+        return date.withDayOfMonth(1).minusMonths((date.getMonthValue() - 1) % months);
+    }
+
+    public static TimeSeriesGranularity from(String granularity) {
+        if (granularity == null || granularity.isBlank()) {
+            return MONTH;
+        }
+        return Arrays.stream(values())
+                .filter(value -> value.name().equalsIgnoreCase(granularity.trim()))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unsupported granularity: " + granularity
+                        + ", allowed: " + Arrays.toString(values())));
+    }
+}
@@ -1,54 +1,85 @@
 package com.example.assessment.service;
 
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
+import com.example.assessment.dto.TitleCountDTO;
 import com.example.assessment.dto.TitleDTO;
 import com.example.assessment.exception.ResourceAlreadyExistException;
 import com.example.assessment.exception.ResourceNotFoundException;
 import com.example.assessment.model.Title;
 import com.example.assessment.model.TitleId;
-import com.example.assessment.repository.EmployeeRepository;
 import com.example.assessment.repository.TitleRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class TitleService {
 
+    private static final Set<String> SORTABLE = Set.of("empNo", "fromDate", "title");
+    private static final Set<String> DATATABLE_SORTABLE = Set.of("empNo", "fromDate", "title", "toDate");
+
     private final TitleRepository titleRepository;
-    private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
+    private final SalaryStatisticsService salaryStatisticsService;
+    private final OrgSnapshotLoader orgSnapshotLoader;
+
+    public CursorPageDTO<TitleDTO> getTitlesPage(String after, Integer limit, String sort) {
+        log.info("Fetching titles page after: {}, limit: {}, sort: {}", after, limit, sort);
+
+        Sort order = KeysetPaging.sort(sort, SORTABLE, "empNo");
+        Window<TitleDTO> window = titleRepository.findAllBy(
+                KeysetPaging.position(after, order, SORTABLE), order, KeysetPaging.limit(limit));
+
+        return CursorPageDTO.<TitleDTO>builder()
+                .items(window.getContent())
+                .nextCursor(KeysetPaging.nextCursor(window, order))
+                .build();
+    }
 
-    public List<TitleDTO> getAllTitles() {
-        log.info("Fetching all titles");
-        return titleRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public DataTablesResponseDTO<TitleDTO> getTitlesForDataTable(DataTablesRequestDTO request) {
+        log.info("Fetching titles for DataTables, start: {}, length: {}, search: {}",
+                request.getStart(), request.getLength(), request.getSearch());
+
+        Pageable pageable = DataTablesPaging.pageable(request, DATATABLE_SORTABLE, "empNo", "fromDate");
+        Specification<Title> search = searchSpecification(request.getSearch());
+        Slice<TitleDTO> page = titleRepository.findBy(search, query -> query.as(TitleDTO.class).slice(pageable));
+        return DataTablesPaging.response(request, page, titleRepository, search, TitleDTO.class);
     }
 
 
     public List<TitleDTO> getTitlesByEmployee(Integer empNo) {
         log.info("Fetching titles for employee: {}", empNo);
 
-        if (!employeeRepository.existsById(empNo)) {
+        if (!employeeService.existsById(empNo)) {
             throw new ResourceNotFoundException("Employee not found with id: " + empNo);
         }
 
-        return titleRepository.findByEmpNoOrderByFromDateDesc(empNo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return titleRepository.findByEmpNoOrderByFromDateDesc(empNo);
     }
 
 
     public TitleDTO getCurrentTitle(Integer empNo) {
         log.info("Fetching current title for employee: {}", empNo);
 
-        if (!employeeRepository.existsById(empNo)) {
+        if (!employeeService.existsById(empNo)) {
             throw new ResourceNotFoundException("Employee not found with id: " + empNo);
         }
 
@@ -62,16 +93,39 @@ public class TitleService {
 
     public List<TitleDTO> getTitlesByName(String titleName) {
         log.info("Fetching titles with name: {}", titleName);
-        return titleRepository.findByTitle(titleName).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return titleRepository.findByTitle(titleName);
+    }
+
+    public List<String> getTitleNames() {
+        log.info("Fetching distinct title names");
+        return titleRepository.findDistinctTitles();
+    }
+
+    public List<TitleCountDTO> getCurrentTitleCountsForDepartment(String deptNo) {
+        log.info("Counting current titles in department: {}", deptNo);
+        return titleRepository.countCurrentTitlesByDeptNo(deptNo);
+    }
+
+    public List<TitleDTO> searchTitles(String title, String mode, Integer limit) {
+        log.info("Searching titles: {}, mode: {}, limit: {}", title, mode, limit);
+
+        Limit max = KeysetPaging.limit(limit);
+        return switch (SearchMode.from(mode)) {
+            case CONTAINS -> titleRepository.searchByTitle(SearchMode.containsPattern(title), max);
+            case PREFIX -> titleRepository.searchByTitlePrefix(SearchMode.prefixPattern(title), max);
+            case SIMILAR -> titleRepository.searchByTitleSimilarity(title.toLowerCase(), max.max()).stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        };
     }
 
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
     public TitleDTO createTitle(TitleDTO titleDTO) {
         log.info("Creating new title: {}", titleDTO);
 
-        if (!employeeRepository.existsById(titleDTO.getEmpNo())) {
+        if (!employeeService.existsById(titleDTO.getEmpNo())) {
             throw new ResourceNotFoundException("Employee not found with id: " + titleDTO.getEmpNo());
         }
 
@@ -81,13 +135,17 @@ public class TitleService {
         }
 
         Title title = convertToEntity(titleDTO);
-        Title savedTitle = titleRepository.save(title);
+        salaryStatisticsService.rebuildAfterCommit();
+        TitleDTO saved = convertToDTO(titleRepository.save(title));
+        orgSnapshotLoader.recordTitle(saved.getEmpNo(), saved.getFromDate(), saved);
         log.info("Title created successfully");
 
-        return convertToDTO(savedTitle);
+        return saved;
     }
 
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
     public TitleDTO updateTitle(Integer empNo, String fromDate, TitleDTO titleDTO) {
         log.info("Updating title for employee: {} from date: {}", empNo, fromDate);
 
@@ -98,13 +156,17 @@ public class TitleService {
         existingTitle.setTitle(titleDTO.getTitle());
         existingTitle.setToDate(titleDTO.getToDate());
 
-        Title updatedTitle = titleRepository.save(existingTitle);
+        salaryStatisticsService.rebuildAfterCommit();
+        TitleDTO updated = convertToDTO(titleRepository.save(existingTitle));
+        orgSnapshotLoader.recordTitle(empNo, id.getFromDate(), updated);
         log.info("Title updated successfully");
 
-        return convertToDTO(updatedTitle);
+        return updated;
     }
 
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_SUMMARY, allEntries = true)
     public void deleteTitle(Integer empNo, String fromDate) {
         log.info("Deleting title for employee: {} from date: {}", empNo, fromDate);
 
@@ -114,10 +176,25 @@ public class TitleService {
             throw new ResourceNotFoundException("Title not found");
         }
 
+        salaryStatisticsService.rebuildAfterCommit();
         titleRepository.deleteById(id);
+        orgSnapshotLoader.recordTitle(empNo, id.getFromDate(), null);
         log.info("Title deleted successfully");
     }
 
+    private Specification<Title> searchSpecification(String term) {
+        if (term == null) {
+            return (root, query, cb) -> cb.conjunction();
+        }
+        return (root, query, cb) -> {
+            Integer empNo = DataTablesPaging.asInteger(term);
+            if (empNo != null) {
+                return cb.equal(root.get("empNo"), empNo);
+            }
+            return cb.like(cb.lower(root.get("title")), SearchMode.containsPattern(term), '\\');
+        };
+    }
+
     private TitleDTO convertToDTO(Title title) {
         return TitleDTO.builder()
                 .empNo(title.getEmpNo())
@@ -0,0 +1,33 @@
+package com.example.assessment.service;
+
+import com.example.assessment.dto.WorkforceTimeSeriesDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Workforce trends over the whole history, answered from the in-memory {@link OrgSnapshot} by the
+ * {@link WorkforceTimeSeriesEngine} instead of exporting the history tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkforceAnalyticsService {
+
+    private final OrgSnapshotLoader orgSnapshotLoader;
+    private final WorkforceTimeSeriesEngine workforceTimeSeriesEngine;
+
+    /**
+     * {@code metric} per department on the first day of every period up to today's.
+     */
+    public WorkforceTimeSeriesDTO getTimeSeries(String metric, String granularity) {
+        log.info("Fetching {} time series by {}", metric, granularity);
+
+        WorkforceMetric workforceMetric = WorkforceMetric.from(metric);
+        TimeSeriesGranularity timeSeriesGranularity = TimeSeriesGranularity.from(granularity);
+        return workforceTimeSeriesEngine.compute(orgSnapshotLoader.getSnapshot(), workforceMetric,
+                timeSeriesGranularity, LocalDate.now());
+    }
+}
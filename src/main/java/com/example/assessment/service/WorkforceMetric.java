@@ -0,0 +1,23 @@
+package com.example.assessment.service;
+
+import com.example.assessment.exception.BadRequestException;
+
+import java.util.Arrays;
+
+/**
+ * What the workforce time series counts per department on each period's first day.
+ */
+public enum WorkforceMetric {
+    /** Employees assigned to the department. */
+    HEADCOUNT,
+    /** Sum of those employees' salaries. */
+    PAYROLL;
+
+    public static WorkforceMetric from(String metric) {
+        return Arrays.stream(values())
+                .filter(value -> value.name().equalsIgnoreCase(metric == null ? "" : metric.trim()))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unsupported metric: " + metric
+                        + ", allowed: " + Arrays.toString(values())));
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.assessment.service;
+
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.WorkforceTimeSeriesDTO;
+import com.example.assessment.dto.WorkforceTimeSeriesDTO.DepartmentSeriesDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.assessment.service.IntervalIndex.OPEN;
+
+/**
+ * Headcount and payroll per department over the whole history, computed from an {@link OrgSnapshot} with
+ * one sweep per department. Every period in the history becomes a +value event on its first day and a
+ * -value event on the day after its last; summing the events on or before each sample day gives the value
+ * on that day. The events are counted into the sample they first affect, found by binary search over the
+ * sample days, so one pass plus one prefix sum does it, without sorting the events.
+ * <p>
+ * Departments are independent, so each is swept as its own task on a fork-join pool. A series is cached
+ * per snapshot version: a write patches or reloads the snapshot, and the next request computes under the new
+ * version.
+ */
+@Service
+@Slf4j
+public class WorkforceTimeSeriesEngine {
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The series from the period of the earliest assignment through the period containing {@code through}.
+     * Values are as of each period's first day, with the same inclusive {@code to_date} as the as-of queries.
+     */
+    @Cacheable(cacheNames = CacheConfig.WORKFORCE_TIMESERIES, sync = true,
+            key = "{#metric, #granularity, #snapshot.version(), #granularity.periodStart(#through)}")
+    public WorkforceTimeSeriesDTO compute(OrgSnapshot snapshot, WorkforceMetric metric,
+                                          TimeSeriesGranularity granularity, LocalDate through) {
+        log.info("Computing {} time series by {}", metric, granularity);
+        long start = System.nanoTime();
+
+        List<LocalDate> periods = periods(snapshot.membersByDepartment(), snapshot.deptNos().length, granularity,
+                through);
+        int[] samples = periods.stream().mapToInt(IntervalIndex::day).toArray();
+
+        long[][] series = new long[snapshot.deptNos().length][];
+        ForkJoinTask<?>[] sweeps = new ForkJoinTask<?>[series.length];
+        for (int dept = 0; dept < series.length; dept++) {
+            int partition = dept;
+            sweeps[dept] = ForkJoinTask.adapt(() -> series[partition] = metric == WorkforceMetric.HEADCOUNT
+                    ? headcount(snapshot, partition, samples)
+                    : payroll(snapshot, partition, samples));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(sweeps)));
+
+        List<DepartmentSeriesDTO> departments = new ArrayList<>(series.length);
+        for (int dept = 0; dept < series.length; dept++) {
+            departments.add(DepartmentSeriesDTO.builder()
+                    .deptNo(snapshot.deptNos()[dept])
+                    .deptName(snapshot.deptNames()[dept])
+                    .values(Arrays.stream(series[dept]).boxed().toList())
+                    .build());
+        }
+
+        log.info("Computed {} time series by {}: {} departments over {} periods in {} ms", metric, granularity,
+                series.length, samples.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return WorkforceTimeSeriesDTO.builder()
+                .metric(metric)
+                .granularity(granularity)
+                .loadedAt(snapshot.loadedAt())
+                .periods(periods)
+                .departments(departments)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // dept_emp is keyed by employee and department, so no one is counted twice in a department
+    private static long[] headcount(OrgSnapshot snapshot, int dept, int[] samples) {
+        IntervalIndex members = snapshot.membersByDepartment();
+        long[] events = new long[samples.length + 1];
+        for (int period = members.firstPeriod(dept); period < members.endPeriod(dept); period++) {
+            addEvents(events, samples, members.start(period), members.end(period), 1);
+        }
+        return sum(events, samples.length);
+    }
+
+    // Each member's salary periods clipped to the membership
+    private static long[] payroll(OrgSnapshot snapshot, int dept, int[] samples) {
+        IntervalIndex members = snapshot.membersByDepartment();
+        IntervalIndex salaries = snapshot.salariesByEmployee();
+        long[] events = new long[samples.length + 1];
+        for (int member = members.firstPeriod(dept); member < members.endPeriod(dept); member++) {
+            int empNo = members.value(member);
+            int last = salaries.endPeriod(empNo);
+            for (int salary = salaries.firstPeriod(empNo); salary < last; salary++) {
+                // A raise ends the salary before it, also when both hold on the handover day, as in latest()
+                int end = salary + 1 < last
+                        ? Math.min(salaries.end(salary), salaries.start(salary + 1) - 1)
+                        : salaries.end(salary);
+                addEvents(events, samples, Math.max(salaries.start(salary), members.start(member)),
+                        Math.min(end, members.end(member)), salaries.value(salary));
+            }
+        }
+        return sum(events, samples.length);
+    }
+
+    private static void addEvents(long[] events, int[] samples, int start, int end, long value) {
+        if (start > end) {
+            return;
+        }
+        events[firstSampleFrom(samples, start)] += value;
+        if (end != OPEN) {
+            events[firstSampleFrom(samples, end + 1)] -= value;
+        }
+    }
+
+    // Index of the first sample day on or after day; samples.length, the overflow slot, if there is none
+    private static int firstSampleFrom(int[] samples, int day) {
+        int found = Arrays.binarySearch(samples, day);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    private static long[] sum(long[] events, int length) {
+        long[] values = new long[length];
+        long running = 0;
+        for (int i = 0; i < length; i++) {
+            running += events[i];
+            values[i] = running;
+        }
+        return values;
+    }
+
+    // Each department's periods are in start order, so its first one is its earliest
+    private static List<LocalDate> periods(IntervalIndex members, int depts, TimeSeriesGranularity granularity,
+                                           LocalDate through) {
+        int earliest = OPEN;
+        for (int dept = 0; dept < depts; dept++) {
+            if (members.hasOwner(dept)) {
+                earliest = Math.min(earliest, members.start(members.firstPeriod(dept)));
+            }
+        }
+        List<LocalDate> periods = new ArrayList<>();
+        if (earliest == OPEN) {
+            return periods;
+        }
+        for (LocalDate period = granularity.periodStart(IntervalIndex.date(earliest)); !period.isAfter(through);
+             period = period.plusMonths(granularity.getMonths())) {
+            periods.add(period);
+        }
+        return periods;
+    }
+}
@@ -1,46 +1,112 @@
+-- Schema of the JPA entities in com.example.assessment.model, which Hibernate validates at startup
+-- (spring.jpa.hibernate.ddl-auto=validate). Periods are inclusive; an open one has a NULL to_date.
 CREATE TABLE employees (
     emp_no INT PRIMARY KEY,
     birth_date DATE NOT NULL,
     first_name VARCHAR(14) NOT NULL,
     last_name VARCHAR(16) NOT NULL,
-    gender VARCHAR(1) NOT NULL,
+    gender CHAR(1) NOT NULL CHECK (gender IN ('M', 'F')),
     hire_date DATE NOT NULL
 );
 
 CREATE TABLE departments (
-    dept_no CHAR(4) PRIMARY KEY,
+    dept_no VARCHAR(4) PRIMARY KEY,
     dept_name VARCHAR(40) NOT NULL UNIQUE
 );
 
 CREATE TABLE dept_emp (
-    emp_no INT NOT NULL,
-    dept_no CHAR(4) NOT NULL,
+    emp_no INT NOT NULL REFERENCES employees (emp_no),
+    dept_no VARCHAR(4) NOT NULL REFERENCES departments (dept_no),
     from_date DATE NOT NULL,
-    to_date DATE NOT NULL,
-    FOREIGN KEY (emp_no) REFERENCES employees(emp_no),
-    FOREIGN KEY (dept_no) REFERENCES departments(dept_no)
+    to_date DATE,
+    PRIMARY KEY (emp_no, dept_no)
 );
 
 CREATE TABLE dept_manager (
-    dept_no CHAR(4) NOT NULL,
-    emp_no INT NOT NULL,
+    emp_no INT NOT NULL REFERENCES employees (emp_no),
+    dept_no VARCHAR(4) NOT NULL REFERENCES departments (dept_no),
     from_date DATE NOT NULL,
-    to_date DATE NOT NULL,
-    FOREIGN KEY (dept_no) REFERENCES departments(dept_no),
-    FOREIGN KEY (emp_no) REFERENCES employees(emp_no)
+    to_date DATE,
+    PRIMARY KEY (emp_no, dept_no)
 );
 
 CREATE TABLE titles (
-    emp_no INT NOT NULL,
+    emp_no INT NOT NULL REFERENCES employees (emp_no),
     title VARCHAR(50) NOT NULL,
     from_date DATE NOT NULL,
-    to_date DATE NOT NULL,
-    FOREIGN KEY (emp_no) REFERENCES employees(emp_no)
+    to_date DATE,
+    PRIMARY KEY (emp_no, from_date)
 );
 
----- Create indexes
---CREATE INDEX idx_dept_emp_emp_no ON dept_emp(emp_no);
---CREATE INDEX idx_dept_emp_dept_no ON dept_emp(dept_no);
---CREATE INDEX idx_dept_manager_emp_no ON dept_manager(emp_no);
---CREATE INDEX idx_dept_manager_dept_no ON dept_manager(dept_no);
---CREATE INDEX idx_titles_emp_no ON titles(emp_no);
\ No newline at end of file
+CREATE TABLE salaries (
+    emp_no INT NOT NULL REFERENCES employees (emp_no),
+    salary INT NOT NULL,
+    from_date DATE NOT NULL,
+    to_date DATE,
+    PRIMARY KEY (emp_no, from_date)
+);
+
+-- Keyset paging and sorting; the same indexes are declared on the entities
+CREATE INDEX idx_employees_first_name ON employees (first_name, emp_no);
+CREATE INDEX idx_employees_last_name ON employees (last_name, emp_no);
+CREATE INDEX idx_employees_birth_date ON employees (birth_date, emp_no);
+CREATE INDEX idx_employees_hire_date ON employees (hire_date, emp_no);
+CREATE INDEX idx_dept_emp_dept_no ON dept_emp (dept_no, emp_no);
+CREATE INDEX idx_dept_emp_from_date ON dept_emp (from_date, emp_no, dept_no);
+CREATE INDEX idx_dept_manager_dept_no ON dept_manager (dept_no, emp_no);
+CREATE INDEX idx_dept_manager_from_date ON dept_manager (from_date, emp_no, dept_no);
+CREATE INDEX idx_titles_from_date ON titles (from_date, emp_no);
+CREATE INDEX idx_titles_title ON titles (title, emp_no, from_date);
+CREATE INDEX idx_salaries_from_date ON salaries (from_date, emp_no);
+CREATE INDEX idx_salaries_salary ON salaries (salary, emp_no, from_date);
+
+-- Single-employee procedures behind the /api/employees/procedure endpoints (EmployeeRepository)
+CREATE OR REPLACE PROCEDURE sp_insert_employee(
+    p_emp_no INT,
+    p_birth_date DATE,
+    p_first_name VARCHAR,
+    p_last_name VARCHAR,
+    p_gender VARCHAR,
+    p_hire_date DATE
+)
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO employees (emp_no, birth_date, first_name, last_name, gender, hire_date)
+    VALUES (p_emp_no, p_birth_date, p_first_name, p_last_name, p_gender, p_hire_date);
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE sp_update_employee(
+    p_emp_no INT,
+    p_birth_date DATE,
+    p_first_name VARCHAR,
+    p_last_name VARCHAR,
+    p_gender VARCHAR,
+    p_hire_date DATE
+)
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE employees
+    SET birth_date = p_birth_date,
+        first_name = p_first_name,
+        last_name  = p_last_name,
+        gender     = p_gender,
+        hire_date  = p_hire_date
+    WHERE emp_no = p_emp_no;
+END;
+$$;
+
+-- Dependent rows go first, matching the cascade the JPA delete path applies
+CREATE OR REPLACE PROCEDURE sp_delete_employee(p_emp_no INT)
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    DELETE FROM salaries WHERE emp_no = p_emp_no;
+    DELETE FROM titles WHERE emp_no = p_emp_no;
+    DELETE FROM dept_emp WHERE emp_no = p_emp_no;
+    DELETE FROM dept_manager WHERE emp_no = p_emp_no;
+    DELETE FROM employees WHERE emp_no = p_emp_no;
+END;
+$$;
@@ -0,0 +1,14 @@
+-- Index-backed name/title search
+-- gin_trgm_ops serves LIKE '%x%' (contains mode) and the % similarity operator (similar mode),
+-- text_pattern_ops serves LIKE 'x%' (prefix mode) regardless of the database collation.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_employees_first_name_trgm ON employees USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_employees_last_name_trgm ON employees USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_departments_dept_name_trgm ON departments USING gin (lower(dept_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_titles_title_trgm ON titles USING gin (lower(title) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_employees_first_name_prefix ON employees (lower(first_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_employees_last_name_prefix ON employees (lower(last_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_departments_dept_name_prefix ON departments (lower(dept_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_titles_title_prefix ON titles (lower(title) text_pattern_ops);
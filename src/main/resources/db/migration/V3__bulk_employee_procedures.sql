@@ -0,0 +1,72 @@
+-- Set-based variants of sp_insert_employee / sp_update_employee / sp_delete_employee.
+-- Employees arrive as parallel arrays (element i of every array is one employee) and each procedure
+-- applies them with one statement, so a batch costs one call and one round trip instead of one per row.
+
+CREATE OR REPLACE PROCEDURE sp_insert_employees(
+    p_emp_nos INT[],
+    p_birth_dates DATE[],
+    p_first_names VARCHAR[],
+    p_last_names VARCHAR[],
+    p_genders VARCHAR[],
+    p_hire_dates DATE[]
+)
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF cardinality(p_birth_dates) <> cardinality(p_emp_nos)
+        OR cardinality(p_first_names) <> cardinality(p_emp_nos)
+        OR cardinality(p_last_names) <> cardinality(p_emp_nos)
+        OR cardinality(p_genders) <> cardinality(p_emp_nos)
+        OR cardinality(p_hire_dates) <> cardinality(p_emp_nos) THEN
+        RAISE EXCEPTION 'sp_insert_employees: all arrays must have the same length';
+    END IF;
+
+    INSERT INTO employees (emp_no, birth_date, first_name, last_name, gender, hire_date)
+    SELECT *
+    FROM unnest(p_emp_nos, p_birth_dates, p_first_names, p_last_names, p_genders, p_hire_dates);
+END;
+$$;
+
+CREATE OR REPLACE PROCEDURE sp_update_employees(
+    p_emp_nos INT[],
+    p_birth_dates DATE[],
+    p_first_names VARCHAR[],
+    p_last_names VARCHAR[],
+    p_genders VARCHAR[],
+    p_hire_dates DATE[]
+)
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF cardinality(p_birth_dates) <> cardinality(p_emp_nos)
+        OR cardinality(p_first_names) <> cardinality(p_emp_nos)
+        OR cardinality(p_last_names) <> cardinality(p_emp_nos)
+        OR cardinality(p_genders) <> cardinality(p_emp_nos)
+        OR cardinality(p_hire_dates) <> cardinality(p_emp_nos) THEN
+        RAISE EXCEPTION 'sp_update_employees: all arrays must have the same length';
+    END IF;
+
+    UPDATE employees e
+    SET birth_date = u.birth_date,
+        first_name = u.first_name,
+        last_name  = u.last_name,
+        gender     = u.gender,
+        hire_date  = u.hire_date
+    FROM unnest(p_emp_nos, p_birth_dates, p_first_names, p_last_names, p_genders, p_hire_dates)
+        AS u (emp_no, birth_date, first_name, last_name, gender, hire_date)
+    WHERE e.emp_no = u.emp_no;
+END;
+$$;
+
+-- Dependent rows go first, matching the cascade the JPA delete path applies
+CREATE OR REPLACE PROCEDURE sp_delete_employees(p_emp_nos INT[])
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    DELETE FROM salaries WHERE emp_no = ANY (p_emp_nos);
+    DELETE FROM titles WHERE emp_no = ANY (p_emp_nos);
+    DELETE FROM dept_emp WHERE emp_no = ANY (p_emp_nos);
+    DELETE FROM dept_manager WHERE emp_no = ANY (p_emp_nos);
+    DELETE FROM employees WHERE emp_no = ANY (p_emp_nos);
+END;
+$$;
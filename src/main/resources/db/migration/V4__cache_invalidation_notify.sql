@@ -0,0 +1,59 @@
+-- Cache invalidation across application nodes (see CacheInvalidationListener).
+-- Every committed change to a cached table sends a NOTIFY on the cache_invalidation channel, whichever path
+-- made it: JPA, the stored procedures, the COPY import or plain SQL. The payload is
+-- '<table>:<key>:<transaction start, epoch ms>'. PostgreSQL delivers notifications only after commit, drops
+-- them on rollback, and folds identical payloads within a transaction into one.
+
+-- Row triggers: TG_ARGV[0] names the key column; an UPDATE that changes the key invalidates both keys
+CREATE OR REPLACE FUNCTION notify_cache_invalidation()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    written_at TEXT := (extract(epoch FROM transaction_timestamp()) * 1000)::BIGINT::TEXT;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM pg_notify('cache_invalidation',
+                TG_TABLE_NAME || ':' || rtrim(to_jsonb(OLD) ->> TG_ARGV[0]) || ':' || written_at);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM pg_notify('cache_invalidation',
+                TG_TABLE_NAME || ':' || rtrim(to_jsonb(NEW) ->> TG_ARGV[0]) || ':' || written_at);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+-- Statement triggers, for tables cached only as query results: one '<table>:*' per statement, so a
+-- bulk import sends a single notification
+CREATE OR REPLACE FUNCTION notify_cache_invalidation_all()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    PERFORM pg_notify('cache_invalidation',
+            TG_TABLE_NAME || ':*:' || (extract(epoch FROM transaction_timestamp()) * 1000)::BIGINT::TEXT);
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_employees_cache_invalidation ON employees;
+CREATE TRIGGER trg_employees_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON employees
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation('emp_no');
+
+DROP TRIGGER IF EXISTS trg_departments_cache_invalidation ON departments;
+CREATE TRIGGER trg_departments_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON departments
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation('dept_no');
+
+-- Keyed by department: the cached value is a department's current manager
+DROP TRIGGER IF EXISTS trg_dept_manager_cache_invalidation ON dept_manager;
+CREATE TRIGGER trg_dept_manager_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON dept_manager
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation('dept_no');
+
+DROP TRIGGER IF EXISTS trg_titles_cache_invalidation ON titles;
+CREATE TRIGGER trg_titles_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON titles
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation_all();
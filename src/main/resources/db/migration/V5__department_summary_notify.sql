@@ -0,0 +1,12 @@
+-- The department summary cache (DepartmentService#getDepartmentSummaries) aggregates dept_emp and salaries
+-- as well as the tables V4 already covers. It is rebuilt as a whole, so one '<table>:*' notification per
+-- statement is enough; a row trigger would send one per salary row on every import.
+DROP TRIGGER IF EXISTS trg_dept_emp_cache_invalidation ON dept_emp;
+CREATE TRIGGER trg_dept_emp_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON dept_emp
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation_all();
+
+DROP TRIGGER IF EXISTS trg_salaries_cache_invalidation ON salaries;
+CREATE TRIGGER trg_salaries_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON salaries
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation_all();
@@ -0,0 +1,10 @@
+-- Current salary rows for the top-earner and salary-range queries (SalaryRepository#findTopEarners and
+-- #findCurrentInRange). A current row is open-ended (to_date NULL, as the seed data and the API write it) or ends
+-- today or later. CURRENT_DATE cannot appear in an index predicate, so the partial index holds the
+-- open-ended rows, which are nearly all current ones, ordered by salary; rows ending in the future are few
+-- and are found through the to_date index. Either way a query reads current rows and not the whole history.
+CREATE INDEX IF NOT EXISTS idx_salaries_current_salary ON salaries (salary, emp_no, from_date) WHERE to_date IS NULL;
+CREATE INDEX IF NOT EXISTS idx_salaries_to_date ON salaries (to_date) WHERE to_date IS NOT NULL;
+
+-- Current members per department, for ranking within each one
+CREATE INDEX IF NOT EXISTS idx_dept_emp_current ON dept_emp (dept_no, emp_no) WHERE to_date IS NULL;
@@ -0,0 +1,35 @@
+-- Origin of each cache invalidation (see WriteOrigin). A node whose services have already brought its in-memory
+-- state up to date for a transaction sets app.write_origin to its own id for that transaction; the triggers
+-- now append it, so the payload becomes '<table>:<key>:<transaction start, epoch ms>:<origin>', with an empty
+-- origin for every other write. The trigger definitions of V4 and V5 stay as they are.
+CREATE OR REPLACE FUNCTION notify_cache_invalidation()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    written_at TEXT := (extract(epoch FROM transaction_timestamp()) * 1000)::BIGINT::TEXT;
+    origin TEXT := coalesce(current_setting('app.write_origin', true), '');
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM pg_notify('cache_invalidation',
+                TG_TABLE_NAME || ':' || rtrim(to_jsonb(OLD) ->> TG_ARGV[0]) || ':' || written_at || ':' || origin);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM pg_notify('cache_invalidation',
+                TG_TABLE_NAME || ':' || rtrim(to_jsonb(NEW) ->> TG_ARGV[0]) || ':' || written_at || ':' || origin);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION notify_cache_invalidation_all()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    PERFORM pg_notify('cache_invalidation',
+            TG_TABLE_NAME || ':*:' || (extract(epoch FROM transaction_timestamp()) * 1000)::BIGINT::TEXT || ':'
+                    || coalesce(current_setting('app.write_origin', true), ''));
+    RETURN NULL;
+END;
+$$;
@@ -1,3 +1,7 @@
+-- Sample data, formerly data.sql. Kept apart from db/migration so a database without sample data can leave
+-- classpath:db/seed out of spring.flyway.locations. A repeatable migration runs after every pending versioned
+-- one and again only when this file changes, so it never blocks a later schema migration; ON CONFLICT lets a
+-- re-run skip the rows already there.
 -- 1. Insert data untuk tabel employees (20 employees)
 INSERT INTO employees (emp_no, birth_date, first_name, last_name, gender, hire_date) VALUES
 (1001, '1985-03-15', 'Ahmad', 'Hidayat', 'M', '2018-03-15'),
@@ -19,7 +23,8 @@ INSERT INTO employees (emp_no, birth_date, first_name, last_name, gender, hire_d
 (1017, '1988-06-12', 'Rizki', 'Ramadhan', 'M', '2020-06-12'),
 (1018, '1987-08-19', 'Sari', 'Indah', 'F', '2016-08-19'),
 (1019, '1989-04-03', 'Taufik', 'Hidayat', 'M', '2019-04-03'),
-(1020, '1992-10-09', 'Wulan', 'Anggraeni', 'F', '2017-10-09');
+(1020, '1992-10-09', 'Wulan', 'Anggraeni', 'F', '2017-10-09')
+ON CONFLICT DO NOTHING;
 
 -- 2. Insert data untuk tabel departments
 INSERT INTO departments (dept_no, dept_name) VALUES
@@ -28,7 +33,8 @@ INSERT INTO departments (dept_no, dept_name) VALUES
 ('M001', 'Marketing'),
 ('H001', 'HR'),
 ('O001', 'Operations'),
-('S001', 'Sales');
+('S001', 'Sales')
+ON CONFLICT DO NOTHING;
 
 -- 3. Insert data untuk tabel dept_emp (1 employee bisa di 2+ department)
 INSERT INTO dept_emp (emp_no, dept_no, from_date, to_date) VALUES
@@ -100,7 +106,8 @@ INSERT INTO dept_emp (emp_no, dept_no, from_date, to_date) VALUES
 
 -- Employee 1020 (2 departments)
 (1020, 'H001', '2017-10-09', '2020-04-30'),
-(1020, 'F001', '2020-05-01', null);
+(1020, 'F001', '2020-05-01', null)
+ON CONFLICT DO NOTHING;
 
 -- 4. Insert data untuk tabel dept_manager
 INSERT INTO dept_manager (dept_no, emp_no, from_date, to_date) VALUES
@@ -109,7 +116,8 @@ INSERT INTO dept_manager (dept_no, emp_no, from_date, to_date) VALUES
 ('M001', 1003, '2020-01-01', null),
 ('H001', 1016, '2018-07-29', null),
 ('O001', 1005, '2015-09-03', null),
-('S001', 1013, '2021-01-01', null);
+('S001', 1013, '2021-01-01', null)
+ON CONFLICT DO NOTHING;
 
 -- 5. Insert data untuk tabel titles (1 employee bisa 2+ title)
 INSERT INTO titles (emp_no, title, from_date, to_date) VALUES
@@ -192,7 +200,8 @@ INSERT INTO titles (emp_no, title, from_date, to_date) VALUES
 
 -- Employee 1020 (2 titles)
 (1020, 'Payroll Specialist', '2017-10-09', '2020-04-30'),
-(1020, 'Finance Assistant', '2020-05-01', null);
+(1020, 'Finance Assistant', '2020-05-01', null)
+ON CONFLICT DO NOTHING;
 
 --Salaries
 INSERT INTO salaries (emp_no, salary, from_date, to_date) VALUES
@@ -245,4 +254,5 @@ INSERT INTO salaries (emp_no, salary, from_date, to_date) VALUES
 (1019, 11000000, '2022-10-01', null),
 (1020, 5600000, '2017-10-09', '2019-10-08'),
 (1020, 7100000, '2019-10-09', '2020-04-30'),
-(1020, 7800000, '2020-05-01', null);
+(1020, 7800000, '2020-05-01', null)
+ON CONFLICT DO NOTHING;
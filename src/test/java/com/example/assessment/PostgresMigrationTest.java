@@ -0,0 +1,219 @@
+package com.example.assessment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.config.CacheInvalidationListener;
+import com.example.assessment.config.WriteOrigin;
+import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.TopEarnerDTO;
+import com.example.assessment.model.Gender;
+import com.example.assessment.service.EmployeeService;
+import com.example.assessment.service.SalaryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * The Flyway migrations on a real PostgreSQL: the H2 test databases get their schema from the entities, so
+ * this is the only test that applies db/migration and db/seed, checks the entities against the result
+ * ({@code ddl-auto=validate}) and runs the procedures, triggers and pg_trgm indexes they install. Skipped
+ * when no Docker daemon is available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public class PostgresMigrationTest {
+
+    private static final int FIRST_EMP_NO = 900_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private WriteOrigin writeOrigin;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheInvalidationListener cacheInvalidationListener;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM salaries WHERE emp_no >= ?", FIRST_EMP_NO);
+        jdbcTemplate.update("DELETE FROM employees WHERE emp_no >= ?", FIRST_EMP_NO);
+    }
+
+    @Test
+    void migrationsAndSeedAreApplied() {
+
+        List<String> applied = jdbcTemplate.queryForList(
+                "SELECT coalesce(version, description) FROM flyway_schema_history WHERE success ORDER BY installed_rank",
+                String.class);
+
+        assertThat(applied).containsExactly("1", "2", "3", "4", "5", "6", "7", "seed sample data");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Integer.class)).isEqualTo(20);
+    }
+
+    @Test
+    void setBasedProceduresInsertUpdateAndDelete() {
+
+        List<EmployeeDTO> employees = employees(3, "Bulk");
+
+        employeeService.createEmployeesViaProcedure(employees);
+        assertThat(firstNames()).containsExactly("Bulk", "Bulk", "Bulk");
+
+        employeeService.updateEmployeesViaProcedure(employees(3, "Renamed"));
+        assertThat(firstNames()).containsExactly("Renamed", "Renamed", "Renamed");
+
+        jdbcTemplate.update("INSERT INTO salaries (emp_no, salary, from_date) VALUES (?, 5000000, '2024-01-01')",
+                FIRST_EMP_NO);
+        employeeService.deleteEmployeesViaProcedure(List.of(FIRST_EMP_NO, FIRST_EMP_NO + 1, FIRST_EMP_NO + 2));
+        assertThat(firstNames()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM salaries WHERE emp_no = ?", Integer.class,
+                FIRST_EMP_NO)).isZero();
+    }
+
+    @Test
+    void perRowProceduresInsertUpdateAndDelete() {
+
+        EmployeeDTO employee = employees(1, "Single").get(0);
+
+        employeeService.createEmployeeViaProcedure(employee);
+        assertThat(firstNames()).containsExactly("Single");
+
+        employeeService.updateEmployeeViaProcedure(FIRST_EMP_NO, employees(1, "Renamed").get(0));
+        assertThat(firstNames()).containsExactly("Renamed");
+
+        employeeService.deleteEmployeeViaProcedure(FIRST_EMP_NO);
+        assertThat(firstNames()).isEmpty();
+    }
+
+    @Test
+    void similarSearchUsesTrigramOperator() {
+
+        assertThat(employeeService.searchEmployeesByName("Santosa", "similar", 10))
+                .extracting(EmployeeDTO::getLastName)
+                .contains("Santoso");
+    }
+
+    @Test
+    void topEarnersOfAllDepartmentsMatchEachDepartmentsOwn() {
+
+        List<TopEarnerDTO> all = salaryService.getTopEarners(null, 2);
+
+        assertThat(all).isNotEmpty();
+        assertThat(all).isEqualTo(jdbcTemplate.queryForList("SELECT dept_no FROM departments ORDER BY dept_no", String.class)
+                .stream()
+                .flatMap(deptNo -> salaryService.getTopEarners(deptNo, 2).stream())
+                .toList());
+    }
+
+    @Test
+    void writeOutsideTheServiceEvictsThroughNotifyTrigger() throws InterruptedException {
+
+        awaitUntil(cacheInvalidationListener::isConnected);
+        employeeService.getEmployeeById(1001);
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES).get(1001)).isNotNull();
+
+        // Plain SQL, so only the row trigger and the listener can evict the cached employee
+        jdbcTemplate.update("UPDATE employees SET first_name = first_name WHERE emp_no = 1001");
+
+        awaitUntil(() -> cacheManager.getCache(CacheConfig.EMPLOYEES).get(1001) == null);
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES).get(1001)).isNull();
+    }
+
+    @Test
+    void serviceWritesCarryThisNodesOriginAndOthersNone() throws SQLException {
+        employeeService.createEmployeeViaProcedure(employees(1, "Origin").get(0));
+
+        try (Connection listening = dataSource.getConnection()) {
+            listening.setAutoCommit(true);
+            listening.createStatement().execute("LISTEN " + CacheInvalidationListener.CHANNEL);
+
+            salaryService.createSalary(SalaryDTO.builder().empNo(FIRST_EMP_NO).salary(60000)
+                    .fromDate(LocalDate.of(2024, 1, 1)).build());
+            jdbcTemplate.update("UPDATE salaries SET salary = 61000 WHERE emp_no = ?", FIRST_EMP_NO);
+
+            assertThat(notifications(listening, 2))
+                    .filteredOn(payload -> payload.startsWith("salaries:*:"))
+                    .extracting(payload -> payload.substring(payload.lastIndexOf(':') + 1))
+                    .containsExactly(writeOrigin.id(), "");
+            listening.createStatement().execute("UNLISTEN *");
+        }
+    }
+
+    private List<EmployeeDTO> employees(int count, String firstName) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> EmployeeDTO.builder()
+                        .empNo(FIRST_EMP_NO + i)
+                        .birthDate(LocalDate.of(1990, 1, 1))
+                        .firstName(firstName)
+                        .lastName("Employee" + i)
+                        .gender(i % 2 == 0 ? Gender.M : Gender.F)
+                        .hireDate(LocalDate.of(2020, 1, 1))
+                        .build())
+                .toList();
+    }
+
+    private List<String> firstNames() {
+        return jdbcTemplate.queryForList("SELECT first_name FROM employees WHERE emp_no >= ? ORDER BY emp_no",
+                String.class, FIRST_EMP_NO);
+    }
+
+    private static List<String> notifications(Connection listening, int count) throws SQLException {
+        List<String> payloads = new ArrayList<>();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (payloads.size() < count && System.nanoTime() < deadline) {
+            PGNotification[] received = listening.unwrap(PGConnection.class).getNotifications(100);
+            if (received != null) {
+                Arrays.stream(received).map(PGNotification::getParameter).forEach(payloads::add);
+            }
+        }
+        return payloads;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+}
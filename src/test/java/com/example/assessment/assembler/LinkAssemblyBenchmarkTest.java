@@ -0,0 +1,111 @@
+package com.example.assessment.assembler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import com.example.assessment.controller.EmployeeController;
+import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.model.Gender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one employee item's links: the former {@code linkTo(methodOn(...))} toModel against
+ * {@link EmployeeModelAssembler}. Opt-in, run with
+ * {@code mvn test -Dtest=LinkAssemblyBenchmarkTest -Dbenchmark=true}; the GC profiler's
+ * {@code gc.alloc.rate.norm} row is the allocation per item.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkAssemblyBenchmarkTest {
+
+    private EmployeeModelAssembler assembler;
+    private EmployeeDTO employee;
+
+    @Setup
+    public void setUp() {
+        // Both variants read the base URI from the current request, as they do inside a controller
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assembler = new EmployeeModelAssembler();
+        employee = EmployeeDTO.builder()
+                .empNo(10001)
+                .birthDate(LocalDate.of(1953, 9, 2))
+                .firstName("Georgi")
+                .lastName("Facello")
+                .gender(Gender.M)
+                .hireDate(LocalDate.of(1986, 6, 26))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public EntityModel<EmployeeDTO> methodOnLinks() {
+        return EntityModel.of(employee,
+                linkTo(methodOn(EmployeeController.class).getEmployeeById(employee.getEmpNo())).withSelfRel(),
+                linkTo(methodOn(EmployeeController.class).getAllEmployees(null, null, null)).withRel("employees"),
+                linkTo(methodOn(EmployeeController.class).updateEmployee(employee.getEmpNo(), employee)).withRel("update"),
+                linkTo(methodOn(EmployeeController.class).deleteEmployee(employee.getEmpNo())).withRel("delete"));
+    }
+
+    @Benchmark
+    public EntityModel<EmployeeDTO> cachedTemplates() {
+        return assembler.toModel(employee);
+    }
+
+    @Test
+    void assemblerMatchesMethodOnLinks() {
+        setUp();
+        try {
+            // Compared as rendered in HAL; linkTo links also carry affordances, which only HAL-FORMS shows
+            assertThat(cachedTemplates().getLinks().toList())
+                    .extracting(Link::getRel, Link::getHref)
+                    .containsExactlyElementsOf(methodOnLinks().getLinks().stream()
+                            .map(link -> tuple(link.getRel(), link.getHref()))
+                            .toList());
+        } finally {
+            tearDown();
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(LinkAssemblyBenchmarkTest.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.assessment.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.assessment.dto.SalaryDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode time of a 100k-row salary collection in JSON, Smile and CBOR, with mappers built the
+ * way {@link BinaryJsonConfig} builds them. Opt-in, run with
+ * {@code mvn test -Dtest=BinaryJsonBenchmarkTest -Dbenchmark=true}; {@link #wireSize()} prints the
+ * encoded sizes, plain and gzipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryJsonBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final TypeReference<List<SalaryDTO>> SALARY_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<SalaryDTO> salaries;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        salaries = salaries();
+        encoded = mapper.writeValueAsBytes(salaries);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(salaries);
+    }
+
+    @Benchmark
+    public List<SalaryDTO> decode() throws IOException {
+        return mapper.readValue(encoded, SALARY_LIST);
+    }
+
+    @Test
+    void formatsRoundTrip() throws IOException {
+        List<SalaryDTO> expected = salaries().subList(0, 100);
+        for (String name : List.of("json", "smile", "cbor")) {
+            ObjectMapper mapper = mapper(name);
+            assertThat(mapper.readValue(mapper.writeValueAsBytes(expected), SALARY_LIST)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void wireSize() throws IOException {
+        List<SalaryDTO> salaries = salaries();
+        for (String name : List.of("json", "smile", "cbor")) {
+            byte[] bytes = mapper(name).writeValueAsBytes(salaries);
+            System.out.printf("%-5s %,11d bytes, %,10d gzipped%n", name, bytes.length, gzip(bytes).length);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(BinaryJsonBenchmarkTest.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private static ObjectMapper mapper(String format) {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            default -> throw new IllegalArgumentException(format);
+        };
+        return builder.build();
+    }
+
+    // Shaped like the employees sample: a raise per year over a career
+    private static List<SalaryDTO> salaries() {
+        List<SalaryDTO> salaries = new ArrayList<>(ROWS);
+        LocalDate start = LocalDate.of(1985, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            LocalDate from = start.plusDays(i % 6000);
+            salaries.add(SalaryDTO.builder()
+                    .empNo(10001 + i / 10)
+                    .salary(40000 + (i * 37) % 60000)
+                    .fromDate(from)
+                    .toDate(i % 10 == 9 ? null : from.plusYears(1))
+                    .build());
+        }
+        return salaries;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
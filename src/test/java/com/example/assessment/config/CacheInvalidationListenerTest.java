@@ -0,0 +1,204 @@
+package com.example.assessment.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.example.assessment.dto.DeptManagerDTO;
+import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.model.Department;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class CacheInvalidationListenerTest {
+
+    private static final String ORIGIN = "this-node";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CacheInvalidator invalidator = mock(CacheInvalidator.class);
+    private CacheInvalidationListener listener;
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    @Test
+    void batchIsAppliedOncePerTable() {
+        listener = listener(() -> {
+            throw new SQLException("not used");
+        });
+        long writtenAt = System.currentTimeMillis() - 250;
+
+        listener.apply(List.of(
+                notification("employees:10001:" + writtenAt + ":"),
+                notification("employees:10002:" + writtenAt + ":other-node"),
+                notification("employees:10001:" + writtenAt + ":"),
+                notification("departments:d001:" + writtenAt + ":"),
+                notification("garbage")));
+
+        verify(invalidator).invalidate("employees", Set.of("10001", "10002"));
+        verify(invalidator).invalidate("departments", Set.of("d001"));
+        assertThat(registry.get("cache.invalidation.notifications").tag("table", "employees").counter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("cache.invalidation.lag").timer().count()).isEqualTo(4);
+        assertThat(registry.get("cache.invalidation.lag").timer().max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(250);
+    }
+
+    @Test
+    void ownMarkedWritesAreAppliedSeparately() {
+        listener = listener(() -> {
+            throw new SQLException("not used");
+        });
+        long writtenAt = System.currentTimeMillis();
+
+        listener.apply(List.of(
+                notification("salaries:*:" + writtenAt + ":" + ORIGIN),
+                notification("salaries:*:" + writtenAt + ":"),
+                notification("employees:10001:" + writtenAt + ":" + ORIGIN)));
+
+        verify(invalidator).invalidate("salaries", Set.of("*"));
+        verify(invalidator).invalidateApplied("salaries", Set.of("*"));
+        verify(invalidator).invalidateApplied("employees", Set.of("10001"));
+        verify(invalidator, never()).invalidate(eq("employees"), anySet());
+        assertThat(registry.get("cache.invalidation.notifications").tag("table", "salaries").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void connectDropsCachesThenAppliesNotifications() throws Exception {
+        Connection connection = listeningConnection(
+                new PGNotification[]{notification("dept_manager:d002:" + System.currentTimeMillis() + ":")});
+        listener = listener(() -> connection);
+
+        listener.start();
+
+        InOrder order = inOrder(invalidator);
+        order.verify(invalidator, timeout(2000)).invalidateAll();
+        order.verify(invalidator, timeout(2000)).invalidate("dept_manager", Set.of("d002"));
+        assertThat(listener.isConnected()).isTrue();
+        assertThat(registry.get("cache.invalidation.connected").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void lostConnectionIsReopenedAndCachesDroppedAgain() throws Exception {
+        Connection broken = mock(Connection.class);
+        PGConnection brokenChannel = mock(PGConnection.class);
+        given(broken.unwrap(PGConnection.class)).willReturn(brokenChannel);
+        given(broken.createStatement()).willReturn(mock(Statement.class));
+        given(brokenChannel.getNotifications(anyInt())).willThrow(new SQLException("Connection reset"));
+        Connection healthy = listeningConnection();
+        List<Connection> connections = new ArrayList<>(List.of(broken, healthy));
+        listener = listener(() -> connections.size() > 1 ? connections.removeFirst() : connections.getFirst());
+
+        listener.start();
+
+        verify(invalidator, timeout(2000).times(2)).invalidateAll();
+        verify(broken, timeout(2000)).close();
+        assertThat(registry.get("cache.invalidation.resyncs").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void localInvalidatorEvictsSpringAndHibernateCaches() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.EMPLOYEES, CacheConfig.CURRENT_MANAGERS);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        Cache secondLevel = mock(Cache.class);
+        given(sessionFactory.getCache()).willReturn(secondLevel);
+        LocalCacheInvalidator local = new LocalCacheInvalidator(cacheManager, sessionFactory);
+        cacheManager.getCache(CacheConfig.EMPLOYEES).put(10001, EmployeeDTO.builder().empNo(10001).build());
+        cacheManager.getCache(CacheConfig.EMPLOYEES).put(10002, EmployeeDTO.builder().empNo(10002).build());
+        cacheManager.getCache(CacheConfig.CURRENT_MANAGERS).put("d001", DeptManagerDTO.builder().deptNo("d001").build());
+
+        local.invalidate("employees", Set.of("10001"));
+        local.invalidate("dept_manager", Set.of("d001"));
+        local.invalidate("departments", Set.of("d003"));
+        local.invalidate("titles", Set.of(CacheInvalidator.ALL_KEYS));
+
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES).get(10001)).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES).get(10002)).isNotNull();
+        assertThat(cacheManager.getCache(CacheConfig.CURRENT_MANAGERS).get("d001")).isNull();
+        verify(secondLevel).evictEntityData(Department.class, "d003");
+        verify(secondLevel).evictQueryRegion("department-queries");
+        verify(secondLevel).evictQueryRegion("title-queries");
+
+        local.invalidateAll();
+
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES).get(10002)).isNull();
+        verify(secondLevel).evictEntityData(Department.class);
+    }
+
+    @Test
+    void localInvalidatorKeepsTheOrgSnapshotForAppliedWrites() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.DEPARTMENT_SUMMARY, CacheConfig.ORG_SNAPSHOT);
+        LocalCacheInvalidator local = new LocalCacheInvalidator(cacheManager, mock(SessionFactory.class));
+        cacheManager.getCache(CacheConfig.DEPARTMENT_SUMMARY).put("all", List.of());
+        cacheManager.getCache(CacheConfig.ORG_SNAPSHOT).put("all", "snapshot");
+
+        local.invalidateApplied("salaries", Set.of(CacheInvalidator.ALL_KEYS));
+
+        assertThat(cacheManager.getCache(CacheConfig.DEPARTMENT_SUMMARY).get("all")).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.ORG_SNAPSHOT).get("all")).isNotNull();
+
+        local.invalidate("salaries", Set.of(CacheInvalidator.ALL_KEYS));
+
+        assertThat(cacheManager.getCache(CacheConfig.ORG_SNAPSHOT).get("all")).isNull();
+    }
+
+    private CacheInvalidationListener listener(CacheInvalidationListener.ConnectionFactory connections) {
+        return new CacheInvalidationListener(connections, invalidator, ORIGIN, Duration.ofMillis(20),
+                Duration.ofMillis(50), Duration.ofMillis(10), registry);
+    }
+
+    // A connection that hands out the given batches once each, then stays quiet
+    private static Connection listeningConnection(PGNotification[]... batches) throws SQLException {
+        Connection connection = mock(Connection.class);
+        PGConnection channel = mock(PGConnection.class);
+        Statement statement = mock(Statement.class);
+        given(connection.unwrap(PGConnection.class)).willReturn(channel);
+        given(connection.createStatement()).willReturn(statement);
+        given(connection.isValid(anyInt())).willReturn(true);
+        List<PGNotification[]> pending = new CopyOnWriteArrayList<>(batches);
+        willAnswer(invocation -> {
+            if (!pending.isEmpty()) {
+                return pending.removeFirst();
+            }
+            Thread.sleep(invocation.<Integer>getArgument(0));
+            return null;
+        }).given(channel).getNotifications(anyInt());
+        return connection;
+    }
+
+    private static PGNotification notification(String payload) {
+        PGNotification notification = mock(PGNotification.class);
+        given(notification.getName()).willReturn(CacheInvalidationListener.CHANNEL);
+        given(notification.getParameter()).willReturn(payload);
+        return notification;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.assessment.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.*;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectionLimitingDataSourceTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(ThreadingConfig.class)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:threading", "spring.datasource.hikari.maximum-pool-size=3");
+
+    private DataSource target;
+    private SimpleMeterRegistry registry;
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        given(target.getConnection()).willAnswer(invocation -> mock(Connection.class));
+        registry = new SimpleMeterRegistry();
+        dataSource = new ConnectionLimitingDataSource(target, 1, 50);
+        dataSource.bindTo(registry);
+    }
+
+    @Test
+    void closingConnectionReleasesPermitOnce() throws SQLException {
+
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        Connection second = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        second.close();
+        dataSource.getConnection().close();
+        assertThat(registry.get("jdbc.connections.permit.wait").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    void waiterProceedsWhenPermitIsReleased() throws Exception {
+
+        dataSource = new ConnectionLimitingDataSource(target, 1, 5_000);
+        dataSource.bindTo(registry);
+        Connection held = dataSource.getConnection();
+
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        while (registry.get("jdbc.connections.permit.waiting").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+        held.close();
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void failedCheckoutReleasesPermit() throws SQLException {
+
+        given(target.getConnection()).willThrow(new SQLException("pool down")).willAnswer(invocation -> mock(Connection.class));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool down");
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void virtualThreadsLimitHikariPool() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            DataSource dataSource = context.getBean(DataSource.class);
+            assertThat(dataSource).isInstanceOf(ConnectionLimitingDataSource.class);
+            assertThat(dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void platformThreadsUseHikariDirectly() {
+        contextRunner.run(context ->
+                assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.assessment.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+public class EndpointMetricsTrackerFactoryTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(ConnectionMetricsConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:connection-metrics",
+                    "spring.datasource.hikari.pool-name=primary");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final IMetricsTracker tracker = new EndpointMetricsTrackerFactory(() -> registry)
+            .create("primary", new PoolStats(0) {
+                @Override
+                protected void update() {
+                }
+            });
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void usageIsTaggedWithRequestEndpoint() {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/10001");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employees/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        tracker.recordConnectionUsageMillis(25);
+
+        Timer hold = registry.get("jdbc.connections.hold")
+                .tags("pool", "primary", "method", "GET", "uri", "/api/employees/{id}")
+                .timer();
+        assertThat(hold.count()).isEqualTo(1);
+        assertThat(hold.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(25);
+        assertThat(registry.get("hikaricp.connections.usage").tag("pool", "primary").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void usageOutsideRequestIsTaggedNone() {
+
+        tracker.recordConnectionUsageMillis(5);
+
+        assertThat(registry.get("jdbc.connections.hold").tags("method", "none", "uri", "none").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void hikariPoolRecordsHoldTime() {
+        contextRunner.run(context -> {
+            DataSource dataSource = context.getBean(DataSource.class);
+            assertThat(((HikariDataSource) dataSource).getMetricsTrackerFactory())
+                    .isInstanceOf(EndpointMetricsTrackerFactory.class);
+
+            dataSource.getConnection().close();
+
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            assertThat(meterRegistry.get("jdbc.connections.hold").tags("pool", "primary", "uri", "none").timer().count())
+                    .isEqualTo(1);
+        });
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.assessment.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT seconds FROM replication_lag";
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(ReplicaRoutingConfig.class)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:routing-primary");
+
+    private DataSource primary;
+    private DataSource firstReplica;
+    private SwitchableDataSource secondReplica;
+    private ReplicaRoutingDataSource dataSource;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        firstReplica = database("replica-1");
+        secondReplica = new SwitchableDataSource(database("replica-2"));
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", firstReplica);
+        replicas.put("replica-2", secondReplica);
+        dataSource = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(10), LAG_QUERY);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+        dataSource.close();
+    }
+
+    @Test
+    void readOnlyTransactionsAlternateBetweenReplicas() {
+
+        dataSource.checkReplicas();
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica-1");
+        assertThat(nodeIn(readOnly)).isEqualTo("replica-2");
+        assertThat(nodeIn(readOnly)).isEqualTo("replica-1");
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+        assertThat(new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void replicasStayOutOfRotationUntilChecked() {
+
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaIsSkippedUntilItCatchesUp() {
+
+        new JdbcTemplate(firstReplica).update("UPDATE replication_lag SET seconds = 60");
+        dataSource.checkReplicas();
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica-2");
+        assertThat(nodeIn(readOnly)).isEqualTo("replica-2");
+
+        new JdbcTemplate(firstReplica).update("UPDATE replication_lag SET seconds = 0.5");
+        dataSource.checkReplicas();
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica-1");
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenNoReplicaIsHealthy() {
+
+        new JdbcTemplate(firstReplica).update("UPDATE replication_lag SET seconds = 60");
+        dataSource.checkReplicas();
+        secondReplica.down = true;
+
+        // replica-2 passed its last check but refuses the connection, and is taken out on the spot
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+
+        secondReplica.down = false;
+        dataSource.checkReplicas();
+
+        assertThat(nodeIn(readOnly)).isEqualTo("replica-2");
+    }
+
+    @Test
+    void pinnedRequestReadsFromPrimary() {
+
+        dataSource.checkReplicas();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(ReplicaRoutingDataSource.PRIMARY_PINNED, Boolean.TRUE);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    void routesReadsToReplicasWhileOneIsInRotationAndRequestIsNotPinned() {
+
+        assertThat(dataSource.routesReadsToReplicas()).isFalse();
+
+        dataSource.checkReplicas();
+        assertThat(dataSource.routesReadsToReplicas()).isTrue();
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(ReplicaRoutingDataSource.PRIMARY_PINNED, Boolean.TRUE);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        assertThat(dataSource.routesReadsToReplicas()).isFalse();
+    }
+
+    @Test
+    void writeRequestPinsClientToPrimary() throws Exception {
+
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        MockHttpServletRequest write = new MockHttpServletRequest("POST", "/api/employees");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(write, response, new MockFilterChain());
+
+        assertThat(write.getAttribute(ReplicaRoutingDataSource.PRIMARY_PINNED)).isEqualTo(Boolean.TRUE);
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getMaxAge()).isEqualTo(5);
+
+        MockHttpServletRequest pinnedRead = new MockHttpServletRequest("GET", "/api/employees/1");
+        pinnedRead.setCookies(cookie);
+        filter.doFilter(pinnedRead, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(pinnedRead.getAttribute(ReplicaRoutingDataSource.PRIMARY_PINNED)).isEqualTo(Boolean.TRUE);
+
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/employees/1");
+        filter.doFilter(read, new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(read.getAttribute(ReplicaRoutingDataSource.PRIMARY_PINNED)).isNull();
+    }
+
+    @Test
+    void zeroDurationDisablesReadYourWrites() throws Exception {
+
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ZERO);
+        MockHttpServletRequest write = new MockHttpServletRequest("DELETE", "/api/employees/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(write, response, new MockFilterChain());
+
+        assertThat(write.getAttribute(ReplicaRoutingDataSource.PRIMARY_PINNED)).isNull();
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE)).isNull();
+    }
+
+    @Test
+    void replicaUrlsEnableRouting() {
+        contextRunner.withPropertyValues(
+                        "app.datasource.replicas.urls=jdbc:h2:mem:routing-replica;INIT=CREATE TABLE IF NOT EXISTS node AS SELECT 'replica' AS name",
+                        "app.datasource.replicas.lag-query=SELECT 0",
+                        "app.datasource.replicas.check-interval=1h")
+                .run(context -> {
+                    ReplicaRoutingDataSource routing = context.getBean(ReplicaRoutingDataSource.class);
+                    assertThat(context.getBean(DataSource.class)).isSameAs(routing);
+                    assertThat(routing.unwrap(HikariDataSource.class)).isSameAs(context.getBean("primaryDataSource"));
+
+                    routing.checkReplicas();
+                    TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+                    transaction.setReadOnly(true);
+                    String node = transaction.execute(status ->
+                            new JdbcTemplate(routing).queryForObject("SELECT name FROM node", String.class));
+                    assertThat(node).isEqualTo("replica");
+                });
+    }
+
+    @Test
+    void virtualThreadsLimitPrimaryBehindRouting() {
+        contextRunner.withUserConfiguration(ThreadingConfig.class)
+                .withPropertyValues(
+                        "spring.threads.virtual.enabled=true",
+                        "app.datasource.replicas.urls=jdbc:h2:mem:routing-replica",
+                        "app.datasource.replicas.check-interval=1h")
+                .run(context -> {
+                    DataSource routing = context.getBean(DataSource.class);
+                    assertThat(routing.isWrapperFor(ConnectionLimitingDataSource.class)).isTrue();
+                    assertThat(routing.unwrap(HikariDataSource.class)).isNotNull();
+                });
+    }
+
+    @Test
+    void withoutReplicasBootPoolIsUsed() {
+        contextRunner.run(context -> {
+            assertThat(context.getBean(DataSource.class)).isInstanceOf(HikariDataSource.class);
+            assertThat(context).doesNotHaveBean(ReadYourWritesFilter.class);
+        });
+    }
+
+    private String nodeIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    // A database per test, holding its own name and, for replicas, a lag the test can change
+    private static DataSource database(String name) {
+        DataSource database = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        jdbc.execute("CREATE TABLE replication_lag (seconds DOUBLE PRECISION)");
+        jdbc.update("INSERT INTO replication_lag VALUES (0)");
+        return database;
+    }
+
+    private static class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
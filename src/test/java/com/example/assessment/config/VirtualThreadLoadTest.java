@@ -0,0 +1,169 @@
+package com.example.assessment.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.assessment.AssessmentApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Platform versus virtual threads under {@code benchmark.clients} concurrent clients (default 1000) on the
+ * employee read endpoints: by id, full profile and the first page of the list, picked at random per request.
+ * <p>
+ * Starts the application once per mode against the PostgreSQL database configured in
+ * {@code application.properties} (or {@code -Dspring.datasource.url=...}), which must hold the employees
+ * sample data; the schema is used as is and nothing is written. Run with
+ * {@code mvn test -Dtest=VirtualThreadLoadTest -Dbenchmark=true [-Dbenchmark.clients=2000 -Dbenchmark.seconds=60]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadLoadTest {
+
+    private static final int WARMUP_SECONDS = 10;
+
+    private final int clients = Integer.getInteger("benchmark.clients", 1000);
+    private final int seconds = Integer.getInteger("benchmark.seconds", 30);
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%nEmployee reads, %d clients, %d s%n", clients, seconds);
+        System.out.printf("%-9s %10s %9s %9s %9s %8s %16s%n",
+                "threads", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "permit avg ms");
+        platform.print("platform");
+        virtual.print("virtual");
+
+        assertThat(virtual.requests).isPositive();
+        assertThat(platform.requests).isPositive();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AssessmentApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.jpa.hibernate.ddl-auto=none",
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.example.assessment=WARN")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<Integer> empNos = context.getBean(JdbcTemplate.class)
+                    .queryForList("SELECT emp_no FROM employees ORDER BY random() LIMIT 20000", Integer.class);
+            assertThat(empNos).as("employees sample data").isNotEmpty();
+
+            load(port, empNos, WARMUP_SECONDS);
+            Result result = load(port, empNos, seconds);
+
+            Timer permitWait = context.getBean(MeterRegistry.class).find("jdbc.connections.permit.wait").timer();
+            // Only registered in virtual mode; covers warmup and measurement
+            result.permitWaitMeanMillis = permitWait == null ? Double.NaN : permitWait.mean(TimeUnit.MILLISECONDS);
+            return result;
+        }
+    }
+
+    private Result load(int port, List<Integer> empNos, int durationSeconds) throws Exception {
+        String base = "http://localhost:" + port + "/api/employees";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        LongAdder errors = new LongAdder();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build()) {
+            List<Future<long[]>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        int empNo = empNos.get(random.nextInt(empNos.size()));
+                        String path = switch (random.nextInt(3)) {
+                            case 0 -> "/" + empNo;
+                            case 1 -> "/" + empNo + "/full";
+                            default -> "?limit=50";
+                        };
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(base + path))
+                                    .timeout(Duration.ofSeconds(60))
+                                    .build(), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                                continue;
+                            }
+                        } catch (Exception ex) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            List<long[]> perClient = new ArrayList<>(clients);
+            for (Future<long[]> future : futures) {
+                perClient.add(future.get());
+            }
+            return new Result(perClient, errors.sum(), durationSeconds);
+        }
+    }
+
+    private static final class Result {
+
+        private final long requests;
+        private final long errors;
+        private final double perSecond;
+        private final long[] sorted;
+        private double permitWaitMeanMillis = Double.NaN;
+
+        private Result(List<long[]> perClient, long errors, int durationSeconds) {
+            this.sorted = perClient.stream().flatMapToLong(java.util.Arrays::stream).sorted().toArray();
+            this.requests = sorted.length;
+            this.errors = errors;
+            this.perSecond = (double) requests / durationSeconds;
+        }
+
+        private double percentileMillis(double percentile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+        }
+
+        private void print(String mode) {
+            System.out.printf("%-9s %10.0f %9.1f %9.1f %9.1f %8d %16.1f%n", mode, perSecond,
+                    percentileMillis(0.50), percentileMillis(0.99), percentileMillis(1.0), errors, permitWaitMeanMillis);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.assessment.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+import com.example.assessment.dto.ImportResultDTO;
+import com.example.assessment.service.HistoryImportService;
+import com.example.assessment.service.ImportTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+@WebMvcTest(AdminImportController.class)
+public class AdminImportControllerTest {
+
+    private static final String CSV = "emp_no,dept_no,from_date,to_date\n1001,I001,2018-03-15,\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private HistoryImportService historyImportService;
+
+    private final AtomicReference<String> received = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        given(historyImportService.importCsv(any(), any())).willAnswer(invocation -> {
+            InputStream csv = invocation.getArgument(1);
+            received.set(new String(csv.readAllBytes(), StandardCharsets.UTF_8));
+            return ImportResultDTO.builder()
+                    .table(invocation.<ImportTable>getArgument(0).getTableName())
+                    .rowsRead(2).rowsImported(1).rowsRejected(1)
+                    .rejections(List.of(new ImportResultDTO.Rejection(3, "Unknown employee")))
+                    .build();
+        });
+    }
+
+    @Test
+    void importTableStreamsBodyToService() throws Exception {
+
+        mockMvc.perform(post("/api/admin/import/dept-emp")
+                        .contentType("text/csv")
+                        .content(CSV))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.table").value("dept_emp"))
+                .andExpect(jsonPath("$.rowsImported").value(1))
+                .andExpect(jsonPath("$.rejections[0].line").value(3))
+                .andExpect(jsonPath("$.rejections[0].reason").value("Unknown employee"));
+
+        verify(historyImportService).importCsv(eq(ImportTable.DEPT_EMP), any());
+        assertThat(received.get()).isEqualTo(CSV);
+    }
+
+    @Test
+    void importTableDecompressesGzipBody() throws Exception {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        mockMvc.perform(post("/api/admin/import/salaries")
+                        .contentType("text/csv")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(compressed.toByteArray()))
+                .andExpect(status().isOk());
+
+        assertThat(received.get()).isEqualTo(CSV);
+    }
+
+    @Test
+    void importTableErrorUnknownTable() throws Exception {
+
+        mockMvc.perform(post("/api/admin/import/employees")
+                        .contentType("text/csv")
+                        .content(CSV))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorCode").value("RESOURCE_NOT_FOUND"));
+
+        verifyNoInteractions(historyImportService);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.assessment.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+import com.example.assessment.dto.WorkforceTimeSeriesDTO;
+import com.example.assessment.dto.WorkforceTimeSeriesDTO.DepartmentSeriesDTO;
+import com.example.assessment.exception.BadRequestException;
+import com.example.assessment.service.TimeSeriesGranularity;
+import com.example.assessment.service.WorkforceAnalyticsService;
+import com.example.assessment.service.WorkforceMetric;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@WebMvcTest(AnalyticsController.class)
+public class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private WorkforceAnalyticsService workforceAnalyticsService;
+
+    @Test
+    void getTimeSeriesSuccess() throws Exception {
+
+        given(workforceAnalyticsService.getTimeSeries("headcount", "month")).willReturn(WorkforceTimeSeriesDTO.builder()
+                .metric(WorkforceMetric.HEADCOUNT)
+                .granularity(TimeSeriesGranularity.MONTH)
+                .loadedAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .periods(List.of(LocalDate.of(2000, 1, 1), LocalDate.of(2000, 2, 1)))
+                .departments(List.of(DepartmentSeriesDTO.builder()
+                        .deptNo("d001").deptName("Development").values(List.of(2L, 3L)).build()))
+                .build());
+
+        mockMvc.perform(get("/api/analytics/timeseries").param("metric", "headcount").param("granularity", "month"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metric").value("HEADCOUNT"))
+                .andExpect(jsonPath("$.periods[1]").value("2000-02-01"))
+                .andExpect(jsonPath("$.departments[0].values[1]").value(3))
+                .andExpect(jsonPath("$._links.self.href").exists());
+    }
+
+    @Test
+    void getTimeSeriesErrorUnsupportedMetric() throws Exception {
+
+        given(workforceAnalyticsService.getTimeSeries(eq("turnover"), isNull()))
+                .willThrow(new BadRequestException("Unsupported metric: turnover, allowed: [HEADCOUNT, PAYROLL]"));
+
+        mockMvc.perform(get("/api/analytics/timeseries").param("metric", "turnover"))
+                .andExpect(status().isBadRequest());
+    }
+}
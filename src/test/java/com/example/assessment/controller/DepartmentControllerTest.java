@@ -6,14 +6,22 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
+import com.example.assessment.assembler.DepartmentModelAssembler;
 import com.example.assessment.dto.DepartmentDTO;
+import com.example.assessment.dto.DepartmentOverviewDTO;
+import com.example.assessment.dto.DepartmentSummaryDTO;
+import com.example.assessment.dto.DeptManagerDTO;
+import com.example.assessment.dto.SalaryStatsDTO;
+import com.example.assessment.dto.TitleCountDTO;
 import com.example.assessment.exception.ResourceNotFoundException;
+import com.example.assessment.service.CompositeReadService;
 import com.example.assessment.service.DepartmentService;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -23,6 +31,7 @@ import java.util.Arrays;
 import java.util.List;
 
 @WebMvcTest(DepartmentController.class)
+@Import(DepartmentModelAssembler.class)
 public class DepartmentControllerTest {
 
     @Autowired
@@ -31,6 +40,9 @@ public class DepartmentControllerTest {
     @MockitoBean
     private DepartmentService departmentService;
 
+    @MockitoBean
+    private CompositeReadService compositeReadService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -63,6 +75,64 @@ public class DepartmentControllerTest {
         verify(departmentService, times(1)).getAllDepartments();
     }
 
+    @Test
+    void getDepartmentOverviewSuccess() throws Exception {
+
+        DepartmentOverviewDTO overview = DepartmentOverviewDTO.builder()
+                .department(sampleDepartment)
+                .managers(List.of())
+                .currentEmployees(2L)
+                .currentSalaries(new SalaryStatsDTO(2L, 60000, 65000.0, 70000))
+                .currentTitles(List.of(new TitleCountDTO("Engineer", 2L)))
+                .build();
+        given(compositeReadService.getDepartmentOverview(DEPARTMENT_ID)).willReturn(overview);
+
+        mockMvc.perform(get("/api/departments/{id}/overview", DEPARTMENT_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.department.deptName").value(DEPARTMENT_NAME))
+                .andExpect(jsonPath("$.currentEmployees").value(2))
+                .andExpect(jsonPath("$.currentSalaries.average").value(65000.0))
+                .andExpect(jsonPath("$.currentTitles[0].title").value("Engineer"))
+                .andExpect(jsonPath("$._links.current-employees.href").value("http://localhost/api/dept-emp/department/D001/current"));
+    }
+
+    @Test
+    void getDepartmentOverviewErrorNotFound() throws Exception {
+
+        given(compositeReadService.getDepartmentOverview("D999"))
+                .willThrow(new ResourceNotFoundException("Department not found with id: D999"));
+
+        mockMvc.perform(get("/api/departments/{id}/overview", "D999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getDepartmentSummariesSuccess() throws Exception {
+
+        DepartmentSummaryDTO summary = DepartmentSummaryDTO.builder()
+                .deptNo(DEPARTMENT_ID)
+                .deptName(DEPARTMENT_NAME)
+                .headcount(2L)
+                .currentManager(DeptManagerDTO.builder().empNo(10001).deptNo(DEPARTMENT_ID).build())
+                .payrollTotal(130000L)
+                .payrollAverage(65000.0)
+                .titles(List.of(new TitleCountDTO("Engineer", 2L)))
+                .build();
+        given(departmentService.getDepartmentSummaries()).willReturn(List.of(summary));
+
+        mockMvc.perform(get("/api/departments/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.departmentSummaryDTOList[0].headcount").value(2))
+                .andExpect(jsonPath("$._embedded.departmentSummaryDTOList[0].currentManager.empNo").value(10001))
+                .andExpect(jsonPath("$._embedded.departmentSummaryDTOList[0].payrollTotal").value(130000))
+                .andExpect(jsonPath("$._embedded.departmentSummaryDTOList[0].titles[0].count").value(2))
+                .andExpect(jsonPath("$._embedded.departmentSummaryDTOList[0]._links.overview.href")
+                        .value("http://localhost/api/departments/D001/overview"))
+                .andExpect(jsonPath("$._links.self.href").value("http://localhost/api/departments/summary"));
+
+        verify(departmentService, never()).getDepartmentById(any());
+    }
+
     @Test
     void getDepartmentByIdSuccess() throws Exception {
 
@@ -4,16 +4,38 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.assessment.assembler.EmployeeModelAssembler;
+import com.example.assessment.dto.BulkResultDTO;
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
+import com.example.assessment.dto.DeptEmpDTO;
+import com.example.assessment.dto.EmployeeAsOfDTO;
 import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.dto.EmployeeFullDTO;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.exception.BadRequestException;
+import com.example.assessment.exception.DeadlineExceededException;
 import com.example.assessment.exception.ResourceNotFoundException;
 import com.example.assessment.model.Gender;
+import com.example.assessment.service.CompositeReadService;
+import com.example.assessment.service.EmployeeBulkService;
+import com.example.assessment.service.EmployeeProfileService;
 import com.example.assessment.service.EmployeeService;
+import com.example.assessment.service.OrgSnapshotService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,6 +46,7 @@ import java.util.Arrays;
 import java.util.List;
 
 @WebMvcTest(EmployeeController.class)
+@Import(EmployeeModelAssembler.class)
 public class EmployeeControllerTest {
 
     @Autowired
@@ -32,6 +55,18 @@ public class EmployeeControllerTest {
     @MockitoBean
     private EmployeeService employeeService;
 
+    @MockitoBean
+    private EmployeeProfileService employeeProfileService;
+
+    @MockitoBean
+    private EmployeeBulkService employeeBulkService;
+
+    @MockitoBean
+    private CompositeReadService compositeReadService;
+
+    @MockitoBean
+    private OrgSnapshotService orgSnapshotService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -58,15 +93,195 @@ public class EmployeeControllerTest {
     void getAllEmployeesSuccess() throws Exception {
 
         List<EmployeeDTO> employees = Arrays.asList(sampleEmployee);
-        given(employeeService.getAllEmployees()).willReturn(employees);
+        given(employeeService.getEmployeesPage(isNull(), isNull(), isNull()))
+                .willReturn(CursorPageDTO.<EmployeeDTO>builder().items(employees).build());
 
         mockMvc.perform(get("/api/employees"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._embedded.employeeDTOList[0].empNo").value(EMPLOYEE_ID))
                 .andExpect(jsonPath("$._embedded.employeeDTOList[0].firstName").value(FIRST_NAME))
-                .andExpect(jsonPath("$._links.self.href").exists());
+                .andExpect(jsonPath("$._links.self.href").exists())
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+
+        verify(employeeService, times(1)).getEmployeesPage(null, null, null);
+    }
+
+    @Test
+    void getAllEmployeesWithNextPage() throws Exception {
+
+        List<EmployeeDTO> employees = Arrays.asList(sampleEmployee);
+        given(employeeService.getEmployeesPage(isNull(), eq(1), eq("lastName,desc")))
+                .willReturn(CursorPageDTO.<EmployeeDTO>builder().items(employees).nextCursor("abc").build());
+
+        mockMvc.perform(get("/api/employees")
+                        .param("limit", "1")
+                        .param("sort", "lastName,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.employeeDTOList[0].empNo").value(EMPLOYEE_ID))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("after=abc")))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("limit=1")));
+
+        verify(employeeService, times(1)).getEmployeesPage(null, 1, "lastName,desc");
+    }
+
+    @Test
+    void getAllEmployeesAsSmile() throws Exception {
+
+        given(employeeService.getEmployeesPage(isNull(), isNull(), isNull()))
+                .willReturn(CursorPageDTO.<EmployeeDTO>builder().items(List.of(sampleEmployee)).build());
+
+        byte[] body = mockMvc.perform(get("/api/employees")
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode tree = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertThat(tree.at("/_embedded/employeeDTOList/0/empNo").asInt()).isEqualTo(EMPLOYEE_ID);
+        assertThat(tree.at("/_embedded/employeeDTOList/0/birthDate").asText()).isEqualTo("1990-01-01");
+        assertThat(tree.at("/_links/self/href").asText()).isEqualTo("http://localhost/api/employees{?after,limit,sort}");
+    }
+
+    @Test
+    void createEmployeesViaProcedureFromCbor() throws Exception {
 
-        verify(employeeService, times(1)).getAllEmployees();
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory()).registerModule(new JavaTimeModule());
+
+        byte[] body = mockMvc.perform(post("/api/employees/procedure/bulk")
+                        .contentType("application/cbor")
+                        .accept("application/cbor")
+                        .content(cbor.writeValueAsBytes(List.of(sampleEmployee))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(cbor.readTree(body).get("success").asBoolean()).isTrue();
+        verify(employeeService, times(1)).createEmployeesViaProcedure(argThat(list ->
+                list.size() == 1 && list.get(0).getBirthDate().equals(LocalDate.of(1990, 1, 1))));
+    }
+
+    @Test
+    void getAllEmployeesCompactView() throws Exception {
+
+        given(employeeService.getEmployeesPage(isNull(), eq(1), isNull()))
+                .willReturn(CursorPageDTO.<EmployeeDTO>builder().items(List.of(sampleEmployee)).nextCursor("abc").build());
+
+        mockMvc.perform(get("/api/employees")
+                        .param("view", "compact")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CollectionViewAdvice.COMPACT_JSON))
+                .andExpect(jsonPath("$.items[0].empNo").value(EMPLOYEE_ID))
+                .andExpect(jsonPath("$.items[0]._links").doesNotExist())
+                .andExpect(jsonPath("$.links.next").value(containsString("after=abc")))
+                .andExpect(jsonPath("$.links.next").value(containsString("view=compact")))
+                .andExpect(jsonPath("$.itemLinks.self").value("http://localhost/api/employees/{empNo}"))
+                .andExpect(jsonPath("$.itemLinks.employees").value("http://localhost/api/employees{?after,limit,sort}"));
+    }
+
+    @Test
+    void getAllEmployeesCompactViewByAcceptWithFields() throws Exception {
+
+        given(employeeService.getEmployeesPage(isNull(), isNull(), isNull()))
+                .willReturn(CursorPageDTO.<EmployeeDTO>builder().items(List.of(sampleEmployee)).build());
+
+        mockMvc.perform(get("/api/employees")
+                        .accept(CollectionViewAdvice.COMPACT_JSON)
+                        .param("fields", "firstName,empNo"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CollectionViewAdvice.COMPACT_JSON))
+                .andExpect(jsonPath("$.items[0].empNo").value(EMPLOYEE_ID))
+                .andExpect(jsonPath("$.items[0].firstName").value(FIRST_NAME))
+                .andExpect(jsonPath("$.items[0].lastName").doesNotExist())
+                .andExpect(jsonPath("$.links.self").value(containsString("fields=firstName,empNo")));
+    }
+
+    @Test
+    void getAllEmployeesCompactViewKeepsTheFieldsItsItemLinksUse() throws Exception {
+
+        given(employeeService.getEmployeesPage(isNull(), isNull(), isNull()))
+                .willReturn(CursorPageDTO.<EmployeeDTO>builder().items(List.of(sampleEmployee)).build());
+
+        mockMvc.perform(get("/api/employees")
+                        .param("view", "compact")
+                        .param("fields", "firstName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].firstName").value(FIRST_NAME))
+                .andExpect(jsonPath("$.items[0].empNo").value(EMPLOYEE_ID))
+                .andExpect(jsonPath("$.items[0].lastName").doesNotExist())
+                .andExpect(jsonPath("$.itemLinks.self").value("http://localhost/api/employees/{empNo}"))
+                .andExpect(jsonPath("$.links.self").value(containsString("fields=firstName")))
+                .andExpect(jsonPath("$.links.self").value(not(containsString("empNo"))));
+    }
+
+    @Test
+    void searchEmployeesHalWithFields() throws Exception {
+
+        given(employeeService.searchEmployeesByName(eq(FIRST_NAME), isNull(), isNull())).willReturn(List.of(sampleEmployee));
+
+        mockMvc.perform(get("/api/employees/search")
+                        .param("name", FIRST_NAME)
+                        .param("fields", "lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.*[0].lastName").value(LAST_NAME))
+                .andExpect(jsonPath("$._embedded.*[0].firstName").doesNotExist())
+                .andExpect(jsonPath("$._embedded.*[0]._links.self.href").value("http://localhost/api/employees/1"));
+    }
+
+    @Test
+    void getAllEmployeesErrorUnknownField() throws Exception {
+
+        given(employeeService.getEmployeesPage(isNull(), isNull(), isNull()))
+                .willReturn(CursorPageDTO.<EmployeeDTO>builder().items(List.of(sampleEmployee)).build());
+
+        mockMvc.perform(get("/api/employees")
+                        .param("fields", "salary"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("BAD_REQUEST"));
+    }
+
+    @Test
+    void getAllEmployeesErrorInvalidSort() throws Exception {
+
+        given(employeeService.getEmployeesPage(isNull(), isNull(), eq("password")))
+                .willThrow(new BadRequestException("Unsupported sort property: password"));
+
+        mockMvc.perform(get("/api/employees").param("sort", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("BAD_REQUEST"));
+    }
+
+    @Test
+    void getEmployeesForDataTableSuccess() throws Exception {
+
+        DataTablesResponseDTO<EmployeeDTO> response = DataTablesResponseDTO.<EmployeeDTO>builder()
+                .draw(3)
+                .recordsTotal(20)
+                .recordsFiltered(1)
+                .data(Arrays.asList(sampleEmployee))
+                .build();
+        given(employeeService.getEmployeesForDataTable(any(DataTablesRequestDTO.class))).willReturn(response);
+
+        mockMvc.perform(get("/api/employees/datatable")
+                        .param("draw", "3")
+                        .param("start", "10")
+                        .param("length", "10")
+                        .param("search[value]", "john")
+                        .param("columns[2][data]", "lastName")
+                        .param("order[0][column]", "2")
+                        .param("order[0][dir]", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.draw").value(3))
+                .andExpect(jsonPath("$.recordsTotal").value(20))
+                .andExpect(jsonPath("$.recordsFiltered").value(1))
+                .andExpect(jsonPath("$.data[0].empNo").value(EMPLOYEE_ID));
+
+        verify(employeeService, times(1)).getEmployeesForDataTable(argThat(request ->
+                request.getStart() == 10
+                        && "john".equals(request.getSearch())
+                        && request.getOrders().size() == 1
+                        && "lastName".equals(request.getOrders().get(0).getProperty())
+                        && !request.getOrders().get(0).isAscending()));
     }
 
     @Test
@@ -94,6 +309,100 @@ public class EmployeeControllerTest {
         verify(employeeService, times(1)).getEmployeeById(999);
     }
 
+    @Test
+    void getEmployeeFullSuccess() throws Exception {
+
+        EmployeeFullDTO profile = EmployeeFullDTO.builder()
+                .employee(sampleEmployee)
+                .salaries(List.of(SalaryDTO.builder().empNo(EMPLOYEE_ID).salary(60000).fromDate(LocalDate.of(2020, 1, 1)).build()))
+                .titles(List.of())
+                .deptEmps(List.of())
+                .deptManagers(List.of())
+                .build();
+        given(employeeProfileService.getEmployeeFull(EMPLOYEE_ID)).willReturn(profile);
+
+        mockMvc.perform(get("/api/employees/{id}/full", EMPLOYEE_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employee.firstName").value(FIRST_NAME))
+                .andExpect(jsonPath("$.salaries[0].salary").value(60000))
+                .andExpect(jsonPath("$._links.employee.href").exists());
+
+        verify(employeeProfileService, times(1)).getEmployeeFull(EMPLOYEE_ID);
+    }
+
+    @Test
+    void getEmployeeAggregateSuccess() throws Exception {
+
+        EmployeeFullDTO aggregate = EmployeeFullDTO.builder()
+                .employee(sampleEmployee)
+                .salaries(List.of(SalaryDTO.builder().empNo(EMPLOYEE_ID).salary(60000).fromDate(LocalDate.of(2020, 1, 1)).build()))
+                .titles(List.of())
+                .deptEmps(List.of())
+                .deptManagers(List.of())
+                .build();
+        given(compositeReadService.getEmployeeAggregate(EMPLOYEE_ID)).willReturn(aggregate);
+
+        mockMvc.perform(get("/api/employees/{id}/aggregate", EMPLOYEE_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employee.firstName").value(FIRST_NAME))
+                .andExpect(jsonPath("$.salaries[0].salary").value(60000))
+                .andExpect(jsonPath("$._links.self.href").value("http://localhost/api/employees/1/aggregate"));
+    }
+
+    @Test
+    void getEmployeeAggregateErrorDeadlineExceeded() throws Exception {
+
+        given(compositeReadService.getEmployeeAggregate(EMPLOYEE_ID))
+                .willThrow(new DeadlineExceededException("Reads did not complete within 5000 ms"));
+
+        mockMvc.perform(get("/api/employees/{id}/aggregate", EMPLOYEE_ID))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.errorCode").value("DEADLINE_EXCEEDED"));
+    }
+
+    @Test
+    void getEmployeeAsOfSuccess() throws Exception {
+
+        EmployeeAsOfDTO asOf = EmployeeAsOfDTO.builder()
+                .empNo(EMPLOYEE_ID)
+                .asOf(LocalDate.of(2003, 6, 1))
+                .deptEmps(List.of(DeptEmpDTO.builder().empNo(EMPLOYEE_ID).deptNo("d001").fromDate(LocalDate.of(2000, 1, 1)).build()))
+                .deptManagers(List.of())
+                .salary(SalaryDTO.builder().empNo(EMPLOYEE_ID).salary(60000).fromDate(LocalDate.of(2003, 1, 1)).build())
+                .build();
+        given(orgSnapshotService.getEmployeeAsOf(EMPLOYEE_ID, "2003-06-01")).willReturn(asOf);
+
+        mockMvc.perform(get("/api/employees/{id}/as-of/{date}", EMPLOYEE_ID, "2003-06-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.asOf").value("2003-06-01"))
+                .andExpect(jsonPath("$.deptEmps[0].deptNo").value("d001"))
+                .andExpect(jsonPath("$.salary.salary").value(60000))
+                .andExpect(jsonPath("$._links.org.href").value("http://localhost/api/org/as-of/2003-06-01"));
+    }
+
+    @Test
+    void getEmployeeAsOfErrorBadDate() throws Exception {
+
+        given(orgSnapshotService.getEmployeeAsOf(EMPLOYEE_ID, "June"))
+                .willThrow(new BadRequestException("Date must be yyyy-MM-dd, got 'June'"));
+
+        mockMvc.perform(get("/api/employees/{id}/as-of/{date}", EMPLOYEE_ID, "June"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getEmployeesFullSuccess() throws Exception {
+
+        EmployeeFullDTO profile = EmployeeFullDTO.builder().employee(sampleEmployee).build();
+        given(employeeProfileService.getEmployeesFull(List.of(1, 2))).willReturn(List.of(profile));
+
+        mockMvc.perform(get("/api/employees/full").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.employeeFullDTOList[0].employee.empNo").value(EMPLOYEE_ID));
+
+        verify(employeeProfileService, times(1)).getEmployeesFull(List.of(1, 2));
+    }
+
     @Test
     void createEmployeeSuccess() throws Exception {
 
@@ -127,6 +436,72 @@ public class EmployeeControllerTest {
         verify(employeeService, never()).createEmployee(any());
     }
 
+    @Test
+    void createEmployeesBulkReportsItemErrors() throws Exception {
+
+        BulkResultDTO result = BulkResultDTO.builder()
+                .total(2)
+                .created(1)
+                .failed(1)
+                .errors(List.of(new BulkResultDTO.ItemError(1, EMPLOYEE_ID, "Duplicate employee number in request")))
+                .build();
+        given(employeeBulkService.createEmployees(anyList())).willReturn(result);
+
+        mockMvc.perform(post("/api/employees/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(sampleEmployee, sampleEmployee))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].empNo").value(EMPLOYEE_ID));
+
+        verify(employeeBulkService, times(1)).createEmployees(argThat(list -> list.size() == 2));
+    }
+
+    @Test
+    void createEmployeesViaProcedureSuccess() throws Exception {
+
+        mockMvc.perform(post("/api/employees/procedure/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(sampleEmployee))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.success").value(true));
+
+        verify(employeeService, times(1)).createEmployeesViaProcedure(argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    void createEmployeesViaProcedureErrorValidation() throws Exception {
+
+        EmployeeDTO invalidEmployee = EmployeeDTO.builder()
+                .empNo(2)
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .firstName("")
+                .lastName(LAST_NAME)
+                .gender(Gender.F)
+                .hireDate(LocalDate.now())
+                .build();
+
+        mockMvc.perform(post("/api/employees/procedure/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(sampleEmployee, invalidEmployee))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("VALIDATION_FAILED"))
+                .andExpect(jsonPath("$.details['[1].firstName']").exists());
+
+        verify(employeeService, never()).createEmployeesViaProcedure(any());
+    }
+
+    @Test
+    void deleteEmployeesViaProcedureSuccess() throws Exception {
+
+        mockMvc.perform(delete("/api/employees/procedure/bulk").param("ids", "1,2,3"))
+                .andExpect(status().isNoContent());
+
+        verify(employeeService, times(1)).deleteEmployeesViaProcedure(List.of(1, 2, 3));
+    }
+
     @Test
     void updateEmployeeSuccess() throws Exception {
 
@@ -157,7 +532,7 @@ public class EmployeeControllerTest {
     void searchEmployeesSuccess() throws Exception {
 
         List<EmployeeDTO> employees = Arrays.asList(sampleEmployee);
-        given(employeeService.searchEmployeesByName(anyString())).willReturn(employees);
+        given(employeeService.searchEmployeesByName(anyString(), isNull(), isNull())).willReturn(employees);
 
         mockMvc.perform(get("/api/employees/search")
                         .param("name", "John"))
@@ -165,7 +540,24 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$._embedded.employeeDTOList[0].firstName").value(FIRST_NAME))
                 .andExpect(jsonPath("$._links.self.href").exists());
 
-        verify(employeeService, times(1)).searchEmployeesByName("John");
+        verify(employeeService, times(1)).searchEmployeesByName("John", null, null);
+    }
+
+    @Test
+    void searchEmployeesPrefixModeSuccess() throws Exception {
+
+        List<EmployeeDTO> employees = Arrays.asList(sampleEmployee);
+        given(employeeService.searchEmployeesByName("Jo", "prefix", 10)).willReturn(employees);
+
+        mockMvc.perform(get("/api/employees/search")
+                        .param("name", "Jo")
+                        .param("mode", "prefix")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.employeeDTOList[0].firstName").value(FIRST_NAME))
+                .andExpect(jsonPath("$._links.self.href").value(containsString("mode=prefix")));
+
+        verify(employeeService, times(1)).searchEmployeesByName("Jo", "prefix", 10);
     }
 
 }
@@ -0,0 +1,139 @@
+package com.example.assessment.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+import com.example.assessment.service.ExportDataset;
+import com.example.assessment.service.ExportFormat;
+import com.example.assessment.service.ExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+@WebMvcTest(ExportController.class)
+public class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        willAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write(("rows for " + invocation.getArgument(1)).getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(exportService).export(any(), any(), any());
+    }
+
+    @Test
+    void exportDefaultsToCsvAttachment() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/api/export/salaries"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"salaries.csv\""))
+                .andExpect(content().string("rows for CSV"));
+
+        verify(exportService).export(eq(ExportDataset.SALARIES), eq(ExportFormat.CSV), any());
+    }
+
+    @Test
+    void exportNegotiatesNdjsonFromAcceptHeader() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/api/export/dept-emp")
+                        .header(HttpHeaders.ACCEPT, "text/csv;q=0.5, application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("rows for NDJSON"));
+    }
+
+    @Test
+    void exportGzipsWhenAccepted() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/api/export/titles")
+                        .param("format", "ndjson")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("rows for NDJSON");
+        }
+    }
+
+    @Test
+    void exportSkipsGzipWhenRefused() throws Exception {
+
+        // q=0 means "not acceptable", and the "*" entry does not override gzip's own
+        MvcResult result = mockMvc.perform(get("/api/export/titles")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0, *"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("rows for CSV"));
+    }
+
+    @Test
+    void exportGzipsWhenWildcardAccepted() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/api/export/titles")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "identity;q=0.5, *;q=0.8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void exportErrorUnknownDataset() throws Exception {
+
+        mockMvc.perform(get("/api/export/payroll"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorCode").value("RESOURCE_NOT_FOUND"));
+
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void exportErrorNotAcceptable() throws Exception {
+
+        mockMvc.perform(get("/api/export/employees").header(HttpHeaders.ACCEPT, "application/xml"))
+                .andExpect(status().isNotAcceptable());
+
+        verifyNoInteractions(exportService);
+    }
+}
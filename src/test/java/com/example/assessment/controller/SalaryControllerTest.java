@@ -4,15 +4,23 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
+import static org.hamcrest.Matchers.containsString;
 
+import com.example.assessment.assembler.SalaryModelAssembler;
+import com.example.assessment.dto.CursorPageDTO;
 import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.SalaryPercentilesDTO;
+import com.example.assessment.dto.TopEarnerDTO;
+import com.example.assessment.exception.BadRequestException;
 import com.example.assessment.exception.ResourceNotFoundException;
 import com.example.assessment.service.SalaryService;
+import com.example.assessment.service.SalaryStatisticsService;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -23,6 +31,7 @@ import java.util.Arrays;
 import java.util.List;
 
 @WebMvcTest(SalaryController.class)
+@Import(SalaryModelAssembler.class)
 public class SalaryControllerTest {
 
     @Autowired
@@ -31,6 +40,9 @@ public class SalaryControllerTest {
     @MockitoBean
     private SalaryService salaryService;
 
+    @MockitoBean
+    private SalaryStatisticsService salaryStatisticsService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -52,11 +64,65 @@ public class SalaryControllerTest {
                 .build();
     }
 
+    @Test
+    void getSalaryPercentilesSuccess() throws Exception {
+
+        given(salaryStatisticsService.getPercentiles(isNull(), isNull())).willReturn(List.of(
+                SalaryPercentilesDTO.builder().deptNo("d001").count(2L).p50(60000).p90(70000).p99(70000).build(),
+                SalaryPercentilesDTO.builder().title("Engineer").count(1L).p50(60000).p90(60000).p99(60000).build()));
+
+        mockMvc.perform(get("/api/salaries/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.salaryPercentilesDTOList[0].p50").value(60000))
+                .andExpect(jsonPath("$._embedded.salaryPercentilesDTOList[0]._links.department.href")
+                        .value("http://localhost/api/departments/d001"))
+                .andExpect(jsonPath("$._embedded.salaryPercentilesDTOList[1].title").value("Engineer"));
+    }
+
+    @Test
+    void getSalaryPercentilesErrorBothFilters() throws Exception {
+
+        given(salaryStatisticsService.getPercentiles("d001", "Engineer"))
+                .willThrow(new BadRequestException("Percentiles are kept per department or per title, give one of deptNo and title"));
+
+        mockMvc.perform(get("/api/salaries/stats").param("deptNo", "d001").param("title", "Engineer"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTopEarnersSuccess() throws Exception {
+
+        given(salaryService.getTopEarners("d001", 2)).willReturn(List.of(
+                TopEarnerDTO.builder().deptNo("d001").rank(1L).empNo(2).salary(80000).fromDate(LocalDate.parse(FROM_DATE)).build(),
+                TopEarnerDTO.builder().deptNo("d001").rank(2L).empNo(3).salary(70000).fromDate(LocalDate.parse(FROM_DATE)).build()));
+
+        mockMvc.perform(get("/api/salaries/top").param("deptNo", "d001").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.topEarnerDTOList[1].rank").value(2))
+                .andExpect(jsonPath("$._embedded.topEarnerDTOList[0]._links.employee.href")
+                        .value("http://localhost/api/employees/2"))
+                .andExpect(jsonPath("$._embedded.topEarnerDTOList[0]._links.department.href")
+                        .value("http://localhost/api/departments/d001"));
+    }
+
+    @Test
+    void getCurrentSalariesInRangeLinksNextPage() throws Exception {
+
+        given(salaryService.getCurrentSalariesInRange(1000000, 6000000, null, 1))
+                .willReturn(CursorPageDTO.<SalaryDTO>builder().items(List.of(sampleSalary)).nextCursor("abc").build());
+
+        mockMvc.perform(get("/api/salaries/range").param("min", "1000000").param("max", "6000000").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.salaryDTOList[0].salary").value(SALARY_AMOUNT))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("after=abc")));
+    }
+
     @Test
     void getAllSalariesSuccess() throws Exception {
 
         List<SalaryDTO> salaries = Arrays.asList(sampleSalary);
-        given(salaryService.getAllSalaries()).willReturn(salaries);
+        given(salaryService.getSalariesPage(isNull(), isNull(), isNull()))
+                .willReturn(CursorPageDTO.<SalaryDTO>builder().items(salaries).build());
 
         mockMvc.perform(get("/api/salaries"))
                 .andExpect(status().isOk())
@@ -64,7 +130,22 @@ public class SalaryControllerTest {
                 .andExpect(jsonPath("$._embedded.salaryDTOList[0].salary").value(SALARY_AMOUNT.doubleValue()))
                 .andExpect(jsonPath("$._links.self.href").exists());
 
-        verify(salaryService, times(1)).getAllSalaries();
+        verify(salaryService, times(1)).getSalariesPage(null, null, null);
+    }
+
+    @Test
+    void getAllSalariesCompactView() throws Exception {
+
+        given(salaryService.getSalariesPage(isNull(), isNull(), isNull()))
+                .willReturn(CursorPageDTO.<SalaryDTO>builder().items(List.of(sampleSalary)).build());
+
+        mockMvc.perform(get("/api/salaries")
+                        .param("view", "compact"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].empNo").value(EMPLOYEE_ID))
+                .andExpect(jsonPath("$.items[0].fromDate").value(sampleSalary.getFromDate().toString()))
+                .andExpect(jsonPath("$.itemLinks.update").value("http://localhost/api/salaries/{empNo}/{fromDate}"))
+                .andExpect(jsonPath("$.itemLinks.employee").value("http://localhost/api/employees/{empNo}"));
     }
 
     @Test
@@ -0,0 +1,159 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.DepartmentSummaryDTO;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.TitleCountDTO;
+import com.example.assessment.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.cache.cache-names=employees,current-managers,department-summary,org-snapshot"
+})
+@Import({CacheConfig.class, DepartmentService.class, PrimaryReads.class, SalaryService.class, SalaryStatisticsService.class,
+        OrgSnapshotLoader.class})
+// The service transactions commit, so the cache sees evictions as it would behind a controller
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DepartmentSummaryTest {
+
+    private static final int DEPARTMENT_COUNT = 5;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private EmployeeService employeeService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate past = LocalDate.of(2000, 1, 1);
+        LocalDate ended = LocalDate.of(2005, 1, 1);
+        LocalDate open = LocalDate.of(9999, 1, 1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            for (int dept = 1; dept <= DEPARTMENT_COUNT; dept++) {
+                entityManager.persist(Department.builder().deptNo("d00" + dept).deptName("Department " + dept).build());
+            }
+            // d001: two current employees, one with an earlier salary and title, plus a former member
+            for (int empNo = 1; empNo <= 3; empNo++) {
+                entityManager.persist(employee(empNo));
+            }
+            entityManager.persist(DeptEmp.builder().empNo(1).deptNo("d001").fromDate(past).toDate(open).build());
+            entityManager.persist(DeptEmp.builder().empNo(2).deptNo("d001").fromDate(past).toDate(open).build());
+            entityManager.persist(DeptEmp.builder().empNo(3).deptNo("d001").fromDate(past).toDate(ended).build());
+            entityManager.persist(Salary.builder().empNo(1).salary(40000).fromDate(past).toDate(ended).build());
+            entityManager.persist(Salary.builder().empNo(1).salary(60000).fromDate(ended).toDate(open).build());
+            entityManager.persist(Salary.builder().empNo(2).salary(70000).fromDate(past).toDate(open).build());
+            entityManager.persist(Salary.builder().empNo(3).salary(90000).fromDate(past).toDate(open).build());
+            entityManager.persist(Title.builder().empNo(1).title("Engineer").fromDate(past).toDate(ended).build());
+            entityManager.persist(Title.builder().empNo(1).title("Senior Engineer").fromDate(ended).toDate(open).build());
+            entityManager.persist(Title.builder().empNo(2).title("Engineer").fromDate(past).toDate(open).build());
+            // Manager history: the current one is the later assignment
+            entityManager.persist(DeptManager.builder().empNo(3).deptNo("d001").fromDate(past).toDate(ended).build());
+            entityManager.persist(DeptManager.builder().empNo(2).deptNo("d001").fromDate(ended).toDate(open).build());
+        });
+
+        cacheManager.getCache(CacheConfig.DEPARTMENT_SUMMARY).clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            for (String entity : List.of("DeptManager", "DeptEmp", "Title", "Salary", "Employee", "Department")) {
+                entityManager.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void everyDepartmentIsSummarizedInThreeQueries() {
+
+        List<DepartmentSummaryDTO> summaries = departmentService.getDepartmentSummaries();
+
+        assertThat(summaries).extracting(DepartmentSummaryDTO::getDeptNo)
+                .containsExactly("d001", "d002", "d003", "d004", "d005");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        DepartmentSummaryDTO d001 = summaries.getFirst();
+        assertThat(d001.getHeadcount()).isEqualTo(2);
+        assertThat(d001.getCurrentManager().getEmpNo()).isEqualTo(2);
+        assertThat(d001.getPayrollTotal()).isEqualTo(130000);
+        assertThat(d001.getPayrollAverage()).isEqualTo(65000.0);
+        assertThat(d001.getTitles()).containsExactly(new TitleCountDTO("Engineer", 1L), new TitleCountDTO("Senior Engineer", 1L));
+
+        DepartmentSummaryDTO d002 = summaries.get(1);
+        assertThat(d002.getHeadcount()).isZero();
+        assertThat(d002.getCurrentManager()).isNull();
+        assertThat(d002.getPayrollTotal()).isNull();
+        assertThat(d002.getTitles()).isEmpty();
+    }
+
+    @Test
+    void summaryIsCachedUntilSalaryWrite() {
+        given(employeeService.existsById(anyInt())).willReturn(true);
+
+        departmentService.getDepartmentSummaries();
+        departmentService.getDepartmentSummaries();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        salaryService.updateSalary(2, "2000-01-01", SalaryDTO.builder()
+                .empNo(2).salary(80000).fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+
+        DepartmentSummaryDTO d001 = departmentService.getDepartmentSummaries().getFirst();
+        assertThat(d001.getPayrollTotal()).isEqualTo(140000);
+    }
+
+    private static Employee employee(int empNo) {
+        return Employee.builder()
+                .empNo(empNo)
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .firstName("First" + empNo)
+                .lastName("Last" + empNo)
+                .gender(Gender.M)
+                .hireDate(LocalDate.of(2000, 1, 1))
+                .build();
+    }
+}
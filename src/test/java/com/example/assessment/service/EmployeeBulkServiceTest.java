@@ -0,0 +1,141 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.assessment.dto.BulkResultDTO;
+import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.exception.BadRequestException;
+import com.example.assessment.model.Employee;
+import com.example.assessment.model.Gender;
+import com.example.assessment.repository.EmployeeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Chunks commit on their own, so the test must not run inside the usual rollback-only transaction
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.employees.bulk.chunk-size=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import(EmployeeBulkService.class)
+public class EmployeeBulkServiceTest {
+
+    @Autowired
+    private EmployeeBulkService employeeBulkService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.save(Employee.builder()
+                .empNo(1)
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .firstName("Existing")
+                .lastName("Employee")
+                .gender(Gender.F)
+                .hireDate(LocalDate.of(2000, 1, 1))
+                .build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void createEmployeesInsertsInChunksAndChecksIdsOnce() {
+
+        List<EmployeeDTO> employees = List.of(employee(2), employee(3), employee(4), employee(5), employee(6));
+
+        BulkResultDTO result = employeeBulkService.createEmployees(employees);
+
+        // One existence query plus one batched INSERT per chunk of two, no SELECT per inserted row
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(5);
+        assertThat(result.getCreated()).isEqualTo(5);
+        assertThat(result.getFailed()).isZero();
+        assertThat(employeeRepository.count()).isEqualTo(6);
+    }
+
+    @Test
+    void createEmployeesReportsErrorsPerItem() {
+
+        EmployeeDTO invalid = employee(7);
+        invalid.setFirstName("");
+
+        List<EmployeeDTO> employees = List.of(employee(2), employee(1), invalid, employee(2), employee(3));
+
+        BulkResultDTO result = employeeBulkService.createEmployees(employees);
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(BulkResultDTO.ItemError::getIndex).containsExactly(1, 2, 3);
+        assertThat(result.getErrors().get(0).getMessage()).contains("already exists");
+        assertThat(result.getErrors().get(1).getMessage()).startsWith("firstName:");
+        assertThat(result.getErrors().get(2).getMessage()).isEqualTo("Duplicate employee number in request");
+        assertThat(employeeRepository.findAllById(List.of(2, 3))).hasSize(2);
+    }
+
+    @Test
+    void createEmployeesRollsBackOnlyTheFailingChunk() {
+
+        EmployeeDTO noGender = employee(5);
+        noGender.setGender(null);
+
+        List<EmployeeDTO> employees = List.of(employee(2), employee(3), employee(4), noGender);
+
+        BulkResultDTO result = employeeBulkService.createEmployees(employees);
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(BulkResultDTO.ItemError::getEmpNo).containsExactly(4, 5);
+        // Stable reason instead of the driver's message, which names the table and column
+        assertThat(result.getErrors()).allSatisfy(error ->
+                assertThat(error.getMessage()).isEqualTo("Chunk rolled back: missing required value"));
+        assertThat(employeeRepository.existsById(4)).isFalse();
+        assertThat(employeeRepository.findAllById(List.of(2, 3))).hasSize(2);
+    }
+
+    @Test
+    void createEmployeesErrorEmptyRequest() {
+
+        assertThatThrownBy(() -> employeeBulkService.createEmployees(List.of()))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private EmployeeDTO employee(int empNo) {
+        return EmployeeDTO.builder()
+                .empNo(empNo)
+                .birthDate(LocalDate.of(1985, 1, 1))
+                .firstName("First" + empNo)
+                .lastName("Last" + empNo)
+                .gender(Gender.M)
+                .hireDate(LocalDate.of(2010, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.model.Gender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Per-row ({@code sp_*_employee}) versus set-based ({@code sp_*_employees}) stored procedure paths.
+ * <p>
+ * Needs the PostgreSQL database configured in {@code application.properties} (or overridden with
+ * {@code -Dspring.datasource.url=...}) with both sets of procedures installed; the schema is used as is
+ * and only employee numbers from {@link #FIRST_EMP_NO} upward are touched. Run with
+ * {@code mvn test -Dtest=EmployeeProcedureBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=5000]}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class EmployeeProcedureBenchmarkTest {
+
+    private static final int FIRST_EMP_NO = 900_000;
+    private static final int WARMUP_ROWS = 100;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int rows = Integer.getInteger("benchmark.rows", 1000);
+
+    @BeforeEach
+    void setUp() {
+        deleteBenchmarkRows();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteBenchmarkRows();
+    }
+
+    @Test
+    void perRowVersusSetBased() {
+
+        // Warm up connections, statement caches and the JIT on both paths before measuring
+        runPerRow(employees(WARMUP_ROWS, "Warm"));
+        runSetBased(employees(WARMUP_ROWS, "Warm"));
+
+        List<EmployeeDTO> employees = employees(rows, "Bench");
+        long[] perRow = runPerRow(employees);
+        long[] setBased = runSetBased(employees);
+
+        System.out.printf("%nStored procedure benchmark, %d rows%n", rows);
+        System.out.printf("%-8s %14s %14s %10s%n", "op", "per-row ms", "set-based ms", "speedup");
+        String[] operations = {"insert", "update", "delete"};
+        for (int i = 0; i < operations.length; i++) {
+            System.out.printf("%-8s %14.1f %14.1f %9.1fx%n", operations[i],
+                    perRow[i] / 1e6, setBased[i] / 1e6, (double) perRow[i] / setBased[i]);
+        }
+    }
+
+    private long[] runPerRow(List<EmployeeDTO> employees) {
+        return new long[]{
+                time(() -> employees.forEach(employeeService::createEmployeeViaProcedure), employees.size()),
+                time(() -> employees.forEach(employee ->
+                        employeeService.updateEmployeeViaProcedure(employee.getEmpNo(), renamed(employee))), employees.size()),
+                time(() -> employees.forEach(employee ->
+                        employeeService.deleteEmployeeViaProcedure(employee.getEmpNo())), 0)
+        };
+    }
+
+    private long[] runSetBased(List<EmployeeDTO> employees) {
+        List<Integer> ids = employees.stream().map(EmployeeDTO::getEmpNo).toList();
+        return new long[]{
+                time(() -> employeeService.createEmployeesViaProcedure(employees), employees.size()),
+                time(() -> employeeService.updateEmployeesViaProcedure(
+                        employees.stream().map(this::renamed).toList()), employees.size()),
+                time(() -> employeeService.deleteEmployeesViaProcedure(ids), 0)
+        };
+    }
+
+    private long time(Runnable operation, int expectedRows) {
+        long start = System.nanoTime();
+        operation.run();
+        long elapsed = System.nanoTime() - start;
+        assertThat(countBenchmarkRows()).isEqualTo(expectedRows);
+        return elapsed;
+    }
+
+    private List<EmployeeDTO> employees(int count, String firstName) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> EmployeeDTO.builder()
+                        .empNo(FIRST_EMP_NO + i)
+                        .birthDate(LocalDate.of(1980, 1, 1).plusDays(i % 3650))
+                        .firstName(firstName)
+                        .lastName("Employee" + i)
+                        .gender(i % 2 == 0 ? Gender.M : Gender.F)
+                        .hireDate(LocalDate.of(2010, 1, 1))
+                        .build())
+                .toList();
+    }
+
+    private EmployeeDTO renamed(EmployeeDTO employee) {
+        return EmployeeDTO.builder()
+                .empNo(employee.getEmpNo())
+                .birthDate(employee.getBirthDate())
+                .firstName("Renamed")
+                .lastName(employee.getLastName())
+                .gender(employee.getGender())
+                .hireDate(employee.getHireDate())
+                .build();
+    }
+
+    private int countBenchmarkRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees WHERE emp_no >= ?", Integer.class, FIRST_EMP_NO);
+    }
+
+    private void deleteBenchmarkRows() {
+        jdbcTemplate.update("DELETE FROM employees WHERE emp_no >= ?", FIRST_EMP_NO);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.assessment.dto.EmployeeFullDTO;
+import com.example.assessment.exception.ResourceNotFoundException;
+import com.example.assessment.model.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(EmployeeProfileService.class)
+public class EmployeeProfileServiceTest {
+
+    private static final int EMPLOYEE_COUNT = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EmployeeProfileService employeeProfileService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(Department.builder().deptNo("d001").deptName("Marketing").build());
+        entityManager.persist(Department.builder().deptNo("d002").deptName("Finance").build());
+
+        for (int empNo = 1; empNo <= EMPLOYEE_COUNT; empNo++) {
+            entityManager.persist(Employee.builder()
+                    .empNo(empNo)
+                    .birthDate(LocalDate.of(1980, 1, 1))
+                    .firstName("First" + empNo)
+                    .lastName("Last" + empNo)
+                    .gender(Gender.F)
+                    .hireDate(LocalDate.of(2000, 1, 1))
+                    .build());
+            for (int year = 2000; year < 2003; year++) {
+                entityManager.persist(Salary.builder().empNo(empNo).salary(50000 + year)
+                        .fromDate(LocalDate.of(year, 1, 1)).toDate(LocalDate.of(year + 1, 1, 1)).build());
+            }
+            entityManager.persist(Title.builder().empNo(empNo).title("Engineer")
+                    .fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(2005, 1, 1)).build());
+            entityManager.persist(Title.builder().empNo(empNo).title("Senior Engineer")
+                    .fromDate(LocalDate.of(2005, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+            entityManager.persist(DeptEmp.builder().empNo(empNo).deptNo("d001")
+                    .fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+            entityManager.persist(DeptManager.builder().empNo(empNo).deptNo("d002")
+                    .fromDate(LocalDate.of(2010, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getEmployeeFullLoadsEveryAssociation() {
+
+        EmployeeFullDTO profile = employeeProfileService.getEmployeeFull(1);
+
+        assertThat(profile.getEmployee().getFirstName()).isEqualTo("First1");
+        assertThat(profile.getSalaries()).hasSize(3);
+        assertThat(profile.getSalaries().get(0).getFromDate()).isEqualTo(LocalDate.of(2002, 1, 1));
+        assertThat(profile.getTitles()).extracting("title").containsExactly("Senior Engineer", "Engineer");
+        assertThat(profile.getDeptEmps()).extracting("deptNo").containsExactly("d001");
+        assertThat(profile.getDeptManagers()).extracting("deptNo").containsExactly("d002");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void getEmployeesFullUsesConstantNumberOfStatements() {
+
+        List<Integer> ids = IntStream.rangeClosed(1, EMPLOYEE_COUNT).boxed().toList();
+
+        List<EmployeeFullDTO> profiles = employeeProfileService.getEmployeesFull(ids);
+
+        assertThat(profiles).hasSize(EMPLOYEE_COUNT);
+        assertThat(profiles).allSatisfy(profile -> {
+            assertThat(profile.getSalaries()).hasSize(3);
+            assertThat(profile.getTitles()).hasSize(2);
+            assertThat(profile.getDeptEmps()).hasSize(1);
+            assertThat(profile.getDeptManagers()).hasSize(1);
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void getEmployeesFullSkipsUnknownIds() {
+
+        List<EmployeeFullDTO> profiles = employeeProfileService.getEmployeesFull(List.of(2, 999, 1));
+
+        assertThat(profiles).extracting(profile -> profile.getEmployee().getEmpNo()).containsExactly(1, 2);
+    }
+
+    @Test
+    void getEmployeeFullErrorNotFound() {
+
+        assertThatThrownBy(() -> employeeProfileService.getEmployeeFull(999))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
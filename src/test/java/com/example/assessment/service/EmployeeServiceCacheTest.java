@@ -0,0 +1,190 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.exception.ResourceNotFoundException;
+import com.example.assessment.model.Employee;
+import com.example.assessment.model.Gender;
+import com.example.assessment.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@SpringJUnitConfig(classes = {CacheConfig.class, EmployeeService.class, PrimaryReads.class})
+@TestPropertySource(properties = {
+        "spring.cache.cache-names=employees,current-managers,department-summary,org-snapshot",
+        "spring.cache.caffeine.spec=maximumSize=100,expireAfterWrite=1m,recordStats"
+})
+public class EmployeeServiceCacheTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private EmployeeRepository employeeRepository;
+
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private SalaryStatisticsService salaryStatisticsService;
+
+    private Employee sampleEmployee;
+    private final Integer EMPLOYEE_ID = 1;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.EMPLOYEES).clear();
+
+        sampleEmployee = Employee.builder()
+                .empNo(EMPLOYEE_ID)
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .firstName("John")
+                .lastName("Doe")
+                .gender(Gender.M)
+                .hireDate(LocalDate.of(2020, 1, 1))
+                .build();
+    }
+
+    @Test
+    void getEmployeeByIdHitsDatabaseOnce() {
+
+        given(employeeRepository.findById(EMPLOYEE_ID)).willReturn(Optional.of(sampleEmployee));
+
+        employeeService.getEmployeeById(EMPLOYEE_ID);
+        EmployeeDTO cached = employeeService.getEmployeeById(EMPLOYEE_ID);
+
+        assertThat(cached.getFirstName()).isEqualTo("John");
+        verify(employeeRepository, times(1)).findById(EMPLOYEE_ID);
+    }
+
+    @Test
+    void existsByIdReusesCachedEmployee() {
+
+        given(employeeRepository.findById(EMPLOYEE_ID)).willReturn(Optional.of(sampleEmployee));
+
+        assertThat(employeeService.existsById(EMPLOYEE_ID)).isTrue();
+        assertThat(employeeService.existsById(EMPLOYEE_ID)).isTrue();
+        employeeService.getEmployeeById(EMPLOYEE_ID);
+
+        verify(employeeRepository, times(1)).findById(EMPLOYEE_ID);
+        verify(employeeRepository, never()).existsById(any());
+    }
+
+    @Test
+    void existsByIdDoesNotCacheMissingEmployee() {
+
+        given(employeeRepository.findById(999)).willReturn(Optional.empty());
+
+        assertThat(employeeService.existsById(999)).isFalse();
+        assertThat(employeeService.existsById(999)).isFalse();
+
+        verify(employeeRepository, times(2)).findById(999);
+    }
+
+    @Test
+    void updateEmployeeEvictsCachedEmployee() {
+
+        given(employeeRepository.findById(EMPLOYEE_ID)).willReturn(Optional.of(sampleEmployee));
+        given(employeeRepository.save(any(Employee.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        employeeService.getEmployeeById(EMPLOYEE_ID);
+        employeeService.updateEmployee(EMPLOYEE_ID, EmployeeDTO.builder()
+                .empNo(EMPLOYEE_ID)
+                .birthDate(sampleEmployee.getBirthDate())
+                .firstName("Jane")
+                .lastName("Doe")
+                .gender(Gender.F)
+                .hireDate(sampleEmployee.getHireDate())
+                .build());
+
+        assertThat(employeeService.getEmployeeById(EMPLOYEE_ID).getFirstName()).isEqualTo("Jane");
+    }
+
+    @Test
+    void procedureWritesEvictCachedEmployee() {
+
+        given(employeeRepository.findById(EMPLOYEE_ID)).willReturn(Optional.of(sampleEmployee));
+
+        employeeService.getEmployeeById(EMPLOYEE_ID);
+        employeeService.deleteEmployeeViaProcedure(EMPLOYEE_ID);
+
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES).get(EMPLOYEE_ID)).isNull();
+        verify(employeeRepository).deleteEmployeeProcedure(EMPLOYEE_ID);
+    }
+
+    @Test
+    void bulkProcedureWritesEvictEveryCachedEmployee() {
+
+        given(employeeRepository.findById(EMPLOYEE_ID)).willReturn(Optional.of(sampleEmployee));
+        given(employeeRepository.findExistingEmpNos(any())).willReturn(List.of(EMPLOYEE_ID, 2));
+
+        employeeService.getEmployeeById(EMPLOYEE_ID);
+        employeeService.deleteEmployeesViaProcedure(List.of(EMPLOYEE_ID, 2));
+
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES).get(EMPLOYEE_ID)).isNull();
+        verify(employeeRepository).deleteEmployeesProcedure(new Integer[]{EMPLOYEE_ID, 2});
+    }
+
+    @Test
+    void deletesEvictCachesDerivedFromCascadedRows() {
+
+        given(employeeRepository.existsById(EMPLOYEE_ID)).willReturn(true);
+        given(employeeRepository.findExistingEmpNos(any())).willReturn(List.of(EMPLOYEE_ID));
+        List<Runnable> deletes = List.of(
+                () -> employeeService.deleteEmployee(EMPLOYEE_ID),
+                () -> employeeService.deleteEmployeeViaProcedure(EMPLOYEE_ID),
+                () -> employeeService.deleteEmployeesViaProcedure(List.of(EMPLOYEE_ID)));
+
+        for (Runnable delete : deletes) {
+            List<String> derived = List.of(CacheConfig.DEPARTMENT_SUMMARY, CacheConfig.ORG_SNAPSHOT,
+                    CacheConfig.CURRENT_MANAGERS);
+            derived.forEach(name -> cacheManager.getCache(name).put("d001", "stale"));
+
+            delete.run();
+
+            derived.forEach(name -> assertThat(cacheManager.getCache(name).get("d001")).as(name).isNull());
+        }
+    }
+
+    @Test
+    void deletesRebuildSalarySketches() {
+
+        given(employeeRepository.existsById(EMPLOYEE_ID)).willReturn(true);
+        given(employeeRepository.findExistingEmpNos(any())).willReturn(List.of(EMPLOYEE_ID));
+
+        employeeService.deleteEmployee(EMPLOYEE_ID);
+        employeeService.deleteEmployeeViaProcedure(EMPLOYEE_ID);
+        employeeService.deleteEmployeesViaProcedure(List.of(EMPLOYEE_ID));
+
+        verify(salaryStatisticsService, times(3)).rebuildAfterCommit();
+    }
+
+    @Test
+    void bulkProcedureErrorMissingEmployees() {
+
+        given(employeeRepository.findExistingEmpNos(any())).willReturn(List.of(EMPLOYEE_ID));
+
+        assertThatThrownBy(() -> employeeService.deleteEmployeesViaProcedure(List.of(EMPLOYEE_ID, 2, 3)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("[2, 3]");
+        verify(employeeRepository, never()).deleteEmployeesProcedure(any());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.assessment.model.Employee;
+import com.example.assessment.model.Gender;
+import com.example.assessment.model.Salary;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ExportService.class)
+public class ExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExportService exportService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(Employee.builder()
+                .empNo(2)
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .firstName("Anna")
+                .lastName("O\"Brien, Jr")
+                .gender(Gender.F)
+                .hireDate(LocalDate.of(2000, 1, 1))
+                .build());
+        entityManager.persist(Employee.builder()
+                .empNo(1)
+                .birthDate(LocalDate.of(1985, 6, 15))
+                .firstName("Budi")
+                .lastName("Santoso")
+                .gender(Gender.M)
+                .hireDate(LocalDate.of(2010, 3, 1))
+                .build());
+        entityManager.persist(Salary.builder().empNo(1).salary(60000)
+                .fromDate(LocalDate.of(2010, 3, 1)).toDate(LocalDate.of(2011, 3, 1)).build());
+        entityManager.persist(Salary.builder().empNo(1).salary(65000)
+                .fromDate(LocalDate.of(2011, 3, 1)).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void exportEmployeesAsCsvInKeyOrderWithQuoting() {
+
+        String csv = export(ExportDataset.EMPLOYEES, ExportFormat.CSV);
+
+        assertThat(csv).isEqualTo(
+                "emp_no,birth_date,first_name,last_name,gender,hire_date\r\n" +
+                "1,1985-06-15,Budi,Santoso,M,2010-03-01\r\n" +
+                "2,1980-01-01,Anna,\"O\"\"Brien, Jr\",F,2000-01-01\r\n");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void exportSalariesAsNdjson() {
+
+        String ndjson = export(ExportDataset.SALARIES, ExportFormat.NDJSON);
+
+        assertThat(ndjson.split("\n")).containsExactly(
+                "{\"empNo\":1,\"salary\":60000,\"fromDate\":\"2010-03-01\",\"toDate\":\"2011-03-01\"}",
+                "{\"empNo\":1,\"salary\":65000,\"fromDate\":\"2011-03-01\",\"toDate\":null}");
+        assertThat(ndjson).endsWith("\n");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void exportEmptyTableWritesOnlyTheHeader() {
+
+        assertThat(export(ExportDataset.DEPT_MANAGER, ExportFormat.CSV)).isEqualTo("emp_no,dept_no,from_date,to_date\r\n");
+        assertThat(export(ExportDataset.DEPT_MANAGER, ExportFormat.NDJSON)).isEmpty();
+    }
+
+    private String export(ExportDataset dataset, ExportFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(dataset, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IntervalIndexTest {
+
+    @Test
+    void longPeriodIsFoundBehindLaterShortOnes() {
+        IntervalIndex.Builder builder = new IntervalIndex.Builder();
+        builder.add(1, 0, IntervalIndex.OPEN, 100);
+        builder.add(1, 10, 20, 200);
+        builder.add(1, 30, 40, 300);
+        builder.add(2, 5, 15, 400);
+        IntervalIndex index = builder.build();
+
+        assertThat(values(index, 1, 35)).containsExactly(300, 100);
+        assertThat(values(index, 1, 25)).containsExactly(100);
+        assertThat(index.value(index.latest(1, 15))).isEqualTo(200);
+        assertThat(index.value(index.latest(1, 50))).isEqualTo(100);
+        assertThat(values(index, 2, 15)).containsExactly(400);
+    }
+
+    @Test
+    void daysOutsideEveryPeriodFindNothing() {
+        IntervalIndex.Builder builder = new IntervalIndex.Builder();
+        builder.add(1, 10, 20, 100);
+        builder.add(1, 20, 30, 200);
+        IntervalIndex index = builder.build();
+
+        assertThat(index.latest(1, 9)).isEqualTo(-1);
+        assertThat(index.latest(1, 31)).isEqualTo(-1);
+        assertThat(index.latest(3, 15)).isEqualTo(-1);
+        assertThat(index.hasOwner(3)).isFalse();
+        // Inclusive ends: on the handover day both periods hold, the later one wins
+        assertThat(values(index, 1, 20)).containsExactly(200, 100);
+        assertThat(index.value(index.latest(1, 20))).isEqualTo(200);
+    }
+
+    @Test
+    void searchMatchesAScanBehindAnEarlyOpenEndedPeriod() {
+        IntervalIndex.Builder builder = new IntervalIndex.Builder();
+        builder.add(1, 0, IntervalIndex.OPEN, -1);
+        for (int i = 0; i < 1000; i++) {
+            builder.add(1, 10 + i * 10, 14 + i * 10 + i % 3 * 10, i);
+        }
+        IntervalIndex index = builder.build();
+
+        for (int day = 0; day < 10_100; day += 7) {
+            List<Integer> scanned = new ArrayList<>();
+            for (int period = index.endPeriod(1) - 1; period >= index.firstPeriod(1); period--) {
+                if (index.start(period) <= day && index.end(period) >= day) {
+                    scanned.add(index.value(period));
+                }
+            }
+            assertThat(values(index, 1, day)).isEqualTo(scanned);
+            assertThat(index.value(index.latest(1, day))).isEqualTo(scanned.getFirst());
+        }
+    }
+
+    @Test
+    void patchesReplaceAnOwnersPeriodsAndLeaveTheOriginalAlone() {
+        IntervalIndex.Builder builder = new IntervalIndex.Builder();
+        builder.add(1, 10, 20, 100);
+        builder.add(1, 20, IntervalIndex.OPEN, 200);
+        builder.add(2, 10, IntervalIndex.OPEN, 300);
+        IntervalIndex loaded = builder.build();
+
+        IntervalIndex patched = loaded
+                .with(1, (start, value) -> start == 20, 20, 29, 250)
+                .with(1, (start, value) -> start == 30, 30, IntervalIndex.OPEN, 400)
+                .with(3, (start, value) -> false, 5, IntervalIndex.OPEN, 500)
+                .without(2, (start, value) -> value == 300);
+
+        assertThat(patched.size()).isEqualTo(4);
+        assertThat(values(patched, 1, 25)).containsExactly(250);
+        assertThat(values(patched, 1, 35)).containsExactly(400);
+        assertThat(values(patched, 3, 35)).containsExactly(500);
+        assertThat(patched.hasOwner(2)).isFalse();
+        assertThat(patched.endPeriod(1) - patched.firstPeriod(1)).isEqualTo(3);
+        assertThat(patched.start(patched.firstPeriod(1) + 2)).isEqualTo(30);
+        assertThat(values(loaded, 1, 35)).containsExactly(200);
+        assertThat(values(loaded, 2, 35)).containsExactly(300);
+        assertThat(loaded.size()).isEqualTo(3);
+    }
+
+    @Test
+    void unorderedPeriodsAreRejected() {
+        IntervalIndex.Builder builder = new IntervalIndex.Builder();
+        builder.add(2, 10, 20, 100);
+
+        assertThatThrownBy(() -> builder.add(1, 10, 20, 100)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> builder.add(2, 5, 20, 100)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<Integer> values(IntervalIndex index, int owner, int day) {
+        List<Integer> values = new ArrayList<>();
+        index.containing(owner, day, period -> values.add(index.value(period)));
+        return values;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.DepartmentSummaryDTO;
+import com.example.assessment.dto.DeptEmpDTO;
+import com.example.assessment.dto.EmployeeAsOfDTO;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.TitleCountDTO;
+import com.example.assessment.dto.TitleDTO;
+import com.example.assessment.exception.BadRequestException;
+import com.example.assessment.exception.ResourceNotFoundException;
+import com.example.assessment.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.cache.cache-names=employees,current-managers,department-summary,org-snapshot"
+})
+@Import({CacheConfig.class, OrgSnapshotLoader.class, OrgSnapshotService.class, DepartmentService.class, PrimaryReads.class,
+        SalaryService.class, SalaryStatisticsService.class, DeptEmpService.class, TitleService.class})
+// The service transactions commit, so the cache sees evictions as it would behind a controller
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrgSnapshotTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrgSnapshotService orgSnapshotService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @Autowired
+    private DeptEmpService deptEmpService;
+
+    @Autowired
+    private TitleService titleService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate past = LocalDate.of(2000, 1, 1);
+        LocalDate ended = LocalDate.of(2005, 1, 1);
+        LocalDate open = LocalDate.of(9999, 1, 1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            entityManager.persist(Department.builder().deptNo("d001").deptName("Development").build());
+            entityManager.persist(Department.builder().deptNo("d002").deptName("Sales").build());
+            for (int empNo = 1; empNo <= 3; empNo++) {
+                entityManager.persist(employee(empNo));
+            }
+            // Employee 3 leaves d001 for d002 on the day the manager changes
+            entityManager.persist(DeptEmp.builder().empNo(1).deptNo("d001").fromDate(past).toDate(open).build());
+            entityManager.persist(DeptEmp.builder().empNo(2).deptNo("d001").fromDate(past).toDate(open).build());
+            entityManager.persist(DeptEmp.builder().empNo(3).deptNo("d001").fromDate(past).toDate(ended).build());
+            entityManager.persist(DeptEmp.builder().empNo(3).deptNo("d002").fromDate(ended).toDate(open).build());
+            entityManager.persist(Salary.builder().empNo(1).salary(40000).fromDate(past).toDate(ended).build());
+            entityManager.persist(Salary.builder().empNo(1).salary(60000).fromDate(ended).toDate(open).build());
+            entityManager.persist(Salary.builder().empNo(2).salary(70000).fromDate(past).toDate(open).build());
+            entityManager.persist(Salary.builder().empNo(3).salary(90000).fromDate(past).toDate(open).build());
+            entityManager.persist(Title.builder().empNo(1).title("Engineer").fromDate(past).toDate(ended).build());
+            entityManager.persist(Title.builder().empNo(1).title("Senior Engineer").fromDate(ended).toDate(open).build());
+            entityManager.persist(Title.builder().empNo(2).title("Engineer").fromDate(past).toDate(open).build());
+            entityManager.persist(Title.builder().empNo(3).title("Manager").fromDate(past).toDate(open).build());
+            entityManager.persist(DeptManager.builder().empNo(3).deptNo("d001").fromDate(past).toDate(ended).build());
+            entityManager.persist(DeptManager.builder().empNo(2).deptNo("d001").fromDate(ended).toDate(open).build());
+        });
+
+        cacheManager.getCache(CacheConfig.DEPARTMENT_SUMMARY).clear();
+        cacheManager.getCache(CacheConfig.ORG_SNAPSHOT).clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            for (String entity : List.of("DeptManager", "DeptEmp", "Title", "Salary", "Employee", "Department")) {
+                entityManager.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void orgAsOfTodayMatchesDepartmentSummary() {
+
+        List<DepartmentSummaryDTO> asOfToday = orgSnapshotService.getOrgAsOf(LocalDate.now().toString()).getDepartments();
+
+        assertThat(asOfToday).isEqualTo(departmentService.getDepartmentSummaries());
+    }
+
+    @Test
+    void orgAsOfPastDateReconstructsHistory() {
+
+        List<DepartmentSummaryDTO> departments = orgSnapshotService.getOrgAsOf("2003-06-01").getDepartments();
+
+        DepartmentSummaryDTO d001 = departments.getFirst();
+        assertThat(d001.getHeadcount()).isEqualTo(3);
+        assertThat(d001.getCurrentManager().getEmpNo()).isEqualTo(3);
+        assertThat(d001.getPayrollTotal()).isEqualTo(200000);
+        assertThat(d001.getTitles()).containsExactly(new TitleCountDTO("Engineer", 2L), new TitleCountDTO("Manager", 1L));
+        DepartmentSummaryDTO d002 = departments.get(1);
+        assertThat(d002.getHeadcount()).isZero();
+        assertThat(d002.getPayrollAverage()).isNull();
+    }
+
+    @Test
+    void employeeOnHandoverDayHoldsTheLaterPeriods() {
+
+        EmployeeAsOfDTO employee = orgSnapshotService.getEmployeeAsOf(1, "2005-01-01");
+        assertThat(employee.getSalary().getSalary()).isEqualTo(60000);
+        assertThat(employee.getTitle().getTitle()).isEqualTo("Senior Engineer");
+
+        EmployeeAsOfDTO mover = orgSnapshotService.getEmployeeAsOf(3, "2005-01-01");
+        assertThat(mover.getDeptEmps()).extracting(deptEmp -> deptEmp.getDeptNo()).containsExactly("d002", "d001");
+        assertThat(mover.getDeptManagers()).extracting(manager -> manager.getDeptNo()).containsExactly("d001");
+        assertThat(orgSnapshotService.getEmployeeAsOf(3, "2005-01-02").getDeptManagers()).isEmpty();
+    }
+
+    @Test
+    void unknownEmployeeAndMalformedDateAreRejected() {
+
+        assertThatThrownBy(() -> orgSnapshotService.getEmployeeAsOf(99, "2005-01-01"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> orgSnapshotService.getOrgAsOf("01/01/2005"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void salaryWriteIsPatchedIntoTheCachedSnapshot() {
+        given(employeeService.existsById(anyInt())).willReturn(true);
+        OrgSnapshot loaded = cachedSnapshot();
+
+        salaryService.updateSalary(2, "2000-01-01", SalaryDTO.builder()
+                .empNo(2).salary(80000).fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+
+        OrgSnapshot patched = (OrgSnapshot) cacheManager.getCache(CacheConfig.ORG_SNAPSHOT).get("all").get();
+        assertThat(patched.loadedAt()).isEqualTo(loaded.loadedAt());
+        assertThat(patched.version()).isGreaterThan(loaded.version());
+        DepartmentSummaryDTO d001 = orgSnapshotService.getOrgAsOf("2010-01-01").getDepartments().getFirst();
+        assertThat(d001.getPayrollTotal()).isEqualTo(140000);
+        assertThat(departments("2010-01-01")).isEqualTo(reloaded("2010-01-01"));
+    }
+
+    @Test
+    void assignmentWritesArePatchedIntoTheCachedSnapshot() {
+        given(employeeService.existsById(anyInt())).willReturn(true);
+        OrgSnapshot loaded = cachedSnapshot();
+
+        // Employee 3 is back in d001 from 2008, and employee 1 leaves it
+        deptEmpService.updateDeptEmp(3, "d001", DeptEmpDTO.builder()
+                .fromDate(LocalDate.of(2008, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+        deptEmpService.deleteEmployeeFromDepartment(1, "d001");
+
+        assertThat(cachedSnapshot().loadedAt()).isEqualTo(loaded.loadedAt());
+        DepartmentSummaryDTO d001 = orgSnapshotService.getOrgAsOf("2010-01-01").getDepartments().getFirst();
+        assertThat(d001.getHeadcount()).isEqualTo(2);
+        assertThat(d001.getPayrollTotal()).isEqualTo(160000);
+        assertThat(departments("2003-06-01", "2010-01-01")).isEqualTo(reloaded("2003-06-01", "2010-01-01"));
+    }
+
+    @Test
+    void titleWriteWithANewTitleIsPatchedIntoTheCachedSnapshot() {
+        given(employeeService.existsById(anyInt())).willReturn(true);
+        OrgSnapshot loaded = cachedSnapshot();
+
+        titleService.createTitle(TitleDTO.builder().empNo(2).title("Architect")
+                .fromDate(LocalDate.of(2008, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+
+        assertThat(cachedSnapshot().loadedAt()).isEqualTo(loaded.loadedAt());
+        assertThat(orgSnapshotService.getEmployeeAsOf(2, "2010-01-01").getTitle().getTitle()).isEqualTo("Architect");
+        assertThat(departments("2010-01-01")).isEqualTo(reloaded("2010-01-01"));
+    }
+
+    private OrgSnapshot cachedSnapshot() {
+        orgSnapshotService.getOrgAsOf("2010-01-01");
+        return (OrgSnapshot) cacheManager.getCache(CacheConfig.ORG_SNAPSHOT).get("all").get();
+    }
+
+    private List<List<DepartmentSummaryDTO>> departments(String... dates) {
+        return Arrays.stream(dates).map(date -> orgSnapshotService.getOrgAsOf(date).getDepartments()).toList();
+    }
+
+    // The same dates answered from a fresh load
+    private List<List<DepartmentSummaryDTO>> reloaded(String... dates) {
+        cacheManager.getCache(CacheConfig.ORG_SNAPSHOT).clear();
+        return departments(dates);
+    }
+
+    private static Employee employee(int empNo) {
+        return Employee.builder()
+                .empNo(empNo)
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .firstName("First" + empNo)
+                .lastName("Last" + empNo)
+                .gender(Gender.M)
+                .hireDate(LocalDate.of(2000, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+import com.example.assessment.exception.DeadlineExceededException;
+import com.example.assessment.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+public class ParallelReadsTest {
+
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        given(transactionManager.getTransaction(any())).willAnswer(invocation -> new SimpleTransactionStatus());
+    }
+
+    @Test
+    void forksRunConcurrentlyInReadOnlyTransactions() {
+
+        ParallelReads parallelReads = new ParallelReads(transactionManager, Duration.ofSeconds(5));
+
+        long start = System.nanoTime();
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            Supplier<String> first = scope.fork(() -> sleepThen(300, "first"));
+            Supplier<String> second = scope.fork(() -> sleepThen(300, "second"));
+            Supplier<String> third = scope.fork(() -> sleepThen(300, "third"));
+            scope.join();
+
+            assertThat(first.get() + second.get() + third.get()).isEqualTo("firstsecondthird");
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(800));
+        verify(transactionManager, times(3)).getTransaction(argThat(definition -> definition.isReadOnly()));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void failureCancelsSiblingsAndIsRethrown() {
+
+        ParallelReads parallelReads = new ParallelReads(transactionManager, Duration.ofSeconds(30));
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+
+        long start = System.nanoTime();
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            scope.fork(() -> {
+                siblingStarted.countDown();
+                try {
+                    Thread.sleep(20_000);
+                } catch (InterruptedException ex) {
+                    siblingInterrupted.set(true);
+                }
+                return "slow";
+            });
+            scope.fork(() -> {
+                await(siblingStarted);
+                throw new ResourceNotFoundException("Employee not found with id: 1");
+            });
+
+            assertThatThrownBy(scope::join)
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessage("Employee not found with id: 1");
+        }
+
+        assertThat(siblingInterrupted).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void joinGivesUpAtDeadline() {
+
+        ParallelReads parallelReads = new ParallelReads(transactionManager, Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        try (ParallelReads.Scope scope = parallelReads.open()) {
+            scope.fork(() -> sleepThen(20_000, "slow"));
+
+            assertThatThrownBy(scope::join).isInstanceOf(DeadlineExceededException.class);
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    private static String sleepThen(long millis, String value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
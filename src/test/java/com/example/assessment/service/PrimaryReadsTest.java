@@ -0,0 +1,219 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.willAnswer;
+
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.config.ReplicaRoutingDataSource;
+import com.example.assessment.dto.EmployeeDTO;
+import com.example.assessment.model.Employee;
+import com.example.assessment.model.Gender;
+import com.example.assessment.repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The employee cache fills read the primary, whatever transaction calls them: in a new read-write
+ * transaction when the read-only caller's is on a replica, and in the caller's own otherwise, so that
+ * concurrent misses never wait for a second connection from the pool they already hold one of.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.cache.cache-names=employees",
+        "spring.datasource.url=jdbc:h2:mem:primary-reads",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=" + PrimaryReadsTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+// A real Hikari pool of POOL_SIZE connections instead of the embedded replacement
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, EmployeeService.class, PrimaryReads.class})
+// No test-managed transaction: each test opens the caller's transaction itself. The repository is a mock
+// that records the transaction each lookup runs in
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PrimaryReadsTest {
+
+    static final int POOL_SIZE = 2;
+
+    private static final Integer EMPLOYEE_ID = 1;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private EmployeeRepository employeeRepository;
+
+    @MockitoBean
+    private SalaryStatisticsService salaryStatisticsService;
+
+    private final List<Fill> fills = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.EMPLOYEES).clear();
+
+        Employee employee = Employee.builder()
+                .empNo(EMPLOYEE_ID)
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .firstName("John")
+                .lastName("Doe")
+                .gender(Gender.M)
+                .hireDate(LocalDate.of(2020, 1, 1))
+                .build();
+        willAnswer(invocation -> {
+            fills.add(new Fill(TransactionSynchronizationManager.isCurrentTransactionReadOnly(), currentEntityManager()));
+            return Optional.of(employee);
+        }).given(employeeRepository).findById(EMPLOYEE_ID);
+    }
+
+    @Test
+    void getEmployeeByIdFromReadOnlyTransactionWithoutReplicasJoinsIt() {
+
+        EntityManager caller = readOnly().execute(status -> {
+            employeeService.getEmployeeById(EMPLOYEE_ID);
+            return currentEntityManager();
+        });
+
+        assertThat(fills).hasSize(1);
+        assertThat(fills.get(0).entityManager()).isSameAs(caller);
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES).get(EMPLOYEE_ID)).isNotNull();
+    }
+
+    @Test
+    void existsByIdFromReadOnlyTransactionWithoutReplicasJoinsIt() {
+
+        EntityManager caller = readOnly().execute(status -> {
+            assertThat(employeeService.existsById(EMPLOYEE_ID)).isTrue();
+            return currentEntityManager();
+        });
+
+        assertThat(fills).hasSize(1);
+        assertThat(fills.get(0).entityManager()).isSameAs(caller);
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES).get(EMPLOYEE_ID)).isNotNull();
+    }
+
+    @Test
+    void fillFromReadOnlyTransactionOnReplicaRunsInNewReadWriteTransaction() throws Exception {
+
+        try (ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:primary-reads-primary"),
+                Map.of("replica", new DriverManagerDataSource("jdbc:h2:mem:primary-reads-replica")),
+                Duration.ofSeconds(10), "SELECT 0")) {
+            routing.checkReplicas();
+            DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+            beanFactory.registerSingleton("dataSource", routing);
+            PrimaryReads primaryReads = new PrimaryReads(transactionManager,
+                    beanFactory.getBeanProvider(ReplicaRoutingDataSource.class));
+
+            EntityManager caller = readOnly().execute(status -> {
+                primaryReads.read(() -> employeeRepository.findById(EMPLOYEE_ID));
+                return currentEntityManager();
+            });
+
+            assertThat(fills).hasSize(1);
+            assertThat(fills.get(0).readOnly()).isFalse();
+            assertThat(fills.get(0).entityManager()).isNotSameAs(caller);
+        }
+    }
+
+    @Test
+    void concurrentMissesFromReadOnlyTransactionsFitInThePool() {
+
+        // Every pooled connection is held by a read-only caller before any of them misses; a fill that
+        // needed a connection of its own would wait for the connection timeout and fail
+        CyclicBarrier allConnectionsHeld = new CyclicBarrier(POOL_SIZE);
+        List<CompletableFuture<EmployeeDTO>> misses = IntStream.range(0, POOL_SIZE)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> readOnly().execute(status -> {
+                    currentEntityManager().createNativeQuery("SELECT 1").getSingleResult();
+                    await(allConnectionsHeld);
+                    return employeeService.getEmployeeById(EMPLOYEE_ID);
+                })))
+                .toList();
+
+        assertThat(misses).allSatisfy(miss ->
+                assertThat(miss.get(10, TimeUnit.SECONDS).getEmpNo()).isEqualTo(EMPLOYEE_ID));
+    }
+
+    @Test
+    void fillFromReadWriteTransactionJoinsIt() {
+
+        // Already on the primary, so no second connection is taken
+        EntityManager caller = new TransactionTemplate(transactionManager).execute(status -> {
+            assertThat(employeeService.existsById(EMPLOYEE_ID)).isTrue();
+            return currentEntityManager();
+        });
+
+        assertThat(fills).hasSize(1);
+        assertThat(fills.get(0).readOnly()).isFalse();
+        assertThat(fills.get(0).entityManager()).isSameAs(caller);
+    }
+
+    @Test
+    void fillWithoutTransactionRunsReadWrite() {
+
+        employeeService.getEmployeeById(EMPLOYEE_ID);
+
+        assertThat(fills).hasSize(1);
+        assertThat(fills.get(0).readOnly()).isFalse();
+        assertThat(fills.get(0).entityManager()).isNotNull();
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly;
+    }
+
+    // The session bound to the current transaction, the same object for every participant in it
+    private EntityManager currentEntityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                .unwrap(EntityManager.class);
+    }
+
+    private record Fill(boolean readOnly, EntityManager entityManager) {
+    }
+}
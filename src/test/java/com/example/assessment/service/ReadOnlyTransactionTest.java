@@ -0,0 +1,209 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.assessment.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.FlushMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.ConfigurableTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * What {@code @Transactional(readOnly = true)} buys the query methods, checked just before commit from
+ * inside the service's own transaction: entities are loaded read-only with no loaded-state snapshot to
+ * dirty-check, the session never flushes, and the JDBC connection is marked read-only.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({EmployeeProfileService.class, ReadOnlyTransactionTest.ReadOnlyHintConfig.class})
+// No test-managed transaction: the service opens its own, as it does behind a controller
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReadOnlyTransactionTest {
+
+    private static final int EMPLOYEE_COUNT = 20;
+    // Per employee: itself, 3 salaries, 2 titles, 1 department and 1 manager assignment
+    private static final int ENTITY_COUNT = EMPLOYEE_COUNT * 8;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EmployeeProfileService employeeProfileService;
+
+    private Statistics statistics;
+    private PersistenceContextAtCommit atCommit;
+
+    private final TransactionExecutionListener beforeCommit = new TransactionExecutionListener() {
+        @Override
+        public void beforeCommit(TransactionExecution transaction) {
+            SessionImplementor session = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                    .unwrap(SessionImplementor.class);
+            List<EntityEntry> entries = Arrays.stream(session.getPersistenceContextInternal().reentrantSafeEntityEntries())
+                    .map(Map.Entry::getValue)
+                    .toList();
+            atCommit = new PersistenceContextAtCommit(
+                    entries.size(),
+                    entries.stream().filter(EntityEntry::isReadOnly).count(),
+                    entries.stream().filter(entry -> entry.getLoadedState() != null).count(),
+                    session.getHibernateFlushMode(),
+                    session.doReturningWork(Connection::isReadOnly));
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            entityManager.persist(Department.builder().deptNo("d001").deptName("Marketing").build());
+            entityManager.persist(Department.builder().deptNo("d002").deptName("Finance").build());
+            for (int empNo = 1; empNo <= EMPLOYEE_COUNT; empNo++) {
+                entityManager.persist(Employee.builder()
+                        .empNo(empNo)
+                        .birthDate(LocalDate.of(1980, 1, 1))
+                        .firstName("First" + empNo)
+                        .lastName("Last" + empNo)
+                        .gender(Gender.F)
+                        .hireDate(LocalDate.of(2000, 1, 1))
+                        .build());
+                for (int year = 2000; year < 2003; year++) {
+                    entityManager.persist(Salary.builder().empNo(empNo).salary(50000 + year)
+                            .fromDate(LocalDate.of(year, 1, 1)).toDate(LocalDate.of(year + 1, 1, 1)).build());
+                }
+                entityManager.persist(Title.builder().empNo(empNo).title("Engineer")
+                        .fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(2005, 1, 1)).build());
+                entityManager.persist(Title.builder().empNo(empNo).title("Senior Engineer")
+                        .fromDate(LocalDate.of(2005, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+                entityManager.persist(DeptEmp.builder().empNo(empNo).deptNo("d001")
+                        .fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+                entityManager.persist(DeptManager.builder().empNo(empNo).deptNo("d002")
+                        .fromDate(LocalDate.of(2010, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+            }
+        });
+
+        ((ConfigurableTransactionManager) transactionManager).addListener(beforeCommit);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ((ConfigurableTransactionManager) transactionManager).getTransactionExecutionListeners().remove(beforeCommit);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            for (String entity : List.of("DeptManager", "DeptEmp", "Title", "Salary", "Employee", "Department")) {
+                entityManager.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void queryMethodLoadsEntitiesWithoutSnapshots() {
+
+        employeeProfileService.getEmployeesFull(IntStream.rangeClosed(1, EMPLOYEE_COUNT).boxed().toList());
+
+        assertThat(atCommit.entities()).isEqualTo(ENTITY_COUNT);
+        assertThat(atCommit.readOnlyEntities()).isEqualTo(ENTITY_COUNT);
+        assertThat(atCommit.snapshots()).isZero();
+        assertThat(atCommit.flushMode()).isEqualTo(FlushMode.MANUAL);
+        assertThat(atCommit.connectionReadOnly()).isTrue();
+        assertThat(statistics.getFlushCount()).isZero();
+    }
+
+    @Test
+    void readWriteTransactionKeepsSnapshots() {
+
+        // The same query joined into a read-write transaction, as every query method used to run
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                employeeProfileService.getEmployeesFull(IntStream.rangeClosed(1, EMPLOYEE_COUNT).boxed().toList()));
+
+        assertThat(atCommit.entities()).isEqualTo(ENTITY_COUNT);
+        assertThat(atCommit.readOnlyEntities()).isZero();
+        assertThat(atCommit.snapshots()).isEqualTo(ENTITY_COUNT);
+        assertThat(atCommit.flushMode()).isEqualTo(FlushMode.AUTO);
+        assertThat(atCommit.connectionReadOnly()).isFalse();
+        assertThat(statistics.getFlushCount()).isEqualTo(1);
+    }
+
+    // H2 accepts Connection.setReadOnly but ignores it, so the hint is recorded on the way through
+    @TestConfiguration
+    static class ReadOnlyHintConfig {
+
+        @Bean
+        static BeanPostProcessor readOnlyHintRecorder() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return new DelegatingDataSource(dataSource) {
+                            @Override
+                            public Connection getConnection() throws SQLException {
+                                return recordingReadOnly(super.getConnection());
+                            }
+                        };
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private static Connection recordingReadOnly(Connection connection) {
+            AtomicBoolean readOnly = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("isReadOnly")) {
+                            return readOnly.get();
+                        }
+                        if (method.getName().equals("setReadOnly")) {
+                            readOnly.set((Boolean) args[0]);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    });
+        }
+    }
+
+    private record PersistenceContextAtCommit(long entities, long readOnlyEntities, long snapshots,
+                                              FlushMode flushMode, boolean connectionReadOnly) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+
+import com.example.assessment.dto.DepartmentDTO;
+import com.example.assessment.dto.TitleDTO;
+import com.example.assessment.model.Department;
+import com.example.assessment.model.Employee;
+import com.example.assessment.model.Gender;
+import com.example.assessment.model.Title;
+import com.example.assessment.repository.DepartmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Departments and the title list come from the second-level cache after the first read, and writes through
+ * the services invalidate what they change.
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({DepartmentService.class, PrimaryReads.class, TitleService.class, SalaryStatisticsService.class})
+// Each service call runs in its own transaction, so a repeat read starts with an empty session
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReferenceDataCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private TitleService titleService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @MockitoBean
+    private EmployeeService employeeService;
+
+    @MockitoBean
+    private OrgSnapshotLoader orgSnapshotLoader;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            entityManager.persist(Department.builder().deptNo("d001").deptName("Marketing").build());
+            entityManager.persist(Department.builder().deptNo("d002").deptName("Finance").build());
+            entityManager.persist(Employee.builder()
+                    .empNo(1)
+                    .birthDate(LocalDate.of(1980, 1, 1))
+                    .firstName("First")
+                    .lastName("Last")
+                    .gender(Gender.F)
+                    .hireDate(LocalDate.of(2000, 1, 1))
+                    .build());
+            entityManager.persist(Title.builder().empNo(1).title("Engineer")
+                    .fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(2005, 1, 1)).build());
+        });
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            for (String entity : List.of("Title", "Employee", "Department")) {
+                entityManager.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void departmentIsLoadedOnce() {
+
+        departmentService.getDepartmentById("d001");
+        DepartmentDTO department = departmentService.getDepartmentById("d001");
+
+        assertThat(department.getDeptName()).isEqualTo("Marketing");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("departments").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void departmentLookupsAreServedFromQueryCache() {
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(departmentRepository.existsById("d002")).isTrue();
+            assertThat(departmentRepository.existsByDeptName("Finance")).isTrue();
+            assertThat(departmentRepository.findByDeptName("Finance")).isPresent();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getQueryRegionStatistics("department-queries").getHitCount()).isEqualTo(6);
+    }
+
+    @Test
+    void departmentUpdateInvalidatesCachedLookups() {
+
+        assertThat(departmentRepository.findByDeptName("Finance")).isPresent();
+        assertThat(departmentService.getDepartmentById("d002").getDeptName()).isEqualTo("Finance");
+
+        departmentService.updateDepartment("d002", DepartmentDTO.builder().deptName("Accounting").build());
+
+        assertThat(departmentRepository.findByDeptName("Finance")).isEmpty();
+        assertThat(departmentRepository.findByDeptName("Accounting")).isPresent();
+        assertThat(departmentService.getDepartmentById("d002").getDeptName()).isEqualTo("Accounting");
+    }
+
+    @Test
+    void deletedDepartmentNoLongerExists() {
+
+        assertThat(departmentRepository.existsById("d001")).isTrue();
+
+        departmentService.deleteDepartment("d001");
+
+        assertThat(departmentRepository.existsById("d001")).isFalse();
+    }
+
+    @Test
+    void titleNamesAreCachedUntilTitleWrite() {
+        given(employeeService.existsById(anyInt())).willReturn(true);
+
+        assertThat(titleService.getTitleNames()).containsExactly("Engineer");
+        assertThat(titleService.getTitleNames()).containsExactly("Engineer");
+        assertThat(statistics.getQueryRegionStatistics("title-queries").getHitCount()).isEqualTo(1);
+
+        titleService.createTitle(TitleDTO.builder().empNo(1).title("Senior Engineer")
+                .fromDate(LocalDate.of(2005, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+
+        assertThat(titleService.getTitleNames()).containsExactly("Engineer", "Senior Engineer");
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.example.assessment.dto.CursorPageDTO;
+import com.example.assessment.dto.DataTablesRequestDTO;
+import com.example.assessment.dto.DataTablesResponseDTO;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.SalaryStatsDTO;
+import com.example.assessment.dto.TopEarnerDTO;
+import com.example.assessment.exception.BadRequestException;
+import com.example.assessment.model.Department;
+import com.example.assessment.model.DeptEmp;
+import com.example.assessment.model.Employee;
+import com.example.assessment.model.Gender;
+import com.example.assessment.model.Salary;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({SalaryService.class, SalaryStatisticsService.class})
+public class SalaryServiceProjectionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @MockitoBean
+    private EmployeeService employeeService;
+
+    @MockitoBean
+    private OrgSnapshotLoader orgSnapshotLoader;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int empNo = 1; empNo <= 3; empNo++) {
+            entityManager.persist(Employee.builder()
+                    .empNo(empNo)
+                    .birthDate(LocalDate.of(1980, 1, 1))
+                    .firstName("First" + empNo)
+                    .lastName("Last" + empNo)
+                    .gender(Gender.M)
+                    .hireDate(LocalDate.of(2000, 1, 1))
+                    .build());
+            for (int year = 2000; year < 2003; year++) {
+                entityManager.persist(Salary.builder().empNo(empNo).salary(50000 + year)
+                        .fromDate(LocalDate.of(year, 1, 1)).toDate(LocalDate.of(year + 1, 1, 1)).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getSalariesPageWalksEveryRowWithoutLoadingEntities() {
+
+        List<SalaryDTO> salaries = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<SalaryDTO> page = salaryService.getSalariesPage(cursor, 4, "salary,desc");
+            salaries.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(salaries).hasSize(9);
+        assertThat(salaries).extracting(SalaryDTO::getSalary).isSortedAccordingTo((a, b) -> b - a);
+        assertThat(salaries.get(0)).isEqualTo(SalaryDTO.builder().empNo(1).salary(52002)
+                .fromDate(LocalDate.of(2002, 1, 1)).toDate(LocalDate.of(2003, 1, 1)).build());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getSalariesForDataTableProjectsFilteredPage() {
+
+        DataTablesRequestDTO request = DataTablesRequestDTO.builder()
+                .draw(1).start(0).length(2).search("2").orders(List.of())
+                .build();
+
+        DataTablesResponseDTO<SalaryDTO> response = salaryService.getSalariesForDataTable(request);
+
+        assertThat(response.getRecordsFiltered()).isEqualTo(3);
+        assertThat(response.getRecordsTotal()).isEqualTo(9);
+        assertThat(response.getData()).extracting(SalaryDTO::getFromDate)
+                .containsExactly(LocalDate.of(2000, 1, 1), LocalDate.of(2001, 1, 1));
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getSalariesForDataTableStartsAtAnyRow() {
+
+        // DataTables sends a row offset; 1 is not a multiple of the length
+        DataTablesRequestDTO request = DataTablesRequestDTO.builder()
+                .draw(2).start(1).length(2).search("2").orders(List.of())
+                .build();
+
+        DataTablesResponseDTO<SalaryDTO> response = salaryService.getSalariesForDataTable(request);
+
+        assertThat(response.getRecordsFiltered()).isEqualTo(3);
+        assertThat(response.getData()).extracting(SalaryDTO::getFromDate)
+                .containsExactly(LocalDate.of(2001, 1, 1), LocalDate.of(2002, 1, 1));
+    }
+
+    @Test
+    void getSalariesForDataTableCountsNoFurtherThanMaxRows() {
+
+        for (int day = 0; day < DataTablesPaging.MAX_ROWS; day++) {
+            entityManager.persist(Salary.builder().empNo(1).salary(40000)
+                    .fromDate(LocalDate.of(1970, 1, 1).plusDays(day)).toDate(LocalDate.of(1970, 1, 2).plusDays(day)).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        DataTablesResponseDTO<SalaryDTO> response = salaryService.getSalariesForDataTable(DataTablesRequestDTO.builder()
+                .draw(1).start(0).length(10).orders(List.of()).build());
+        DataTablesResponseDTO<SalaryDTO> lastPage = salaryService.getSalariesForDataTable(DataTablesRequestDTO.builder()
+                .draw(2).start(DataTablesPaging.MAX_ROWS - 10).length(10).orders(List.of()).build());
+
+        assertThat(response.getRecordsFiltered()).isEqualTo(DataTablesPaging.MAX_ROWS);
+        assertThat(response.getRecordsTotal()).isEqualTo(DataTablesPaging.MAX_ROWS);
+        assertThat(lastPage.getData()).hasSize(10);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThatThrownBy(() -> salaryService.getSalariesForDataTable(DataTablesRequestDTO.builder()
+                .draw(3).start(DataTablesPaging.MAX_ROWS).length(10).orders(List.of()).build()))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void getSalariesByEmployeeProjectsNewestFirst() {
+
+        List<SalaryDTO> salaries = salaryService.getSalariesByEmployee(2);
+
+        assertThat(salaries).extracting(SalaryDTO::getSalary).containsExactly(52002, 52001, 52000);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getCurrentSalaryStatsForDepartmentCountsCurrentAssignmentsOnly() {
+
+        entityManager.persist(Department.builder().deptNo("d001").deptName("Marketing").build());
+        entityManager.persist(DeptEmp.builder().empNo(1).deptNo("d001").fromDate(LocalDate.of(2000, 1, 1)).build());
+        entityManager.persist(DeptEmp.builder().empNo(2).deptNo("d001")
+                .fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+        entityManager.persist(DeptEmp.builder().empNo(3).deptNo("d001")
+                .fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(2001, 1, 1)).build());
+        for (int empNo = 1; empNo <= 3; empNo++) {
+            entityManager.persist(Salary.builder().empNo(empNo).salary(50000 + empNo * 10000)
+                    .fromDate(LocalDate.of(2003, 1, 1)).toDate(empNo == 1 ? null : LocalDate.of(9999, 1, 1)).build());
+        }
+        entityManager.flush();
+
+        SalaryStatsDTO stats = salaryService.getCurrentSalaryStatsForDepartment("d001");
+
+        assertThat(stats).isEqualTo(new SalaryStatsDTO(2L, 60000, 65000.0, 70000));
+    }
+
+    @Test
+    void getTopEarnersRanksCurrentSalariesWithinEachDepartment() {
+
+        persistCurrentSalaries();
+        entityManager.persist(Department.builder().deptNo("d002").deptName("Sales").build());
+        entityManager.persist(DeptEmp.builder().empNo(3).deptNo("d002").fromDate(LocalDate.of(2003, 1, 1)).build());
+        entityManager.persist(DeptEmp.builder().empNo(2).deptNo("d002")
+                .fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(2001, 1, 1)).build());
+        entityManager.flush();
+
+        assertThat(salaryService.getTopEarners(null, 2))
+                .extracting(TopEarnerDTO::getDeptNo, TopEarnerDTO::getRank, TopEarnerDTO::getEmpNo, TopEarnerDTO::getSalary)
+                .containsExactly(tuple("d001", 1L, 2, 80000), tuple("d001", 2L, 3, 70000), tuple("d002", 1L, 3, 70000));
+        assertThat(salaryService.getTopEarners("d002", null)).extracting(TopEarnerDTO::getEmpNo).containsExactly(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getCurrentSalariesInRangeWalksCurrentRowsOnly() {
+
+        persistCurrentSalaries();
+        entityManager.flush();
+
+        List<SalaryDTO> salaries = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<SalaryDTO> page = salaryService.getCurrentSalariesInRange(50000, 75000, cursor, 1);
+            salaries.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(salaries).extracting(SalaryDTO::getEmpNo, SalaryDTO::getSalary)
+                .containsExactly(tuple(1, 60000), tuple(3, 70000));
+        assertThat(salaryService.getCurrentSalariesInRange(0, 100000, null, null).getItems())
+                .extracting(SalaryDTO::getSalary).containsExactly(60000, 70000, 80000);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    // Current salaries of 60000, 80000 (ending in the future) and 70000, all three employees in d001
+    private void persistCurrentSalaries() {
+        entityManager.persist(Department.builder().deptNo("d001").deptName("Marketing").build());
+        int[] amounts = {60000, 80000, 70000};
+        for (int empNo = 1; empNo <= 3; empNo++) {
+            entityManager.persist(DeptEmp.builder().empNo(empNo).deptNo("d001").fromDate(LocalDate.of(2003, 1, 1)).build());
+            entityManager.persist(Salary.builder().empNo(empNo).salary(amounts[empNo - 1]).fromDate(LocalDate.of(2003, 1, 1))
+                    .toDate(empNo == 2 ? LocalDate.of(9999, 1, 1) : null).build());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class SalarySketchTest {
+
+    private static final double ACCURACY = 0.01;
+
+    @Test
+    void quantilesStayWithinRelativeError() {
+        Random random = new Random(42);
+        int[] salaries = new int[100_000];
+        SalarySketch sketch = new SalarySketch(ACCURACY);
+        for (int i = 0; i < salaries.length; i++) {
+            // Skewed like real pay: most near the bottom, a long tail above
+            salaries[i] = 38_000 + (int) (Math.pow(random.nextDouble(), 3) * 120_000);
+            sketch.add(salaries[i]);
+        }
+        Arrays.sort(salaries);
+
+        for (double quantile : new double[]{0.0, 0.5, 0.9, 0.99, 1.0}) {
+            int exact = salaries[(int) (quantile * (salaries.length - 1))];
+            assertThat((double) sketch.quantile(quantile)).isCloseTo(exact, within(exact * ACCURACY));
+        }
+        assertThat(sketch.count()).isEqualTo(salaries.length);
+    }
+
+    @Test
+    void removedValuesAreGoneExactly() {
+        SalarySketch sketch = new SalarySketch(ACCURACY);
+        sketch.add(40_000);
+        sketch.add(60_000);
+        sketch.add(150_000);
+
+        assertThat(sketch.remove(150_000)).isTrue();
+        assertThat(sketch.remove(90_000)).isFalse();
+
+        assertThat(sketch.count()).isEqualTo(2);
+        assertThat((double) sketch.quantile(1.0)).isCloseTo(60_000, within(600.0));
+        sketch.remove(40_000);
+        sketch.remove(60_000);
+        assertThat(sketch.quantile(0.5)).isNull();
+    }
+
+    @Test
+    void mergeAddsCounts() {
+        SalarySketch low = new SalarySketch(ACCURACY);
+        SalarySketch high = new SalarySketch(ACCURACY);
+        for (int salary = 40_000; salary < 50_000; salary += 100) {
+            low.add(salary);
+            high.add(salary + 100_000);
+        }
+
+        low.merge(high);
+
+        assertThat(low.count()).isEqualTo(200);
+        assertThat((double) low.quantile(0.25)).isCloseTo(45_000, within(450.0));
+        assertThat((double) low.quantile(0.75)).isCloseTo(145_000, within(1450.0));
+    }
+}
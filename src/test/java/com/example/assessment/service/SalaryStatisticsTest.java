@@ -0,0 +1,195 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.config.CacheInvalidator;
+import com.example.assessment.dto.DeptEmpDTO;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.SalaryPercentilesDTO;
+import com.example.assessment.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.cache.cache-names=employees,current-managers,department-summary,org-snapshot"
+})
+@Import({CacheConfig.class, SalaryService.class, SalaryStatisticsService.class, DeptEmpService.class,
+        OrgSnapshotLoader.class})
+// The service transactions commit, so the sketches see deltas as they would behind a controller
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SalaryStatisticsTest {
+
+    private static final LocalDate PAST = LocalDate.of(2000, 1, 1);
+    private static final LocalDate ENDED = LocalDate.of(2005, 1, 1);
+    private static final LocalDate OPEN = LocalDate.of(9999, 1, 1);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SalaryStatisticsService salaryStatisticsService;
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @Autowired
+    private DeptEmpService deptEmpService;
+
+    @MockitoBean
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            entityManager.persist(Department.builder().deptNo("d001").deptName("Development").build());
+            entityManager.persist(Department.builder().deptNo("d002").deptName("Sales").build());
+            for (int empNo = 1; empNo <= 4; empNo++) {
+                entityManager.persist(employee(empNo));
+                entityManager.persist(DeptEmp.builder().empNo(empNo).deptNo(empNo < 4 ? "d001" : "d002")
+                        .fromDate(PAST).toDate(OPEN).build());
+                entityManager.persist(Salary.builder().empNo(empNo).salary(40000 + empNo * 10000)
+                        .fromDate(ENDED).toDate(OPEN).build());
+                entityManager.persist(Title.builder().empNo(empNo).title(empNo < 3 ? "Engineer" : "Manager")
+                        .fromDate(PAST).toDate(OPEN).build());
+            }
+            // Past salaries are not current and count nowhere
+            entityManager.persist(Salary.builder().empNo(1).salary(20000).fromDate(PAST).toDate(ENDED.minusDays(1)).build());
+        });
+        salaryStatisticsService.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            for (String entity : List.of("DeptEmp", "Title", "Salary", "Employee", "Department")) {
+                entityManager.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void percentilesPerDepartmentAndTitle() throws InterruptedException {
+        awaitCount("d001", 3);
+
+        SalaryPercentilesDTO d001 = percentiles("d001");
+        assertThat((double) d001.getP50()).isCloseTo(60000, within(600.0));
+        // Lower nearest rank: with three salaries anything below the top one takes the middle
+        assertThat((double) d001.getP99()).isCloseTo(60000, within(600.0));
+
+        List<SalaryPercentilesDTO> engineers = salaryStatisticsService.getPercentiles(null, "Engineer");
+        assertThat(engineers).singleElement().satisfies(engineer -> {
+            assertThat(engineer.getCount()).isEqualTo(2);
+            assertThat((double) engineer.getP90()).isCloseTo(50000, within(500.0));
+        });
+        assertThat(salaryStatisticsService.getPercentiles("d009", null)).isEmpty();
+        assertThat(salaryStatisticsService.getPercentiles(null, null)).extracting(
+                group -> group.getDeptNo() != null ? group.getDeptNo() : group.getTitle())
+                .containsExactly("d001", "d002", "Engineer", "Manager");
+    }
+
+    @Test
+    void salaryWritesAreAppliedOnCommit() throws InterruptedException {
+        given(employeeService.existsById(anyInt())).willReturn(true);
+        awaitCount("d001", 3);
+
+        salaryService.updateSalary(2, "2005-01-01", SalaryDTO.builder()
+                .empNo(2).salary(120000).fromDate(ENDED).toDate(OPEN).build());
+        assertThat(percentiles("d001").getCount()).isEqualTo(3);
+        assertThat((double) percentiles("d001").getP50()).isCloseTo(70000, within(700.0));
+
+        salaryService.deleteSalary(1, "2005-01-01");
+        assertThat(percentiles("d001").getCount()).isEqualTo(2);
+
+        salaryService.createSalary(SalaryDTO.builder().empNo(4).salary(90000).fromDate(LocalDate.of(2010, 1, 1))
+                .toDate(OPEN).build());
+        assertThat(percentiles("d002").getCount()).isEqualTo(2);
+
+        // An ended salary is not current and leaves the sketches as they are
+        salaryService.createSalary(SalaryDTO.builder().empNo(2).salary(10000).fromDate(PAST).toDate(LocalDate.of(2001, 1, 1))
+                .build());
+        assertThat(percentiles("d001").getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void departmentMoveRebuildsSketches() throws InterruptedException {
+        awaitCount("d001", 3);
+
+        deptEmpService.updateDeptEmp(1, "d001", DeptEmpDTO.builder()
+                .empNo(1).deptNo("d001").fromDate(PAST).toDate(ENDED).build());
+
+        awaitCount("d001", 2);
+        assertThat(percentiles("d002").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ownNotificationsDoNotRebuildButOthersDo() throws InterruptedException {
+        awaitCount("d002", 1);
+        // Lets the rebuild setUp queued finish before the write below
+        Thread.sleep(200);
+        // Written around SalaryService, so only a notification can bring it into the sketches
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory).persist(
+                        Salary.builder().empNo(4).salary(90000).fromDate(LocalDate.of(2010, 1, 1)).toDate(OPEN).build()));
+
+        salaryStatisticsService.invalidateApplied("salaries", Set.of(CacheInvalidator.ALL_KEYS));
+        Thread.sleep(200);
+        assertThat(percentiles("d002").getCount()).isEqualTo(1);
+
+        salaryStatisticsService.invalidate("salaries", Set.of(CacheInvalidator.ALL_KEYS));
+        awaitCount("d002", 2);
+    }
+
+    private SalaryPercentilesDTO percentiles(String deptNo) {
+        return salaryStatisticsService.getPercentiles(deptNo, null).getFirst();
+    }
+
+    // Rebuilds run in the background
+    private void awaitCount(String deptNo, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            List<SalaryPercentilesDTO> groups = salaryStatisticsService.getPercentiles(deptNo, null);
+            if (!groups.isEmpty() && groups.getFirst().getCount() == count) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        assertThat(percentiles(deptNo).getCount()).isEqualTo(count);
+    }
+
+    private static Employee employee(int empNo) {
+        return Employee.builder()
+                .empNo(empNo)
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .firstName("First" + empNo)
+                .lastName("Last" + empNo)
+                .gender(Gender.M)
+                .hireDate(LocalDate.of(2000, 1, 1))
+                .build();
+    }
+}
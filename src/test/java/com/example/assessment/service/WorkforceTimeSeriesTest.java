@@ -0,0 +1,181 @@
+package com.example.assessment.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+
+import com.example.assessment.config.CacheConfig;
+import com.example.assessment.dto.DepartmentSummaryDTO;
+import com.example.assessment.dto.SalaryDTO;
+import com.example.assessment.dto.WorkforceTimeSeriesDTO;
+import com.example.assessment.exception.BadRequestException;
+import com.example.assessment.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.cache.cache-names=employees,current-managers,department-summary,org-snapshot,workforce-timeseries"
+})
+@Import({CacheConfig.class, OrgSnapshotLoader.class, OrgSnapshotService.class, WorkforceTimeSeriesEngine.class,
+        WorkforceAnalyticsService.class, SalaryService.class, SalaryStatisticsService.class})
+// The service transactions commit, so the cache sees evictions as it would behind a controller
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class WorkforceTimeSeriesTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WorkforceAnalyticsService workforceAnalyticsService;
+
+    @Autowired
+    private OrgSnapshotService orgSnapshotService;
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate past = LocalDate.of(2000, 1, 1);
+        LocalDate ended = LocalDate.of(2005, 1, 1);
+        LocalDate open = LocalDate.of(9999, 1, 1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            entityManager.persist(Department.builder().deptNo("d001").deptName("Development").build());
+            entityManager.persist(Department.builder().deptNo("d002").deptName("Sales").build());
+            for (int empNo = 1; empNo <= 4; empNo++) {
+                entityManager.persist(employee(empNo));
+            }
+            // Employee 3 moves to d002 at the start of a month, employee 4 joins d002 mid-month and leaves
+            entityManager.persist(DeptEmp.builder().empNo(1).deptNo("d001").fromDate(past).toDate(open).build());
+            entityManager.persist(DeptEmp.builder().empNo(2).deptNo("d001").fromDate(past).toDate(open).build());
+            entityManager.persist(DeptEmp.builder().empNo(3).deptNo("d001").fromDate(past).toDate(ended).build());
+            entityManager.persist(DeptEmp.builder().empNo(3).deptNo("d002").fromDate(ended).toDate(open).build());
+            entityManager.persist(DeptEmp.builder().empNo(4).deptNo("d002")
+                    .fromDate(LocalDate.of(2006, 3, 15)).toDate(LocalDate.of(2008, 6, 30)).build());
+            // Raises hand over on the day the next salary starts, as in the employees sample data
+            entityManager.persist(Salary.builder().empNo(1).salary(40000).fromDate(past).toDate(ended).build());
+            entityManager.persist(Salary.builder().empNo(1).salary(60000).fromDate(ended).toDate(open).build());
+            entityManager.persist(Salary.builder().empNo(2).salary(70000).fromDate(past).toDate(open).build());
+            entityManager.persist(Salary.builder().empNo(3).salary(90000).fromDate(past).toDate(open).build());
+            entityManager.persist(Salary.builder().empNo(4).salary(50000)
+                    .fromDate(LocalDate.of(2006, 3, 15)).toDate(LocalDate.of(2007, 7, 1)).build());
+            entityManager.persist(Salary.builder().empNo(4).salary(55000)
+                    .fromDate(LocalDate.of(2007, 7, 1)).toDate(LocalDate.of(2008, 6, 30)).build());
+        });
+
+        cacheManager.getCache(CacheConfig.ORG_SNAPSHOT).clear();
+        cacheManager.getCache(CacheConfig.WORKFORCE_TIMESERIES).clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            for (String entity : List.of("DeptEmp", "Salary", "Employee", "Department")) {
+                entityManager.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void everyPeriodMatchesOrgAsOf() {
+
+        WorkforceTimeSeriesDTO headcount = workforceAnalyticsService.getTimeSeries("headcount", "month");
+        WorkforceTimeSeriesDTO payroll = workforceAnalyticsService.getTimeSeries("PAYROLL", null);
+
+        assertThat(headcount.getPeriods().getFirst()).isEqualTo(LocalDate.of(2000, 1, 1));
+        assertThat(headcount.getPeriods().getLast()).isEqualTo(LocalDate.now().withDayOfMonth(1));
+        assertThat(payroll.getPeriods()).isEqualTo(headcount.getPeriods());
+        for (int period = 0; period < headcount.getPeriods().size(); period++) {
+            List<DepartmentSummaryDTO> asOf = orgSnapshotService
+                    .getOrgAsOf(headcount.getPeriods().get(period).toString()).getDepartments();
+            for (int dept = 0; dept < asOf.size(); dept++) {
+                Long payrollTotal = asOf.get(dept).getPayrollTotal();
+                assertThat(headcount.getDepartments().get(dept).getValues().get(period))
+                        .isEqualTo(asOf.get(dept).getHeadcount());
+                assertThat(payroll.getDepartments().get(dept).getValues().get(period))
+                        .isEqualTo(payrollTotal == null ? 0L : payrollTotal);
+            }
+        }
+    }
+
+    @Test
+    void quartersAndYearsAreSampledOnTheirFirstDay() {
+
+        WorkforceTimeSeriesDTO quarters = workforceAnalyticsService.getTimeSeries("headcount", "quarter");
+        WorkforceTimeSeriesDTO years = workforceAnalyticsService.getTimeSeries("payroll", "year");
+
+        assertThat(quarters.getPeriods()).allMatch(period -> period.getDayOfMonth() == 1 && period.getMonthValue() % 3 == 1);
+        int q3of2006 = quarters.getPeriods().indexOf(LocalDate.of(2006, 7, 1));
+        assertThat(quarters.getDepartments().get(1).getValues().get(q3of2006)).isEqualTo(2L);
+        int year2008 = years.getPeriods().indexOf(LocalDate.of(2008, 1, 1));
+        assertThat(years.getDepartments().get(1).getValues().get(year2008)).isEqualTo(145000L);
+    }
+
+    @Test
+    void seriesIsCachedPerSnapshotVersion() {
+        given(employeeService.existsById(anyInt())).willReturn(true);
+
+        WorkforceTimeSeriesDTO first = workforceAnalyticsService.getTimeSeries("payroll", "year");
+        assertThat(workforceAnalyticsService.getTimeSeries("payroll", "year")).isSameAs(first);
+
+        salaryService.updateSalary(2, "2000-01-01", SalaryDTO.builder()
+                .empNo(2).salary(80000).fromDate(LocalDate.of(2000, 1, 1)).toDate(LocalDate.of(9999, 1, 1)).build());
+
+        // The write patches the loaded snapshot, so the new series comes from the same load
+        WorkforceTimeSeriesDTO patched = workforceAnalyticsService.getTimeSeries("payroll", "year");
+        assertThat(patched).isNotSameAs(first);
+        assertThat(patched.getLoadedAt()).isEqualTo(first.getLoadedAt());
+        assertThat(patched.getDepartments().getFirst().getValues().getLast())
+                .isEqualTo(first.getDepartments().getFirst().getValues().getLast() + 10000);
+    }
+
+    @Test
+    void unsupportedMetricOrGranularityIsRejected() {
+
+        assertThatThrownBy(() -> workforceAnalyticsService.getTimeSeries("turnover", "month"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> workforceAnalyticsService.getTimeSeries("headcount", "week"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static Employee employee(int empNo) {
+        return Employee.builder()
+                .empNo(empNo)
+                .birthDate(LocalDate.of(1980, 1, 1))
+                .firstName("First" + empNo)
+                .lastName("Last" + empNo)
+                .gender(Gender.M)
+                .hireDate(LocalDate.of(2000, 1, 1))
+                .build();
+    }
+}